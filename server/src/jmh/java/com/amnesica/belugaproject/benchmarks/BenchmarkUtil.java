@@ -0,0 +1,169 @@
+package com.amnesica.belugaproject.benchmarks;
+
+import com.amnesica.belugaproject.config.Feeder;
+import com.amnesica.belugaproject.config.FeederMapping;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+public final class BenchmarkUtil {
+
+  private BenchmarkUtil() {
+  }
+
+  /**
+   * Setzt ein per @Autowired injiziertes Feld ohne Spring-Kontext
+   */
+  public static void injectField(Object target, String fieldName, Object value) {
+    Field field = ReflectionUtils.findField(target.getClass(), fieldName);
+    if (field == null) throw new IllegalArgumentException("Field " + fieldName + " not found");
+    ReflectionUtils.makeAccessible(field);
+    ReflectionUtils.setField(field, target, value);
+  }
+
+  /**
+   * Erstellt einen adsbx-Feeder mit dem Mapping aus prod/config/feederMappings/adsbx.config
+   */
+  public static Feeder createAdsbxFeeder() {
+    return createReadsbFeeder("adsbx");
+  }
+
+  /**
+   * Erstellt einen binCraft-Feeder mit dem Mapping aus prod/config/feederMappings/bincraft.config
+   */
+  public static Feeder createBinCraftFeeder() {
+    return createReadsbFeeder("bincraft");
+  }
+
+  private static Feeder createReadsbFeeder(String type) {
+    FeederMapping mapping = new FeederMapping();
+    mapping.setAltitude("alt_geom");
+    mapping.setNavModes("nav_modes");
+    mapping.setCategory("category");
+    mapping.setElipsoidalAltitude("alt_baro");
+    mapping.setEmergency("emergency");
+    mapping.setFlightId("flight");
+    mapping.setHex("hex");
+    mapping.setIas("ias");
+    mapping.setLastSeen("seen_pos");
+    mapping.setLatitude("lat");
+    mapping.setLongitude("lon");
+    mapping.setMach("mach");
+    mapping.setMagHeading("mag_heading");
+    mapping.setMessages("messages");
+    mapping.setRssi("rssi");
+    mapping.setRoll("roll");
+    mapping.setSelectedAltitude("nav_altitude_mcp");
+    mapping.setSelectedHeading("nav_heading");
+    mapping.setSelectedQnh("nav_qnh");
+    mapping.setSpeed("gs");
+    mapping.setSquawk("squawk");
+    mapping.setTas("tas");
+    mapping.setTemperature("oat");
+    mapping.setTrack("track");
+    mapping.setTrueHeading("true_heading");
+    mapping.setVerticalRate("geom_rate");
+    mapping.setWindFromDirection("wd");
+    mapping.setWindSpeed("ws");
+    mapping.setSource("type");
+
+    Feeder feeder = new Feeder("benchmark", "none", type, "color");
+    feeder.setMapping(mapping);
+    return feeder;
+  }
+
+  /**
+   * Erstellt eine aircraft.json im Format von readsb mit aircraftCount Flugzeugen
+   */
+  public static String createReadsbAircraftJson(int aircraftCount) {
+    final Random random = new Random(42);
+    final StringBuilder json = new StringBuilder(aircraftCount * 900);
+    json.append("{\"now\":1730026214.001,\"messages\":194539149,\"aircraft\":[");
+
+    for (int i = 0; i < aircraftCount; i++) {
+      if (i > 0) json.append(',');
+      json.append(String.format(Locale.ROOT,
+          "{\"hex\":\"%06x\",\"type\":\"%s\",\"flight\":\"TST%04d  \",\"alt_baro\":%d,\"alt_geom\":%d," +
+              "\"gs\":%.1f,\"ias\":%d,\"tas\":%d,\"mach\":%.3f,\"wd\":%d,\"ws\":%d,\"oat\":%d,\"tat\":%d," +
+              "\"track\":%.2f,\"track_rate\":0.03,\"roll\":%.2f,\"mag_heading\":%.2f,\"true_heading\":%.2f," +
+              "\"baro_rate\":%d,\"geom_rate\":%d,\"squawk\":\"%04d\",\"emergency\":\"none\",\"category\":\"A3\"," +
+              "\"nav_qnh\":1013.6,\"nav_altitude_mcp\":%d,\"nav_heading\":%.2f,\"nav_modes\":[\"autopilot\",\"vnav\",\"tcas\"]," +
+              "\"lat\":%.6f,\"lon\":%.6f,\"nic\":8,\"rc\":186,\"seen_pos\":%.1f,\"version\":2,\"nic_baro\":1," +
+              "\"nac_p\":9,\"nac_v\":1,\"sil\":3,\"sil_type\":\"perhour\",\"gva\":2,\"sda\":2,\"alert\":0,\"spi\":0," +
+              "\"mlat\":[],\"tisb\":[],\"messages\":%d,\"seen\":%.1f,\"rssi\":%.1f}",
+          0x3c0000 + i, i % 10 == 0 ? "mlat" : "adsb_icao", i % 10000, 1000 + random.nextInt(40000),
+          1000 + random.nextInt(40000), 100 + random.nextDouble() * 400, 100 + random.nextInt(200),
+          100 + random.nextInt(350), 0.3 + random.nextDouble() * 0.5, random.nextInt(360), random.nextInt(120),
+          -60 + random.nextInt(70), -30 + random.nextInt(40), random.nextDouble() * 360, random.nextDouble() * 5,
+          random.nextDouble() * 360, random.nextDouble() * 360, -2000 + random.nextInt(4000),
+          -2000 + random.nextInt(4000), random.nextInt(7777), 1000 + random.nextInt(40000),
+          random.nextDouble() * 360, 47 + random.nextDouble() * 8, 5 + random.nextDouble() * 10,
+          random.nextDouble() * 10, random.nextInt(100000), random.nextDouble() * 10, -30 + random.nextDouble() * 25));
+    }
+
+    json.append("]}");
+    return json.toString();
+  }
+
+  /**
+   * Erstellt eine aircraft.binCraft im Format von readsb mit aircraftCount Flugzeugen
+   * (gleiche Werte wie createReadsbAircraftJson)
+   */
+  public static byte[] createReadsbAircraftBinCraft(int aircraftCount) {
+    final int stride = 112;
+    final Random random = new Random(42);
+    final ByteBuffer buffer = ByteBuffer.allocate(stride * (aircraftCount + 1)).order(ByteOrder.LITTLE_ENDIAN);
+    final long now = 1730026214001L;
+    buffer.putInt(0, (int) now);
+    buffer.putInt(4, (int) (now >>> 32));
+    buffer.putInt(8, stride);
+
+    for (int i = 0; i < aircraftCount; i++) {
+      final int offset = stride * (i + 1);
+      buffer.putInt(offset, 0x3c0000 + i);
+      buffer.putShort(offset + 20, (short) ((1000 + random.nextInt(40000)) / 25));
+      buffer.putShort(offset + 22, (short) ((1000 + random.nextInt(40000)) / 25));
+      buffer.putShort(offset + 34, (short) ((100 + random.nextDouble() * 400) * 10));
+      buffer.putShort(offset + 58, (short) (100 + random.nextInt(200)));
+      buffer.putShort(offset + 56, (short) (100 + random.nextInt(350)));
+      buffer.putShort(offset + 36, (short) ((0.3 + random.nextDouble() * 0.5) * 1000));
+      buffer.putShort(offset + 48, (short) random.nextInt(360));
+      buffer.putShort(offset + 50, (short) random.nextInt(120));
+      buffer.putShort(offset + 52, (short) (-60 + random.nextInt(70)));
+      buffer.putShort(offset + 54, (short) (-30 + random.nextInt(40)));
+      buffer.putShort(offset + 40, (short) (random.nextDouble() * 360 * 90));
+      buffer.putShort(offset + 38, (short) (random.nextDouble() * 5 * 100));
+      buffer.putShort(offset + 44, (short) (random.nextDouble() * 360 * 90));
+      buffer.putShort(offset + 46, (short) (random.nextDouble() * 360 * 90));
+      buffer.putShort(offset + 16, (short) ((-2000 + random.nextInt(4000)) / 8));
+      buffer.putShort(offset + 18, (short) ((-2000 + random.nextInt(4000)) / 8));
+      buffer.putShort(offset + 32, (short) Integer.parseInt(String.format("%04d", random.nextInt(7777)), 16));
+      buffer.putShort(offset + 28, (short) 10136);
+      buffer.putShort(offset + 24, (short) ((1000 + random.nextInt(40000)) / 4));
+      buffer.putShort(offset + 30, (short) (random.nextDouble() * 360 * 90));
+      buffer.putInt(offset + 12, (int) ((47 + random.nextDouble() * 8) * 1e6));
+      buffer.putInt(offset + 8, (int) ((5 + random.nextDouble() * 10) * 1e6));
+      buffer.putShort(offset + 4, (short) (random.nextDouble() * 100));
+      buffer.putShort(offset + 62, (short) random.nextInt(100000));
+      buffer.putShort(offset + 6, (short) (random.nextDouble() * 100));
+      buffer.put(offset + 105, (byte) (Math.sqrt(Math.pow(10, (-30 + random.nextDouble() * 25) / 10)) * 255));
+      buffer.put(offset + 64, (byte) 0xA3);
+      buffer.put(offset + 66, (byte) 0x23);
+      buffer.put(offset + 67, (byte) ((i % 10 == 0 ? 5 : 0) << 4));
+      buffer.put(offset + 68, (byte) 2);
+      buffer.put(offset + 73, (byte) 0xff);
+      buffer.put(offset + 74, (byte) 0x7f);
+      buffer.put(offset + 75, (byte) 0xfc);
+      buffer.put(offset + 76, (byte) 0xcd);
+      buffer.put(offset + 77, (byte) 0x06);
+      buffer.put(offset + 78, String.format("TST%04d", i % 10000).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    return buffer.array();
+  }
+}
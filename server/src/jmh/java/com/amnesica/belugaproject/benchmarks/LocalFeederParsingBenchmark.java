@@ -0,0 +1,82 @@
+package com.amnesica.belugaproject.benchmarks;
+
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.config.Feeder;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.services.aircraft.AircraftService;
+import com.amnesica.belugaproject.services.aircraft.AircraftStreamService;
+import com.amnesica.belugaproject.services.data.AirportDataService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht das Einlesen einer aircraft.json eines lokalen Feeders über den bisherigen Weg
+ * (String, JSONObject/JSONArray, AircraftService.createNewAircraft) mit dem Streaming-Parser
+ * (Byte-Stream, AircraftStreamService mit vorkompiliertem FeederDecoder) und dem binären
+ * binCraft-Format von readsb mit den gleichen Flugzeugen. Aufruf: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LocalFeederParsingBenchmark {
+
+  @Param({"100", "1000", "5000"})
+  private int aircraftCount;
+
+  private byte[] responseBytes;
+  private byte[] binCraftBytes;
+  private Feeder feeder;
+  private Feeder binCraftFeeder;
+  private AircraftService aircraftService;
+  private AircraftStreamService aircraftStreamService;
+
+  @Setup
+  public void setUp() {
+    responseBytes = BenchmarkUtil.createReadsbAircraftJson(aircraftCount).getBytes(StandardCharsets.UTF_8);
+    feeder = BenchmarkUtil.createAdsbxFeeder();
+    binCraftBytes = BenchmarkUtil.createReadsbAircraftBinCraft(aircraftCount);
+    binCraftFeeder = BenchmarkUtil.createBinCraftFeeder();
+
+    Configuration configuration = new Configuration();
+    configuration.setLatFeeder(51.0);
+    configuration.setLonFeeder(10.0);
+
+    aircraftService = new AircraftService();
+    BenchmarkUtil.injectField(aircraftService, "configuration", configuration);
+
+    aircraftStreamService = new AircraftStreamService();
+    BenchmarkUtil.injectField(aircraftStreamService, "aircraftService", aircraftService);
+    BenchmarkUtil.injectField(aircraftStreamService, "airportDataService", new AirportDataService());
+    BenchmarkUtil.injectField(aircraftStreamService, "configuration", configuration);
+  }
+
+  @Benchmark
+  public void jsonObjectPath(Blackhole blackhole) {
+    // Bisheriger Weg: Antwort als String, danach DOM mit org.json
+    final String jsonStr = new String(responseBytes, StandardCharsets.UTF_8);
+    final JSONArray jsonArray = new JSONObject(jsonStr).getJSONArray("aircraft");
+
+    for (int i = 0; i < jsonArray.length(); i++) {
+      final JSONObject element = jsonArray.getJSONObject(i);
+      if (element.has("hex")) blackhole.consume(aircraftService.createNewAircraft(element, feeder));
+    }
+  }
+
+  @Benchmark
+  public List<Aircraft> streamingPath() throws IOException {
+    return aircraftStreamService.readAircraftFromLocalFeeder(new ByteArrayInputStream(responseBytes), feeder);
+  }
+
+  @Benchmark
+  public List<Aircraft> binCraftPath() throws IOException {
+    return aircraftStreamService.readAircraftFromLocalFeeder(new ByteArrayInputStream(binCraftBytes), binCraftFeeder);
+  }
+}
@@ -0,0 +1,103 @@
+package com.amnesica.belugaproject.benchmarks;
+
+import com.amnesica.belugaproject.config.CborConfig;
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.config.Feeder;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.services.aircraft.AircraftProjection;
+import com.amnesica.belugaproject.services.aircraft.AircraftService;
+import com.amnesica.belugaproject.services.aircraft.AircraftStreamService;
+import com.amnesica.belugaproject.services.data.AirportDataService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht Größe und Dauer der Serialisierung der Liste der Flugzeuge (/getAircraftList) als
+ * JSON und als CBOR (String-Referenzen, Festkomma-Koordinaten), jeweils mit vollständigen
+ * Flugzeugen und mit der Ansicht "map". Die Flugzeuge werden aus einer aircraft.json im Format
+ * von readsb eingelesen. Die Größen werden beim Setup ausgegeben. Aufruf: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResponseEncodingBenchmark {
+
+  @Param({"1000", "5000"})
+  private int aircraftCount;
+
+  private List<Aircraft> aircraftList;
+  private ObjectMapper jsonMapper;
+  private ObjectMapper cborMapper;
+
+  @Setup
+  public void setUp() throws IOException {
+    final Feeder feeder = BenchmarkUtil.createAdsbxFeeder();
+    final byte[] responseBytes = BenchmarkUtil.createReadsbAircraftJson(aircraftCount).getBytes(StandardCharsets.UTF_8);
+
+    Configuration configuration = new Configuration();
+    configuration.setLatFeeder(51.0);
+    configuration.setLonFeeder(10.0);
+
+    AircraftService aircraftService = new AircraftService();
+    BenchmarkUtil.injectField(aircraftService, "configuration", configuration);
+
+    AircraftStreamService aircraftStreamService = new AircraftStreamService();
+    BenchmarkUtil.injectField(aircraftStreamService, "aircraftService", aircraftService);
+    BenchmarkUtil.injectField(aircraftStreamService, "airportDataService", new AirportDataService());
+    BenchmarkUtil.injectField(aircraftStreamService, "configuration", configuration);
+
+    aircraftList = aircraftStreamService.readAircraftFromLocalFeeder(new ByteArrayInputStream(responseBytes), feeder);
+    jsonMapper = new Jackson2ObjectMapperBuilder().build();
+    cborMapper = CborConfig.createCborMapper(new Jackson2ObjectMapperBuilder());
+
+    final int jsonFull = jsonFull().length;
+    final int cborFull = cborFull().length;
+    final int jsonMap = jsonMap().length;
+    final int cborMap = cborMap().length;
+    System.out.printf(Locale.ROOT, "%n%d aircraft: json %d bytes, cbor %d bytes (%.0f %%), " +
+            "json map %d bytes (%.0f %%), cbor map %d bytes (%.0f %%)%n", aircraftList.size(), jsonFull, cborFull,
+        100.0 * cborFull / jsonFull, jsonMap, 100.0 * jsonMap / jsonFull, cborMap, 100.0 * cborMap / jsonFull);
+  }
+
+  @Benchmark
+  public byte[] jsonFull() throws IOException {
+    return jsonMapper.writeValueAsBytes(aircraftList);
+  }
+
+  @Benchmark
+  public byte[] cborFull() throws IOException {
+    return cborMapper.writeValueAsBytes(aircraftList);
+  }
+
+  @Benchmark
+  public byte[] jsonMap() throws IOException {
+    return writeProjection(jsonMapper);
+  }
+
+  @Benchmark
+  public byte[] cborMap() throws IOException {
+    return writeProjection(cborMapper);
+  }
+
+  private byte[] writeProjection(ObjectMapper mapper) throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+      generator.writeStartArray();
+      for (Aircraft aircraft : aircraftList) {
+        AircraftProjection.MAP.write(aircraft, generator);
+      }
+      generator.writeEndArray();
+    }
+    return outputStream.toByteArray();
+  }
+}
@@ -0,0 +1,166 @@
+package com.amnesica.belugaproject.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binäre Kodierung der Antworten als CBOR (application/cbor), wenn der Client diese über den
+ * Accept-Header anfragt. JSON bleibt die Standard-Kodierung. Wiederholte Strings (Feldnamen,
+ * Feeder, Typen, ...) werden über String-Referenzen (CBOR-Tag 256/25) nur einmal übertragen.
+ * Koordinaten (latitude, longitude) werden als Festkommazahl mit 6 Nachkommastellen übertragen
+ * (Dezimalbruch, CBOR-Tag 4: [-6, Wert * 10^6]). Der CBOR-Mapper wird aus dem Builder des
+ * JSON-Mappers von Spring erstellt und hat daher dieselben Module und Features
+ */
+@Component
+public class CborConfig implements WebMvcConfigurer {
+
+  // Namen der Felder, welche als Festkommazahl übertragen werden
+  private static final Set<String> COORDINATE_FIELDS = Set.of("latitude", "longitude");
+
+  // Anzahl der Nachkommastellen der Koordinaten
+  private static final int COORDINATE_SCALE = 6;
+  private static final double COORDINATE_FACTOR = Math.pow(10, COORDINATE_SCALE);
+
+  @Autowired
+  private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+  private ObjectMapper cborMapper;
+
+  @PostConstruct
+  public void initCborMapper() {
+    cborMapper = createCborMapper(objectMapperBuilder);
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    // Ersetze den Standard-Converter für CBOR durch einen mit String-Referenzen und Festkomma-Koordinaten
+    converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+    converters.add(new MappingJackson2CborHttpMessageConverter(cborMapper));
+  }
+
+  /**
+   * Gibt den CBOR-Mapper mit String-Referenzen und Festkomma-Koordinaten zurück
+   *
+   * @return ObjectMapper
+   */
+  public ObjectMapper getCborMapper() {
+    return cborMapper;
+  }
+
+  /**
+   * Erstellt einen CBOR-Mapper mit String-Referenzen und Festkomma-Koordinaten aus dem Builder
+   * des JSON-Mappers (Module, Features und Einstellungen aus spring.jackson.*)
+   *
+   * @param objectMapperBuilder Jackson2ObjectMapperBuilder
+   * @return ObjectMapper
+   */
+  public static ObjectMapper createCborMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    final SimpleModule coordinateModule = new SimpleModule("CoordinateModule");
+    coordinateModule.setSerializerModifier(new BeanSerializerModifier() {
+      @Override
+      public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                       List<BeanPropertyWriter> beanProperties) {
+        for (BeanPropertyWriter writer : beanProperties) {
+          if (COORDINATE_FIELDS.contains(writer.getName()) && (writer.getType().hasRawClass(Double.class) ||
+              writer.getType().hasRawClass(double.class))) {
+            writer.assignSerializer(COORDINATE_SERIALIZER);
+          }
+        }
+        return beanProperties;
+      }
+    });
+
+    final CBORFactory cborFactory = CBORFactory.builder()
+        .enable(CBORGenerator.Feature.STRINGREF)
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .build();
+
+    final ObjectMapper mapper = objectMapperBuilder.factory(cborFactory).build();
+    mapper.registerModule(coordinateModule);
+    return mapper;
+  }
+
+  /**
+   * Prüft, ob der Client über den Accept-Header CBOR anfragt
+   *
+   * @param httpRequest HttpServletRequest
+   * @return boolean
+   */
+  public static boolean isCborRequested(HttpServletRequest httpRequest) {
+    final String accept = httpRequest != null ? httpRequest.getHeader(HttpHeaders.ACCEPT) : null;
+    if (accept == null || accept.isBlank()) return false;
+
+    try {
+      final List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+      MimeTypeUtils.sortBySpecificity(mediaTypes);
+      for (MediaType mediaType : mediaTypes) {
+        if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) return false;
+        if (MediaType.APPLICATION_CBOR.includes(mediaType)) return true;
+      }
+    } catch (Exception e) {
+      // Ungültiger Accept-Header, nutze JSON
+    }
+    return false;
+  }
+
+  /**
+   * Gibt zurück, ob ein Feld eine Koordinate ist, welche als Festkommazahl übertragen wird
+   *
+   * @param name Name des Felds
+   * @return boolean
+   */
+  public static boolean isCoordinateField(String name) {
+    return COORDINATE_FIELDS.contains(name);
+  }
+
+  /**
+   * Schreibt eine Koordinate. Bei CBOR als Dezimalbruch mit 6 Nachkommastellen, sonst als Zahl
+   *
+   * @param value     double
+   * @param generator JsonGenerator
+   */
+  public static void writeCoordinate(double value, JsonGenerator generator) throws IOException {
+    if (!(generator instanceof CBORGenerator cborGenerator) || !Double.isFinite(value)) {
+      generator.writeNumber(value);
+      return;
+    }
+    cborGenerator.writeTag(4);
+    cborGenerator.writeStartArray(null, 2);
+    cborGenerator.writeNumber(-COORDINATE_SCALE);
+    cborGenerator.writeNumber(Math.round(value * COORDINATE_FACTOR));
+    cborGenerator.writeEndArray();
+  }
+
+  private static final JsonSerializer<Object> COORDINATE_SERIALIZER = new StdSerializer<>(Object.class) {
+    @Override
+    public void serialize(Object value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+      writeCoordinate(((Number) value).doubleValue(), generator);
+    }
+  };
+}
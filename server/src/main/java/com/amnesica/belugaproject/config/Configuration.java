@@ -67,6 +67,10 @@ public class Configuration {
   @Value("#{'${feeder.color}'.split(',\\s*')}")
   private List<String> listColorFeeder;
 
+  // Intervalle der Abfrage der Feeder in Millisekunden (optional, Default = INTERVAL_UPDATE_LOCAL_FEEDER)
+  @Value("#{'${feeder.interval:}'.split(',\\s*')}")
+  private List<String> listIntervalFeeder;
+
   // Anzuzeigende Range Ringe
   @Value("#{'${circle.distance.of.rings}'.split(',\\s*')}")
   private List<Integer> listCircleDistancesInNm;
@@ -111,6 +115,58 @@ public class Configuration {
   @Value("${config.files.directory:}")
   private String configFilesDirectory;
 
+  // Anzahl an Flugzeugen, welche pro Batch aus dem Live-Zustand in die Tabelle aircraft geschrieben werden
+  @Value("${aircraft.flush.batch.size:500}")
+  @Min(1)
+  private Integer aircraftFlushBatchSize;
+
+  // Intervall in Millisekunden, in dem veränderte Flugzeuge in die Tabelle aircraft geschrieben werden
+  @Value("${aircraft.flush.interval:" + StaticValues.INTERVAL_FLUSH_LIVE_AIRCRAFT + "}")
+  @Min(10)
+  private Integer aircraftFlushInterval;
+
+  // Deadline in Millisekunden für Abruf und Verarbeitung der Daten eines lokalen Feeders pro Iteration
+  @Value("${feeder.fetch.deadline:1800}")
+  @Min(100)
+  private Integer feederFetchDeadline;
+
+  // Lokale Feeder bedingt abfragen (If-None-Match/If-Modified-Since), unveränderte Daten werden nicht übertragen
+  @Value("${feeder.conditional.requests:true}")
+  private Boolean feederConditionalRequests;
+
+  // Maximale Anzahl an Trails, welche pro Batch in die Tabelle aircraft_trail geschrieben werden
+  @Value("${trail.flush.size:500}")
+  @Min(1)
+  private Integer trailFlushSize;
+
+  // Maximale Wartezeit in Millisekunden, bis gepufferte Trails geschrieben werden
+  @Value("${trail.flush.latency:1000}")
+  @Min(10)
+  private Integer trailFlushLatency;
+
+  // Maximale Anzahl an Trails im Puffer, bevor neue Trails verworfen werden
+  @Value("${trail.queue.capacity:20000}")
+  @Min(1)
+  private Integer trailQueueCapacity;
+
+  // Maximale Anzahl an gleichzeitigen Verbindungen für Push-Updates der Flugzeuge (/subscribeAircraftList)
+  @Value("${push.max.connections:50}")
+  @Min(1)
+  private Integer pushMaxConnections;
+
+  // Zoomstufe, unterhalb welcher Flugzeuge in /getAircraftList zu Clustern zusammengefasst werden
+  @Value("${cluster.max.zoom:7}")
+  @Min(0)
+  private Integer clusterMaxZoom;
+
+  // Flugzeugdaten aus einer speicherabgebildeten Kopie der Tabelle aircraft_data statt aus der Datenbank lesen
+  @Value("${aircraft.registry.enabled:true}")
+  private Boolean aircraftRegistryEnabled;
+
+  // Pfad der Kopie der Tabelle aircraft_data (ohne Angabe im temporären Verzeichnis)
+  @Value("${aircraft.registry.file:}")
+  private String aircraftRegistryFile;
+
   // Liste mit Feedern aus der Konfigurationsdatei
   private List<Feeder> listFeeder;
 
@@ -160,11 +216,35 @@ public class Configuration {
       FeederMapping mapping = getMappingsFromConfig(feeder.getType());
       feeder.setMapping(mapping);
 
+      // Weise Feeder das Intervall der Abfrage zu
+      feeder.setPollInterval(getIntervalFeeder(i));
+
       // Füge Feeder zur Liste an Feedern hinzu
       addFeederToList(feeder);
     }
   }
 
+  /**
+   * Gibt das konfigurierte Intervall der Abfrage eines Feeders zurück. Ist kein
+   * gültiges Intervall konfiguriert, wird INTERVAL_UPDATE_LOCAL_FEEDER verwendet
+   *
+   * @param index Index des Feeders
+   * @return Integer
+   */
+  private Integer getIntervalFeeder(int index) {
+    if (listIntervalFeeder != null && index < listIntervalFeeder.size()) {
+      final String interval = listIntervalFeeder.get(index);
+      if (interval != null && !interval.isBlank()) {
+        try {
+          return Math.max(StaticValues.INTERVAL_MIN_POLL_LOCAL_FEEDER, Integer.parseInt(interval.trim()));
+        } catch (NumberFormatException e) {
+          log.error("Server - Invalid interval " + interval + " for feeder with index " + index + " : Exception = " + e);
+        }
+      }
+    }
+    return StaticValues.INTERVAL_UPDATE_LOCAL_FEEDER;
+  }
+
   /**
    * Zeigt einen Willkommens-Banner mit aktueller Version und Name der Anwendung
    * an
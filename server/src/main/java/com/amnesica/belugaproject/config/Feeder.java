@@ -10,6 +10,9 @@ public class Feeder {
   private String type;
   private String color;
 
+  // Intervall der Abfrage in Millisekunden (Default = INTERVAL_UPDATE_LOCAL_FEEDER)
+  private Integer pollInterval = StaticValues.INTERVAL_UPDATE_LOCAL_FEEDER;
+
   // Zuweisungen
   private FeederMapping mapping;
 
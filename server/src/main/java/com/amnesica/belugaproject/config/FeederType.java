@@ -0,0 +1,38 @@
+package com.amnesica.belugaproject.config;
+
+/**
+ * Art eines Feeders (Wert von feeder.type bzw. Name der Mapping-Datei)
+ */
+public enum FeederType {
+  ADSBX("adsbx"),
+  VRS("vrs"),
+  DUMP1090_FA("dump1090-fa"),
+  FR24FEEDER("fr24feeder"),
+  AIRSQUITTER("airsquitter"),
+  BINCRAFT("bincraft"),
+  OPENSKY("Opensky"),
+  UNKNOWN("");
+
+  private final String typeName;
+
+  FeederType(String typeName) {
+    this.typeName = typeName;
+  }
+
+  public String getTypeName() {
+    return typeName;
+  }
+
+  /**
+   * Gibt die Art eines Feeders anhand des Namens zurück
+   *
+   * @param typeName String
+   * @return FeederType (UNKNOWN, wenn die Art nicht bekannt ist)
+   */
+  public static FeederType fromTypeName(String typeName) {
+    for (FeederType feederType : values()) {
+      if (feederType.typeName.equals(typeName)) return feederType;
+    }
+    return UNKNOWN;
+  }
+}
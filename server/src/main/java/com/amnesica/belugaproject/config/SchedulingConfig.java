@@ -0,0 +1,34 @@
+package com.amnesica.belugaproject.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler für alle @Scheduled-Methoden mit SIZE_SCHEDULER_POOL Threads, damit
+ * lang laufende Aufgaben (bspw. Abrufe der Remote-Quellen oder das Archivieren alter
+ * Flugzeuge) die übrigen Aufgaben nicht verzögern. Abfrage der lokalen Feeder und
+ * Schreiben der Flugzeuge laufen in eigenen Threads und belegen den Scheduler nicht
+ */
+@Component
+public class SchedulingConfig implements SchedulingConfigurer {
+  private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+  @Override
+  public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+    taskScheduler.setPoolSize(StaticValues.SIZE_SCHEDULER_POOL);
+    taskScheduler.setThreadNamePrefix("scheduler-");
+    taskScheduler.initialize();
+    taskRegistrar.setTaskScheduler(taskScheduler);
+  }
+
+  /**
+   * Beendet den Scheduler
+   */
+  @PreDestroy
+  public void shutdownTaskScheduler() {
+    taskScheduler.shutdown();
+  }
+}
@@ -8,9 +8,15 @@ package com.amnesica.belugaproject.config;
  */
 public class StaticValues {
   // Lokale Feeder - Scheduler
-  public static final int INTERVAL_UPDATE_LOCAL_FEEDER = 2000; // 2 Sekunden
+  public static final int INTERVAL_UPDATE_LOCAL_FEEDER = 2000; // 2 Sekunden (Default pro Feeder, konfigurierbar)
+  public static final int INTERVAL_POLL_TICK_LOCAL_FEEDER = 250; // 250 Millisekunden (max. Wartezeit der Ingest-Schleife)
+  public static final int INTERVAL_MIN_POLL_LOCAL_FEEDER = 250; // 250 Millisekunden
+  public static final int INTERVAL_MAX_BACKOFF_LOCAL_FEEDER = 60000; // 60 Sekunden
+  public static final int THRESHOLD_REENTERED_AIRCRAFT = 3000; // 3 Sekunden (Mindestabstand für 'reentered'-Flugzeuge)
   public static final int INTERVAL_LOCAL_PLANES_TO_HISTORY = 600000; // 10 Minuten
   public static final int INTERVAL_REMOVE_OLD_TRAILS_LOCAL = 600000; // 10 Minuten
+  public static final int INTERVAL_FLUSH_LIVE_AIRCRAFT = 5000; // 5 Sekunden (Default, konfigurierbar)
+  public static final int SIZE_SCHEDULER_POOL = 4; // Threads für alle @Scheduled-Methoden
 
   public static final long INTERVAL_REMOVE_OLD_DATA = 2592000000L; // 30 Tage
   public static final String INTERVAL_REMOVE_OLD_AIRCRAFT_FROM_HISTORY = "0 0 1 * * ?"; // cron expression: every day at 01:00 a.m.
@@ -18,6 +24,37 @@ public class StaticValues {
   public static final long RETENTION_TIME_AIRCRAFT_LOCAL = 3600000L; // 60 Minuten
   public static final int RETENTION_DAYS_AIRCRAFT_IN_HISTORY = 365; // 365 Tage
 
+  // Lokale Feeder - Räumlicher Index
+  public static final double GRID_INDEX_CELL_SIZE = 1.0; // 1 Grad
+
+  // Anfragen /getAircraftList - Zusammenfassen gleichzeitiger Anfragen
+  public static final int INTERVAL_COALESCE_AIRCRAFT_REQUESTS = 1000; // 1 Sekunde
+  public static final int TIME_WINDOW_AIRCRAFT_LIST = 2000; // 2 Sekunden (nur Flugzeuge mit Update im Zeitfenster)
+
+  // Anfragen /getAircraftList - Cluster für niedrige Zoomstufen
+  public static final int CLUSTER_CELLS_PER_TILE = 4; // 4 x 4 Zellen pro Kachel (64 Pixel bei 256 Pixel pro Kachel)
+
+  // Anfragen /getAircraftListDelta - Anzahl der vorgehaltenen Versionen mit Änderungen
+  public static final int SIZE_AIRCRAFT_CHANGES_RING = 64;
+
+  // Flugzeugdaten (aircraft_data) - Speicherabgebildete Kopie
+  public static final int INTERVAL_CHECK_AIRCRAFT_REGISTRY = 600000; // 10 Minuten (Prüfung, ob die Tabelle neu geladen wurde)
+  public static final int AIRCRAFT_REGISTRY_PAGE_SIZE = 10000; // Anzahl Zeilen pro Abfrage beim Erstellen der Kopie
+  public static final String AIRCRAFT_REGISTRY_FILE_NAME = "beluga-aircraft-registry.bin";
+
+  // Stammdaten (Operator, Land, Regcode, Flugroute) - Caches vor den Abfragen der Datenbank
+  public static final int SIZE_CACHE_OPERATOR_DATA = 10000;
+  public static final int SIZE_CACHE_COUNTRY_DATA = 500;
+  public static final int SIZE_CACHE_REGCODE_DATA = 1000;
+  public static final int SIZE_CACHE_FLIGHTROUTE_DATA = 50000;
+  public static final long TTL_CACHE_DATA = 3600000L; // 60 Minuten
+  public static final long TTL_CACHE_DATA_NOT_FOUND = 600000L; // 10 Minuten (nicht gefundene Keys)
+  public static final int INTERVAL_RELOAD_REGCODE_DATA = 3600000; // 60 Minuten (Präfixbaum der Registrierungs-Präfixe)
+
+  // Flughäfen (airport_data) - Räumlicher Index
+  public static final int INTERVAL_CHECK_AIRPORT_INDEX = 600000; // 10 Minuten (Prüfung, ob die Tabelle neu geladen wurde)
+  public static final int SIZE_CACHE_AIRPORT_CELLS = 5000; // Anzahl serialisierter Zellen
+
   // Opensky-Network - Scheduler
   public static final int INTERVAL_UPDATE_REMOTE = 5000; // 5 Sekunden
   public static final int INTERVAL_REMOVE_OLD_PLANES_REMOTE = 600000; // 10 Minuten
@@ -1,27 +1,35 @@
 package com.amnesica.belugaproject.controllers;
 
+import com.amnesica.belugaproject.config.CborConfig;
 import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
-import com.amnesica.belugaproject.entities.data.AirportData;
 import com.amnesica.belugaproject.entities.ships.Ship;
 import com.amnesica.belugaproject.entities.trails.AircraftTrail;
 import com.amnesica.belugaproject.entities.trails.SpacecraftTrail;
 import com.amnesica.belugaproject.services.aircraft.*;
 import com.amnesica.belugaproject.services.data.*;
 import com.amnesica.belugaproject.services.helper.DebugService;
+import com.amnesica.belugaproject.services.helper.MetricsService;
 import com.amnesica.belugaproject.services.ships.AisService;
 import com.amnesica.belugaproject.services.trails.AircraftTrailService;
 import com.amnesica.belugaproject.services.trails.SpacecraftTrailService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 public class Controller {
@@ -29,6 +37,8 @@ public class Controller {
   @Autowired
   private FeederService feederService;
   @Autowired
+  private AircraftPushService aircraftPushService;
+  @Autowired
   private LocalFeederService localFeederService;
   @Autowired
   private RemoteService remoteService;
@@ -70,6 +80,9 @@ public class Controller {
   @Autowired
   private DebugService debugService;
 
+  @Autowired
+  private MetricsService metricsService;
+
   /**
    * Gibt die Konfiguration nur mit den nötigsten Variablen zurück
    *
@@ -93,20 +106,119 @@ public class Controller {
    * @param showIss          Boolean, ob ISS abgefragt werden soll
    * @param markedHex        String, hex des markierten Flugzeugs
    * @param showOnlyMilitary Boolean, ob nur Militär angezeigt werden soll
-   * @return Collection<AircraftSuperclass>
+   * @param filter           String, optional: Filter-Ausdruck, bspw. "interesting;category:A3,A5;altitude:1000-20000"
+   *                         (Bedingungen und Format siehe AircraftFilter)
+   * @param fields           List<String>, optional: nur diese Felder zurückgeben ("map" für die Ansicht der Karte,
+   *                         bspw. "map,squawk"). Ohne Angabe werden vollständige Flugzeuge zurückgegeben
+   * @param zoom             Double, optional: Zoomstufe der Karte. Unterhalb von cluster.max.zoom werden Flugzeuge
+   *                         zu Clustern (cluster, count, latitude, longitude, category) zusammengefasst. Das
+   *                         markierte Flugzeug ist immer einzeln enthalten
    */
-  @GetMapping(value = "/getAircraftList", produces = "application/json")
-  public @ResponseBody
-  Collection<AircraftSuperclass> getAircraftList(@RequestParam(value = "lomin") double lomin,
-                                                 @RequestParam(value = "lamin") double lamin, @RequestParam(value = "lomax") double lomax,
-                                                 @RequestParam(value = "lamax") double lamax, @RequestParam(value = "selectedFeeder") List<String> selectedFeeder,
-                                                 @Nullable @RequestParam(value = "fetchRemote") String fetchRemote,
-                                                 @RequestParam(value = "showIss") boolean showIss,
-                                                 @Nullable @RequestParam(value = "markedHex") String markedHex,
-                                                 @RequestParam(value = "showOnlyMilitary") boolean showOnlyMilitary,
-                                                 HttpServletRequest httpRequest) {
-    return feederService.getPlanes(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote,
-        showIss, markedHex, showOnlyMilitary, httpRequest);
+  @GetMapping(value = "/getAircraftList", produces = {"application/json", "application/cbor"})
+  public void getAircraftList(@RequestParam(value = "lomin") double lomin,
+                              @RequestParam(value = "lamin") double lamin, @RequestParam(value = "lomax") double lomax,
+                              @RequestParam(value = "lamax") double lamax, @RequestParam(value = "selectedFeeder") List<String> selectedFeeder,
+                              @Nullable @RequestParam(value = "fetchRemote") String fetchRemote,
+                              @RequestParam(value = "showIss") boolean showIss,
+                              @Nullable @RequestParam(value = "markedHex") String markedHex,
+                              @RequestParam(value = "showOnlyMilitary") boolean showOnlyMilitary,
+                              @Nullable @RequestParam(value = "filter") String filter,
+                              @Nullable @RequestParam(value = "fields") List<String> fields,
+                              @Nullable @RequestParam(value = "zoom") Double zoom,
+                              HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+    // Flugzeuge der lokalen Feeder werden als vorab serialisiertes JSON direkt in die Antwort geschrieben
+    final boolean cbor = CborConfig.isCborRequested(httpRequest);
+    httpResponse.setContentType(cbor ? MediaType.APPLICATION_CBOR_VALUE : MediaType.APPLICATION_JSON_VALUE);
+    feederService.writePlanes(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote,
+        showIss, markedHex, AircraftFilter.of(showOnlyMilitary, filter), fields, zoom, cbor, httpRequest, httpResponse.getOutputStream());
+  }
+
+  /**
+   * Gibt die Änderungen der Flugzeuge innerhalb eines Extents seit der Version since zurück
+   * (Delta). Ist since gleich 0, unbekannt oder zu alt, wird der vollständige Stand zurückgegeben.
+   * Die Sichtbarkeit der Flugzeuge zur Version since wird mit dem aktuellen Extent, den aktuellen
+   * Feedern und dem aktuellen Filter bestimmt. Der Client sendet daher den Extent der letzten
+   * Antwort mit (sinceLomin, sinceLamin, sinceLomax, sinceLamax), bei einem geänderten Extent
+   * wird der vollständige Stand zurückgegeben (full). Nach einer Änderung der Feeder oder
+   * Optionen (showOnlyMilitary, filter, fetchRemote, showIss) muss der Client since = 0 senden
+   *
+   * @param lomin            lower bound for the longitude in decimal degrees
+   * @param lamin            lower bound for the latitude in decimal degrees
+   * @param lomax            upper bound for the longitude in decimal degrees
+   * @param lamax            upper bound for the latitude in decimal degrees
+   * @param selectedFeeder   List<String>, Ausgewählte Feeder (oder keiner)
+   * @param fetchRemote      String, ob Remote-Flugzeuge ("Opensky" oder "Airplanes-Live") angefragt werden soll
+   * @param showIss          Boolean, ob ISS abgefragt werden soll
+   * @param markedHex        String, hex des markierten Flugzeugs
+   * @param showOnlyMilitary Boolean, ob nur Militär angezeigt werden soll
+   * @param filter           String, optional: Filter-Ausdruck, bspw. "interesting;category:A3,A5;altitude:1000-20000"
+   *                         (Bedingungen und Format siehe AircraftFilter)
+   * @param since            Version der letzten Antwort (oder 0)
+   * @param sinceLomin       Double, optional: lomin der letzten Antwort
+   * @param sinceLamin       Double, optional: lamin der letzten Antwort
+   * @param sinceLomax       Double, optional: lomax der letzten Antwort
+   * @param sinceLamax       Double, optional: lamax der letzten Antwort
+   */
+  @GetMapping(value = "/getAircraftListDelta", produces = "application/json")
+  public void getAircraftListDelta(@RequestParam(value = "lomin") double lomin,
+                                   @RequestParam(value = "lamin") double lamin, @RequestParam(value = "lomax") double lomax,
+                                   @RequestParam(value = "lamax") double lamax, @RequestParam(value = "selectedFeeder") List<String> selectedFeeder,
+                                   @Nullable @RequestParam(value = "fetchRemote") String fetchRemote,
+                                   @RequestParam(value = "showIss") boolean showIss,
+                                   @Nullable @RequestParam(value = "markedHex") String markedHex,
+                                   @RequestParam(value = "showOnlyMilitary") boolean showOnlyMilitary,
+                                   @Nullable @RequestParam(value = "filter") String filter,
+                                   @RequestParam(value = "since", defaultValue = "0") long since,
+                                   @Nullable @RequestParam(value = "sinceLomin") Double sinceLomin,
+                                   @Nullable @RequestParam(value = "sinceLamin") Double sinceLamin,
+                                   @Nullable @RequestParam(value = "sinceLomax") Double sinceLomax,
+                                   @Nullable @RequestParam(value = "sinceLamax") Double sinceLamax,
+                                   HttpServletRequest httpRequest, HttpServletResponse httpResponse) throws IOException {
+    // Bei geändertem Extent wird der vollständige Stand übertragen
+    if (AircraftDelta.hasExtentChanged(lomin, lamin, lomax, lamax, sinceLomin, sinceLamin, sinceLomax, sinceLamax))
+      since = 0;
+
+    httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    feederService.writePlanesDelta(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote,
+        showIss, markedHex, AircraftFilter.of(showOnlyMilitary, filter), since, httpRequest, httpResponse.getOutputStream());
+  }
+
+  /**
+   * Registriert einen Client für Push-Updates der Flugzeuge innerhalb eines Extents über
+   * Server-Sent Events. Das erste Event enthält den vollständigen Stand, die folgenden Events
+   * die Änderungen (Format wie /getAircraftListDelta). Nach einer Änderung von Extent, Feedern
+   * oder Optionen muss sich der Client neu registrieren. Ist die maximale Anzahl an
+   * Verbindungen erreicht, wird 503 zurückgegeben
+   *
+   * @param lomin            lower bound for the longitude in decimal degrees
+   * @param lamin            lower bound for the latitude in decimal degrees
+   * @param lomax            upper bound for the longitude in decimal degrees
+   * @param lamax            upper bound for the latitude in decimal degrees
+   * @param selectedFeeder   List<String>, Ausgewählte Feeder (oder keiner)
+   * @param fetchRemote      String, ob Remote-Flugzeuge ("Opensky" oder "Airplanes-Live") angefragt werden soll
+   * @param showIss          Boolean, ob ISS abgefragt werden soll
+   * @param markedHex        String, hex des markierten Flugzeugs
+   * @param showOnlyMilitary Boolean, ob nur Militär angezeigt werden soll
+   * @param filter           String, optional: Filter-Ausdruck, bspw. "interesting;category:A3,A5;altitude:1000-20000"
+   *                         (Bedingungen und Format siehe AircraftFilter)
+   * @return ResponseEntity<SseEmitter>
+   */
+  @GetMapping(value = "/subscribeAircraftList", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> subscribeAircraftList(@RequestParam(value = "lomin") double lomin,
+                                                          @RequestParam(value = "lamin") double lamin, @RequestParam(value = "lomax") double lomax,
+                                                          @RequestParam(value = "lamax") double lamax, @RequestParam(value = "selectedFeeder") List<String> selectedFeeder,
+                                                          @Nullable @RequestParam(value = "fetchRemote") String fetchRemote,
+                                                          @RequestParam(value = "showIss") boolean showIss,
+                                                          @Nullable @RequestParam(value = "markedHex") String markedHex,
+                                                          @RequestParam(value = "showOnlyMilitary") boolean showOnlyMilitary,
+                                                          @Nullable @RequestParam(value = "filter") String filter,
+                                                          HttpServletRequest httpRequest) {
+    final SseEmitter emitter = aircraftPushService.subscribe(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote,
+        showIss, markedHex, AircraftFilter.of(showOnlyMilitary, filter), httpRequest);
+    if (emitter == null) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+    return ResponseEntity.ok(emitter);
   }
 
   /**
@@ -117,14 +229,15 @@ public class Controller {
    * @param lomax     upper bound for the longitude in decimal degrees
    * @param lamax     upper bound for the latitude in decimal degrees
    * @param zoomLevel Aktuelles Zoomlevel
-   * @return List<AirportData>
    */
   @GetMapping(value = "/getAirportList", produces = "application/json")
-  public @ResponseBody
-  List<AirportData> getAirportList(@RequestParam(value = "lomin") double lomin,
-                                   @RequestParam(value = "lamin") double lamin, @RequestParam(value = "lomax") double lomax,
-                                   @RequestParam(value = "lamax") double lamax, @RequestParam(value = "zoomLevel") double zoomLevel) {
-    return airportDataService.getAirportsInExtent(lomin, lamin, lomax, lamax, zoomLevel);
+  public void getAirportList(@RequestParam(value = "lomin") double lomin,
+                             @RequestParam(value = "lamin") double lamin, @RequestParam(value = "lomax") double lomax,
+                             @RequestParam(value = "lamax") double lamax, @RequestParam(value = "zoomLevel") double zoomLevel,
+                             HttpServletResponse httpResponse) throws IOException {
+    // Flughäfen werden aus dem Index als bereits serialisierte Zellen direkt in die Antwort geschrieben
+    httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    airportDataService.writeAirportsInExtent(lomin, lamin, lomax, lamax, zoomLevel, httpResponse.getOutputStream());
   }
 
   /**
@@ -161,7 +274,7 @@ public class Controller {
    * @param fetchRemote    String, ob Remote-Flugzeuge ("Opensky" oder "Airplanes-Live") angefragt werden soll
    * @return Object[]
    */
-  @GetMapping(value = "/getTrail", produces = "application/json")
+  @GetMapping(value = "/getTrail", produces = {"application/json", "application/cbor"})
   public @ResponseBody
   Object[] getTrail(@RequestParam(value = "hex") String hex,
                     @RequestParam(value = "selectedFeeder") List<String> selectedFeeder,
@@ -187,7 +300,7 @@ public class Controller {
    *
    * @return List<List < AircraftTrail>>
    */
-  @GetMapping(value = "/getAllTrails", produces = "application/json")
+  @GetMapping(value = "/getAllTrails", produces = {"application/json", "application/cbor"})
   public @ResponseBody
   List<List<AircraftTrail>> getAllTrails() {
     return aircraftTrailService.getAllTrailsFromLastHour();
@@ -215,6 +328,17 @@ public class Controller {
     return debugService.getSpecificLog(filename);
   }
 
+  /**
+   * Gibt die Metriken der Services (Zähler, Messwerte und Dauern) zurück
+   *
+   * @return Map<String, Object>
+   */
+  @GetMapping(value = "/getMetrics", produces = "application/json")
+  public @ResponseBody
+  Map<String, Object> getMetrics() {
+    return metricsService.getMetrics();
+  }
+
   /**
    * Gibt die ISS direkt zurück, ohne das vorher mit einem Extent eine Datenbankabfrage geschieht
    *
@@ -243,7 +367,7 @@ public class Controller {
    *
    * @return List<Ship>
    */
-  @GetMapping(value = "/getAisData", produces = "application/json")
+  @GetMapping(value = "/getAisData", produces = {"application/json", "application/cbor"})
   public @ResponseBody
   Collection<Ship> getAisData(@RequestParam(value = "lomin") double lomin,
                               @RequestParam(value = "lamin") double lamin, @RequestParam(value = "lomax") double lomax,
@@ -3,6 +3,8 @@ package com.amnesica.belugaproject.entities.aircraft;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 
+import java.util.ArrayList;
+
 @Entity
 @Table(name = "aircraft")
 public class Aircraft extends AircraftSuperclass {
@@ -18,4 +20,84 @@ public class Aircraft extends AircraftSuperclass {
   public Aircraft(String hex, Double latitude, Double longitude) {
     super(hex, latitude, longitude);
   }
+
+  /**
+   * Erstellt eine vollständige Kopie des Flugzeugs, welches als Parameter hereingegeben wird.
+   * Listen werden dabei ebenfalls kopiert, damit Original und Kopie unabhängig voneinander sind
+   *
+   * @param that Zu kopierendes Flugzeug (Aircraft)
+   * @return Aircraft
+   */
+  public static Aircraft makeCopy(Aircraft that) {
+    Aircraft copy = new Aircraft(that.getHex(), that.getLatitude(), that.getLongitude());
+    copy.setAltitude(that.getAltitude());
+    copy.setTrack(that.getTrack());
+    copy.setType(that.getType());
+    copy.setRegistration(that.getRegistration());
+    copy.setOnGround(that.getOnGround());
+    copy.setSpeed(that.getSpeed());
+    copy.setSquawk(that.getSquawk());
+    copy.setFlightId(that.getFlightId());
+    copy.setVerticalRate(that.getVerticalRate());
+    copy.setRssi(that.getRssi());
+    copy.setCategory(that.getCategory());
+    copy.setTemperature(that.getTemperature());
+    copy.setWindSpeed(that.getWindSpeed());
+    copy.setWindFromDirection(that.getWindFromDirection());
+    copy.setDestination(that.getDestination());
+    copy.setOrigin(that.getOrigin());
+    copy.setDistance(that.getDistance());
+    copy.setAutopilotEngaged(that.getAutopilotEngaged());
+    copy.setElipsoidalAltitude(that.getElipsoidalAltitude());
+    copy.setSelectedQnh(that.getSelectedQnh());
+    copy.setSelectedAltitude(that.getSelectedAltitude());
+    copy.setSelectedHeading(that.getSelectedHeading());
+    copy.setIas(that.getIas());
+    copy.setTas(that.getTas());
+    copy.setMach(that.getMach());
+    copy.setMagHeading(that.getMagHeading());
+    copy.setTrueHeading(that.getTrueHeading());
+    copy.setMessages(that.getMessages());
+    copy.setEmergency(that.getEmergency());
+    copy.setNavModes(that.getNavModes());
+    copy.setFeederList(that.getFeederList() != null ? new ArrayList<>(that.getFeederList()) : null);
+    copy.setLastSeenPos(that.getLastSeenPos());
+    copy.setSourceList(that.getSourceList() != null ? new ArrayList<>(that.getSourceList()) : null);
+    copy.setSourceCurrentFeeder(that.getSourceCurrentFeeder());
+    copy.setAge(that.getAge());
+    copy.setFullType(that.getFullType());
+    copy.setSerialNumber(that.getSerialNumber());
+    copy.setLineNumber(that.getLineNumber());
+    copy.setOperatorIcao(that.getOperatorIcao());
+    copy.setTestReg(that.getTestReg());
+    copy.setRegistered(that.getRegistered());
+    copy.setRegUntil(that.getRegUntil());
+    copy.setStatus(that.getStatus());
+    copy.setBuilt(that.getBuilt());
+    copy.setFirstFlightDate(that.getFirstFlightDate());
+    copy.setIcaoAircraftType(that.getIcaoAircraftType());
+    copy.setEngines(that.getEngines());
+    copy.setOperatorCallsign(that.getOperatorCallsign());
+    copy.setOperatorName(that.getOperatorName());
+    copy.setOperatorCountry(that.getOperatorCountry());
+    copy.setOperatorCountryFlag(that.getOperatorCountryFlag());
+    copy.setOperatorIata(that.getOperatorIata());
+    copy.setRegCodeName(that.getRegCodeName());
+    copy.setRegCodeNameFlag(that.getRegCodeNameFlag());
+    copy.setReenteredAircraft(that.getReenteredAircraft());
+    copy.setAircraftState(that.getAircraftState());
+    copy.setLastUpdate(that.getLastUpdate());
+    copy.setUrlPhotoDirect(that.getUrlPhotoDirect());
+    copy.setUrlPhotoWebsite(that.getUrlPhotoWebsite());
+    copy.setPhotoPhotographer(that.getPhotoPhotographer());
+    copy.setIsFromRemote(that.getIsFromRemote());
+    copy.setIsMilitary(that.getIsMilitary());
+    copy.setIsHistoric(that.getIsHistoric());
+    copy.setIsGovernment(that.getIsGovernment());
+    copy.setIsSpecial(that.getIsSpecial());
+    copy.setIsInteresting(that.getIsInteresting());
+    copy.setRoll(that.getRoll());
+    copy.setSendWithPos(that.getSendWithPos());
+    return copy;
+  }
 }
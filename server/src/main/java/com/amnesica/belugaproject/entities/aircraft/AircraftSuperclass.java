@@ -182,6 +182,17 @@ public class AircraftSuperclass {
     }
   }
 
+  /**
+   * Entfernt einen Feeder aus der Liste an Feedern
+   *
+   * @param feeder String
+   */
+  public void removeFeederFromFeederList(String feeder) {
+    if (feederList != null) {
+      feederList.remove(feeder);
+    }
+  }
+
   /**
    * Fügt ein Source-Element zu der Liste an Sources hinzu oder bearbeitet ein
    * vorhandenes Element, wenn der Feeder bereits in der Liste vorhanden ist
@@ -220,6 +231,17 @@ public class AircraftSuperclass {
     }
   }
 
+  /**
+   * Entfernt das Source-Element eines Feeders aus der Liste an Sources
+   *
+   * @param feeder String
+   */
+  public void removeSourceOfFeederFromSourceList(String feeder) {
+    if (sourceList != null && feeder != null) {
+      sourceList.removeIf(element -> element.startsWith(feeder + ":"));
+    }
+  }
+
   @Override
   public int hashCode() {
     final int prime = 31;
@@ -1,6 +1,7 @@
 package com.amnesica.belugaproject.repositories.aircraft;
 
 import com.amnesica.belugaproject.entities.aircraft.RemoteAircraft;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
@@ -8,7 +9,8 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface RemoteAircraftRepository extends CrudRepository<RemoteAircraft, String> {
+public interface RemoteAircraftRepository extends CrudRepository<RemoteAircraft, String>,
+    JpaSpecificationExecutor<RemoteAircraft> {
 
   RemoteAircraft findByHex(String hex);
 
@@ -1,10 +1,19 @@
 package com.amnesica.belugaproject.repositories.data;
 
 import com.amnesica.belugaproject.entities.data.AircraftData;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AircraftDataRepository extends CrudRepository<AircraftData, String> {
   AircraftData findByHex(String hex);
+
+  @Query(value = "select * from aircraft_data where hex > ?1 order by hex limit ?2", nativeQuery = true)
+  List<AircraftData> findAllAfterHexOrderByHex(String hex, int limit);
+
+  @Query(value = "select concat(version, ';', rows, ';', csv_imported, ';', last_updated) from version_info where table_name = 'aircraft_data'", nativeQuery = true)
+  String findVersionInfo();
 }
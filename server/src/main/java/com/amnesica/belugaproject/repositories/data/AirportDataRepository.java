@@ -20,6 +20,9 @@ public interface AirportDataRepository extends CrudRepository<AirportData, Strin
   @Query(value = "select * from airport_data where type = 'large_airport' and longitude_deg between ?1 and ?3 and latitude_deg between ?2 and ?4", nativeQuery = true)
   List<AirportData> findAllLargeAirportsWithinExtent(double lomin, double lamin, double lomax, double lamax);
 
-  @Query(value = "select * from airport_data where type = 'large_airport' or type = 'medium_airport' and longitude_deg between ?1 and ?3 and latitude_deg between ?2 and ?4", nativeQuery = true)
+  @Query(value = "select * from airport_data where (type = 'large_airport' or type = 'medium_airport') and longitude_deg between ?1 and ?3 and latitude_deg between ?2 and ?4", nativeQuery = true)
   List<AirportData> findAllMediumAndLargeAirportsWithinExtent(double lomin, double lamin, double lomax, double lamax);
+
+  @Query(value = "select concat(version, ';', rows, ';', csv_imported, ';', last_updated) from version_info where table_name = 'airport_data'", nativeQuery = true)
+  String findVersionInfo();
 }
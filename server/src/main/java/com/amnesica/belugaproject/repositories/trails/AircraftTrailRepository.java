@@ -15,7 +15,8 @@ public interface AircraftTrailRepository extends CrudRepository<AircraftTrail, S
 
   List<AircraftTrail> findAllByHexAndFeederAndTimestampGreaterThanEqualOrderByTimestampAsc(String hex, String feeder, long timestamp);
 
-  AircraftTrail findFirstByHexAndFeederOrderByTimestampDesc(String hex, String feeder);
+  @Query(value = "select at.hex, at.feeder, max(at.timestamp) from aircraft_trail at where at.timestamp >= ?1 group by at.hex, at.feeder", nativeQuery = true)
+  List<Object[]> findLastTimestampPerHexAndFeeder(long timestamp);
 
   @Query(value = "select * from aircraft_trail at where at.timestamp >= (extract('epoch' from (current_timestamp  - interval '1 days')) * 1000) order by at.angle_to_site", nativeQuery = true)
   List<AircraftTrail> findAllFromLast24Hours();
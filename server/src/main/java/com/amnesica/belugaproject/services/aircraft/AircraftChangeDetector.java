@@ -0,0 +1,80 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Erkennt, ob sich ein Flugzeug seit der letzten Abfrage eines Feeders verändert hat.
+ * Verglichen werden der Nachrichtenzähler (messages), die Position, die Höhe und der Track
+ * des zuletzt übernommenen Datensatzes des gleichen Feeders. Ohne Nachrichtenzähler gilt
+ * ein Flugzeug immer als verändert, da sonst Änderungen anderer Werte verloren gehen könnten
+ */
+class AircraftChangeDetector {
+
+  // Zuletzt übernommene Werte mit Name des Feeders und hex als Keys
+  private final Map<String, Map<String, Signature>> signaturesByFeeder = new ConcurrentHashMap<>();
+
+  /**
+   * Prüft, ob sich das Flugzeug seit dem letzten übernommenen Datensatz des Feeders
+   * verändert hat. Bei einer Änderung werden die neuen Werte gemerkt
+   *
+   * @param aircraftNew Aircraft
+   * @param feederName  String
+   * @return true, wenn das Flugzeug verändert ist oder noch nicht bekannt war
+   */
+  boolean hasChanged(Aircraft aircraftNew, String feederName) {
+    final Map<String, Signature> signatures = signaturesByFeeder.computeIfAbsent(feederName,
+        k -> new ConcurrentHashMap<>());
+
+    final Signature signature = signatures.get(aircraftNew.getHex());
+    if (signature == null) {
+      final Signature signatureNew = new Signature();
+      signatureNew.update(aircraftNew);
+      signatures.put(aircraftNew.getHex(), signatureNew);
+      return true;
+    }
+
+    if (signature.matches(aircraftNew)) return false;
+
+    signature.update(aircraftNew);
+    return true;
+  }
+
+  /**
+   * Entfernt die gemerkten Werte eines Flugzeugs für alle Feeder
+   *
+   * @param hex String
+   */
+  void remove(String hex) {
+    for (Map<String, Signature> signatures : signaturesByFeeder.values()) {
+      signatures.remove(hex);
+    }
+  }
+
+  private static class Signature {
+    private Integer messages;
+    private Double latitude;
+    private Double longitude;
+    private Integer altitude;
+    private Integer track;
+
+    private boolean matches(Aircraft aircraft) {
+      return messages != null && messages.equals(aircraft.getMessages()) &&
+          Objects.equals(latitude, aircraft.getLatitude()) &&
+          Objects.equals(longitude, aircraft.getLongitude()) &&
+          Objects.equals(altitude, aircraft.getAltitude()) &&
+          Objects.equals(track, aircraft.getTrack());
+    }
+
+    private void update(Aircraft aircraft) {
+      messages = aircraft.getMessages();
+      latitude = aircraft.getLatitude();
+      longitude = aircraft.getLongitude();
+      altitude = aircraft.getAltitude();
+      track = aircraft.getTrack();
+    }
+  }
+}
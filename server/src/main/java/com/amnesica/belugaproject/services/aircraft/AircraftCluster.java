@@ -0,0 +1,34 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+/**
+ * Zusammenfassung mehrerer Flugzeuge einer Zelle des Gitters für niedrige Zoomstufen. Wird in
+ * der Liste der Flugzeuge (/getAircraftList) zusammen mit einzelnen Flugzeugen zurückgegeben
+ * und ist über das Feld cluster von diesen unterscheidbar
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AircraftCluster {
+
+  // Kennzeichnung als Cluster (Flugzeuge haben dieses Feld nicht)
+  private final boolean cluster = true;
+
+  // Anzahl der Flugzeuge im Cluster
+  private final int count;
+
+  // Schwerpunkt der Positionen der Flugzeuge
+  private final double latitude;
+  private final double longitude;
+
+  // Häufigste Kategorie der Flugzeuge (oder null)
+  private final String category;
+
+  public AircraftCluster(int count, double latitude, double longitude, String category) {
+    this.count = count;
+    this.latitude = latitude;
+    this.longitude = longitude;
+    this.category = category;
+  }
+}
@@ -0,0 +1,137 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.config.StaticValues;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
+import com.amnesica.belugaproject.entities.aircraft.RemoteAircraft;
+
+import java.util.*;
+
+/**
+ * Fasst Flugzeuge für niedrige Zoomstufen in einem Durchlauf zu Clustern auf einem Gitter
+ * zusammen. Die Größe einer Zelle richtet sich nach der Zoomstufe (StaticValues.CLUSTER_CELLS_PER_TILE
+ * Zellen pro Kachel). Flugzeuge ohne Position, das markierte Flugzeug, Flugzeuge, welche allein
+ * in einer Zelle liegen, und Objekte außer Flugzeugen (bspw. ISS) werden einzeln zurückgegeben.
+ * Die Flugzeuge können mit add einzeln hinzugefügt werden, sodass keine vollständige Liste der
+ * Flugzeuge vorab aufgebaut werden muss
+ */
+public final class AircraftClusterer {
+
+  private final double cellSize;
+  private final String markedHex;
+  private final List<AircraftSuperclass> listAircraft = new ArrayList<>();
+  private final Map<Long, ClusterAccumulator> cells = new HashMap<>();
+
+  /**
+   * Erstellt einen Clusterer für eine Zoomstufe
+   *
+   * @param zoom      Zoomstufe der Karte
+   * @param markedHex hex des markierten Flugzeugs (wird immer einzeln zurückgegeben)
+   */
+  public AircraftClusterer(double zoom, String markedHex) {
+    this.cellSize = getCellSize(zoom);
+    this.markedHex = markedHex;
+  }
+
+  /**
+   * Ergebnis der Clusterbildung
+   *
+   * @param aircraft Einzeln zurückgegebene Flugzeuge
+   * @param clusters Cluster mit mindestens zwei Flugzeugen
+   */
+  public record Result(List<AircraftSuperclass> aircraft, List<AircraftCluster> clusters) {
+  }
+
+  /**
+   * Zwischenstand eines Clusters während des Durchlaufs
+   */
+  private static class ClusterAccumulator {
+    private int count;
+    private double sumLatitude;
+    private double sumLongitude;
+    private AircraftSuperclass firstAircraft;
+    private final Map<String, Integer> countByCategory = new HashMap<>(4);
+
+    private void add(AircraftSuperclass aircraft) {
+      if (count == 0) firstAircraft = aircraft;
+      count++;
+      sumLatitude += aircraft.getLatitude();
+      sumLongitude += aircraft.getLongitude();
+      if (aircraft.getCategory() != null) countByCategory.merge(aircraft.getCategory(), 1, Integer::sum);
+    }
+
+    private AircraftCluster toCluster() {
+      String dominantCategory = null;
+      int maxCount = 0;
+      for (Map.Entry<String, Integer> entry : countByCategory.entrySet()) {
+        if (entry.getValue() > maxCount) {
+          dominantCategory = entry.getKey();
+          maxCount = entry.getValue();
+        }
+      }
+      return new AircraftCluster(count, sumLatitude / count, sumLongitude / count, dominantCategory);
+    }
+  }
+
+  /**
+   * Berechnet die Größe einer Zelle in Grad für eine Zoomstufe
+   *
+   * @param zoom Zoomstufe der Karte
+   * @return double
+   */
+  public static double getCellSize(double zoom) {
+    return 360 / Math.pow(2, Math.max(0, zoom)) / StaticValues.CLUSTER_CELLS_PER_TILE;
+  }
+
+  /**
+   * Fügt ein Flugzeug dem Cluster seiner Zelle hinzu
+   *
+   * @param aircraft AircraftSuperclass
+   */
+  public void add(AircraftSuperclass aircraft) {
+    if (aircraft.getLatitude() == null || aircraft.getLongitude() == null ||
+        !(aircraft instanceof Aircraft || aircraft instanceof RemoteAircraft) || aircraft.getHex().equals(markedHex)) {
+      listAircraft.add(aircraft);
+      return;
+    }
+
+    final long column = (long) Math.floor((aircraft.getLongitude() + 180) / cellSize);
+    final long row = (long) Math.floor((aircraft.getLatitude() + 90) / cellSize);
+    cells.computeIfAbsent((row << 32) | column, key -> new ClusterAccumulator()).add(aircraft);
+  }
+
+  /**
+   * Gibt das Ergebnis der Clusterbildung aller bisher hinzugefügten Flugzeuge zurück
+   *
+   * @return Result
+   */
+  public Result getResult() {
+    final List<AircraftSuperclass> listResultAircraft = new ArrayList<>(listAircraft);
+    final List<AircraftCluster> listClusters = new ArrayList<>();
+    for (ClusterAccumulator accumulator : cells.values()) {
+      if (accumulator.count == 1) {
+        listResultAircraft.add(accumulator.firstAircraft);
+      } else {
+        listClusters.add(accumulator.toCluster());
+      }
+    }
+
+    return new Result(listResultAircraft, listClusters);
+  }
+
+  /**
+   * Fasst die Flugzeuge zu Clustern zusammen
+   *
+   * @param aircraftList Flugzeuge
+   * @param zoom         Zoomstufe der Karte
+   * @param markedHex    hex des markierten Flugzeugs (wird immer einzeln zurückgegeben)
+   * @return Result
+   */
+  public static Result cluster(Collection<? extends AircraftSuperclass> aircraftList, double zoom, String markedHex) {
+    final AircraftClusterer clusterer = new AircraftClusterer(zoom, markedHex);
+    for (AircraftSuperclass aircraft : aircraftList) {
+      clusterer.add(aircraft);
+    }
+    return clusterer.getResult();
+  }
+}
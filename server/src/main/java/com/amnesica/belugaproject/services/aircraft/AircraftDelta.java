@@ -0,0 +1,58 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Änderungen der Flugzeuge der lokalen Feeder innerhalb eines Extents seit einer früheren
+ * Version des veröffentlichten Stands. Ist full gesetzt, enthält changed alle sichtbaren
+ * Flugzeuge und der Client muss seinen Stand ersetzen
+ */
+@Getter
+public class AircraftDelta {
+
+  // Version des veröffentlichten Stands, auf welche sich die Änderungen beziehen
+  private final long version;
+
+  // Vollständiger Stand statt Änderungen (Version des Clients unbekannt oder zu alt)
+  private final boolean full;
+
+  // Hinzugekommene oder veränderte Flugzeuge
+  private final List<Aircraft> changed;
+
+  // Hex der entfernten Flugzeuge (bspw. nicht mehr aktualisiert oder außerhalb des Extents)
+  private final List<String> removed;
+
+  public AircraftDelta(long version, boolean full, List<Aircraft> changed, List<String> removed) {
+    this.version = version;
+    this.full = full;
+    this.changed = changed;
+    this.removed = removed;
+  }
+
+  /**
+   * Prüft, ob sich der Extent seit der Antwort mit der Version since geändert hat. Die
+   * Sichtbarkeit der Flugzeuge zum Zeitpunkt since wird mit dem aktuellen Extent bestimmt,
+   * bei einem geänderten Extent muss daher der vollständige Stand übertragen werden. Ohne
+   * Extent der früheren Antwort (null) gilt der Extent als unverändert
+   *
+   * @param lomin      lower bound for the longitude in decimal degrees
+   * @param lamin      lower bound for the latitude in decimal degrees
+   * @param lomax      upper bound for the longitude in decimal degrees
+   * @param lamax      upper bound for the latitude in decimal degrees
+   * @param sinceLomin lomin der Antwort mit der Version since (oder null)
+   * @param sinceLamin lamin der Antwort mit der Version since (oder null)
+   * @param sinceLomax lomax der Antwort mit der Version since (oder null)
+   * @param sinceLamax lamax der Antwort mit der Version since (oder null)
+   * @return boolean
+   */
+  public static boolean hasExtentChanged(double lomin, double lamin, double lomax, double lamax, Double sinceLomin,
+                                         Double sinceLamin, Double sinceLomax, Double sinceLamax) {
+    if (sinceLomin == null && sinceLamin == null && sinceLomax == null && sinceLamax == null) return false;
+
+    return sinceLomin == null || sinceLamin == null || sinceLomax == null || sinceLamax == null ||
+        sinceLomin != lomin || sinceLamin != lamin || sinceLomax != lomax || sinceLamax != lamax;
+  }
+}
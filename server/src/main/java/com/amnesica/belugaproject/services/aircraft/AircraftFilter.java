@@ -0,0 +1,166 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.*;
+
+/**
+ * Filter für die Liste der Flugzeuge (/getAircraftList), welcher bereits bei der Abfrage der
+ * Flugzeuge ausgewertet wird: für Flugzeuge der lokalen Feeder beim Durchlauf des Index des
+ * veröffentlichten Live-Zustands (matches), für Remote-Flugzeuge in der Datenbank (toSpecification).
+ * Alle angegebenen Bedingungen müssen erfüllt sein. Leere Mengen und null bedeuten keine Einschränkung
+ *
+ * @param military    Boolean, ob nur Militär angezeigt werden soll
+ * @param interesting Boolean, ob nur interessante Flugzeuge angezeigt werden sollen
+ * @param special     Boolean, ob nur besondere Flugzeuge angezeigt werden sollen
+ * @param government  Boolean, ob nur Regierungsflugzeuge angezeigt werden sollen
+ * @param categories  Erlaubte Kategorien (bspw. "A3")
+ * @param minAltitude Untere Grenze der Höhe in ft (oder null)
+ * @param maxAltitude Obere Grenze der Höhe in ft (oder null)
+ * @param types       Erlaubte Typen (bspw. "A320")
+ * @param operators   Erlaubte ICAO-Codes der Operator (bspw. "DLH")
+ */
+public record AircraftFilter(boolean military, boolean interesting, boolean special, boolean government,
+                             Set<String> categories, Integer minAltitude, Integer maxAltitude, Set<String> types,
+                             Set<String> operators) {
+
+  // Filter ohne Einschränkung
+  public static final AircraftFilter NONE = new AircraftFilter(false, false, false, false, Set.of(), null, null,
+      Set.of(), Set.of());
+
+  public AircraftFilter {
+    categories = categories != null ? Set.copyOf(categories) : Set.of();
+    types = types != null ? Set.copyOf(types) : Set.of();
+    operators = operators != null ? Set.copyOf(operators) : Set.of();
+  }
+
+  /**
+   * Erstellt einen Filter aus dem bisherigen Parameter showOnlyMilitary und einem Filter-Ausdruck.
+   * Der Ausdruck besteht aus durch ";" getrennten Bedingungen, Werte werden durch "," getrennt,
+   * bspw. "interesting;category:A3,A5;altitude:1000-20000;type:A320;operator:DLH". Eine Grenze der
+   * Höhe kann ausgelassen werden ("altitude:-5000"). Unbekannte oder ungültige Bedingungen werden ignoriert
+   *
+   * @param showOnlyMilitary Boolean, ob nur Militär angezeigt werden soll
+   * @param expression       Filter-Ausdruck (oder null)
+   * @return AircraftFilter
+   */
+  public static AircraftFilter of(boolean showOnlyMilitary, String expression) {
+    if (!showOnlyMilitary && (expression == null || expression.isBlank())) return NONE;
+
+    boolean military = showOnlyMilitary;
+    boolean interesting = false;
+    boolean special = false;
+    boolean government = false;
+    final Set<String> categories = new HashSet<>();
+    final Set<String> types = new HashSet<>();
+    final Set<String> operators = new HashSet<>();
+    Integer minAltitude = null;
+    Integer maxAltitude = null;
+
+    if (expression != null) {
+      for (String term : expression.split(";")) {
+        final int index = term.indexOf(':');
+        final String key = (index < 0 ? term : term.substring(0, index)).trim().toLowerCase(Locale.ROOT);
+        final String value = index < 0 ? "" : term.substring(index + 1).trim();
+
+        switch (key) {
+          case "military" -> military = true;
+          case "interesting" -> interesting = true;
+          case "special" -> special = true;
+          case "government" -> government = true;
+          case "category" -> addValues(value, categories);
+          case "type" -> addValues(value, types);
+          case "operator" -> addValues(value, operators);
+          case "altitude" -> {
+            final int separator = value.indexOf('-');
+            try {
+              if (separator < 0) {
+                minAltitude = Integer.parseInt(value);
+                maxAltitude = minAltitude;
+              } else {
+                final String min = value.substring(0, separator).trim();
+                final String max = value.substring(separator + 1).trim();
+                minAltitude = min.isEmpty() ? null : Integer.parseInt(min);
+                maxAltitude = max.isEmpty() ? null : Integer.parseInt(max);
+              }
+            } catch (NumberFormatException e) {
+              // Ungültige Höhe wird ignoriert
+              minAltitude = null;
+              maxAltitude = null;
+            }
+          }
+          default -> {
+            // Unbekannte Bedingung wird ignoriert
+          }
+        }
+      }
+    }
+
+    return new AircraftFilter(military, interesting, special, government, categories, minAltitude, maxAltitude,
+        types, operators);
+  }
+
+  private static void addValues(String value, Set<String> values) {
+    for (String element : value.split(",")) {
+      if (!element.isBlank()) values.add(element.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+
+  /**
+   * Gibt zurück, ob der Filter keine Einschränkung enthält
+   *
+   * @return boolean
+   */
+  public boolean isEmpty() {
+    return !military && !interesting && !special && !government && categories.isEmpty() && minAltitude == null &&
+        maxAltitude == null && types.isEmpty() && operators.isEmpty();
+  }
+
+  /**
+   * Prüft, ob ein Flugzeug die Bedingungen des Filters erfüllt
+   *
+   * @param aircraft AircraftSuperclass
+   * @return boolean
+   */
+  public boolean matches(AircraftSuperclass aircraft) {
+    if (military && aircraft.getIsMilitary() == null) return false;
+    if (interesting && aircraft.getIsInteresting() == null) return false;
+    if (special && aircraft.getIsSpecial() == null) return false;
+    if (government && aircraft.getIsGovernment() == null) return false;
+    if (!categories.isEmpty() && !containsValue(categories, aircraft.getCategory())) return false;
+    if (!types.isEmpty() && !containsValue(types, aircraft.getType())) return false;
+    if (!operators.isEmpty() && !containsValue(operators, aircraft.getOperatorIcao())) return false;
+    if (minAltitude != null && (aircraft.getAltitude() == null || aircraft.getAltitude() < minAltitude)) return false;
+    return maxAltitude == null || (aircraft.getAltitude() != null && aircraft.getAltitude() <= maxAltitude);
+  }
+
+  private static boolean containsValue(Set<String> values, String value) {
+    return value != null && values.contains(value);
+  }
+
+  /**
+   * Erstellt eine Specification mit den Bedingungen des Filters, damit diese in der Datenbank
+   * ausgewertet werden
+   *
+   * @return Specification<T>
+   */
+  public <T extends AircraftSuperclass> Specification<T> toSpecification() {
+    return (root, query, criteriaBuilder) -> {
+      final List<Predicate> predicates = new ArrayList<>();
+      if (military) predicates.add(criteriaBuilder.isNotNull(root.get("isMilitary")));
+      if (interesting) predicates.add(criteriaBuilder.isNotNull(root.get("isInteresting")));
+      if (special) predicates.add(criteriaBuilder.isNotNull(root.get("isSpecial")));
+      if (government) predicates.add(criteriaBuilder.isNotNull(root.get("isGovernment")));
+      if (!categories.isEmpty()) predicates.add(root.get("category").in(categories));
+      if (!types.isEmpty()) predicates.add(root.get("type").in(types));
+      if (!operators.isEmpty()) predicates.add(root.get("operatorIcao").in(operators));
+      if (minAltitude != null)
+        predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("altitude"), minAltitude));
+      if (maxAltitude != null)
+        predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("altitude"), maxAltitude));
+      return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+    };
+  }
+}
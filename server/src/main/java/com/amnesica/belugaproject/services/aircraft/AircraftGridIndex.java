@@ -0,0 +1,250 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Räumlicher Index über die Flugzeuge als gleichmäßiges Gitter aus Längen- und Breitengraden.
+ * Der Index wird inkrementell gepflegt, ein Flugzeug wird nur beim Wechsel seiner Zelle
+ * verschoben. Eine Abfrage eines Extents besucht nur Zellen, welche Flugzeuge enthalten,
+ * sodass die Dauer proportional zur Größe des Ergebnisses ist. Extents über den
+ * 180. Längengrad (lomin > lomax) werden in zwei Bereiche aufgeteilt.
+ * Der Index wird nur von einem Thread verändert. Für nebenläufige lesende Zugriffe wird mit
+ * snapshot ein unveränderlicher Stand erstellt, welcher unveränderte Zellen mit dem
+ * vorherigen Stand teilt
+ */
+public final class AircraftGridIndex {
+
+  // Zelle für Flugzeuge ohne Position
+  private static final int NO_POSITION_CELL = -1;
+
+  // Größe einer Zelle in Grad
+  private final double cellSize;
+  private final int columns;
+  private final int rows;
+
+  // Hex der Flugzeuge mit Nummer der Zelle als Key (nur Zellen mit Flugzeugen)
+  private final Map<Integer, Set<String>> cells;
+
+  // Nummer der Zelle mit hex als Key (null bei einem unveränderlichen Stand)
+  private final Map<String, Integer> cellByHex;
+
+  // Zellen, welche seit dem letzten Stand verändert wurden
+  private final Set<Integer> changedCells = new HashSet<>();
+
+  // Zuletzt erstellter Stand (oder null)
+  private AircraftGridIndex lastSnapshot;
+
+  // Anzahl der Flugzeuge eines unveränderlichen Stands
+  private final int snapshotSize;
+
+  public AircraftGridIndex(double cellSize) {
+    if (cellSize <= 0 || cellSize > 90) throw new IllegalArgumentException("Invalid cell size " + cellSize);
+    this.cellSize = cellSize;
+    this.columns = (int) Math.ceil(360 / cellSize);
+    this.rows = (int) Math.ceil(180 / cellSize);
+    this.cells = new HashMap<>();
+    this.cellByHex = new HashMap<>();
+    this.snapshotSize = 0;
+  }
+
+  private AircraftGridIndex(AircraftGridIndex index, Map<Integer, Set<String>> cells) {
+    this.cellSize = index.cellSize;
+    this.columns = index.columns;
+    this.rows = index.rows;
+    this.cells = cells;
+    this.cellByHex = null;
+    this.snapshotSize = index.cellByHex.size();
+  }
+
+  /**
+   * Erstellt einen unveränderlichen Stand des Index für nebenläufige lesende Zugriffe. Nur
+   * die seit dem letzten Stand veränderten Zellen werden kopiert
+   *
+   * @return AircraftGridIndex
+   */
+  public AircraftGridIndex snapshot() {
+    if (cellByHex == null) return this;
+    if (lastSnapshot != null && changedCells.isEmpty()) return lastSnapshot;
+
+    final Map<Integer, Set<String>> snapshotCells = lastSnapshot != null ?
+        new HashMap<>(lastSnapshot.cells) : new HashMap<>();
+    for (Integer cell : changedCells) {
+      final Set<String> hexes = cells.get(cell);
+      if (hexes == null) {
+        snapshotCells.remove(cell);
+      } else {
+        snapshotCells.put(cell, Set.copyOf(hexes));
+      }
+    }
+    changedCells.clear();
+
+    lastSnapshot = new AircraftGridIndex(this, snapshotCells);
+    return lastSnapshot;
+  }
+
+  /**
+   * Fügt ein Flugzeug hinzu oder verschiebt es, wenn sich seine Zelle geändert hat
+   *
+   * @param hex       String
+   * @param latitude  Breitengrad (oder null)
+   * @param longitude Längengrad (oder null)
+   */
+  public void update(String hex, Double latitude, Double longitude) {
+    checkModifiable();
+    final int cell = latitude == null || longitude == null ? NO_POSITION_CELL : getCell(latitude, longitude);
+    final Integer previousCell = cellByHex.put(hex, cell);
+    if (previousCell != null && previousCell == cell) return;
+
+    cells.computeIfAbsent(cell, k -> new HashSet<>()).add(hex);
+    changedCells.add(cell);
+    if (previousCell != null) removeFromCell(previousCell, hex);
+  }
+
+  /**
+   * Entfernt ein Flugzeug aus dem Index
+   *
+   * @param hex String
+   */
+  public void remove(String hex) {
+    checkModifiable();
+    final Integer cell = cellByHex.remove(hex);
+    if (cell != null) removeFromCell(cell, hex);
+  }
+
+  /**
+   * Übergibt den hex aller Flugzeuge in Zellen, welche den Extent schneiden. Die Flugzeuge
+   * in Zellen am Rand des Extents müssen vom Aufrufer noch exakt geprüft werden
+   *
+   * @param lomin                  lower bound for the longitude in decimal degrees
+   * @param lamin                  lower bound for the latitude in decimal degrees
+   * @param lomax                  upper bound for the longitude in decimal degrees
+   * @param lamax                  upper bound for the latitude in decimal degrees
+   * @param includeWithoutPosition Flugzeuge ohne Position ebenfalls übergeben
+   * @param consumer               Consumer<String> für den hex der Flugzeuge
+   */
+  public void query(double lomin, double lamin, double lomax, double lamax, boolean includeWithoutPosition,
+                    Consumer<String> consumer) {
+    if (includeWithoutPosition) forEachInCell(NO_POSITION_CELL, consumer);
+    if (lamin > lamax) return;
+
+    final int rowMin = getRow(lamin);
+    final int rowMax = getRow(lamax);
+
+    // Extent umfasst alle Längengrade
+    if (lomax - lomin >= 360) {
+      queryColumns(rowMin, rowMax, 0, columns - 1, consumer);
+      return;
+    }
+
+    final int columnMin = getColumn(lomin);
+    final int columnMax = getColumn(lomax);
+    if (normalizeLongitude(lomin) <= normalizeLongitude(lomax)) {
+      queryColumns(rowMin, rowMax, columnMin, columnMax, consumer);
+    } else {
+      // Extent über den 180. Längengrad
+      queryColumns(rowMin, rowMax, columnMin, columns - 1, consumer);
+      queryColumns(rowMin, rowMax, 0, columnMax, consumer);
+    }
+  }
+
+  /**
+   * Prüft, ob eine Position innerhalb eines Extents liegt (auch über den 180. Längengrad)
+   *
+   * @param latitude  Breitengrad
+   * @param longitude Längengrad
+   * @param lomin     lower bound for the longitude in decimal degrees
+   * @param lamin     lower bound for the latitude in decimal degrees
+   * @param lomax     upper bound for the longitude in decimal degrees
+   * @param lamax     upper bound for the latitude in decimal degrees
+   * @return boolean
+   */
+  public static boolean isWithinExtent(double latitude, double longitude, double lomin, double lamin,
+                                       double lomax, double lamax) {
+    if (latitude < lamin || latitude > lamax) return false;
+    if (lomax - lomin >= 360) return true;
+
+    final double longitudeNormalized = normalizeLongitude(longitude);
+    final double lominNormalized = normalizeLongitude(lomin);
+    final double lomaxNormalized = normalizeLongitude(lomax);
+    if (lominNormalized <= lomaxNormalized) {
+      return longitudeNormalized >= lominNormalized && longitudeNormalized <= lomaxNormalized;
+    }
+    return longitudeNormalized >= lominNormalized || longitudeNormalized <= lomaxNormalized;
+  }
+
+  public int size() {
+    return cellByHex != null ? cellByHex.size() : snapshotSize;
+  }
+
+  private void checkModifiable() {
+    if (cellByHex == null) throw new UnsupportedOperationException("Snapshot of grid index cannot be modified");
+  }
+
+  /**
+   * Besucht die Zellen eines Bereichs. Enthält der Bereich mehr Zellen als Zellen mit
+   * Flugzeugen existieren, werden stattdessen nur die Zellen mit Flugzeugen geprüft
+   */
+  private void queryColumns(int rowMin, int rowMax, int columnMin, int columnMax, Consumer<String> consumer) {
+    final long cellsInRange = (long) (rowMax - rowMin + 1) * (columnMax - columnMin + 1);
+
+    if (cellsInRange > cells.size()) {
+      for (Map.Entry<Integer, Set<String>> entry : cells.entrySet()) {
+        final int cell = entry.getKey();
+        if (cell == NO_POSITION_CELL) continue;
+
+        final int row = cell / columns;
+        final int column = cell % columns;
+        if (row >= rowMin && row <= rowMax && column >= columnMin && column <= columnMax) {
+          entry.getValue().forEach(consumer);
+        }
+      }
+      return;
+    }
+
+    for (int row = rowMin; row <= rowMax; row++) {
+      for (int column = columnMin; column <= columnMax; column++) {
+        forEachInCell(row * columns + column, consumer);
+      }
+    }
+  }
+
+  private void forEachInCell(int cell, Consumer<String> consumer) {
+    final Set<String> hexes = cells.get(cell);
+    if (hexes != null) hexes.forEach(consumer);
+  }
+
+  private void removeFromCell(int cell, String hex) {
+    changedCells.add(cell);
+    cells.computeIfPresent(cell, (k, hexes) -> {
+      hexes.remove(hex);
+      return hexes.isEmpty() ? null : hexes;
+    });
+  }
+
+  private int getCell(double latitude, double longitude) {
+    return getRow(latitude) * columns + getColumn(longitude);
+  }
+
+  private int getRow(double latitude) {
+    final int row = (int) Math.floor((latitude + 90) / cellSize);
+    return Math.max(0, Math.min(rows - 1, row));
+  }
+
+  private int getColumn(double longitude) {
+    final int column = (int) Math.floor((normalizeLongitude(longitude) + 180) / cellSize);
+    return Math.max(0, Math.min(columns - 1, column));
+  }
+
+  /**
+   * Bildet einen Längengrad auf den Bereich -180 bis 180 ab
+   */
+  private static double normalizeLongitude(double longitude) {
+    if (longitude >= -180 && longitude <= 180) return longitude;
+    final double normalized = ((longitude + 180) % 360 + 360) % 360 - 180;
+    return normalized == -180 && longitude > 0 ? 180 : normalized;
+  }
+}
@@ -0,0 +1,130 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.config.CborConfig;
+import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Reduzierte Ansicht eines Flugzeugs für die Liste der Flugzeuge (/getAircraftList), welche nur
+ * ausgewählte Felder enthält. Die Ansicht "map" enthält die Felder, welche zum Darstellen eines
+ * Flugzeugs auf der Karte benötigt werden. Alle Informationen eines Flugzeugs sind weiterhin über
+ * /getAllAircraftData abrufbar. Wie bei der vollständigen Serialisierung werden Felder ohne Wert
+ * ausgelassen
+ */
+public final class AircraftProjection {
+
+  // Name der Ansicht für die Karte
+  public static final String MAP_VIEW = "map";
+
+  // Auswählbare Felder mit Feldname als Key (Reihenfolge wie in AircraftSuperclass)
+  private static final Map<String, Function<AircraftSuperclass, Object>> FIELDS = new LinkedHashMap<>();
+
+  static {
+    FIELDS.put("hex", AircraftSuperclass::getHex);
+    FIELDS.put("latitude", AircraftSuperclass::getLatitude);
+    FIELDS.put("longitude", AircraftSuperclass::getLongitude);
+    FIELDS.put("altitude", AircraftSuperclass::getAltitude);
+    FIELDS.put("track", AircraftSuperclass::getTrack);
+    FIELDS.put("type", AircraftSuperclass::getType);
+    FIELDS.put("registration", AircraftSuperclass::getRegistration);
+    FIELDS.put("onGround", AircraftSuperclass::getOnGround);
+    FIELDS.put("speed", AircraftSuperclass::getSpeed);
+    FIELDS.put("squawk", AircraftSuperclass::getSquawk);
+    FIELDS.put("flightId", AircraftSuperclass::getFlightId);
+    FIELDS.put("verticalRate", AircraftSuperclass::getVerticalRate);
+    FIELDS.put("rssi", AircraftSuperclass::getRssi);
+    FIELDS.put("category", AircraftSuperclass::getCategory);
+    FIELDS.put("destination", AircraftSuperclass::getDestination);
+    FIELDS.put("origin", AircraftSuperclass::getOrigin);
+    FIELDS.put("distance", AircraftSuperclass::getDistance);
+    FIELDS.put("emergency", AircraftSuperclass::getEmergency);
+    FIELDS.put("feederList", AircraftSuperclass::getFeederList);
+    FIELDS.put("sourceCurrentFeeder", AircraftSuperclass::getSourceCurrentFeeder);
+    FIELDS.put("operatorIcao", AircraftSuperclass::getOperatorIcao);
+    FIELDS.put("icaoAircraftType", AircraftSuperclass::getIcaoAircraftType);
+    FIELDS.put("aircraftState", AircraftSuperclass::getAircraftState);
+    FIELDS.put("lastUpdate", AircraftSuperclass::getLastUpdate);
+    FIELDS.put("isFromRemote", AircraftSuperclass::getIsFromRemote);
+    FIELDS.put("isMilitary", AircraftSuperclass::getIsMilitary);
+    FIELDS.put("isHistoric", AircraftSuperclass::getIsHistoric);
+    FIELDS.put("isGovernment", AircraftSuperclass::getIsGovernment);
+    FIELDS.put("isSpecial", AircraftSuperclass::getIsSpecial);
+    FIELDS.put("isInteresting", AircraftSuperclass::getIsInteresting);
+    FIELDS.put("roll", AircraftSuperclass::getRoll);
+  }
+
+  // Felder der Ansicht "map" (Position, Höhe, Richtung, Typ/Kategorie für das Icon und Flags)
+  private static final List<String> MAP_FIELDS = List.of("hex", "latitude", "longitude", "altitude", "track", "type",
+      "onGround", "flightId", "category", "isFromRemote", "isMilitary");
+
+  public static final AircraftProjection MAP = new AircraftProjection(MAP_FIELDS);
+
+  // Ausgewählte Felder in der Reihenfolge der Ausgabe
+  private final List<String> names;
+  private final List<Function<AircraftSuperclass, Object>> accessors;
+
+  private AircraftProjection(Collection<String> fields) {
+    this.names = new ArrayList<>(fields.size());
+    this.accessors = new ArrayList<>(fields.size());
+    for (String field : fields) {
+      names.add(field);
+      accessors.add(FIELDS.get(field));
+    }
+  }
+
+  /**
+   * Erstellt eine Ansicht aus den angefragten Feldern. Der Name "map" steht dabei für alle Felder
+   * der Ansicht für die Karte und kann um weitere Felder ergänzt werden (bspw. "map,squawk").
+   * Unbekannte Felder werden ignoriert, hex ist immer enthalten
+   *
+   * @param fields Liste mit Feldnamen (oder null)
+   * @return AircraftProjection oder null, wenn keine Felder angefragt wurden (vollständige Flugzeuge)
+   */
+  public static AircraftProjection of(List<String> fields) {
+    if (fields == null || fields.isEmpty()) return null;
+    if (fields.size() == 1 && MAP_VIEW.equals(fields.get(0))) return MAP;
+
+    final Set<String> selectedFields = new LinkedHashSet<>();
+    selectedFields.add("hex");
+    for (String field : fields) {
+      if (field == null) continue;
+      final String name = field.trim();
+      if (MAP_VIEW.equals(name)) {
+        selectedFields.addAll(MAP_FIELDS);
+      } else if (FIELDS.containsKey(name)) {
+        selectedFields.add(name);
+      }
+    }
+    return new AircraftProjection(selectedFields);
+  }
+
+  /**
+   * Schreibt die ausgewählten Felder eines Flugzeugs als JSON- oder CBOR-Objekt
+   *
+   * @param aircraft  AircraftSuperclass
+   * @param generator JsonGenerator
+   */
+  public void write(AircraftSuperclass aircraft, JsonGenerator generator) throws IOException {
+    generator.writeStartObject();
+    for (int i = 0; i < names.size(); i++) {
+      final Object value = accessors.get(i).apply(aircraft);
+      if (value == null) continue;
+
+      if (value instanceof Double coordinate && CborConfig.isCoordinateField(names.get(i))) {
+        generator.writeFieldName(names.get(i));
+        CborConfig.writeCoordinate(coordinate, generator);
+      } else {
+        generator.writeObjectField(names.get(i), value);
+      }
+    }
+    generator.writeEndObject();
+  }
+
+  public List<String> getFields() {
+    return Collections.unmodifiableList(names);
+  }
+}
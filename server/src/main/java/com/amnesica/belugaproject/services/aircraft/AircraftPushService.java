@@ -0,0 +1,250 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.config.StaticValues;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Push-Updates der Flugzeuge über Server-Sent Events. Ein Client registriert einmalig Extent,
+ * Feeder und Filter, anschließend werden nach jeder Veröffentlichung eines neuen Stands die
+ * Änderungen seit der zuletzt gesendeten Version gesendet (Format wie /getAircraftListDelta).
+ * Pro Verbindung wird höchstens ein Event gleichzeitig erstellt und gesendet. Ist ein Client
+ * zu langsam, werden zwischenzeitliche Stände verworfen und beim nächsten Senden die
+ * Änderungen bis zum neuesten Stand gesendet. Die Anzahl der Verbindungen ist begrenzt
+ */
+@Slf4j
+@EnableScheduling
+@Service
+public class AircraftPushService {
+  @Autowired
+  private FeederService feederService;
+
+  @Autowired
+  private LiveAircraftService liveAircraftService;
+
+  @Autowired
+  private Configuration configuration;
+
+  @Autowired
+  private MetricsService metricsService;
+
+  // Namen der Metriken
+  static final String METRIC_CONNECTIONS = "push.connections";
+  static final String METRIC_CONNECTIONS_REJECTED = "push.connections.rejected";
+  static final String METRIC_EVENTS_SENT = "push.events.sent";
+  static final String METRIC_EVENTS_COALESCED = "push.events.coalesced";
+
+  // Name des Events
+  static final String EVENT_NAME = "aircraft";
+
+  // Verbindungen mit Id als Key
+  private final Map<Long, PushConnection> connections = new ConcurrentHashMap<>();
+
+  private final AtomicLong connectionCounter = new AtomicLong();
+
+  // Executor zum Erstellen und Senden der Events (höchstens ein Task pro Verbindung)
+  private final ExecutorService pushExecutor = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "aircraft-push");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Registrierte Parameter und Zustand einer Verbindung
+   */
+  private static class PushConnection {
+    private final long id;
+    private final SseEmitter emitter;
+    private final double lomin;
+    private final double lamin;
+    private final double lomax;
+    private final double lamax;
+    private final List<String> selectedFeeder;
+    private final String fetchRemote;
+    private final boolean showIss;
+    private final String markedHex;
+    private final AircraftFilter filter;
+    private final String ipAddressClient;
+
+    // Es existiert ein neuerer Stand als der zuletzt gesendete
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    // Für die Verbindung wird gerade ein Event erstellt oder gesendet
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    // Version des zuletzt gesendeten Stands (nur im sendenden Thread verwendet)
+    private long lastVersion;
+
+    private PushConnection(long id, SseEmitter emitter, double lomin, double lamin, double lomax, double lamax,
+                           List<String> selectedFeeder, String fetchRemote, boolean showIss, String markedHex,
+                           AircraftFilter filter, String ipAddressClient) {
+      this.id = id;
+      this.emitter = emitter;
+      this.lomin = lomin;
+      this.lamin = lamin;
+      this.lomax = lomax;
+      this.lamax = lamax;
+      this.selectedFeeder = selectedFeeder;
+      this.fetchRemote = fetchRemote;
+      this.showIss = showIss;
+      this.markedHex = markedHex;
+      this.filter = filter;
+      this.ipAddressClient = ipAddressClient;
+    }
+  }
+
+  /**
+   * Registriert die Metriken und den Listener für neu veröffentlichte Stände
+   */
+  @PostConstruct
+  public void init() {
+    metricsService.registerGauge(METRIC_CONNECTIONS, connections::size);
+    liveAircraftService.addPublishListener(snapshot -> pushToAll());
+  }
+
+  /**
+   * Beendet alle Verbindungen beim Herunterfahren
+   */
+  @PreDestroy
+  public void shutdown() {
+    connections.values().forEach(connection -> connection.emitter.complete());
+    connections.clear();
+    pushExecutor.shutdownNow();
+  }
+
+  /**
+   * Registriert eine neue Verbindung und sendet den vollständigen Stand als erstes Event.
+   * Ist die maximale Anzahl an Verbindungen erreicht, wird null zurückgegeben
+   *
+   * @param lomin            lower bound for the longitude in decimal degrees
+   * @param lamin            lower bound for the latitude in decimal degrees
+   * @param lomax            upper bound for the longitude in decimal degrees
+   * @param lamax            upper bound for the latitude in decimal degrees
+   * @param selectedFeeder   List<String>, Ausgewählte Feeder (oder keiner)
+   * @param fetchRemote      String, ob Remote-Flugzeuge ("Opensky" oder "Airplanes-Live") angefragt werden soll
+   * @param showIss          Boolean, ob ISS abgefragt werden soll
+   * @param markedHex        String, hex des markierten Flugzeugs
+   * @param filter           AircraftFilter
+   * @param httpRequest      HttpServletRequest
+   * @return SseEmitter (oder null)
+   */
+  public SseEmitter subscribe(double lomin, double lamin, double lomax, double lamax, List<String> selectedFeeder,
+                              String fetchRemote, boolean showIss, String markedHex, AircraftFilter filter,
+                              HttpServletRequest httpRequest) {
+    final long id = connectionCounter.incrementAndGet();
+    final SseEmitter emitter = new SseEmitter(0L);
+    final PushConnection connection = new PushConnection(id, emitter, lomin, lamin, lomax, lamax,
+        selectedFeeder != null ? List.copyOf(selectedFeeder) : List.of(), fetchRemote, showIss, markedHex,
+        filter, httpRequest.getRemoteAddr());
+
+    synchronized (connections) {
+      if (connections.size() >= configuration.getPushMaxConnections()) {
+        metricsService.incrementCounter(METRIC_CONNECTIONS_REJECTED);
+        return null;
+      }
+      connections.put(id, connection);
+    }
+
+    emitter.onCompletion(() -> connections.remove(id));
+    emitter.onTimeout(() -> connections.remove(id));
+    emitter.onError(e -> connections.remove(id));
+
+    push(connection);
+    return emitter;
+  }
+
+  /**
+   * Sendet in regelmäßigen Abständen auch ohne neuen Stand der lokalen Feeder ein Event,
+   * damit sich Remote-Flugzeuge und ISS aktualisieren und die Verbindung offen bleibt.
+   * Methode wird alle INTERVAL_UPDATE_REMOTE Millisekunden aufgerufen
+   */
+  @Scheduled(fixedDelay = StaticValues.INTERVAL_UPDATE_REMOTE)
+  public void pushToAll() {
+    connections.values().forEach(this::push);
+  }
+
+  public int getNumberConnections() {
+    return connections.size();
+  }
+
+  /**
+   * Markiert einen neuen Stand für eine Verbindung. Wird für die Verbindung bereits ein Event
+   * gesendet, wird der Stand nur vermerkt (drop to latest), ansonsten wird das Senden gestartet
+   */
+  private void push(PushConnection connection) {
+    if (connection.pending.getAndSet(true)) {
+      // Vorheriger Stand wurde noch nicht gesendet und wird durch den neuesten ersetzt
+      metricsService.incrementCounter(METRIC_EVENTS_COALESCED);
+      return;
+    }
+    if (connection.sending.compareAndSet(false, true)) {
+      pushExecutor.execute(() -> sendPending(connection));
+    }
+  }
+
+  private void sendPending(PushConnection connection) {
+    try {
+      while (connection.pending.getAndSet(false)) {
+        if (!send(connection)) return;
+      }
+    } finally {
+      connection.sending.set(false);
+    }
+
+    // Neuer Stand wurde nach der letzten Prüfung, aber vor dem Zurücksetzen von sending vermerkt
+    if (connection.pending.get() && connection.sending.compareAndSet(false, true)) {
+      pushExecutor.execute(() -> sendPending(connection));
+    }
+  }
+
+  /**
+   * Erstellt und sendet die Änderungen seit der zuletzt gesendeten Version. Der Aufruf
+   * blockiert, bis der Client die Daten angenommen hat
+   *
+   * @return boolean, ob die Verbindung noch besteht
+   */
+  private boolean send(PushConnection connection) {
+    if (!connections.containsKey(connection.id)) return false;
+
+    try {
+      final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      final long version = feederService.writePlanesDelta(connection.lomin, connection.lamin, connection.lomax,
+          connection.lamax, connection.selectedFeeder, connection.fetchRemote, connection.showIss,
+          connection.markedHex, connection.filter, connection.lastVersion, connection.ipAddressClient,
+          outputStream);
+
+      connection.emitter.send(SseEmitter.event()
+          .name(EVENT_NAME)
+          .id(String.valueOf(version))
+          .data(outputStream.toString(StandardCharsets.UTF_8)));
+      connection.lastVersion = version;
+      metricsService.incrementCounter(METRIC_EVENTS_SENT);
+      return true;
+    } catch (Exception e) {
+      // Client hat die Verbindung geschlossen
+      log.debug("Server - Push connection " + connection.id + " closed : Exception = " + e);
+      connections.remove(connection.id);
+      connection.emitter.completeWithError(e);
+      return false;
+    }
+  }
+}
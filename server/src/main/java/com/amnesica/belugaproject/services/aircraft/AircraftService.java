@@ -257,6 +257,29 @@ public class AircraftService {
     aircraftToUpdate.setLastUpdate(System.currentTimeMillis());
   }
 
+  /**
+   * Aktualisiert bei einem unveränderten Flugzeug nur Feeder-Liste, Source-Liste und den
+   * Zeitpunkt des letzten Updates, die übrigen Werte bleiben bestehen
+   *
+   * @param aircraftToUpdate AircraftSuperclass
+   * @param aircraftNew      AircraftSuperclass
+   * @param feederName       String
+   */
+  public void refreshUnchangedAircraft(AircraftSuperclass aircraftToUpdate, AircraftSuperclass aircraftNew,
+                                       String feederName) {
+    // Schreibe aktuellen Feeder als Feeder in Liste
+    if (!aircraftToUpdate.getFeederList().contains(feederName)) {
+      aircraftToUpdate.addFeederToFeederList(feederName);
+    }
+
+    // Schreibe aktuellen Feeder und dessen Source in Liste
+    aircraftToUpdate.setSourceCurrentFeeder(aircraftNew.getSourceCurrentFeeder());
+    aircraftToUpdate.addSourceToSourceList(feederName);
+
+    // Füge Timestamp als Zeitpunkt des letzten Updates an
+    aircraftToUpdate.setLastUpdate(System.currentTimeMillis());
+  }
+
   /**
    * Setze Werte aus JSON-Element an das Flugzeug basierend auf den Mappings des
    * jeweiligen Feeders
@@ -367,27 +390,20 @@ public class AircraftService {
     }
 
     // Virtual Radar Server liefert Origin/Destination im Format IATA-Code plus Airportbezeichnung
-    // Nur der IATA-Code wird extrahiert und über die Datenbank nach ICAO gemappt
-    if (feeder.getType().equals("vrs") && Utility.jsonFieldExists(jsonObject, destination)) {
-      String iataCode = jsonObject.getString(destination).substring(0, 3);
-      String icaoCode = airportDataService.getAirportIcaoCode(iataCode);
-      if (icaoCode != null) {
-        jsonObject.put(destination, icaoCode);
-        aircraft.setDestination(jsonObject.getString(destination));
+    // Nur der IATA-Code wird extrahiert und über die Zuordnung der Flughäfen nach ICAO gemappt
+    if (feeder.getType().equals("vrs")) {
+      if (Utility.jsonFieldExists(jsonObject, destination)) {
+        String icaoCode = getIcaoCodeFromVrsAirport(jsonObject.getString(destination));
+        if (icaoCode != null) aircraft.setDestination(icaoCode);
+      }
+      if (Utility.jsonFieldExists(jsonObject, origin)) {
+        String icaoCode = getIcaoCodeFromVrsAirport(jsonObject.getString(origin));
+        if (icaoCode != null) aircraft.setOrigin(icaoCode);
       }
     } else {
       if (Utility.jsonFieldExists(jsonObject, destination)) {
         aircraft.setDestination(jsonObject.getString(destination));
       }
-    }
-    if (feeder.getType().equals("vrs") && Utility.jsonFieldExists(jsonObject, origin)) {
-      String iataCode = jsonObject.getString(origin).substring(0, 3);
-      String icaoCode = airportDataService.getAirportIcaoCode(iataCode);
-      if (icaoCode != null) {
-        jsonObject.put(origin, icaoCode);
-        aircraft.setOrigin(jsonObject.getString(origin));
-      }
-    } else {
       if (Utility.jsonFieldExists(jsonObject, origin)) {
         aircraft.setOrigin(jsonObject.getString(origin));
       }
@@ -484,6 +500,18 @@ public class AircraftService {
     setAircraftState(aircraft);
   }
 
+  /**
+   * Mappt einen Flughafen im Format des Virtual Radar Servers (IATA-Code plus Airportbezeichnung,
+   * bspw. "HAM Hamburg, Germany") nach ICAO
+   *
+   * @param vrsAirport String
+   * @return icaoCode String (oder null)
+   */
+  private String getIcaoCodeFromVrsAirport(String vrsAirport) {
+    if (vrsAirport.length() < 3) return null;
+    return airportDataService.getAirportIcaoCode(vrsAirport.substring(0, 3));
+  }
+
   private static void addSourceToAircraft(Feeder feeder, JSONObject element, AircraftSuperclass aircraft, String source) {
     if (source != null && element.has(source) && !element.isNull(source)) {
       if (feeder.getType().equals("fr24feeder")) {
@@ -515,7 +543,7 @@ public class AircraftService {
     }
   }
 
-  private static String getShortTypeFromType(String type) {
+  static String getShortTypeFromType(String type) {
     String finalType = null;
     if (type.contains("adsb")) {
       finalType = "A";
@@ -0,0 +1,80 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.config.StaticValues;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Unveränderlicher, versionierter Stand der Flugzeuge der lokalen Feeder, welcher pro
+ * Ingest-Iteration veröffentlicht wird. Zu jedem Flugzeug wird das einmalig serialisierte
+ * JSON-Fragment gespeichert, damit Anfragen dieses direkt in die Antwort schreiben können.
+ * Unveränderte Flugzeuge werden inklusive JSON-Fragment aus dem vorherigen Stand übernommen.
+ * Der räumliche Index wird zusammen mit den Flugzeugen veröffentlicht, damit beide zueinander passen
+ */
+public final class AircraftSnapshot {
+
+  public static final AircraftSnapshot EMPTY = new AircraftSnapshot(0, 0, Collections.emptyMap(), Collections.emptyMap());
+
+  private final long version;
+
+  // Zeitpunkt der Veröffentlichung in Millisekunden
+  private final long publishTime;
+
+  // Kopien der Flugzeuge mit hex als Key (werden nicht mehr verändert)
+  private final Map<String, Aircraft> aircraftMap;
+
+  // Serialisiertes JSON der Flugzeuge mit hex als Key
+  private final Map<String, byte[]> jsonMap;
+
+  // Unveränderlicher Stand des räumlichen Index über die Positionen der Flugzeuge
+  private final AircraftGridIndex gridIndex;
+
+  public AircraftSnapshot(long version, long publishTime, Map<String, Aircraft> aircraftMap,
+                          Map<String, byte[]> jsonMap) {
+    this(version, publishTime, aircraftMap, jsonMap,
+        new AircraftGridIndex(StaticValues.GRID_INDEX_CELL_SIZE).snapshot());
+  }
+
+  public AircraftSnapshot(long version, long publishTime, Map<String, Aircraft> aircraftMap,
+                          Map<String, byte[]> jsonMap, AircraftGridIndex gridIndex) {
+    this.version = version;
+    this.publishTime = publishTime;
+    this.aircraftMap = Collections.unmodifiableMap(aircraftMap);
+    this.jsonMap = jsonMap;
+    this.gridIndex = gridIndex;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public long getPublishTime() {
+    return publishTime;
+  }
+
+  public Map<String, Aircraft> getAircraftMap() {
+    return aircraftMap;
+  }
+
+  public AircraftGridIndex getGridIndex() {
+    return gridIndex;
+  }
+
+  public Aircraft getAircraft(String hex) {
+    return aircraftMap.get(hex);
+  }
+
+  /**
+   * Gibt das JSON-Fragment eines Flugzeugs zurück, wenn das Flugzeug (Objekt) Teil dieses
+   * Stands ist. Hinweis: Das Array darf nicht verändert werden
+   *
+   * @param aircraft Aircraft
+   * @return byte[] (oder null)
+   */
+  public byte[] getJson(Aircraft aircraft) {
+    if (aircraft == null || aircraftMap.get(aircraft.getHex()) != aircraft) return null;
+    return jsonMap.get(aircraft.getHex());
+  }
+}
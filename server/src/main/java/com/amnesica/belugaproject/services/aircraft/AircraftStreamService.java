@@ -0,0 +1,240 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.config.Feeder;
+import com.amnesica.belugaproject.config.FeederMapping;
+import com.amnesica.belugaproject.config.FeederType;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.services.data.AirportDataService;
+import com.amnesica.belugaproject.services.helper.HelperService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liest die Flugzeuge eines lokalen Feeders mit einem Streaming-Parser (Jackson JsonParser)
+ * direkt aus dem Byte-Stream der Antwort, ohne ein JSONObject/JSONArray aufzubauen.
+ * Die Datensätze werden mit dem FeederDecoder des Feeders dekodiert, welcher bei der ersten
+ * Verwendung des Feeders aus dessen Zuweisungen kompiliert wird.
+ * Antworten im binären binCraft-Format von readsb werden über einen ByteBuffer gelesen
+ */
+@Slf4j
+@Service
+public class AircraftStreamService {
+  @Autowired
+  private AircraftService aircraftService;
+  @Autowired
+  private AirportDataService airportDataService;
+
+  @Autowired
+  private Configuration configuration;
+
+  // JsonFactory ist thread-safe und wird für alle Feeder geteilt
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
+  // Gelesene Bytes des binCraft-Headers (Zeitpunkt des Datenstands und Länge der Datensätze)
+  private static final int BINCRAFT_HEADER_SIZE = 12;
+
+  // Vorkompilierte Decoder mit Name des Feeders als Key
+  private final Map<String, CompiledDecoder> decodersByFeeder = new ConcurrentHashMap<>();
+
+  /**
+   * Aus den Zuweisungen eines Feeders kompilierter Decoder
+   *
+   * @param type    Typ des Feeders beim Kompilieren
+   * @param mapping Zuweisungen des Feeders beim Kompilieren
+   * @param decoder FeederDecoder
+   */
+  private record CompiledDecoder(String type, FeederMapping mapping, FeederDecoder decoder) {
+  }
+
+  /**
+   * Liest alle gültigen Flugzeuge aus dem Byte-Stream der Antwort eines lokalen Feeders
+   *
+   * @param inputStream InputStream mit der Antwort des Feeders
+   * @param feeder      Feeder
+   * @return List<Aircraft>
+   * @throws IOException IOException
+   */
+  public List<Aircraft> readAircraftFromLocalFeeder(InputStream inputStream, Feeder feeder) throws IOException {
+    final FeederSnapshot snapshot = readSnapshotFromLocalFeeder(inputStream, feeder, null);
+    return snapshot != null ? snapshot.getAircraft() : null;
+  }
+
+  /**
+   * Liest den Datenstand eines lokalen Feeders aus dem Byte-Stream der Antwort. Liefert der
+   * Feeder den Zeitpunkt seines Datenstands (bspw. "now") vor den Flugzeugen und ist dieser
+   * identisch mit previousSnapshotTime, wird das Lesen der Flugzeuge abgebrochen
+   *
+   * @param inputStream          InputStream mit der Antwort des Feeders
+   * @param feeder               Feeder
+   * @param previousSnapshotTime Zeitpunkt des letzten Datenstands in Millisekunden (oder null)
+   * @return FeederSnapshot oder null, wenn der Feeder keinen gültigen Decoder hat
+   * @throws IOException IOException
+   */
+  public FeederSnapshot readSnapshotFromLocalFeeder(InputStream inputStream, Feeder feeder,
+                                                    Long previousSnapshotTime) throws IOException {
+    final FeederDecoder decoder = getDecoder(feeder);
+    if (decoder == null || !decoder.isValid()) return null;
+
+    if (decoder.getFeederType() == FeederType.BINCRAFT) {
+      return readBinCraftSnapshot(inputStream, decoder, previousSnapshotTime);
+    }
+
+    final List<Aircraft> listAircraft = new ArrayList<>();
+    Long snapshotTime = null;
+
+    try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+      JsonToken token = parser.nextToken();
+
+      // Wurzel-Element ist das Array mit den Flugzeugen
+      if (decoder.getAircraftArrayKey() == null) {
+        if (token == JsonToken.START_ARRAY) readAircraftArray(parser, decoder, listAircraft);
+        return new FeederSnapshot(listAircraft, null, false);
+      }
+
+      if (token != JsonToken.START_OBJECT) return new FeederSnapshot(listAircraft, null, false);
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = parser.currentName();
+        token = parser.nextToken();
+
+        if (name.equals(decoder.getSnapshotTimeKey()) && token != null && token.isNumeric()) {
+          snapshotTime = decoder.toSnapshotTimeMillis(parser.getDoubleValue());
+
+          // Datenstand ist unverändert, Flugzeuge müssen nicht gelesen werden
+          if (snapshotTime.equals(previousSnapshotTime) && listAircraft.isEmpty()) {
+            return new FeederSnapshot(listAircraft, snapshotTime, true);
+          }
+        } else if (name.equals(decoder.getAircraftArrayKey()) && token == JsonToken.START_ARRAY) {
+          readAircraftArray(parser, decoder, listAircraft);
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+
+    // Zeitpunkt stand hinter den Flugzeugen (bspw. "stm" bei vrs)
+    final boolean unchanged = snapshotTime != null && snapshotTime.equals(previousSnapshotTime);
+    return new FeederSnapshot(unchanged ? new ArrayList<>() : listAircraft, snapshotTime, unchanged);
+  }
+
+  /**
+   * Gibt den Decoder eines Feeders zurück. Der Decoder wird bei der ersten Verwendung des
+   * Feeders und bei geänderten Zuweisungen neu kompiliert
+   *
+   * @param feeder Feeder
+   * @return FeederDecoder oder null, wenn der Feeder keine Zuweisungen hat
+   */
+  private FeederDecoder getDecoder(Feeder feeder) {
+    if (feeder.getMapping() == null) return null;
+
+    final CompiledDecoder compiled = decodersByFeeder.get(feeder.getName());
+    if (compiled != null && compiled.mapping() == feeder.getMapping() && Objects.equals(compiled.type(),
+        feeder.getType())) {
+      return compiled.decoder();
+    }
+
+    final FeederDecoder decoder = FeederDecoder.compile(feeder);
+    decodersByFeeder.put(feeder.getName(), new CompiledDecoder(feeder.getType(), feeder.getMapping(), decoder));
+    return decoder;
+  }
+
+  /**
+   * Liest den Datenstand eines Feeders im binCraft-Format. Der Header enthält den Zeitpunkt
+   * des Datenstands und die Länge der Datensätze, ist der Zeitpunkt identisch mit
+   * previousSnapshotTime, werden die Datensätze nicht gelesen
+   *
+   * @param inputStream          InputStream mit der Antwort des Feeders
+   * @param decoder              FeederDecoder
+   * @param previousSnapshotTime Zeitpunkt des letzten Datenstands in Millisekunden (oder null)
+   * @return FeederSnapshot
+   * @throws IOException IOException
+   */
+  private FeederSnapshot readBinCraftSnapshot(InputStream inputStream, FeederDecoder decoder,
+                                              Long previousSnapshotTime) throws IOException {
+    final List<Aircraft> listAircraft = new ArrayList<>();
+
+    final byte[] headerBytes = inputStream.readNBytes(BINCRAFT_HEADER_SIZE);
+    if (headerBytes.length < BINCRAFT_HEADER_SIZE) return new FeederSnapshot(listAircraft, null, false);
+
+    final ByteBuffer header = ByteBuffer.wrap(headerBytes).order(ByteOrder.LITTLE_ENDIAN);
+    final long snapshotTime = FeederDecoder.readBinCraftSnapshotTime(header);
+    final int stride = FeederDecoder.readBinCraftStride(header);
+
+    // Datenstand ist unverändert, Datensätze müssen nicht gelesen werden
+    if (previousSnapshotTime != null && snapshotTime == previousSnapshotTime) {
+      return new FeederSnapshot(listAircraft, snapshotTime, true);
+    }
+
+    // Rest des Headers (Länge stride) und Datensätze
+    final ByteBuffer buffer = ByteBuffer.wrap(inputStream.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+    final FeederDecoder.RecordState state = decoder.createRecordState(null);
+    final Double latFeeder = configuration.getLatFeeder();
+    final Double lonFeeder = configuration.getLonFeeder();
+
+    for (int offset = stride - BINCRAFT_HEADER_SIZE; offset + stride <= buffer.limit(); offset += stride) {
+      addAircraft(decoder.decode(buffer, offset, state), listAircraft, latFeeder, lonFeeder);
+    }
+
+    return new FeederSnapshot(listAircraft, snapshotTime, false);
+  }
+
+  /**
+   * Liest alle Flugzeuge aus dem Array, auf dessen Anfang der Parser steht
+   *
+   * @param parser       JsonParser (steht auf START_ARRAY)
+   * @param decoder      FeederDecoder
+   * @param listAircraft List<Aircraft>, zu der die Flugzeuge hinzugefügt werden
+   * @throws IOException IOException
+   */
+  private void readAircraftArray(JsonParser parser, FeederDecoder decoder, List<Aircraft> listAircraft)
+      throws IOException {
+    final FeederDecoder.RecordState state = decoder.createRecordState(airportDataService::getAirportIcaoCode);
+    final Double latFeeder = configuration.getLatFeeder();
+    final Double lonFeeder = configuration.getLonFeeder();
+
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+      if (token != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+        continue;
+      }
+
+      addAircraft(decoder.decode(parser, state), listAircraft, latFeeder, lonFeeder);
+    }
+  }
+
+  /**
+   * Setzt Distanz zum Feeder und Zustand eines dekodierten Flugzeugs und fügt es zur Liste hinzu
+   *
+   * @param aircraftNew  Aircraft (oder null, wenn der Datensatz ungültig ist)
+   * @param listAircraft List<Aircraft>
+   * @param latFeeder    Breitengrad des Feeders
+   * @param lonFeeder    Längengrad des Feeders
+   */
+  private void addAircraft(Aircraft aircraftNew, List<Aircraft> listAircraft, Double latFeeder, Double lonFeeder) {
+    if (aircraftNew == null) return;
+
+    if (aircraftNew.getLatitude() != null && aircraftNew.getLongitude() != null) {
+      aircraftNew.setDistance(HelperService.getDistanceBetweenPositions(aircraftNew.getLatitude(),
+          aircraftNew.getLongitude(), latFeeder, lonFeeder));
+    }
+    aircraftService.setAircraftState(aircraftNew);
+
+    listAircraft.add(aircraftNew);
+  }
+}
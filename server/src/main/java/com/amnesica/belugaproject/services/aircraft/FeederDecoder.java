@@ -0,0 +1,1000 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.config.Feeder;
+import com.amnesica.belugaproject.config.FeederMapping;
+import com.amnesica.belugaproject.config.FeederType;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Aus dem FeederMapping eines Feeders vorkompilierter Decoder. Jeder Schlüssel im JSON
+ * eines Flugzeugs wird einmalig beim Erstellen des Decoders auf die passenden Felder
+ * (Slots) abgebildet, sodass ein Datensatz in einem einzigen Durchlauf über seine
+ * Schlüssel direkt an das Flugzeug gebunden wird. Abhängigkeiten zwischen Feldern
+ * (bspw. Höhe und elipsoidale Höhe) werden über den wiederverwendbaren RecordState
+ * am Ende des Datensatzes aufgelöst. Datensätze im binären binCraft-Format von readsb
+ * haben ein festes Layout und werden direkt aus einem ByteBuffer gelesen
+ */
+public final class FeederDecoder {
+
+  private final String feederName;
+  private final FeederType feederType;
+
+  // Feeder liefert die Felder von readsb (adsbx und binCraft)
+  private final boolean readsbFields;
+
+  // Name des Arrays mit den Flugzeugen (null, wenn das Wurzel-Element das Array ist)
+  private final String aircraftArrayKey;
+
+  // Schlüssel mit dem Zeitpunkt des Datenstands des Feeders (null, wenn der Feeder keinen liefert)
+  private final String snapshotTimeKey;
+  private final boolean snapshotTimeInSeconds;
+
+  // Schlüssel für Position innerhalb von "lastPosition" (nur adsbx)
+  private final String latitudeKey;
+  private final String longitudeKey;
+
+  // Slots mit Schlüssel im JSON als Key
+  private final Map<String, Slot[]> slotsByKey;
+
+  // Mapping ist vollständig (hex, latitude und longitude sind gesetzt)
+  private final boolean valid;
+
+  private FeederDecoder(Feeder feeder, FeederMapping mapping) {
+    this.feederName = feeder.getName();
+    this.feederType = FeederType.fromTypeName(feeder.getType());
+    this.readsbFields = feederType == FeederType.ADSBX || feederType == FeederType.BINCRAFT;
+    this.aircraftArrayKey = switch (feederType) {
+      case AIRSQUITTER, BINCRAFT -> null;
+      case VRS -> "acList";
+      default -> "aircraft";
+    };
+    this.snapshotTimeKey = switch (feederType) {
+      case ADSBX, DUMP1090_FA, FR24FEEDER -> "now";
+      case VRS -> "stm";
+      default -> null;
+    };
+    this.snapshotTimeInSeconds = "now".equals(snapshotTimeKey);
+    this.latitudeKey = mapping.getLatitude();
+    this.longitudeKey = mapping.getLongitude();
+    this.valid = mapping.getHex() != null && mapping.getLatitude() != null && mapping.getLongitude() != null;
+    this.slotsByKey = createSlotsByKey(mapping, feederType);
+  }
+
+  /**
+   * Kompiliert das Mapping eines Feeders zu einem Decoder
+   *
+   * @param feeder Feeder
+   * @return FeederDecoder oder null, wenn der Feeder kein Mapping hat
+   */
+  public static FeederDecoder compile(Feeder feeder) {
+    if (feeder == null || feeder.getMapping() == null) return null;
+    return new FeederDecoder(feeder, feeder.getMapping());
+  }
+
+  public FeederType getFeederType() {
+    return feederType;
+  }
+
+  public String getAircraftArrayKey() {
+    return aircraftArrayKey;
+  }
+
+  public String getSnapshotTimeKey() {
+    return snapshotTimeKey;
+  }
+
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * Wandelt den Wert des Zeitpunkts des Datenstands in Millisekunden um
+   * ("now" von readsb/dump1090 ist in Sekunden, "stm" von vrs in Millisekunden)
+   *
+   * @param value double
+   * @return long
+   */
+  public long toSnapshotTimeMillis(double value) {
+    return snapshotTimeInSeconds ? Math.round(value * 1000) : (long) value;
+  }
+
+  /**
+   * Erstellt einen wiederverwendbaren Zustand für das Dekodieren der Datensätze einer Antwort
+   *
+   * @param airportIcaoResolver Funktion zum Mappen eines IATA-Codes nach ICAO (nur vrs)
+   * @return RecordState
+   */
+  public RecordState createRecordState(Function<String, String> airportIcaoResolver) {
+    return new RecordState(airportIcaoResolver);
+  }
+
+  /**
+   * Dekodiert einen Datensatz (ein Flugzeug) in einem Durchlauf über seine Schlüssel
+   *
+   * @param parser JsonParser (steht auf START_OBJECT)
+   * @param state  RecordState
+   * @return Aircraft oder null, wenn der Datensatz keinen hex hat
+   * @throws IOException IOException
+   */
+  public Aircraft decode(JsonParser parser, RecordState state) throws IOException {
+    final Aircraft aircraft = new Aircraft();
+    state.reset();
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final Slot[] slots = slotsByKey.get(parser.currentName());
+      final JsonToken token = parser.nextToken();
+
+      if (slots == null || token == JsonToken.VALUE_NULL) {
+        parser.skipChildren();
+      } else if (token == JsonToken.START_ARRAY) {
+        final int size = readArray(parser, state);
+        for (Slot slot : slots) {
+          slot.bindArray(size, aircraft, state);
+        }
+      } else if (token == JsonToken.START_OBJECT) {
+        if (slots[0] == Slot.LAST_POSITION) {
+          readLastPosition(parser, state);
+        } else {
+          parser.skipChildren();
+        }
+      } else {
+        for (Slot slot : slots) {
+          slot.bindValue(parser, token, aircraft, state);
+        }
+      }
+    }
+
+    return complete(aircraft, state);
+  }
+
+  /**
+   * Gibt den Zeitpunkt des Datenstands aus dem Header einer binCraft-Antwort in Millisekunden zurück
+   *
+   * @param header ByteBuffer (Little Endian) mit dem Header
+   * @return long
+   */
+  public static long readBinCraftSnapshotTime(ByteBuffer header) {
+    return Integer.toUnsignedLong(header.getInt(0)) + (Integer.toUnsignedLong(header.getInt(4)) << 32);
+  }
+
+  /**
+   * Gibt die Länge eines Datensatzes (und des Headers) einer binCraft-Antwort in Bytes zurück
+   *
+   * @param header ByteBuffer (Little Endian) mit dem Header
+   * @return int
+   * @throws IOException wenn die Länge zu klein für einen Datensatz ist
+   */
+  public static int readBinCraftStride(ByteBuffer header) throws IOException {
+    final int stride = header.getInt(8);
+    if (stride < BinCraft.MIN_STRIDE) throw new IOException("Invalid binCraft stride " + stride);
+    return stride;
+  }
+
+  /**
+   * Dekodiert einen Datensatz (ein Flugzeug) im binCraft-Format von readsb. Die Werte werden
+   * wie die gleichnamigen Felder der aircraft.json mit dem adsbx-Mapping zugewiesen
+   *
+   * @param buffer ByteBuffer (Little Endian) mit den Datensätzen
+   * @param offset Beginn des Datensatzes im ByteBuffer
+   * @param state  RecordState
+   * @return Aircraft
+   */
+  public Aircraft decode(ByteBuffer buffer, int offset, RecordState state) {
+    final Aircraft aircraft = new Aircraft();
+    state.reset();
+
+    final int validA = buffer.get(offset + BinCraft.VALID_A) & 0xff;
+    final int validB = buffer.get(offset + BinCraft.VALID_B) & 0xff;
+    final int validC = buffer.get(offset + BinCraft.VALID_C) & 0xff;
+    final int validD = buffer.get(offset + BinCraft.VALID_D) & 0xff;
+    final int validE = buffer.get(offset + BinCraft.VALID_E) & 0xff;
+
+    final int address = buffer.getInt(offset + BinCraft.ADDRESS);
+    aircraft.setHex(toHex(address & 0xffffff, 6, (address & BinCraft.NON_ICAO_FLAG) != 0));
+    state.hasHex = true;
+
+    if ((validA & BinCraft.POSITION_VALID) != 0) {
+      aircraft.setLongitude(buffer.getInt(offset + BinCraft.LONGITUDE) / 1e6);
+      aircraft.setLatitude(buffer.getInt(offset + BinCraft.LATITUDE) / 1e6);
+      aircraft.setLastSeenPos((int) (getUnsignedShort(buffer, offset + BinCraft.SEEN_POS) / 10.0));
+      state.hasLatitude = true;
+      state.hasLongitude = true;
+    }
+
+    if ((validA & BinCraft.ALTITUDE_GEOM_VALID) != 0) {
+      state.altitudeKind = ValueKind.INT;
+      state.altitude = buffer.getShort(offset + BinCraft.ALTITUDE_GEOM) * 25;
+    }
+
+    if ((buffer.get(offset + BinCraft.AIRGROUND) & 0x0f) == BinCraft.AIRGROUND_GROUND) {
+      state.elipsoidalAltitudeKind = ValueKind.STRING;
+    } else if ((validA & BinCraft.ALTITUDE_BARO_VALID) != 0) {
+      state.elipsoidalAltitudeKind = ValueKind.INT;
+      state.elipsoidalAltitude = buffer.getShort(offset + BinCraft.ALTITUDE_BARO) * 25;
+    }
+
+    if ((validA & BinCraft.CALLSIGN_VALID) != 0) {
+      aircraft.setFlightId(readText(buffer, offset + BinCraft.CALLSIGN, BinCraft.CALLSIGN_LENGTH));
+    }
+    if ((validA & BinCraft.GS_VALID) != 0) {
+      aircraft.setSpeed((int) (buffer.getShort(offset + BinCraft.GS) / 10.0));
+    }
+    if ((validA & BinCraft.IAS_VALID) != 0) {
+      aircraft.setIas(getUnsignedShort(buffer, offset + BinCraft.IAS));
+    }
+    if ((validA & BinCraft.TAS_VALID) != 0) {
+      aircraft.setTas(getUnsignedShort(buffer, offset + BinCraft.TAS));
+    }
+    if ((validA & BinCraft.MACH_VALID) != 0) {
+      aircraft.setMach(buffer.getShort(offset + BinCraft.MACH) / 1000.0);
+    }
+
+    if ((validB & BinCraft.TRACK_VALID) != 0) {
+      aircraft.setTrack((int) (buffer.getShort(offset + BinCraft.TRACK) / 90.0));
+    }
+    if ((validB & BinCraft.ROLL_VALID) != 0) {
+      aircraft.setRoll(buffer.getShort(offset + BinCraft.ROLL) / 100.0);
+    }
+    if ((validB & BinCraft.MAG_HEADING_VALID) != 0) {
+      aircraft.setMagHeading(buffer.getShort(offset + BinCraft.MAG_HEADING) / 90.0);
+    }
+    if ((validB & BinCraft.TRUE_HEADING_VALID) != 0) {
+      aircraft.setTrueHeading(buffer.getShort(offset + BinCraft.TRUE_HEADING) / 90.0);
+    }
+    if ((validB & BinCraft.GEOM_RATE_VALID) != 0) {
+      aircraft.setVerticalRate(buffer.getShort(offset + BinCraft.GEOM_RATE) * 8);
+    }
+
+    if ((validC & BinCraft.SQUAWK_VALID) != 0) {
+      aircraft.setSquawk(toHex(getUnsignedShort(buffer, offset + BinCraft.SQUAWK), 4, false));
+    }
+
+    final int emergencyAndType = buffer.get(offset + BinCraft.EMERGENCY_TYPE) & 0xff;
+    if ((validD & BinCraft.EMERGENCY_VALID) != 0) {
+      aircraft.setEmergency(BinCraft.EMERGENCIES[Math.min(emergencyAndType & 0x0f, BinCraft.EMERGENCIES.length - 1)]);
+    }
+    if ((validD & BinCraft.NAV_QNH_VALID) != 0) {
+      aircraft.setSelectedQnh(buffer.getShort(offset + BinCraft.NAV_QNH) / 10.0);
+    }
+    if ((validD & BinCraft.NAV_ALTITUDE_MCP_VALID) != 0) {
+      aircraft.setSelectedAltitude(getUnsignedShort(buffer, offset + BinCraft.NAV_ALTITUDE_MCP) * 4);
+    }
+    if ((validD & BinCraft.NAV_HEADING_VALID) != 0) {
+      aircraft.setSelectedHeading((int) (buffer.getShort(offset + BinCraft.NAV_HEADING) / 90.0));
+    }
+    if ((validD & BinCraft.NAV_MODES_VALID) != 0) {
+      final String navModes = toNavModes(buffer.get(offset + BinCraft.NAV_MODES) & 0xff, state.arrayText);
+      if (navModes != null) {
+        aircraft.setNavModes(navModes);
+        state.hasNavModes = true;
+      }
+    }
+
+    if ((validE & BinCraft.WIND_VALID) != 0) {
+      aircraft.setWindFromDirection((int) buffer.getShort(offset + BinCraft.WIND_DIRECTION));
+      aircraft.setWindSpeed((int) buffer.getShort(offset + BinCraft.WIND_SPEED));
+    }
+    if ((validE & BinCraft.TEMPERATURE_VALID) != 0) {
+      aircraft.setTemperature((int) buffer.getShort(offset + BinCraft.OAT));
+    }
+
+    final int category = buffer.get(offset + BinCraft.CATEGORY) & 0xff;
+    if (category != 0) {
+      aircraft.setCategory(toHex(category, 2, false).toUpperCase());
+    }
+
+    aircraft.setMessages(getUnsignedShort(buffer, offset + BinCraft.MESSAGES));
+    aircraft.setRssi(toRssi(buffer.get(offset + BinCraft.SIGNAL) & 0xff));
+
+    // Art der Quelle (entspricht "type" der aircraft.json)
+    final String type = BinCraft.TYPES[Math.min(emergencyAndType >> 4, BinCraft.TYPES.length - 1)];
+    state.hasSource = true;
+    state.sourceText = type;
+    state.adsbxType = type;
+
+    return complete(aircraft, state);
+  }
+
+  /**
+   * Löst die Abhängigkeiten zwischen Feldern auf (entspricht der Reihenfolge in
+   * AircraftService.createNewAircraft und AircraftService.setValuesToAircraft)
+   */
+  private Aircraft complete(Aircraft aircraft, RecordState state) {
+    if (!state.hasHex) return null;
+
+    // Message with position
+    aircraft.setSendWithPos(state.hasLatitude && state.hasLongitude);
+
+    // Only for adsbx
+    if (readsbFields && !state.hasLatitude && !state.hasLongitude && state.hasLastPosition) {
+      aircraft.setLatitude(state.lastPositionLatitude);
+      aircraft.setLongitude(state.lastPositionLongitude);
+    }
+
+    // Füge Feeder in Liste der Feeder hinzu
+    aircraft.addFeederToFeederList(feederName);
+
+    switch (state.altitudeKind) {
+      case INT -> {
+        aircraft.setAltitude(state.altitude);
+        aircraft.setOnGround(false);
+      }
+      case DOUBLE -> {
+        aircraft.setAltitude((int) state.altitudeDouble);
+        aircraft.setOnGround(false);
+      }
+      // Pruefe, ob Flugzeug auf dem Boden ist und setze Altitude auf 0
+      case STRING -> {
+        aircraft.setOnGround(true);
+        aircraft.setAltitude(0);
+      }
+      // Prüfe, ob asdbx-Feeder baro_alt hat, aber nicht geom_alt,
+      // setze elipsoidalAltitude als altitude (verhindert schwarze Marker!)
+      case NONE -> {
+        if (readsbFields && state.elipsoidalAltitudeKind == ValueKind.INT) {
+          aircraft.setOnGround(false);
+          aircraft.setAltitude(state.elipsoidalAltitude);
+        }
+      }
+    }
+
+    if (state.elipsoidalAltitudeKind == ValueKind.INT) {
+      aircraft.setElipsoidalAltitude(state.elipsoidalAltitude);
+    } else if (state.elipsoidalAltitudeKind == ValueKind.STRING) {
+      // Wenn adsbx-Feeder "ground" sendet
+      aircraft.setAltitude(0);
+      aircraft.setElipsoidalAltitude(0);
+      aircraft.setOnGround(true);
+    }
+
+    if (state.hasNavModes) {
+      aircraft.setAutopilotEngaged(true);
+    }
+
+    addSourceToAircraft(aircraft, state);
+
+    return aircraft;
+  }
+
+  private void addSourceToAircraft(Aircraft aircraft, RecordState state) {
+    if (state.hasSource) {
+      if (feederType == FeederType.FR24FEEDER) {
+        aircraft.setSourceCurrentFeeder(state.sourceArraySize > 0 ? "M" : "A");
+      } else if (feederType == FeederType.AIRSQUITTER) {
+        aircraft.setSourceCurrentFeeder(state.sourceText);
+      }
+
+      // Füge source zur Liste der Quellen hinzu
+      aircraft.addSourceToSourceList(feederName);
+    }
+    if (readsbFields) {
+      if (state.hasSource && state.adsbxType != null) {
+        aircraft.setSourceCurrentFeeder(AircraftService.getShortTypeFromType(state.adsbxType));
+        aircraft.addSourceToSourceList(feederName);
+      } else if (state.mlatArraySize > 0) {
+        aircraft.setSourceCurrentFeeder("M");
+        aircraft.addSourceToSourceList(feederName);
+      }
+    }
+  }
+
+  /**
+   * Liest ein Array mit skalaren Werten. Die Werte werden mit Komma getrennt im
+   * StringBuilder des RecordState gesammelt
+   *
+   * @return Anzahl der Elemente
+   */
+  private static int readArray(JsonParser parser, RecordState state) throws IOException {
+    final StringBuilder arrayText = state.arrayText;
+    arrayText.setLength(0);
+
+    int size = 0;
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+      if (token.isStructStart()) {
+        parser.skipChildren();
+      } else {
+        if (size > 0) arrayText.append(',');
+        arrayText.append(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+      }
+      size++;
+    }
+    return size;
+  }
+
+  private void readLastPosition(JsonParser parser, RecordState state) throws IOException {
+    boolean hasLatitude = false;
+    boolean hasLongitude = false;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.currentName();
+      final JsonToken token = parser.nextToken();
+      if (token.isNumeric() && name.equals(latitudeKey)) {
+        state.lastPositionLatitude = parser.getDoubleValue();
+        hasLatitude = true;
+      } else if (token.isNumeric() && name.equals(longitudeKey)) {
+        state.lastPositionLongitude = parser.getDoubleValue();
+        hasLongitude = true;
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    state.hasLastPosition = hasLatitude && hasLongitude;
+  }
+
+  /**
+   * Bildet die Schlüssel aus dem FeederMapping auf die Slots ab. Ein Schlüssel kann
+   * mehrere Slots haben (bspw. adsbx "type" als source und als Art der Quelle)
+   */
+  private static Map<String, Slot[]> createSlotsByKey(FeederMapping mapping, FeederType feederType) {
+    final Map<String, List<Slot>> mapSlots = new HashMap<>();
+    final boolean isVrs = feederType == FeederType.VRS;
+
+    addSlot(mapSlots, mapping.getHex(), Slot.HEX);
+    addSlot(mapSlots, mapping.getLatitude(), Slot.LATITUDE);
+    addSlot(mapSlots, mapping.getLongitude(), Slot.LONGITUDE);
+    addSlot(mapSlots, mapping.getAltitude(), Slot.ALTITUDE);
+    addSlot(mapSlots, mapping.getTrack(), Slot.TRACK);
+    addSlot(mapSlots, mapping.getType(), Slot.TYPE);
+    addSlot(mapSlots, mapping.getRegistration(), Slot.REGISTRATION);
+    addSlot(mapSlots, mapping.getCategory(), Slot.CATEGORY);
+    addSlot(mapSlots, mapping.getFlightId(), Slot.FLIGHT_ID);
+    addSlot(mapSlots, mapping.getSpeed(), Slot.SPEED);
+    addSlot(mapSlots, mapping.getVerticalRate(), Slot.VERTICAL_RATE);
+    addSlot(mapSlots, mapping.getTemperature(), Slot.TEMPERATURE);
+    addSlot(mapSlots, mapping.getWindSpeed(), Slot.WIND_SPEED);
+    addSlot(mapSlots, mapping.getWindFromDirection(), Slot.WIND_FROM_DIRECTION);
+    addSlot(mapSlots, mapping.getDestination(), isVrs ? Slot.VRS_DESTINATION : Slot.DESTINATION);
+    addSlot(mapSlots, mapping.getOrigin(), isVrs ? Slot.VRS_ORIGIN : Slot.ORIGIN);
+    addSlot(mapSlots, mapping.getSquawk(), Slot.SQUAWK);
+    addSlot(mapSlots, mapping.getAutopilotEngaged(), Slot.AUTOPILOT_ENGAGED);
+    addSlot(mapSlots, mapping.getElipsoidalAltitude(), Slot.ELIPSOIDAL_ALTITUDE);
+    addSlot(mapSlots, mapping.getSelectedQnh(), Slot.SELECTED_QNH);
+    addSlot(mapSlots, mapping.getSelectedAltitude(), Slot.SELECTED_ALTITUDE);
+    addSlot(mapSlots, mapping.getSelectedHeading(), Slot.SELECTED_HEADING);
+    addSlot(mapSlots, mapping.getLastSeen(), Slot.LAST_SEEN_POS);
+    addSlot(mapSlots, mapping.getRssi(), Slot.RSSI);
+    addSlot(mapSlots, mapping.getSource(), Slot.SOURCE);
+    addSlot(mapSlots, mapping.getRoll(), Slot.ROLL);
+    addSlot(mapSlots, mapping.getIas(), Slot.IAS);
+    addSlot(mapSlots, mapping.getTas(), Slot.TAS);
+    addSlot(mapSlots, mapping.getMach(), Slot.MACH);
+    addSlot(mapSlots, mapping.getMagHeading(), Slot.MAG_HEADING);
+    addSlot(mapSlots, mapping.getTrueHeading(), Slot.TRUE_HEADING);
+    addSlot(mapSlots, mapping.getMessages(), Slot.MESSAGES);
+    addSlot(mapSlots, mapping.getEmergency(), Slot.EMERGENCY);
+    addSlot(mapSlots, mapping.getNavModes(), Slot.NAV_MODES);
+
+    if (feederType == FeederType.ADSBX) {
+      addSlot(mapSlots, "type", Slot.ADSBX_TYPE);
+      addSlot(mapSlots, "mlat", Slot.ADSBX_MLAT);
+      addSlot(mapSlots, "lastPosition", Slot.LAST_POSITION);
+    }
+
+    final Map<String, Slot[]> slotsByKey = new HashMap<>();
+    mapSlots.forEach((key, slots) -> slotsByKey.put(key, slots.toArray(new Slot[0])));
+    return slotsByKey;
+  }
+
+  private static void addSlot(Map<String, List<Slot>> mapSlots, String key, Slot slot) {
+    if (key == null || key.isEmpty()) return;
+    mapSlots.computeIfAbsent(key, k -> new ArrayList<>(1)).add(slot);
+  }
+
+  /**
+   * Art eines Werts, bei dem die Zuweisung vom JSON-Typ abhängt
+   */
+  private enum ValueKind {
+    NONE, INT, DOUBLE, STRING
+  }
+
+  /**
+   * Wiederverwendbarer Zustand eines Datensatzes. Wird einmal pro Antwort eines
+   * Feeders erstellt und für jeden Datensatz zurückgesetzt
+   */
+  public static final class RecordState {
+    private final Function<String, String> airportIcaoResolver;
+    private final StringBuilder arrayText = new StringBuilder(64);
+
+    private boolean hasHex;
+    private boolean hasLatitude;
+    private boolean hasLongitude;
+    private boolean hasLastPosition;
+    private double lastPositionLatitude;
+    private double lastPositionLongitude;
+    private ValueKind altitudeKind;
+    private int altitude;
+    private double altitudeDouble;
+    private ValueKind elipsoidalAltitudeKind;
+    private int elipsoidalAltitude;
+    private boolean hasNavModes;
+    private boolean hasSource;
+    private String sourceText;
+    private int sourceArraySize;
+    private String adsbxType;
+    private int mlatArraySize;
+
+    private RecordState(Function<String, String> airportIcaoResolver) {
+      this.airportIcaoResolver = airportIcaoResolver;
+    }
+
+    private void reset() {
+      hasHex = false;
+      hasLatitude = false;
+      hasLongitude = false;
+      hasLastPosition = false;
+      altitudeKind = ValueKind.NONE;
+      elipsoidalAltitudeKind = ValueKind.NONE;
+      hasNavModes = false;
+      hasSource = false;
+      sourceText = null;
+      sourceArraySize = 0;
+      adsbxType = null;
+      mlatArraySize = 0;
+    }
+  }
+
+  /**
+   * Felder eines Flugzeugs mit der jeweiligen Zuweisung eines skalaren Werts (bindValue)
+   * oder eines Arrays (bindArray)
+   */
+  private enum Slot {
+    HEX {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (t != JsonToken.VALUE_STRING) return;
+        a.setHex(p.getText().toLowerCase().trim());
+        s.hasHex = true;
+      }
+    },
+    LATITUDE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (!isNumber(p, t)) return;
+        a.setLatitude(readDouble(p, t));
+        s.hasLatitude = true;
+      }
+    },
+    LONGITUDE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (!isNumber(p, t)) return;
+        a.setLongitude(readDouble(p, t));
+        s.hasLongitude = true;
+      }
+    },
+    ALTITUDE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (t == JsonToken.VALUE_NUMBER_INT && p.getNumberType() == JsonParser.NumberType.INT) {
+          s.altitudeKind = ValueKind.INT;
+          s.altitude = p.getIntValue();
+        } else if (t == JsonToken.VALUE_NUMBER_FLOAT) {
+          s.altitudeKind = ValueKind.DOUBLE;
+          s.altitudeDouble = p.getDoubleValue();
+        } else if (t == JsonToken.VALUE_STRING) {
+          s.altitudeKind = ValueKind.STRING;
+        }
+      }
+    },
+    ELIPSOIDAL_ALTITUDE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (t == JsonToken.VALUE_NUMBER_INT && p.getNumberType() == JsonParser.NumberType.INT) {
+          s.elipsoidalAltitudeKind = ValueKind.INT;
+          s.elipsoidalAltitude = p.getIntValue();
+        } else if (t == JsonToken.VALUE_STRING) {
+          s.elipsoidalAltitudeKind = ValueKind.STRING;
+        }
+      }
+    },
+    TRACK {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setTrack(readInt(p, t));
+      }
+    },
+    ROLL {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setRoll(readDouble(p, t));
+      }
+    },
+    TYPE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        a.setType(p.getText().trim());
+      }
+    },
+    REGISTRATION {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        a.setRegistration(p.getText().trim());
+      }
+    },
+    CATEGORY {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        a.setCategory(p.getText());
+      }
+    },
+    FLIGHT_ID {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        a.setFlightId(p.getText().trim());
+      }
+    },
+    SPEED {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setSpeed(readInt(p, t));
+      }
+    },
+    VERTICAL_RATE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setVerticalRate(readInt(p, t));
+      }
+    },
+    TEMPERATURE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setTemperature(readInt(p, t));
+      }
+    },
+    WIND_SPEED {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setWindSpeed(readInt(p, t));
+      }
+    },
+    WIND_FROM_DIRECTION {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setWindFromDirection(readInt(p, t));
+      }
+    },
+    DESTINATION {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        a.setDestination(p.getText());
+      }
+    },
+    ORIGIN {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        a.setOrigin(p.getText());
+      }
+    },
+    // Virtual Radar Server liefert Origin/Destination im Format IATA-Code plus Airportbezeichnung
+    // Nur der IATA-Code wird extrahiert und über die Datenbank nach ICAO gemappt
+    VRS_DESTINATION {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        final String icaoCode = getIcaoCodeFromVrsAirport(p, s);
+        if (icaoCode != null) a.setDestination(icaoCode);
+      }
+    },
+    VRS_ORIGIN {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        final String icaoCode = getIcaoCodeFromVrsAirport(p, s);
+        if (icaoCode != null) a.setOrigin(icaoCode);
+      }
+    },
+    SQUAWK {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        a.setSquawk(p.getText());
+      }
+    },
+    AUTOPILOT_ENGAGED {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (t == JsonToken.VALUE_TRUE || t == JsonToken.VALUE_FALSE) {
+          a.setAutopilotEngaged(t == JsonToken.VALUE_TRUE);
+        } else if (t == JsonToken.VALUE_STRING) {
+          final String text = p.getText();
+          if (text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false")) {
+            a.setAutopilotEngaged(text.equalsIgnoreCase("true"));
+          }
+        }
+      }
+    },
+    SELECTED_QNH {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setSelectedQnh(readDouble(p, t));
+      }
+    },
+    SELECTED_ALTITUDE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setSelectedAltitude(readInt(p, t));
+      }
+    },
+    SELECTED_HEADING {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setSelectedHeading(readInt(p, t));
+      }
+    },
+    LAST_SEEN_POS {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setLastSeenPos(readInt(p, t));
+      }
+    },
+    RSSI {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setRssi(readDouble(p, t));
+      }
+    },
+    SOURCE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        s.hasSource = true;
+        s.sourceText = p.getText();
+      }
+
+      @Override
+      void bindArray(int size, Aircraft a, RecordState s) {
+        s.hasSource = true;
+        s.sourceArraySize = size;
+      }
+    },
+    IAS {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setIas(readInt(p, t));
+      }
+    },
+    TAS {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setTas(readInt(p, t));
+      }
+    },
+    MACH {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setMach(readDouble(p, t));
+      }
+    },
+    MAG_HEADING {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setMagHeading(readDouble(p, t));
+      }
+    },
+    TRUE_HEADING {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setTrueHeading(readDouble(p, t));
+      }
+    },
+    MESSAGES {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        if (isNumber(p, t)) a.setMessages(readInt(p, t));
+      }
+    },
+    EMERGENCY {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        a.setEmergency(p.getText());
+      }
+    },
+    NAV_MODES {
+      @Override
+      void bindArray(int size, Aircraft a, RecordState s) {
+        if (size == 0) return;
+        a.setNavModes(s.arrayText.toString());
+        s.hasNavModes = true;
+      }
+    },
+    ADSBX_TYPE {
+      @Override
+      void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+        s.adsbxType = p.getText();
+      }
+    },
+    ADSBX_MLAT {
+      @Override
+      void bindArray(int size, Aircraft a, RecordState s) {
+        s.mlatArraySize = size;
+      }
+    },
+    // Objekt "lastPosition" (nur adsbx), wird direkt vom Decoder gelesen
+    LAST_POSITION;
+
+    /**
+     * Weist einen skalaren Wert zu (Default: Wert wird ignoriert)
+     */
+    void bindValue(JsonParser p, JsonToken t, Aircraft a, RecordState s) throws IOException {
+    }
+
+    /**
+     * Weist ein Array anhand der Anzahl der Elemente und deren Text (RecordState.arrayText)
+     * zu (Default: Array wird ignoriert)
+     */
+    void bindArray(int size, Aircraft a, RecordState s) {
+    }
+
+    private static String getIcaoCodeFromVrsAirport(JsonParser p, RecordState s) throws IOException {
+      if (p.getTextLength() < 3 || s.airportIcaoResolver == null) return null;
+      return s.airportIcaoResolver.apply(p.getText().substring(0, 3));
+    }
+  }
+
+  private static int getUnsignedShort(ByteBuffer buffer, int index) {
+    return buffer.getShort(index) & 0xffff;
+  }
+
+  /**
+   * Liest einen mit 0 terminierten ASCII-Text fester Länge
+   */
+  private static String readText(ByteBuffer buffer, int index, int length) {
+    final char[] chars = new char[length];
+    int size = 0;
+    for (int i = 0; i < length; i++) {
+      final int c = buffer.get(index + i) & 0xff;
+      if (c == 0) break;
+      chars[size++] = (char) c;
+    }
+    return new String(chars, 0, size).trim();
+  }
+
+  /**
+   * Formatiert einen Wert als Hex-String mit fester Anzahl an Stellen (bspw. hex und squawk)
+   */
+  private static String toHex(int value, int digits, boolean nonIcao) {
+    final char[] chars = new char[digits + (nonIcao ? 1 : 0)];
+    for (int i = chars.length - 1, shift = 0; i >= chars.length - digits; i--, shift += 4) {
+      chars[i] = Character.forDigit((value >>> shift) & 0xf, 16);
+    }
+    if (nonIcao) chars[0] = '~';
+    return new String(chars);
+  }
+
+  /**
+   * Wandelt die Bitmaske der Modi des Autopiloten in den Text der aircraft.json um (bspw. "autopilot,vnav")
+   *
+   * @return String oder null, wenn kein Modus gesetzt ist
+   */
+  private static String toNavModes(int navModes, StringBuilder text) {
+    text.setLength(0);
+    for (int i = 0; i < BinCraft.NAV_MODE_NAMES.length; i++) {
+      if ((navModes & (1 << i)) == 0) continue;
+      if (!text.isEmpty()) text.append(',');
+      text.append(BinCraft.NAV_MODE_NAMES[i]);
+    }
+    return text.isEmpty() ? null : text.toString();
+  }
+
+  /**
+   * Wandelt die Signalstärke (Wurzel der Signalstärke * 255) in dBFS mit einer Nachkommastelle um
+   */
+  private static double toRssi(int signal) {
+    final double rssi = 10 * Math.log10(signal * signal / 65025.0 + 1.125e-5);
+    return Math.round(rssi * 10) / 10.0;
+  }
+
+  /**
+   * Layout des binCraft-Formats von readsb (Little Endian). Der Header hat die Länge eines
+   * Datensatzes (stride), danach folgen die Datensätze mit jeweils stride Bytes
+   */
+  private static final class BinCraft {
+    // Kleinste Länge eines Datensatzes, die alle gelesenen Felder enthält
+    private static final int MIN_STRIDE = 106;
+
+    // Offsets innerhalb eines Datensatzes
+    private static final int ADDRESS = 0;
+    private static final int SEEN_POS = 4;
+    private static final int LONGITUDE = 8;
+    private static final int LATITUDE = 12;
+    private static final int GEOM_RATE = 18;
+    private static final int ALTITUDE_BARO = 20;
+    private static final int ALTITUDE_GEOM = 22;
+    private static final int NAV_ALTITUDE_MCP = 24;
+    private static final int NAV_QNH = 28;
+    private static final int NAV_HEADING = 30;
+    private static final int SQUAWK = 32;
+    private static final int GS = 34;
+    private static final int MACH = 36;
+    private static final int ROLL = 38;
+    private static final int TRACK = 40;
+    private static final int MAG_HEADING = 44;
+    private static final int TRUE_HEADING = 46;
+    private static final int WIND_DIRECTION = 48;
+    private static final int WIND_SPEED = 50;
+    private static final int OAT = 52;
+    private static final int TAS = 56;
+    private static final int IAS = 58;
+    private static final int MESSAGES = 62;
+    private static final int CATEGORY = 64;
+    private static final int NAV_MODES = 66;
+    private static final int EMERGENCY_TYPE = 67;
+    private static final int AIRGROUND = 68;
+    private static final int VALID_A = 73;
+    private static final int VALID_B = 74;
+    private static final int VALID_C = 75;
+    private static final int VALID_D = 76;
+    private static final int VALID_E = 77;
+    private static final int CALLSIGN = 78;
+    private static final int CALLSIGN_LENGTH = 8;
+    private static final int SIGNAL = 105;
+
+    // Adresse ist keine ICAO-Adresse (hex mit "~")
+    private static final int NON_ICAO_FLAG = 1 << 24;
+    private static final int AIRGROUND_GROUND = 1;
+
+    // Gültigkeit der Werte (VALID_A bis VALID_E)
+    private static final int CALLSIGN_VALID = 1;
+    private static final int ALTITUDE_BARO_VALID = 1 << 1;
+    private static final int ALTITUDE_GEOM_VALID = 1 << 2;
+    private static final int POSITION_VALID = 1 << 3;
+    private static final int GS_VALID = 1 << 4;
+    private static final int IAS_VALID = 1 << 5;
+    private static final int TAS_VALID = 1 << 6;
+    private static final int MACH_VALID = 1 << 7;
+    private static final int TRACK_VALID = 1;
+    private static final int ROLL_VALID = 1 << 2;
+    private static final int MAG_HEADING_VALID = 1 << 3;
+    private static final int TRUE_HEADING_VALID = 1 << 4;
+    private static final int GEOM_RATE_VALID = 1 << 6;
+    private static final int SQUAWK_VALID = 1 << 7;
+    private static final int EMERGENCY_VALID = 1;
+    private static final int NAV_QNH_VALID = 1 << 2;
+    private static final int NAV_ALTITUDE_MCP_VALID = 1 << 3;
+    private static final int NAV_HEADING_VALID = 1 << 6;
+    private static final int NAV_MODES_VALID = 1 << 7;
+    private static final int WIND_VALID = 1 << 1;
+    private static final int TEMPERATURE_VALID = 1 << 2;
+
+    private static final String[] EMERGENCIES = {"none", "general", "lifeguard", "minfuel", "nordo", "unlawful",
+        "downed", "reserved"};
+    private static final String[] TYPES = {"adsb_icao", "adsb_icao_nt", "adsr_icao", "tisb_icao", "adsc", "mlat",
+        "other", "mode_s", "adsb_other", "adsr_other", "tisb_trackfile", "tisb_other", "mode_ac", "unknown"};
+    private static final String[] NAV_MODE_NAMES = {"autopilot", "vnav", "althold", "approach", "lnav", "tcas"};
+
+    private BinCraft() {
+    }
+  }
+
+  /**
+   * Prüft, ob der aktuelle Wert als Zahl gelesen werden kann (Zahl oder Zahl als String)
+   */
+  private static boolean isNumber(JsonParser p, JsonToken t) throws IOException {
+    if (t.isNumeric()) return true;
+    if (t != JsonToken.VALUE_STRING) return false;
+    try {
+      Double.parseDouble(p.getText().trim());
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static int readInt(JsonParser p, JsonToken t) throws IOException {
+    if (t == JsonToken.VALUE_NUMBER_INT && p.getNumberType() == JsonParser.NumberType.INT) return p.getIntValue();
+    return (int) readDouble(p, t);
+  }
+
+  private static double readDouble(JsonParser p, JsonToken t) throws IOException {
+    if (t.isNumeric()) return p.getDoubleValue();
+    return Double.parseDouble(p.getText().trim());
+  }
+}
@@ -0,0 +1,134 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.config.StaticValues;
+
+/**
+ * Zustand der Abfragen eines lokalen Feeders. Bestimmt den Zeitpunkt der nächsten Abfrage
+ * anhand des konfigurierten Intervalls, der aus dem Zeitpunkt des Datenstands des Feeders
+ * (bspw. "now") geschätzten Veröffentlichungsrate und einem exponentiellen Backoff bei Fehlern.
+ * Ist der Datenstand unverändert, wird nach einem Viertel des Intervalls erneut abgefragt,
+ * sodass sich die Abfragen an den Zeitpunkt der Veröffentlichung des Feeders angleichen
+ */
+public class FeederPollState {
+
+  // Konfiguriertes Intervall des Feeders in Millisekunden
+  private final long targetInterval;
+
+  // Geschätztes Intervall, in dem der Feeder neue Daten veröffentlicht (0 = unbekannt)
+  private long publishInterval;
+
+  // Zeitpunkt des letzten Datenstands des Feeders in Millisekunden (null = unbekannt)
+  private Long lastSnapshotTime;
+
+  // Seit dem letzten neuen Datenstand wurde ein unveränderter Datenstand gesehen
+  private boolean unchangedSinceLastSnapshot;
+
+  // Zeitpunkt der Abfrage des letzten neuen Datenstands (0 = unbekannt)
+  private long lastSnapshotPollTime;
+
+  // Abstand zwischen den Abfragen der letzten beiden neuen Datenstände (0 = unbekannt)
+  private long lastSnapshotGap;
+
+  private long nextPollTime;
+  private int consecutiveFailures;
+
+  public FeederPollState(long targetInterval) {
+    this.targetInterval = Math.max(0, targetInterval);
+  }
+
+  /**
+   * Prüft, ob der Feeder abgefragt werden soll
+   *
+   * @param time Aktueller Zeitpunkt
+   * @return boolean
+   */
+  public synchronized boolean isDue(long time) {
+    return time >= nextPollTime;
+  }
+
+  /**
+   * Verarbeitet einen neuen Datenstand des Feeders
+   *
+   * @param pollTime     Zeitpunkt der Abfrage
+   * @param snapshotTime Zeitpunkt des Datenstands in Millisekunden (oder null)
+   */
+  public synchronized void onSnapshot(long pollTime, Long snapshotTime) {
+    if (snapshotTime != null && lastSnapshotTime != null && snapshotTime > lastSnapshotTime) {
+      final long delta = snapshotTime - lastSnapshotTime;
+
+      if (unchangedSinceLastSnapshot) {
+        // Zwischen beiden Datenständen wurde ein unveränderter Stand gesehen, es wurde
+        // also keine Veröffentlichung ausgelassen (gleitender Mittelwert)
+        publishInterval = publishInterval == 0 ? delta : (publishInterval * 3 + delta) / 4;
+      } else if (publishInterval != 0) {
+        // Veröffentlichungen können ausgelassen worden sein, Schätzung wird nur verkleinert,
+        // bis wieder ein unveränderter Datenstand gesehen wird
+        publishInterval = Math.min(delta, publishInterval - publishInterval / 8);
+      }
+    }
+    if (snapshotTime != null) lastSnapshotTime = snapshotTime;
+    lastSnapshotGap = lastSnapshotPollTime != 0 ? Math.max(0, pollTime - lastSnapshotPollTime) : 0;
+    lastSnapshotPollTime = pollTime;
+
+    unchangedSinceLastSnapshot = false;
+    consecutiveFailures = 0;
+    nextPollTime = pollTime + getEffectiveInterval();
+  }
+
+  /**
+   * Verarbeitet einen unveränderten Datenstand (Abfrage erfolgte vor der nächsten Veröffentlichung)
+   *
+   * @param pollTime Zeitpunkt der Abfrage
+   */
+  public synchronized void onUnchanged(long pollTime) {
+    unchangedSinceLastSnapshot = true;
+    consecutiveFailures = 0;
+    nextPollTime = pollTime + Math.max(StaticValues.INTERVAL_MIN_POLL_LOCAL_FEEDER, getEffectiveInterval() / 4);
+  }
+
+  /**
+   * Verarbeitet eine fehlgeschlagene Abfrage und verlängert das Intervall exponentiell
+   *
+   * @param time Zeitpunkt des Fehlers
+   */
+  public synchronized void onFailure(long time) {
+    consecutiveFailures = Math.min(consecutiveFailures + 1, 16);
+    final long baseInterval = Math.max(StaticValues.INTERVAL_MIN_POLL_LOCAL_FEEDER, targetInterval);
+    final long backoff = Math.min(baseInterval << consecutiveFailures, StaticValues.INTERVAL_MAX_BACKOFF_LOCAL_FEEDER);
+    nextPollTime = time + backoff;
+  }
+
+  /**
+   * Gibt das Intervall zurück, in dem der Feeder abgefragt wird (mindestens das
+   * konfigurierte Intervall, höchstens so oft wie der Feeder veröffentlicht)
+   *
+   * @return long
+   */
+  public synchronized long getEffectiveInterval() {
+    return Math.max(targetInterval, publishInterval);
+  }
+
+  /**
+   * Gibt den Abstand zurück, ab dem ein Flugzeug des Feeders als 'reentered' gilt. Der Abstand
+   * richtet sich nach dem Abstand der letzten beiden neuen Datenstände (Intervall, Veröffentlichungsrate
+   * und Backoff nach Fehlern), damit Flugzeuge nur bei einer Lücke in den Datenständen als
+   * 'reentered' gelten (mindestens THRESHOLD_REENTERED_AIRCRAFT)
+   *
+   * @return long
+   */
+  public synchronized long getReenteredThreshold() {
+    return Math.max(StaticValues.THRESHOLD_REENTERED_AIRCRAFT, lastSnapshotGap + lastSnapshotGap / 2);
+  }
+
+  public synchronized Long getLastSnapshotTime() {
+    return lastSnapshotTime;
+  }
+
+  public synchronized long getNextPollTime() {
+    return nextPollTime;
+  }
+
+  public synchronized int getConsecutiveFailures() {
+    return consecutiveFailures;
+  }
+}
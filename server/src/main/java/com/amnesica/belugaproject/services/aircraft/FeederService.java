@@ -1,22 +1,32 @@
 package com.amnesica.belugaproject.services.aircraft;
 
+import com.amnesica.belugaproject.config.CborConfig;
 import com.amnesica.belugaproject.config.Configuration;
 import com.amnesica.belugaproject.config.Feeder;
+import com.amnesica.belugaproject.config.StaticValues;
 import com.amnesica.belugaproject.entities.aircraft.Aircraft;
 import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
 import com.amnesica.belugaproject.entities.aircraft.RemoteAircraft;
 import com.amnesica.belugaproject.services.data.MapCatToShapeDataService;
 import com.amnesica.belugaproject.services.data.MapTypeToShapeDataService;
 import com.amnesica.belugaproject.services.data.ShapeDataService;
+import com.amnesica.belugaproject.services.helper.MetricsService;
 import com.amnesica.belugaproject.services.helper.Request;
+import com.amnesica.belugaproject.services.helper.SingleFlight;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.info.BuildProperties;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -29,6 +39,8 @@ public class FeederService {
   private SpacecraftService spacecraftService;
   @Autowired
   private AircraftService aircraftService;
+  @Autowired
+  private LiveAircraftService liveAircraftService;
 
   @Autowired
   private MapCatToShapeDataService mapCatToShapeDataService;
@@ -41,13 +53,117 @@ public class FeederService {
 
   @Autowired
   private Configuration configuration;
+  @Autowired
+  private MetricsService metricsService;
 
   private int requestCounter = 0;
 
-  private boolean pendingRequest = false;
+  // Serialisierung von Flugzeugen ohne vorab serialisiertes JSON (bspw. Remote-Flugzeuge, ISS)
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  // Binäre Serialisierung, wenn der Client CBOR anfragt
+  @Autowired
+  private CborConfig cborConfig;
+
+  // Namen der Metriken
+  static final String METRIC_REQUESTS_COMPUTED = "aircraft.requests.computed";
+  static final String METRIC_REQUESTS_COALESCED = "aircraft.requests.coalesced";
+  static final String METRIC_REQUESTS_COALESCING_HIT_RATE = "aircraft.requests.coalescing.hitrate";
+
+  // Gemeinsamer Stand pro Zeitabschnitt und gerundetem Extent für gleichzeitige Anfragen mit gleichen Parametern
+  private final SingleFlight<SnapshotKey, SharedSnapshot> singleFlight = new SingleFlight<>();
+
+  /**
+   * Parameter einer Anfrage, welche den gemeinsamen Stand bestimmen (ohne markedHex)
+   *
+   * @param tick             Zeitabschnitt der Anfrage
+   * @param extent           Gerundeter Extent der Anfrage
+   * @param selectedFeeder   Ausgewählte Feeder
+   * @param fetchRemote      "Opensky" oder "Airplanes-Live" (oder null)
+   * @param showIss          Boolean, ob ISS abgefragt werden soll
+   * @param filter           AircraftFilter
+   */
+  private record SnapshotKey(long tick, QuantizedExtent extent, List<String> selectedFeeder, String fetchRemote,
+                             boolean showIss, AircraftFilter filter) {
+  }
+
+  /**
+   * Nach außen auf ein Raster gerundeter Extent, damit Anfragen mit ähnlichem Extent (bspw. nach
+   * leichtem Verschieben der Karte) einen gemeinsamen Stand teilen. Die Rasterweite ist eine
+   * Zweierpotenz von mindestens einem Viertel der Ausdehnung und mindestens der Zellgröße des
+   * räumlichen Index. Ist lomin größer als lomax, liegt der Extent über dem 180. Längengrad
+   *
+   * @param lomin lower bound for the longitude in decimal degrees
+   * @param lamin lower bound for the latitude in decimal degrees
+   * @param lomax upper bound for the longitude in decimal degrees
+   * @param lamax upper bound for the latitude in decimal degrees
+   */
+  private record QuantizedExtent(double lomin, double lamin, double lomax, double lamax) {
+
+    static QuantizedExtent of(double lomin, double lamin, double lomax, double lamax) {
+      final boolean crossesAntimeridian = lomin > lomax;
+      final double lonSpan = crossesAntimeridian ? lomax + 360 - lomin : lomax - lomin;
+      final double span = Math.max(lonSpan, lamax - lamin);
+
+      double step = StaticValues.GRID_INDEX_CELL_SIZE;
+      while (step < span / 4) step *= 2;
+
+      double quantizedLomin = Math.max(Math.floor(lomin / step) * step, Math.min(lomin, -180));
+      double quantizedLomax = Math.min(Math.ceil(lomax / step) * step, Math.max(lomax, 180));
+      final double quantizedLamin = Math.max(Math.floor(lamin / step) * step, -90);
+      final double quantizedLamax = Math.min(Math.ceil(lamax / step) * step, 90);
+
+      // Gerundeter Extent über dem 180. Längengrad umfasst alle Längengrade
+      if (crossesAntimeridian && quantizedLomin <= quantizedLomax) {
+        quantizedLomin = -180;
+        quantizedLomax = 180;
+      }
+      return new QuantizedExtent(quantizedLomin, quantizedLamin, quantizedLomax, quantizedLamax);
+    }
+
+    /**
+     * Prüft, ob der Extent über den 180. Längengrad hinausgeht (lomin größer als lomax oder
+     * Längengrade außerhalb von -180 bis 180)
+     *
+     * @return boolean
+     */
+    boolean crossesAntimeridian() {
+      return lomin > lomax || lomin < -180 || lomax > 180;
+    }
+  }
 
   /**
-   * Öffentliche Methode zum Abfragen von Flugzeugen innerhalb eines Extents
+   * Gemeinsamer Stand innerhalb des gerundeten Extents, welcher pro Anfrage nach dem
+   * exakten Extent gefiltert wird. Die Flugzeuge werden nicht verändert
+   *
+   * @param localAircraft  Flugzeuge der lokalen Feeder
+   * @param remoteAircraft Remote-Flugzeuge
+   * @param iss            ISS (oder null)
+   */
+  private record SharedSnapshot(List<Aircraft> localAircraft, List<RemoteAircraft> remoteAircraft,
+                                AircraftSuperclass iss) {
+  }
+
+  /**
+   * Registriert die Metriken zum Zusammenfassen gleichzeitiger Anfragen
+   */
+  @PostConstruct
+  public void registerMetrics() {
+    metricsService.registerGauge(METRIC_REQUESTS_COMPUTED, singleFlight::getComputedCount);
+    metricsService.registerGauge(METRIC_REQUESTS_COALESCED, singleFlight::getSharedCount);
+    metricsService.registerGauge(METRIC_REQUESTS_COALESCING_HIT_RATE, () -> {
+      final long shared = singleFlight.getSharedCount();
+      final long total = shared + singleFlight.getComputedCount();
+      return total > 0 ? (double) shared / total : 0.0;
+    });
+  }
+
+  /**
+   * Öffentliche Methode zum Abfragen von Flugzeugen innerhalb eines Extents. Gleichzeitige
+   * Anfragen im selben Zeitabschnitt mit gleichem gerundeten Extent, gleichen Feedern und
+   * Optionen teilen sich einen gemeinsamen Stand, welcher anschließend pro Anfrage nach dem
+   * exakten Extent gefiltert wird
    *
    * @param lomin          lower bound for the longitude in decimal degrees
    * @param lamin          lower bound for the latitude in decimal degrees
@@ -56,20 +172,35 @@ public class FeederService {
    * @param selectedFeeder List<String>, Ausgewählte Feeder (oder keiner)
    * @param fetchRemote    Boolean, ob Remote-Flugzeug angefragt werden soll ("Opensky" oder "Airplanes-Live")
    * @param showIss        Boolean, ob ISS abgefragt werden soll
+   * @param filter         AircraftFilter, wird bereits bei der Abfrage der Flugzeuge ausgewertet
    * @return HashSet<AircraftSuperclass>
    */
-  @Async
   public HashSet<AircraftSuperclass> getPlanes(Double lomin, Double lamin, Double lomax, Double lamax,
-                                               List<String> selectedFeeder, String fetchRemote, boolean showIss, String markedHex, boolean showOnlyMilitary, HttpServletRequest httpRequest) {
-    if (pendingRequest)
-      return null;
-
-    // Setze Boolean pendingRequest auf 'pending'
-    pendingRequest = true;
+                                               List<String> selectedFeeder, String fetchRemote, boolean showIss, String markedHex, AircraftFilter filter, HttpServletRequest httpRequest) {
+    return getPlanes(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote, showIss, markedHex, filter,
+        httpRequest.getRemoteAddr());
+  }
 
+  private HashSet<AircraftSuperclass> getPlanes(Double lomin, Double lamin, Double lomax, Double lamax,
+                                                List<String> selectedFeeder, String fetchRemote, boolean showIss,
+                                                String markedHex, AircraftFilter filter, String ipAddressClient) {
     // Initialisieren der Liste
     LinkedHashSet<AircraftSuperclass> aircraftSet = new LinkedHashSet<>();
+    collectPlanes(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote, showIss, markedHex, filter, ipAddressClient,
+        aircraftSet::add);
+    return aircraftSet;
+  }
 
+  /**
+   * Übergibt die Flugzeuge innerhalb des exakten Extents in einem Durchlauf über den gemeinsamen
+   * Stand an consumer. Jedes Flugzeug wird genau einmal übergeben, das markierte Flugzeug zuletzt,
+   * da es noch durch ein neueres Remote-Flugzeug ersetzt werden kann
+   *
+   * @param consumer Consumer<AircraftSuperclass>, erhält die Flugzeuge (bspw. Liste oder AircraftClusterer)
+   */
+  private void collectPlanes(Double lomin, Double lamin, Double lomax, Double lamax, List<String> selectedFeeder,
+                             String fetchRemote, boolean showIss, String markedHex, AircraftFilter filter,
+                             String ipAddressClient, Consumer<AircraftSuperclass> consumer) {
     // HashMap zum Herausfiltern von doppelten Flugzeugen beim Fetch von lokalen
     // Feedern und Opensky
     HashMap<String, AircraftSuperclass> mapAircraftRaw = new HashMap<String, AircraftSuperclass>();
@@ -77,94 +208,313 @@ public class FeederService {
     try {
 
       // Erstelle Requests für Services, wenn Remote oder ISS angefragt werden soll
-      createRequestsIfNecessary(lomin, lamin, lomax, lamax, fetchRemote, showIss, markedHex,
-          httpRequest.getRemoteAddr());
+      createRequestsIfNecessary(lomin, lamin, lomax, lamax, fetchRemote, showIss, markedHex, ipAddressClient);
+
+      final long now = System.currentTimeMillis();
+      final long tick = now / StaticValues.INTERVAL_COALESCE_AIRCRAFT_REQUESTS;
+      final boolean fetchFromRemote = "Opensky".equals(fetchRemote) || "Airplanes-Live".equals(fetchRemote);
+      final SnapshotKey key = new SnapshotKey(tick, QuantizedExtent.of(lomin, lamin, lomax, lamax),
+          selectedFeeder != null ? List.copyOf(new TreeSet<>(selectedFeeder)) : List.of(),
+          fetchFromRemote ? fetchRemote : null, showIss, filter);
 
-      // Berechne timestamp vor 2 Sekunden, damit nur die Flugzeuge angezeigt werden,
-      // welche in den letzten 2 Sekunden geupdatet wurden
-      long startTime = System.currentTimeMillis() - 2000;
+      // Entferne gemeinsame Stände vergangener Zeitabschnitte
+      singleFlight.evictIf(k -> k.tick() < tick);
+
+      // Berechne timestamp vor 2 Sekunden (ab Beginn des Zeitabschnitts), damit nur die Flugzeuge
+      // angezeigt werden, welche in den letzten 2 Sekunden geupdatet wurden
+      final long startTime = tick * StaticValues.INTERVAL_COALESCE_AIRCRAFT_REQUESTS - StaticValues.TIME_WINDOW_AIRCRAFT_LIST;
+      final SharedSnapshot snapshot = singleFlight.execute(key, () -> createSharedSnapshot(key, startTime));
 
       try {
-        if (selectedFeeder != null && !selectedFeeder.isEmpty()) {
-          getPlanesFromLocalFeeder(lomin, lamin, lomax, lamax, selectedFeeder, markedHex, showOnlyMilitary, startTime,
-              mapAircraftRaw, aircraftSet);
+        Aircraft markedAircraft = null;
+        if (!key.selectedFeeder().isEmpty()) {
+          markedAircraft = getPlanesFromLocalFeeder(lomin, lamin, lomax, lamax, markedHex, filter, snapshot,
+              mapAircraftRaw, consumer);
         }
 
         // Füge ISS hinzu
-        if (showIss) {
-          getIssFromApi(lomin, lamin, lomax, lamax, aircraftSet);
+        if (snapshot.iss() != null && isWithinExtent(snapshot.iss(), lomin, lamin, lomax, lamax)) {
+          consumer.accept(snapshot.iss());
         }
 
         // Füge Remote-Flugzeuge hinzu
-        if (("Opensky".equals(fetchRemote) || "Airplanes-Live".equals(fetchRemote))) {
-          getPlanesFromRemote(lomin, lamin, lomax, lamax, showOnlyMilitary, mapAircraftRaw, aircraftSet, fetchRemote, markedHex);
+        if (fetchFromRemote) {
+          markedAircraft = getPlanesFromRemote(lomin, lamin, lomax, lamax, snapshot, mapAircraftRaw, markedAircraft,
+              consumer);
         }
+
+        if (markedAircraft != null) consumer.accept(markedAircraft);
       } catch (Exception e) {
         log.error("Server - DB error when fetching and converting planes : Exception = " + e);
       }
     } catch (Exception e) {
       log.error("Server - DB error when fetching planes : Exception = " + e);
     }
+  }
+
+  /**
+   * Schreibt die Flugzeuge innerhalb eines Extents als JSON-Array in den OutputStream.
+   * Für Flugzeuge der lokalen Feeder wird das im veröffentlichten Stand bereits serialisierte
+   * JSON-Fragment geschrieben, nur die übrigen Flugzeuge werden pro Anfrage serialisiert
+   *
+   * @param lomin          lower bound for the longitude in decimal degrees
+   * @param lamin          lower bound for the latitude in decimal degrees
+   * @param lomax          upper bound for the longitude in decimal degrees
+   * @param lamax          upper bound for the latitude in decimal degrees
+   * @param selectedFeeder List<String>, Ausgewählte Feeder (oder keiner)
+   * @param fetchRemote    Boolean, ob Remote-Flugzeug angefragt werden soll ("Opensky" oder "Airplanes-Live")
+   * @param showIss        Boolean, ob ISS abgefragt werden soll
+   * @param filter         AircraftFilter
+   * @param fields         List<String>, Felder einer reduzierten Ansicht (bspw. "map") oder null für vollständige Flugzeuge
+   * @param zoom           Double, Zoomstufe der Karte. Unterhalb von cluster.max.zoom werden die Flugzeuge zu
+   *                       Clustern zusammengefasst (oder null für einzelne Flugzeuge)
+   * @param cbor           Boolean, ob binär als CBOR statt als JSON geschrieben werden soll
+   * @param outputStream   OutputStream der Antwort
+   */
+  public void writePlanes(Double lomin, Double lamin, Double lomax, Double lamax, List<String> selectedFeeder,
+                          String fetchRemote, boolean showIss, String markedHex, AircraftFilter filter,
+                          List<String> fields, Double zoom, boolean cbor, HttpServletRequest httpRequest,
+                          OutputStream outputStream) throws IOException {
+    Collection<AircraftSuperclass> listAircraft;
+    List<AircraftCluster> listClusters = List.of();
+    if (zoom != null && zoom < configuration.getClusterMaxZoom()) {
+      // Fasse Flugzeuge bei niedriger Zoomstufe bereits beim Durchlauf über den gemeinsamen Stand
+      // zu Clustern zusammen, ohne vorab die vollständige Liste aufzubauen
+      final AircraftClusterer clusterer = new AircraftClusterer(zoom, markedHex);
+      collectPlanes(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote, showIss, markedHex, filter,
+          httpRequest.getRemoteAddr(), clusterer::add);
+      final AircraftClusterer.Result result = clusterer.getResult();
+      listAircraft = result.aircraft();
+      listClusters = result.clusters();
+      metricsService.addToCounter("aircraft.clusters", listClusters.size());
+    } else {
+      listAircraft = getPlanes(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote, showIss, markedHex, filter,
+          httpRequest);
+    }
 
-    // Setze Boolean pendingRequest zurück
-    pendingRequest = false;
+    final AircraftProjection projection = AircraftProjection.of(fields);
+    if (cbor && projection != null) {
+      writeAircraftArray(listAircraft, listClusters, projection, cborConfig.getCborMapper(), outputStream);
+    } else if (cbor) {
+      // Vorab serialisierte JSON-Fragmente können nicht genutzt werden
+      final List<Object> listElements = new ArrayList<>(listAircraft.size() + listClusters.size());
+      listElements.addAll(listAircraft);
+      listElements.addAll(listClusters);
+      cborConfig.getCborMapper().writeValue(outputStream, listElements);
+    } else if (projection != null) {
+      writeAircraftArray(listAircraft, listClusters, projection, objectMapper, outputStream);
+    } else {
+      writeAircraftArray(listAircraft, listClusters, liveAircraftService.getPublishedSnapshot(), outputStream);
+    }
+  }
 
-    return aircraftSet;
+  /**
+   * Schreibt die Änderungen der Flugzeuge innerhalb eines Extents seit der Version since als
+   * JSON-Objekt in den OutputStream. Die Flugzeuge der lokalen Feeder werden als Änderungen
+   * ("aircraft" und "removed") übertragen, ist since unbekannt oder zu alt, wird der vollständige
+   * Stand übertragen ("full"). Remote-Flugzeuge und ISS sind nicht versioniert und werden immer
+   * vollständig übertragen ("others"). Hinweis: Nach einer Änderung von Extent, Feedern oder
+   * Optionen muss since = 0 übergeben werden (der Controller prüft den Extent über
+   * AircraftDelta.hasExtentChanged)
+   *
+   * @param lomin          lower bound for the longitude in decimal degrees
+   * @param lamin          lower bound for the latitude in decimal degrees
+   * @param lomax          upper bound for the longitude in decimal degrees
+   * @param lamax          upper bound for the latitude in decimal degrees
+   * @param selectedFeeder List<String>, Ausgewählte Feeder (oder keiner)
+   * @param fetchRemote    Boolean, ob Remote-Flugzeug angefragt werden soll ("Opensky" oder "Airplanes-Live")
+   * @param showIss        Boolean, ob ISS abgefragt werden soll
+   * @param filter         AircraftFilter
+   * @param since          Version der letzten Antwort (oder 0)
+   * @param outputStream   OutputStream der Antwort
+   * @return long, Version der geschriebenen Antwort
+   */
+  public long writePlanesDelta(Double lomin, Double lamin, Double lomax, Double lamax, List<String> selectedFeeder,
+                               String fetchRemote, boolean showIss, String markedHex, AircraftFilter filter,
+                               long since, HttpServletRequest httpRequest, OutputStream outputStream) throws IOException {
+    return writePlanesDelta(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote, showIss, markedHex,
+        filter, since, httpRequest.getRemoteAddr(), outputStream);
   }
 
-  private void getPlanesFromRemote(double lomin, double lamin, double lomax, double lamax, boolean showOnlyMilitary,
-                                   HashMap<String, AircraftSuperclass> mapAircraftRaw,
-                                   LinkedHashSet<AircraftSuperclass> aircraftSet,
-                                   String fetchRemote,
-                                   String markedHex) {
-    List<RemoteAircraft> listRemotePlanes = remoteService
-        .getRemotePlanesWithinExtent(lomin, lamin, lomax, lamax, showOnlyMilitary, fetchRemote);
-
-    if (listRemotePlanes != null) {
-      // Prüfe für jedes Remote-Flugzeug, ob bereits ein lokales Flugzeug mit
-      // demselben Hex existiert (priorisiere lokale Feeder!)
-      for (RemoteAircraft remoteAircraft : listRemotePlanes) {
-        if (!mapAircraftRaw.containsKey(remoteAircraft.getHex())) {
-          aircraftSet.add(remoteAircraft);
-        } else {
-          if (!remoteAircraft.getHex().equals(markedHex)) continue;
-
-          // Priorisiere Remote-Flugzeug, wenn dies neuer ist als markiertes lokales Flugzeug
-          final Aircraft localAircraft = (Aircraft) mapAircraftRaw.get(remoteAircraft.getHex());
-          if (localAircraft.getHex().equals(markedHex) && localAircraft.getLastSeenPos() > remoteAircraft.getLastSeenPos()) {
-            aircraftSet.remove(localAircraft);
-            aircraftService.updateValuesOfAircraft(localAircraft, remoteAircraft, remoteAircraft.getIsFromRemote(), false);
-            aircraftSet.add(localAircraft);
-          }
-        }
+  /**
+   * Wie writePlanesDelta mit HttpServletRequest, jedoch mit bereits bekannter IP-Adresse des
+   * Clients (bspw. für Push-Updates, bei denen die ursprüngliche Anfrage bereits beendet ist)
+   *
+   * @param ipAddressClient IP-Adresse des Clients
+   * @return long, Version der geschriebenen Antwort
+   */
+  public long writePlanesDelta(Double lomin, Double lamin, Double lomax, Double lamax, List<String> selectedFeeder,
+                               String fetchRemote, boolean showIss, String markedHex, AircraftFilter filter,
+                               long since, String ipAddressClient, OutputStream outputStream) throws IOException {
+    final HashSet<AircraftSuperclass> aircraftSet = getPlanes(lomin, lamin, lomax, lamax, selectedFeeder, fetchRemote,
+        showIss, markedHex, filter, ipAddressClient);
+
+    AircraftDelta delta;
+    try {
+      delta = localFeederService.getPlanesDelta(lomin, lamin, lomax, lamax, selectedFeeder, since, filter);
+    } catch (Exception e) {
+      log.error("Server - Error when fetching delta of planes : Exception = " + e);
+      delta = new AircraftDelta(0, true, List.of(), List.of());
+    }
+
+    final List<AircraftSuperclass> listChanged = new ArrayList<>(delta.getChanged());
+    final List<String> listRemoved = new ArrayList<>(delta.getRemoved());
+    final List<AircraftSuperclass> listOthers = new ArrayList<>();
+    for (AircraftSuperclass aircraft : aircraftSet) {
+      if (!(aircraft instanceof Aircraft)) {
+        listOthers.add(aircraft);
+      } else if (aircraft.getHex().equals(markedHex)) {
+        // Markiertes Flugzeug wird immer übertragen (ggf. mit Werten des Remote-Flugzeugs)
+        listChanged.removeIf(changed -> changed.getHex().equals(markedHex));
+        listChanged.add(aircraft);
+        listRemoved.remove(markedHex);
       }
     }
+
+    outputStream.write(("{\"version\":" + delta.getVersion() + ",\"full\":" + delta.isFull() + ",\"aircraft\":")
+        .getBytes(StandardCharsets.UTF_8));
+    writeAircraftArray(listChanged, liveAircraftService.getPublishedSnapshot(), outputStream);
+    outputStream.write(",\"removed\":".getBytes(StandardCharsets.UTF_8));
+    outputStream.write(objectMapper.writeValueAsBytes(listRemoved));
+    outputStream.write(",\"others\":".getBytes(StandardCharsets.UTF_8));
+    writeAircraftArray(listOthers, liveAircraftService.getPublishedSnapshot(), outputStream);
+    outputStream.write('}');
+
+    return delta.getVersion();
   }
 
-  private void getIssFromApi(double lomin, double lamin, double lomax, double lamax, LinkedHashSet<AircraftSuperclass> aircraftSet) {
-    AircraftSuperclass iss = spacecraftService.getIssWithinExtent(lomin, lamin, lomax, lamax);
-    if (iss != null) {
-      // Füge ISS zur Gesamtliste hinzu
-      aircraftSet.add(iss);
+  /**
+   * Schreibt Flugzeuge als JSON-Array in den OutputStream. Für Flugzeuge des veröffentlichten
+   * Stands wird das bereits serialisierte JSON-Fragment geschrieben
+   */
+  private void writeAircraftArray(Collection<? extends AircraftSuperclass> aircraftList, AircraftSnapshot snapshot,
+                                  OutputStream outputStream) throws IOException {
+    writeAircraftArray(aircraftList, List.of(), snapshot, outputStream);
+  }
+
+  /**
+   * Schreibt Flugzeuge und Cluster als JSON-Array in den OutputStream. Für Flugzeuge des
+   * veröffentlichten Stands wird das bereits serialisierte JSON-Fragment geschrieben
+   */
+  private void writeAircraftArray(Collection<? extends AircraftSuperclass> aircraftList,
+                                  Collection<AircraftCluster> clusterList, AircraftSnapshot snapshot,
+                                  OutputStream outputStream) throws IOException {
+    outputStream.write('[');
+    boolean first = true;
+    for (AircraftSuperclass aircraft : aircraftList) {
+      if (!first) outputStream.write(',');
+      first = false;
+
+      final byte[] json = aircraft instanceof Aircraft localAircraft ? snapshot.getJson(localAircraft) : null;
+      outputStream.write(json != null ? json : objectMapper.writeValueAsBytes(aircraft));
+    }
+    for (AircraftCluster cluster : clusterList) {
+      if (!first) outputStream.write(',');
+      first = false;
+      outputStream.write(objectMapper.writeValueAsBytes(cluster));
     }
+    outputStream.write(']');
   }
 
-  private void getPlanesFromLocalFeeder(double lomin, double lamin, double lomax, double lamax, List<String> selectedFeeder, String markedHex, boolean showOnlyMilitary, long startTime, HashMap<String, AircraftSuperclass> mapAircraftRaw, LinkedHashSet<AircraftSuperclass> aircraftSet) {
-    // Hole Flugzeuge von den lokalen Feedern
-    List<Aircraft> listLocalFeederPlanes = new ArrayList<>();
-    for (String feeder : selectedFeeder) {
-      List<Aircraft> listPlanesForFeeder = localFeederService.getPlanes(lomin, lamin,
-          lomax, lamax, feeder, startTime, markedHex, showOnlyMilitary);
-      listLocalFeederPlanes.addAll(listPlanesForFeeder);
+  /**
+   * Schreibt die ausgewählten Felder der Flugzeuge und die Cluster als JSON- oder CBOR-Array
+   * (je nach mapper) in den OutputStream
+   */
+  private void writeAircraftArray(Collection<? extends AircraftSuperclass> aircraftList,
+                                  Collection<AircraftCluster> clusterList, AircraftProjection projection,
+                                  ObjectMapper mapper, OutputStream outputStream) throws IOException {
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(outputStream)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.writeStartArray();
+      for (AircraftSuperclass aircraft : aircraftList) {
+        projection.write(aircraft, generator);
+      }
+      for (AircraftCluster cluster : clusterList) {
+        generator.writeObject(cluster);
+      }
+      generator.writeEndArray();
     }
+  }
 
-    if (!listLocalFeederPlanes.isEmpty()) {
-      for (Aircraft aircraft : listLocalFeederPlanes) {
+  /**
+   * Erstellt den gemeinsamen Stand innerhalb des gerundeten Extents für die Parameter einer Anfrage
+   *
+   * @param key       SnapshotKey
+   * @param startTime Zeitpunkt des letzten Updates
+   * @return SharedSnapshot
+   */
+  private SharedSnapshot createSharedSnapshot(SnapshotKey key, long startTime) {
+    final QuantizedExtent extent = key.extent();
+
+    // Hole Flugzeuge aller ausgewählten lokalen Feeder in einem Durchlauf über den räumlichen Index (ohne Duplikate)
+    final List<Aircraft> listLocalFeederPlanes = localFeederService.getPlanesOfFeeders(extent.lomin(), extent.lamin(),
+        extent.lomax(), extent.lamax(), key.selectedFeeder(), startTime, key.filter());
+
+    List<RemoteAircraft> listRemotePlanes = null;
+    if (key.fetchRemote() != null) {
+      // Abfrage in der Datenbank mit between, über den 180. Längengrad werden alle Längengrade abgefragt
+      final boolean allLongitudes = extent.crossesAntimeridian();
+      listRemotePlanes = remoteService.getRemotePlanesWithinExtent(allLongitudes ? -180 : extent.lomin(),
+          extent.lamin(), allLongitudes ? 180 : extent.lomax(), extent.lamax(), key.filter(), key.fetchRemote());
+    }
+
+    final AircraftSuperclass iss = key.showIss() ? spacecraftService.getIssWithoutExtent() : null;
+
+    return new SharedSnapshot(listLocalFeederPlanes, listRemotePlanes != null ? listRemotePlanes : List.of(), iss);
+  }
+
+  private Aircraft getPlanesFromRemote(double lomin, double lamin, double lomax, double lamax, SharedSnapshot snapshot,
+                                       HashMap<String, AircraftSuperclass> mapAircraftRaw, Aircraft markedAircraft,
+                                       Consumer<AircraftSuperclass> consumer) {
+    // Prüfe für jedes Remote-Flugzeug, ob bereits ein lokales Flugzeug mit
+    // demselben Hex existiert (priorisiere lokale Feeder!)
+    for (RemoteAircraft remoteAircraft : snapshot.remoteAircraft()) {
+      if (!isWithinExtent(remoteAircraft, lomin, lamin, lomax, lamax)) continue;
+
+      if (!mapAircraftRaw.containsKey(remoteAircraft.getHex())) {
+        mapAircraftRaw.put(remoteAircraft.getHex(), remoteAircraft);
+        consumer.accept(remoteAircraft);
+      } else if (markedAircraft != null && remoteAircraft.getHex().equals(markedAircraft.getHex()) &&
+          markedAircraft.getLastSeenPos() > remoteAircraft.getLastSeenPos()) {
+        // Priorisiere Remote-Flugzeug, wenn dies neuer ist als markiertes lokales Flugzeug.
+        // Verändere nur eine Kopie, da das lokale Flugzeug Teil des veröffentlichten Live-Zustands ist
+        final Aircraft localAircraftCopy = Aircraft.makeCopy(markedAircraft);
+        aircraftService.updateValuesOfAircraft(localAircraftCopy, remoteAircraft, remoteAircraft.getIsFromRemote(), false);
+        markedAircraft = localAircraftCopy;
+      }
+    }
+    return markedAircraft;
+  }
+
+  private Aircraft getPlanesFromLocalFeeder(double lomin, double lamin, double lomax, double lamax, String markedHex,
+                                            AircraftFilter filter, SharedSnapshot snapshot,
+                                            HashMap<String, AircraftSuperclass> mapAircraftRaw,
+                                            Consumer<AircraftSuperclass> consumer) {
+    // Filtere die Flugzeuge der lokalen Feeder nach Extent (Flugzeuge ohne Position werden immer angezeigt).
+    // Das markierte Flugzeug wird zurückgegeben und erst nach den Remote-Flugzeugen übergeben
+    Aircraft markedAircraft = null;
+    for (Aircraft aircraft : snapshot.localAircraft()) {
+      if (aircraft.getLatitude() != null && aircraft.getLongitude() != null &&
+          !isWithinExtent(aircraft, lomin, lamin, lomax, lamax)) continue;
+
+      if (aircraft.getHex().equals(markedHex)) {
+        markedAircraft = aircraft;
+      } else {
         mapAircraftRaw.put(aircraft.getHex(), aircraft);
+        consumer.accept(aircraft);
       }
-      // Füge alle lokalen Fluzeuge zur Gesamtliste hinzu
-      aircraftSet.addAll(listLocalFeederPlanes);
     }
+
+    // Markiertes Flugzeug wird immer angezeigt
+    if (markedAircraft == null) markedAircraft = localFeederService.getMarkedPlane(markedHex, filter);
+    if (markedAircraft != null) mapAircraftRaw.put(markedAircraft.getHex(), markedAircraft);
+    return markedAircraft;
+  }
+
+  private static boolean isWithinExtent(AircraftSuperclass aircraft, double lomin, double lamin, double lomax,
+                                        double lamax) {
+    return aircraft.getLatitude() != null && aircraft.getLongitude() != null &&
+        AircraftGridIndex.isWithinExtent(aircraft.getLatitude(), aircraft.getLongitude(), lomin, lamin, lomax, lamax);
   }
 
   /**
@@ -239,6 +589,7 @@ public class FeederService {
     // Entferne IP-Adresse der Feeder
     for (Feeder feeder : configuration.getListFeeder()) {
       Feeder feederToAdd = new Feeder(feeder.getName(), null, feeder.getType(), feeder.getColor());
+      feederToAdd.setPollInterval(feeder.getPollInterval());
       listFeederEdited.add(feederToAdd);
     }
     configMap.put("listFeeder", listFeederEdited);
@@ -0,0 +1,30 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Ergebnis einer Abfrage eines lokalen Feeders. Enthält die Flugzeuge und den Zeitpunkt
+ * des Datenstands des Feeders (bspw. "now" bei readsb/dump1090). Ist der Datenstand
+ * unverändert zur letzten Abfrage, wurden die Flugzeuge nicht gelesen
+ */
+@Getter
+public class FeederSnapshot {
+
+  // Flugzeuge des Feeders (leer, wenn der Datenstand unverändert ist)
+  private final List<Aircraft> aircraft;
+
+  // Zeitpunkt des Datenstands in Millisekunden (null, wenn der Feeder keinen liefert)
+  private final Long snapshotTime;
+
+  // Datenstand ist identisch zur letzten Abfrage
+  private final boolean unchanged;
+
+  public FeederSnapshot(List<Aircraft> aircraft, Long snapshotTime, boolean unchanged) {
+    this.aircraft = aircraft;
+    this.snapshotTime = snapshotTime;
+    this.unchanged = unchanged;
+  }
+}
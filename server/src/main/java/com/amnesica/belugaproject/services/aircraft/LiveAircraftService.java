@@ -0,0 +1,540 @@
+package com.amnesica.belugaproject.services.aircraft;
+
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.config.StaticValues;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.repositories.aircraft.AircraftRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Authoritativer In-Memory-Zustand der Flugzeuge der lokalen Feeder. Die Ingest-Schleife
+ * verändert die Flugzeuge direkt in diesem Zustand, geänderte Flugzeuge werden als "dirty"
+ * markiert und von einem eigenen Thread gesammelt in die Tabelle aircraft geschrieben (write-behind).
+ * Lesende Zugriffe (bspw. /getAircraftList) erfolgen auf einem pro Iteration veröffentlichten,
+ * unveränderlichen Stand (AircraftSnapshot) mit Kopien der Flugzeuge und deren einmalig
+ * serialisiertem JSON. Der veröffentlichte Stand ist über einen räumlichen Index
+ * (AircraftGridIndex) nach Extent abfragbar
+ */
+@Slf4j
+@Service
+public class LiveAircraftService {
+  @Autowired
+  private AircraftRepository aircraftRepository;
+
+  @Autowired
+  private Configuration configuration;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  // Live-Zustand mit hex als Key (Zugriff nur über lock)
+  private final Map<String, Aircraft> liveAircraftMap = new LinkedHashMap<>();
+
+  // Hex der Flugzeuge, welche seit dem letzten Schreiben verändert wurden (Zugriff nur über lock)
+  private final Set<String> dirtyHexSet = new LinkedHashSet<>();
+
+  private final Object lock = new Object();
+
+  // Serialisiert das Schreiben veränderter Flugzeuge mit dem Entfernen alter Flugzeuge, damit ein
+  // Batch bereits entfernte Flugzeuge nicht erneut in die aircraft-Tabelle einfügt
+  private final Object flushLock = new Object();
+
+  // Thread zum Schreiben der veränderten Flugzeuge
+  private Thread writerThread;
+  private volatile boolean running;
+
+  // Änderungen anderer Threads, welche von der Ingest-Schleife auf den Live-Zustand angewendet werden
+  private final Queue<PendingUpdate> pendingUpdates = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Änderung eines Flugzeugs, welche von der Ingest-Schleife angewendet wird
+   *
+   * @param hex    Hex des Flugzeugs
+   * @param update Consumer<Aircraft>, welcher das Flugzeug des Live-Zustands verändert
+   */
+  private record PendingUpdate(String hex, Consumer<Aircraft> update) {
+  }
+
+  // Hex der Flugzeuge, welche seit der letzten Veröffentlichung verändert wurden (Zugriff nur über lock)
+  private final Set<String> changedHexSet = new HashSet<>();
+
+  // Hex der Flugzeuge, welche seit der letzten Veröffentlichung entfernt wurden (Zugriff nur über lock)
+  private final Set<String> removedHexSet = new HashSet<>();
+
+  // Veröffentlichter, versionierter Stand für lesende Zugriffe (Kopien, werden nicht mehr verändert)
+  private volatile AircraftSnapshot publishedSnapshot = AircraftSnapshot.EMPTY;
+
+  // Serialisierung der JSON-Fragmente des veröffentlichten Stands
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  // Listener, welche nach jeder Veröffentlichung aufgerufen werden
+  private final List<Consumer<AircraftSnapshot>> publishListeners = new CopyOnWriteArrayList<>();
+
+  // Änderungen der zuletzt veröffentlichten Versionen für Delta-Abfragen (Index = Version % Größe)
+  private final AtomicReferenceArray<SnapshotChanges> changesRing =
+      new AtomicReferenceArray<>(StaticValues.SIZE_AIRCRAFT_CHANGES_RING);
+
+  /**
+   * Änderungen einer Version gegenüber der vorherigen Version
+   *
+   * @param version       Version
+   * @param publishTime   Zeitpunkt der Veröffentlichung
+   * @param previousByHex Flugzeuge der vorherigen Version, welche verändert oder entfernt wurden
+   *                      (null, wenn das Flugzeug neu ist) mit hex als Key
+   */
+  private record SnapshotChanges(long version, long publishTime, Map<String, Aircraft> previousByHex) {
+  }
+
+  /**
+   * Änderungen des veröffentlichten Stands seit einer früheren Version
+   *
+   * @param snapshot         Aktuell veröffentlichter Stand
+   * @param sincePublishTime Zeitpunkt der Veröffentlichung der früheren Version
+   * @param previousByHex    Flugzeuge der früheren Version, welche seitdem verändert oder entfernt
+   *                         wurden (null, wenn das Flugzeug neu ist) mit hex als Key
+   */
+  public record SnapshotDelta(AircraftSnapshot snapshot, long sincePublishTime, Map<String, Aircraft> previousByHex) {
+  }
+
+  // Räumlicher Index über die Positionen des Live-Zustands (Zugriff nur über lock), wird bei
+  // jeder Veröffentlichung als unveränderlicher Stand in den AircraftSnapshot übernommen
+  private final AircraftGridIndex gridIndex = new AircraftGridIndex(StaticValues.GRID_INDEX_CELL_SIZE);
+
+  /**
+   * Lädt beim Start alle Flugzeuge aus der Tabelle aircraft in den Live-Zustand,
+   * damit dieser wieder authoritativ ist
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadAircraftFromDatabase() {
+    try {
+      Iterable<Aircraft> aircraftInDb = aircraftRepository.findAll();
+      synchronized (lock) {
+        for (Aircraft aircraft : aircraftInDb) {
+          liveAircraftMap.putIfAbsent(aircraft.getHex(), aircraft);
+        }
+      }
+      publishSnapshot();
+    } catch (Exception e) {
+      log.error("Server - DB error when loading aircraft into live state : Exception = " + e);
+    }
+  }
+
+  /**
+   * Gibt das Flugzeug aus dem Live-Zustand zurück. Hinweis: Das Objekt darf nur von der
+   * Ingest-Schleife verändert werden, Änderungen müssen mit markDirty gemeldet werden
+   *
+   * @param hex String
+   * @return Aircraft oder null
+   */
+  public Aircraft getAircraft(String hex) {
+    synchronized (lock) {
+      return liveAircraftMap.get(hex);
+    }
+  }
+
+  /**
+   * Fügt ein neues Flugzeug zum Live-Zustand hinzu und markiert es zum Schreiben
+   *
+   * @param aircraft Aircraft
+   */
+  public void putAircraft(Aircraft aircraft) {
+    synchronized (lock) {
+      liveAircraftMap.put(aircraft.getHex(), aircraft);
+      dirtyHexSet.add(aircraft.getHex());
+      changedHexSet.add(aircraft.getHex());
+    }
+  }
+
+  /**
+   * Markiert ein Flugzeug als verändert, damit es beim nächsten Schreiben berücksichtigt wird
+   *
+   * @param hex String
+   */
+  public void markDirty(String hex) {
+    synchronized (lock) {
+      if (liveAircraftMap.containsKey(hex)) {
+        dirtyHexSet.add(hex);
+        changedHexSet.add(hex);
+      }
+    }
+  }
+
+  /**
+   * Übergibt eine Änderung eines Flugzeugs an die Ingest-Schleife. Threads außerhalb der
+   * Ingest-Schleife (bspw. HTTP-Anfragen) dürfen die Flugzeuge des Live-Zustands nicht
+   * direkt verändern
+   *
+   * @param hex    String
+   * @param update Consumer<Aircraft>, welcher das Flugzeug des Live-Zustands verändert
+   */
+  public void submitUpdate(String hex, Consumer<Aircraft> update) {
+    pendingUpdates.add(new PendingUpdate(hex, update));
+  }
+
+  /**
+   * Wendet alle übergebenen Änderungen auf den Live-Zustand an und markiert die betroffenen
+   * Flugzeuge zum Schreiben. Darf nur von der Ingest-Schleife aufgerufen werden
+   *
+   * @return true, wenn mindestens ein Flugzeug verändert wurde
+   */
+  public boolean applyPendingUpdates() {
+    boolean hasChanged = false;
+    PendingUpdate pendingUpdate;
+    while ((pendingUpdate = pendingUpdates.poll()) != null) {
+      final Aircraft aircraft = getAircraft(pendingUpdate.hex());
+      if (aircraft == null) continue;
+
+      try {
+        pendingUpdate.update().accept(aircraft);
+        markDirty(aircraft.getHex());
+        hasChanged = true;
+      } catch (Exception e) {
+        log.error("Server - Error when updating aircraft with hex " + aircraft.getHex() + " : Exception = " + e);
+      }
+    }
+    return hasChanged;
+  }
+
+  /**
+   * Markiert ein Flugzeug als verändert, damit es in den nächsten veröffentlichten Stand
+   * übernommen wird, ohne es in die aircraft-Tabelle zu schreiben (bspw. nur neuer Zeitpunkt
+   * des letzten Updates)
+   *
+   * @param hex String
+   */
+  public void markChanged(String hex) {
+    synchronized (lock) {
+      if (liveAircraftMap.containsKey(hex)) changedHexSet.add(hex);
+    }
+  }
+
+  /**
+   * Veröffentlicht den aktuellen Live-Zustand als neue Version für lesende Zugriffe und
+   * aktualisiert den räumlichen Index. Nur veränderte Flugzeuge werden kopiert und
+   * serialisiert, unveränderte Flugzeuge werden aus dem vorherigen Stand übernommen.
+   * Wird nach jeder Ingest-Iteration aufgerufen
+   */
+  public void publishSnapshot() {
+    final AircraftSnapshot previousSnapshot = publishedSnapshot;
+    final Map<String, Aircraft> aircraftMap;
+    final List<Aircraft> listChanged = new ArrayList<>();
+    final Map<String, Aircraft> previousByHex = new HashMap<>();
+    final AircraftGridIndex publishedGridIndex;
+
+    synchronized (lock) {
+      aircraftMap = new LinkedHashMap<>(liveAircraftMap.size() * 2);
+      for (Aircraft aircraft : liveAircraftMap.values()) {
+        // Hinweis: equals vergleicht nur den hex, Änderungen werden über putAircraft und markDirty gemeldet
+        final Aircraft previousCopy = previousSnapshot.getAircraft(aircraft.getHex());
+        if (previousCopy != null && !changedHexSet.contains(aircraft.getHex())) {
+          aircraftMap.put(previousCopy.getHex(), previousCopy);
+          continue;
+        }
+
+        final Aircraft copy = Aircraft.makeCopy(aircraft);
+        aircraftMap.put(copy.getHex(), copy);
+        listChanged.add(copy);
+        previousByHex.put(copy.getHex(), previousCopy);
+
+        // Flugzeug wird nur beim Wechsel der Zelle verschoben
+        gridIndex.update(copy.getHex(), copy.getLatitude(), copy.getLongitude());
+      }
+
+      for (String hex : removedHexSet) {
+        if (liveAircraftMap.containsKey(hex)) continue;
+        gridIndex.remove(hex);
+
+        final Aircraft previousCopy = previousSnapshot.getAircraft(hex);
+        if (previousCopy != null) previousByHex.put(hex, previousCopy);
+      }
+      removedHexSet.clear();
+      changedHexSet.clear();
+
+      // Stand des Index passt zu den Flugzeugen dieser Version
+      publishedGridIndex = gridIndex.snapshot();
+    }
+
+    // Serialisiere veränderte Flugzeuge außerhalb des Locks, die Kopien werden nicht mehr verändert
+    final Map<String, byte[]> jsonMap = new HashMap<>(aircraftMap.size() * 2);
+    for (Aircraft aircraft : aircraftMap.values()) {
+      final byte[] json = previousSnapshot.getJson(aircraft);
+      if (json != null) jsonMap.put(aircraft.getHex(), json);
+    }
+    for (Aircraft aircraft : listChanged) {
+      try {
+        jsonMap.put(aircraft.getHex(), objectMapper.writeValueAsBytes(aircraft));
+      } catch (Exception e) {
+        log.error("Server - Error when serializing aircraft with hex " + aircraft.getHex() + " : Exception = " + e);
+      }
+    }
+
+    // Merke Änderungen vor der Veröffentlichung, damit Delta-Abfragen diese für die neue Version finden
+    final long version = previousSnapshot.getVersion() + 1;
+    final long publishTime = System.currentTimeMillis();
+    changesRing.set(getRingIndex(version), new SnapshotChanges(version, publishTime, previousByHex));
+
+    publishedSnapshot = new AircraftSnapshot(version, publishTime, aircraftMap, jsonMap, publishedGridIndex);
+
+    // Benachrichtige Listener (dürfen die Ingest-Schleife nicht blockieren)
+    for (Consumer<AircraftSnapshot> listener : publishListeners) {
+      try {
+        listener.accept(publishedSnapshot);
+      } catch (Exception e) {
+        log.error("Server - Error when notifying listener of published snapshot : Exception = " + e);
+      }
+    }
+  }
+
+  /**
+   * Registriert einen Listener, welcher nach jeder Veröffentlichung eines neuen Stands
+   * aufgerufen wird. Hinweis: Der Listener wird im Thread der Ingest-Schleife aufgerufen
+   * und darf diese nicht blockieren
+   *
+   * @param listener Consumer<AircraftSnapshot>
+   */
+  public void addPublishListener(Consumer<AircraftSnapshot> listener) {
+    publishListeners.add(listener);
+  }
+
+  /**
+   * Gibt die Änderungen des veröffentlichten Stands seit einer früheren Version zurück.
+   * Ist die Version nicht mehr (oder noch nicht) vorhanden, wird null zurückgegeben und
+   * der vollständige Stand muss verwendet werden
+   *
+   * @param since Frühere Version
+   * @return SnapshotDelta (oder null)
+   */
+  public SnapshotDelta getPublishedDeltaSince(long since) {
+    final AircraftSnapshot snapshot = publishedSnapshot;
+    if (since <= 0 || since > snapshot.getVersion() ||
+        snapshot.getVersion() - since >= StaticValues.SIZE_AIRCRAFT_CHANGES_RING) return null;
+
+    final SnapshotChanges sinceChanges = changesRing.get(getRingIndex(since));
+    if (sinceChanges == null || sinceChanges.version() != since) return null;
+
+    // Gehe rückwärts durch die Versionen, damit das Flugzeug der frühesten Änderung erhalten bleibt
+    final Map<String, Aircraft> previousByHex = new HashMap<>();
+    for (long version = snapshot.getVersion(); version > since; version--) {
+      final SnapshotChanges changes = changesRing.get(getRingIndex(version));
+      if (changes == null || changes.version() != version) return null;
+      previousByHex.putAll(changes.previousByHex());
+    }
+    return new SnapshotDelta(snapshot, sinceChanges.publishTime(), previousByHex);
+  }
+
+  private static int getRingIndex(long version) {
+    return (int) (version % StaticValues.SIZE_AIRCRAFT_CHANGES_RING);
+  }
+
+  /**
+   * Gibt den zuletzt veröffentlichten Stand zurück
+   *
+   * @return AircraftSnapshot
+   */
+  public AircraftSnapshot getPublishedSnapshot() {
+    return publishedSnapshot;
+  }
+
+  /**
+   * Gibt ein Flugzeug aus dem zuletzt veröffentlichten Stand zurück
+   *
+   * @param hex String
+   * @return Aircraft oder null
+   */
+  public Aircraft getPublishedAircraft(String hex) {
+    return publishedSnapshot.getAircraft(hex);
+  }
+
+  /**
+   * Gibt alle Flugzeuge aus dem zuletzt veröffentlichten Stand zurück
+   *
+   * @return Collection<Aircraft>
+   */
+  public Collection<Aircraft> getPublishedAircraft() {
+    return publishedSnapshot.getAircraftMap().values();
+  }
+
+  /**
+   * Gibt alle Flugzeuge mehrerer Feeder aus dem zuletzt veröffentlichten Stand in einem
+   * Durchlauf über den räumlichen Index zurück. Ein Flugzeug wird einmal zurückgegeben, wenn
+   * es einem der Feeder zugeordnet ist, seit dessen Startzeitpunkt aktualisiert wurde und den
+   * Filter erfüllt. Flugzeuge ohne Position werden immer zurückgegeben. Ist lomin größer als
+   * lomax, liegt der Extent über dem 180. Längengrad
+   *
+   * @param startTimeByFeeder Map<String, Long>, Zeitpunkt des letzten Updates mit Feeder als Key
+   * @param lomin             lower bound for the longitude in decimal degrees
+   * @param lamin             lower bound for the latitude in decimal degrees
+   * @param lomax             upper bound for the longitude in decimal degrees
+   * @param lamax             upper bound for the latitude in decimal degrees
+   * @param filter            AircraftFilter
+   * @return List<Aircraft>
+   */
+  public List<Aircraft> getPublishedAircraftOfFeedersWithinExtent(Map<String, Long> startTimeByFeeder, double lomin,
+                                                                  double lamin, double lomax, double lamax,
+                                                                  AircraftFilter filter) {
+    final AircraftSnapshot published = publishedSnapshot;
+    final List<Aircraft> listAircraft = new ArrayList<>();
+    if (startTimeByFeeder.isEmpty()) return listAircraft;
+
+    published.getGridIndex().query(lomin, lamin, lomax, lamax, true, hex -> {
+      final Aircraft aircraft = published.getAircraft(hex);
+      if (aircraft == null || aircraft.getLastUpdate() == null || aircraft.getFeederList() == null) return;
+      if (!filter.matches(aircraft)) return;
+
+      // Zellen am Rand des Extents liegen nur teilweise im Extent
+      if (aircraft.getLatitude() != null && aircraft.getLongitude() != null &&
+          !AircraftGridIndex.isWithinExtent(aircraft.getLatitude(), aircraft.getLongitude(), lomin, lamin, lomax, lamax))
+        return;
+
+      for (String feeder : aircraft.getFeederList()) {
+        final Long startTime = startTimeByFeeder.get(feeder);
+        if (startTime != null && aircraft.getLastUpdate() >= startTime) {
+          listAircraft.add(aircraft);
+          return;
+        }
+      }
+    });
+    return listAircraft;
+  }
+
+  /**
+   * Entfernt alle Flugzeuge aus dem Live-Zustand, welche seit time nicht mehr
+   * aktualisiert wurden, und übergibt diese an archiver (bspw. zum Kopieren in die
+   * History-Tabelle und Löschen aus der aircraft-Tabelle). Läuft nicht gleichzeitig mit
+   * flushDirtyAircraft, damit entfernte Flugzeuge nicht erneut geschrieben werden
+   *
+   * @param time     Zeitpunkt des letzten Updates
+   * @param archiver Consumer<List<Aircraft>> für die entfernten Flugzeuge
+   * @return List<Aircraft>
+   */
+  public List<Aircraft> removeAircraftNotUpdatedSince(long time, Consumer<List<Aircraft>> archiver) {
+    synchronized (flushLock) {
+      List<Aircraft> listRemoved = new ArrayList<>();
+      synchronized (lock) {
+        Iterator<Aircraft> iterator = liveAircraftMap.values().iterator();
+        while (iterator.hasNext()) {
+          Aircraft aircraft = iterator.next();
+          if (aircraft.getLastUpdate() == null || aircraft.getLastUpdate() <= time) {
+            iterator.remove();
+            dirtyHexSet.remove(aircraft.getHex());
+            removedHexSet.add(aircraft.getHex());
+            listRemoved.add(aircraft);
+          }
+        }
+      }
+
+      if (!listRemoved.isEmpty()) archiver.accept(listRemoved);
+      return listRemoved;
+    }
+  }
+
+  /**
+   * Startet den Thread, welcher die veränderten Flugzeuge alle aircraft.flush.interval
+   * Millisekunden schreibt (Default = INTERVAL_FLUSH_LIVE_AIRCRAFT). Die Ingest-Schleife
+   * markiert Flugzeuge nur als "dirty" und wartet nicht auf die Datenbank
+   */
+  @PostConstruct
+  public void startWriter() {
+    running = true;
+    writerThread = new Thread(this::flushAircraftUntilStopped, "aircraft-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Stoppt den Thread und schreibt die noch nicht geschriebenen Flugzeuge
+   */
+  @PreDestroy
+  public void stopWriter() {
+    running = false;
+    writerThread.interrupt();
+    try {
+      writerThread.join(configuration.getAircraftFlushInterval() * 2L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    flushDirtyAircraft();
+  }
+
+  private void flushAircraftUntilStopped() {
+    final long flushInterval = configuration.getAircraftFlushInterval();
+
+    while (running) {
+      try {
+        Thread.sleep(flushInterval);
+      } catch (InterruptedException e) {
+        // Verbleibende Flugzeuge werden in stopWriter geschrieben
+        return;
+      }
+
+      try {
+        flushDirtyAircraft();
+      } catch (Exception e) {
+        log.error("Server - Error when writing aircraft : Exception = " + e);
+      }
+    }
+  }
+
+  /**
+   * Schreibt alle veränderten Flugzeuge gesammelt in Batches in die Tabelle aircraft.
+   * Die vorhandenen Zeilen eines Batches werden vorab mit einer Abfrage geladen, damit
+   * saveAll nicht für jedes Flugzeug einzeln abfragt
+   */
+  public void flushDirtyAircraft() {
+    synchronized (flushLock) {
+      List<Aircraft> listToWrite = new ArrayList<>();
+
+      // Kopiere veränderte Flugzeuge, damit die Ingest-Schleife während des Schreibens weiterlaufen kann
+      synchronized (lock) {
+        for (String hex : dirtyHexSet) {
+          Aircraft aircraft = liveAircraftMap.get(hex);
+          if (aircraft != null) listToWrite.add(Aircraft.makeCopy(aircraft));
+        }
+        dirtyHexSet.clear();
+      }
+
+      if (listToWrite.isEmpty()) return;
+
+      final int batchSize = configuration.getAircraftFlushBatchSize() != null ?
+          configuration.getAircraftFlushBatchSize() : listToWrite.size();
+      final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+      for (int i = 0; i < listToWrite.size(); i += batchSize) {
+        List<Aircraft> batch = listToWrite.subList(i, Math.min(i + batchSize, listToWrite.size()));
+        try {
+          transactionTemplate.executeWithoutResult(status -> {
+            // Lade vorhandene Zeilen in den Persistence-Context, merge findet diese dann ohne weitere Abfrage
+            aircraftRepository.findAllById(batch.stream().map(Aircraft::getHex).toList());
+            aircraftRepository.saveAll(batch);
+          });
+        } catch (Exception e) {
+          log.error("Server - DB error when writing batch of " + batch.size() + " aircraft : Exception = " + e);
+
+          // Markiere Flugzeuge erneut, damit diese beim nächsten Mal geschrieben werden
+          synchronized (lock) {
+            for (Aircraft aircraft : batch) {
+              if (liveAircraftMap.containsKey(aircraft.getHex())) dirtyHexSet.add(aircraft.getHex());
+            }
+          }
+        }
+      }
+    }
+  }
+}
@@ -8,20 +8,20 @@ import com.amnesica.belugaproject.entities.data.AirportData;
 import com.amnesica.belugaproject.repositories.aircraft.AircraftRepository;
 import com.amnesica.belugaproject.services.data.AircraftDataService;
 import com.amnesica.belugaproject.services.data.AirportDataService;
+import com.amnesica.belugaproject.services.helper.MetricsService;
 import com.amnesica.belugaproject.services.network.NetworkHandlerService;
+import com.amnesica.belugaproject.services.network.ResponseStreamHandler;
 import com.amnesica.belugaproject.services.trails.AircraftTrailService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.*;
 
 @Slf4j
 @EnableScheduling
@@ -29,6 +29,8 @@ import java.util.stream.Collectors;
 public class LocalFeederService {
   @Autowired
   private AircraftService aircraftService;
+  @Autowired
+  private AircraftStreamService aircraftStreamService;
 
   @Autowired
   private NetworkHandlerService networkHandler;
@@ -42,54 +44,351 @@ public class LocalFeederService {
   @Autowired
   private AirportDataService airportDataService;
 
+  @Autowired
+  private LiveAircraftService liveAircraftService;
+
   @Autowired
   private AircraftRepository aircraftRepository;
 
   @Autowired
   private Configuration configuration;
 
-  // Sets mit hex der Flugzeuge, um Flugzeuge temporär zu speichern
-  // (nötig um feederList und sourceList jeweils zu füllen)
-  private final HashSet<String> currentIterationSet = new HashSet<>();
-  private final HashSet<String> previousIterationSet = new HashSet<>();
+  @Autowired
+  private MetricsService metricsService;
+
+  // Namen der Zähler für übernommene und übersprungene Updates
+  static final String METRIC_UPDATES_APPLIED = "aircraft.updates.applied";
+  static final String METRIC_UPDATES_SKIPPED = "aircraft.updates.skipped";
+
+  // Namen der Zähler für fehlgeschlagene Abfragen und unveränderte Datenstände der Feeder
+  static final String METRIC_POLLS_FAILED = "feeder.polls.failed";
+  static final String METRIC_SNAPSHOTS_UNCHANGED = "feeder.snapshots.unchanged";
+
+  // Name des Zählers für Antworten der Feeder mit 304 Not Modified
+  static final String METRIC_RESPONSES_NOT_MODIFIED = "feeder.responses.notmodified";
+
+  // Hex der Flugzeuge aus dem letzten Datenstand mit Name des Feeders als Key
+  // (nötig, um feederList und sourceList der Flugzeuge pro Feeder zu pflegen)
+  private final Map<String, Set<String>> hexesOfLastSnapshotByFeeder = new HashMap<>();
+
+  // Zustand der Abfragen mit Name des Feeders als Key
+  private final Map<String, FeederPollState> pollStates = new ConcurrentHashMap<>();
+
+  // Executor für den nebenläufigen Abruf und die Verarbeitung der Daten der lokalen Feeder
+  private final ExecutorService feederFetchExecutor = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "feeder-fetch");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  // Erkennt unveränderte Flugzeuge, deren Update übersprungen werden kann
+  private final AircraftChangeDetector changeDetector = new AircraftChangeDetector();
+
+  // Laufende Abrufe mit Name des Feeders als Key (verhindert, dass sich Abrufe eines hängenden Feeders stauen)
+  private final Map<String, CompletableFuture<FeederSnapshot>> runningFetches = new ConcurrentHashMap<>();
+
+  // Abgeschlossene Abrufe in der Reihenfolge ihres Abschlusses (werden von getPlanesFromFeeder zusammengeführt)
+  private final BlockingQueue<CompletedFetch> completedFetches = new LinkedBlockingQueue<>();
+
+  // Thread der Ingest-Schleife, welcher getPlanesFromFeeder fortlaufend aufruft
+  private Thread ingestThread;
+  private volatile boolean running;
+
+  /**
+   * Ergebnis eines abgeschlossenen Abrufs eines Feeders
+   *
+   * @param feeder   Feeder
+   * @param pollTime Zeitpunkt der Iteration, in welcher der Abruf gestartet wurde
+   * @param snapshot FeederSnapshot (oder null, wenn der Abruf fehlgeschlagen ist)
+   */
+  private record CompletedFetch(Feeder feeder, long pollTime, FeederSnapshot snapshot) {
+  }
+
+  /**
+   * Startet den Thread der Ingest-Schleife, welcher die lokalen Feeder unabhängig vom
+   * Scheduler abfragt
+   */
+  @PostConstruct
+  public void startIngest() {
+    running = true;
+    ingestThread = new Thread(this::ingestUntilStopped, "feeder-ingest");
+    ingestThread.setDaemon(true);
+    ingestThread.start();
+  }
+
+  private void ingestUntilStopped() {
+    while (running && !Thread.currentThread().isInterrupted()) {
+      try {
+        getPlanesFromFeeder();
+      } catch (Exception e) {
+        log.error("Server - Error when getting aircraft from local feeders : Exception = " + e);
+
+        try {
+          Thread.sleep(StaticValues.INTERVAL_POLL_TICK_LOCAL_FEEDER);
+        } catch (InterruptedException ie) {
+          return;
+        }
+      }
+    }
+  }
 
   /**
-   * Methode fragt Flugzeuge von den lokalen Feedern ab und speichert diese in der
-   * Tabelle aircraft. Methode wird alle INTERVAL_UPDATE_LOCAL_FEEDER Sekunden
-   * aufgerufen
+   * Methode fragt Flugzeuge von den fälligen lokalen Feedern ab und speichert diese im
+   * Live-Zustand (LiveAircraftService), welcher gesammelt in die Tabelle aircraft
+   * geschrieben wird. Jeder Feeder wird in seinem eigenen Intervall abgefragt (siehe
+   * FeederPollState), unveränderte Datenstände eines Feeders werden übersprungen.
+   * Abruf und Verarbeitung der Feeder erfolgen nebenläufig mit einer Deadline pro Feeder.
+   * Die Ergebnisse werden in der Reihenfolge ihres Abschlusses zusammengeführt und direkt
+   * veröffentlicht. Die Methode kehrt zurück, sobald alle gestarteten Abrufe abgeschlossen
+   * sind, die Deadline abgelaufen ist oder ein anderer Feeder fällig wird, ein langsamer
+   * Feeder verzögert die anderen Feeder also nicht. Wird von der Ingest-Schleife
+   * fortlaufend aufgerufen
    */
-  @Scheduled(fixedRate = StaticValues.INTERVAL_UPDATE_LOCAL_FEEDER)
   public void getPlanesFromFeeder() {
-    currentIterationSet.clear();
+    final long pollTime = System.currentTimeMillis();
+    final long deadline = configuration.getFeederFetchDeadline();
 
+    // Übernimm Änderungen anderer Threads (bspw. aus /getAllAircraftData) in den Live-Zustand
+    boolean hasChanged = liveAircraftService.applyPendingUpdates();
+
+    // Führe Ergebnisse zusammen, welche erst nach dem Ende einer vorherigen Iteration abgeschlossen wurden
+    CompletedFetch completedFetch;
+    while ((completedFetch = completedFetches.poll()) != null) {
+      hasChanged |= mergeCompletedFetch(completedFetch);
+    }
+    if (hasChanged) liveAircraftService.publishSnapshot();
+
+    // Starte Abruf aller fälligen Feeder nebenläufig
+    final Set<String> fetchesOfIteration = new HashSet<>();
     for (Feeder feeder : configuration.getListFeeder()) {
-      if (feeder == null) return;
+      if (feeder == null || !getPollState(feeder).isDue(pollTime)) continue;
+
+      if (startFetchFromLocalFeeder(feeder, pollTime, deadline)) fetchesOfIteration.add(feeder.getName());
+    }
 
-      JSONArray jsonArrayPlanesFeeder = getAircraftJSONFromLocalFeeder(feeder);
-      if (jsonArrayPlanesFeeder == null) continue;
+    // Ohne gestartete Abrufe wird höchstens INTERVAL_POLL_TICK_LOCAL_FEEDER Millisekunden gewartet,
+    // damit Änderungen anderer Threads zeitnah übernommen werden
+    final boolean hasStartedFetches = !fetchesOfIteration.isEmpty();
+    final long maxWaitTimestamp = hasStartedFetches ? pollTime + deadline :
+        pollTime + StaticValues.INTERVAL_POLL_TICK_LOCAL_FEEDER;
 
-      for (int i = 0; i < jsonArrayPlanesFeeder.length(); i++) {
-        final JSONObject element = jsonArrayPlanesFeeder.getJSONObject(i);
-        Aircraft aircraftNew = null;
-        if (isValidAircraft(element, feeder)) aircraftNew = aircraftService.createNewAircraft(element, feeder);
-        if (aircraftNew == null) continue;
+    // Führe Ergebnisse in der Reihenfolge ihres Abschlusses zusammen, bis ein anderer Feeder fällig wird
+    while (!hasStartedFetches || !fetchesOfIteration.isEmpty()) {
+      final long remainingTime = Math.min(maxWaitTimestamp, getNextPollTimeOfIdleFeeders(fetchesOfIteration)) -
+          System.currentTimeMillis();
+      if (remainingTime <= 0) break;
 
-        processAircraft(aircraftNew, feeder);
+      try {
+        completedFetch = completedFetches.poll(remainingTime, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
       }
+      if (completedFetch == null) break;
+
+      if (completedFetch.pollTime() == pollTime) fetchesOfIteration.remove(completedFetch.feeder().getName());
+
+      // Veröffentliche neuen Stand für lesende Zugriffe
+      if (mergeCompletedFetch(completedFetch)) liveAircraftService.publishSnapshot();
+    }
+  }
+
+  /**
+   * Gibt den frühesten Zeitpunkt der nächsten Abfrage aller Feeder zurück, deren Abruf
+   * gerade nicht läuft und deren Ergebnis nicht mehr aussteht
+   *
+   * @param pendingFeeders Set<String>, Feeder, deren Ergebnis noch nicht zusammengeführt wurde
+   * @return long (Long.MAX_VALUE, wenn kein solcher Feeder existiert)
+   */
+  private long getNextPollTimeOfIdleFeeders(Set<String> pendingFeeders) {
+    long nextPollTime = Long.MAX_VALUE;
+    for (Feeder feeder : configuration.getListFeeder()) {
+      if (feeder == null || pendingFeeders.contains(feeder.getName())) continue;
+
+      final CompletableFuture<FeederSnapshot> runningFetch = runningFetches.get(feeder.getName());
+      if (runningFetch != null && !runningFetch.isDone()) continue;
+
+      nextPollTime = Math.min(nextPollTime, getPollState(feeder).getNextPollTime());
     }
+    return nextPollTime;
+  }
 
-    previousIterationSet.clear();
-    previousIterationSet.addAll(currentIterationSet);
+  /**
+   * Führt das Ergebnis des Abrufs eines Feeders mit dem Live-Zustand zusammen
+   *
+   * @param completedFetch CompletedFetch
+   * @return true, wenn ein neuer Datenstand verarbeitet wurde
+   */
+  private boolean mergeCompletedFetch(CompletedFetch completedFetch) {
+    final Feeder feeder = completedFetch.feeder();
+    final FeederSnapshot snapshot = completedFetch.snapshot();
+    final FeederPollState pollState = getPollState(feeder);
+
+    if (snapshot == null || snapshot.getAircraft() == null) {
+      // Abfrage fehlgeschlagen, nächste Abfrage mit exponentiellem Backoff
+      // (Flugzeuge des Feeders bleiben erhalten, bis sie regulär veralten)
+      pollState.onFailure(System.currentTimeMillis());
+      metricsService.incrementCounter(METRIC_POLLS_FAILED);
+      return false;
+    }
+
+    if (snapshot.isUnchanged()) {
+      // Feeder hat seit der letzten Abfrage keinen neuen Datenstand veröffentlicht
+      pollState.onUnchanged(completedFetch.pollTime());
+      metricsService.incrementCounter(METRIC_SNAPSHOTS_UNCHANGED);
+      return false;
+    }
+
+    pollState.onSnapshot(completedFetch.pollTime(), snapshot.getSnapshotTime());
+
+    // Flugzeuge gelten nur als 'reentered', wenn sie länger als der Abstand der Datenstände des Feeders fehlten
+    aircraftTrailService.setReenteredThreshold(feeder.getName(), pollState.getReenteredThreshold());
+
+    processSnapshot(snapshot.getAircraft(), feeder);
+    return true;
   }
 
-  private void processAircraft(Aircraft aircraftNew, Feeder feeder) {
-    // Füge hex mit feeder zu currentIterationSet hinzu
-    currentIterationSet.add(aircraftNew.getHex());
+  /**
+   * Gibt den Zustand der Abfragen eines Feeders zurück
+   *
+   * @param feeder Feeder
+   * @return FeederPollState
+   */
+  private FeederPollState getPollState(Feeder feeder) {
+    return pollStates.computeIfAbsent(feeder.getName(), k -> new FeederPollState(
+        feeder.getPollInterval() != null ? feeder.getPollInterval() : StaticValues.INTERVAL_UPDATE_LOCAL_FEEDER));
+  }
+
+  /**
+   * Verarbeitet alle Flugzeuge eines neuen Datenstands eines Feeders
+   *
+   * @param listAircraftFeeder List<Aircraft>
+   * @param feeder             Feeder
+   */
+  private void processSnapshot(List<Aircraft> listAircraftFeeder, Feeder feeder) {
+    final Set<String> hexesOfSnapshot = new HashSet<>(listAircraftFeeder.size() * 2);
+
+    for (Aircraft aircraftNew : listAircraftFeeder) {
+      hexesOfSnapshot.add(aircraftNew.getHex());
+      processAircraft(aircraftNew, feeder);
+    }
+
+    removeFeederFromAircraftNotInSnapshot(feeder, hexesOfSnapshot);
+  }
+
+  /**
+   * Entfernt den Feeder aus Feeder-Liste und Source-Liste aller Flugzeuge, welche im
+   * letzten Datenstand des Feeders enthalten waren, aber nicht mehr im aktuellen
+   *
+   * @param feeder          Feeder
+   * @param hexesOfSnapshot Set<String> mit hex der Flugzeuge des aktuellen Datenstands
+   */
+  private void removeFeederFromAircraftNotInSnapshot(Feeder feeder, Set<String> hexesOfSnapshot) {
+    final Set<String> hexesOfLastSnapshot = hexesOfLastSnapshotByFeeder.put(feeder.getName(), hexesOfSnapshot);
+    if (hexesOfLastSnapshot == null) return;
+
+    for (String hex : hexesOfLastSnapshot) {
+      if (hexesOfSnapshot.contains(hex)) continue;
+
+      Aircraft aircraftLive = liveAircraftService.getAircraft(hex);
+      if (aircraftLive == null) continue;
+
+      aircraftLive.removeFeederFromFeederList(feeder.getName());
+      aircraftLive.removeSourceOfFeederFromSourceList(feeder.getName());
+      liveAircraftService.markDirty(hex);
+    }
+  }
+
+  /**
+   * Startet Abruf und Verarbeitung der Daten eines Feeders im Hintergrund. Das Ergebnis
+   * wird nach Abschluss in completedFetches abgelegt. Läuft der Abruf aus einer
+   * vorherigen Iteration noch, wird kein neuer Abruf gestartet
+   *
+   * @param feeder   Feeder
+   * @param pollTime Zeitpunkt der Iteration
+   * @param deadline Deadline in Millisekunden
+   * @return true, wenn ein Abruf gestartet wurde
+   */
+  private boolean startFetchFromLocalFeeder(Feeder feeder, long pollTime, long deadline) {
+    final CompletableFuture<FeederSnapshot> runningFetch = runningFetches.get(feeder.getName());
+    if (runningFetch != null && !runningFetch.isDone()) {
+      log.warn("Server - Feeder " + feeder.getName() + " skipped, previous request is still running");
+      return false;
+    }
+
+    final Long lastSnapshotTime = getPollState(feeder).getLastSnapshotTime();
+    final CompletableFuture<FeederSnapshot> fetch = CompletableFuture.supplyAsync(
+        () -> getSnapshotFromLocalFeeder(feeder, deadline, lastSnapshotTime), feederFetchExecutor);
+    runningFetches.put(feeder.getName(), fetch);
+    fetch.whenComplete((result, throwable) -> {
+      final long fetchTime = System.currentTimeMillis() - pollTime;
+      if (fetchTime > deadline) {
+        log.warn("Server - Feeder " + feeder.getName() + " exceeded deadline of " + deadline + " ms (" + fetchTime +
+            " ms)");
+      }
+      if (throwable != null) {
+        log.error("Server - Error when processing aircraft from feeder " + feeder.getName() + " : Exception = " +
+            throwable);
+      }
+      completedFetches.add(new CompletedFetch(feeder, pollTime, throwable == null ? result : null));
+      runningFetches.remove(feeder.getName(), fetch);
+    });
+    return true;
+  }
+
+  /**
+   * Fragt die Daten eines Feeders ab und wandelt diese direkt aus dem (ggf. entpackten)
+   * Byte-Stream der Antwort in Aircraft-Objekte um. Bei bedingten Abfragen wird ein
+   * 304 Not Modified des Feeders als unveränderter Datenstand behandelt
+   *
+   * @param feeder           Feeder
+   * @param deadline         Deadline in Millisekunden
+   * @param lastSnapshotTime Zeitpunkt des letzten Datenstands des Feeders (oder null)
+   * @return FeederSnapshot oder null
+   */
+  private FeederSnapshot getSnapshotFromLocalFeeder(Feeder feeder, long deadline, Long lastSnapshotTime) {
+    if (feeder.getIpAddress() == null || feeder.getIpAddress().isEmpty()) return null;
+
+    final ResponseStreamHandler<FeederSnapshot> handler =
+        inputStream -> aircraftStreamService.readSnapshotFromLocalFeeder(inputStream, feeder, lastSnapshotTime);
+
+    if (!Boolean.TRUE.equals(configuration.getFeederConditionalRequests())) {
+      return networkHandler.makeStreamingServiceCallLocalFeeder(feeder.getIpAddress(), deadline, handler);
+    }
+
+    return networkHandler.makeConditionalStreamingServiceCallLocalFeeder(feeder.getIpAddress(), deadline, handler,
+        () -> {
+          metricsService.incrementCounter(METRIC_RESPONSES_NOT_MODIFIED);
+          return new FeederSnapshot(Collections.emptyList(), lastSnapshotTime, true);
+        });
+  }
+
+  /**
+   * Stoppt die Ingest-Schleife und beendet den Executor für den Abruf der lokalen Feeder
+   */
+  @PreDestroy
+  public void stopIngest() {
+    running = false;
+    if (ingestThread != null) {
+      ingestThread.interrupt();
+      try {
+        ingestThread.join(configuration.getFeederFetchDeadline());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    feederFetchExecutor.shutdownNow();
+  }
 
-    // Aktualisiere Flugzeug aus Datenbank oder
-    // füge neues Flugzeug zur Datenbank hinzu
-    if (aircraftRepository.existsById(aircraftNew.getHex())) {
-      updateExistingAircraft(aircraftNew, feeder);
+  private void processAircraft(Aircraft aircraftNew, Feeder feeder) {
+    // Prüfe, ob sich das Flugzeug seit der letzten Abfrage des Feeders verändert hat
+    final boolean hasChanged = changeDetector.hasChanged(aircraftNew, feeder.getName());
+
+    // Aktualisiere Flugzeug aus Live-Zustand oder
+    // füge neues Flugzeug zum Live-Zustand hinzu
+    Aircraft aircraftLive = liveAircraftService.getAircraft(aircraftNew.getHex());
+    if (aircraftLive != null) {
+      updateExistingAircraft(aircraftLive, aircraftNew, feeder, hasChanged);
     } else {
       addNewAircraft(aircraftNew, feeder);
     }
@@ -108,43 +407,34 @@ public class LocalFeederService {
     // Speichere Trail
     aircraftTrailService.addTrail(aircraftNew, feeder.getName());
 
-    try {
-      // Schreibe Flugzeug in aircraft-Tabelle
-      aircraftRepository.save(aircraftNew);
-    } catch (Exception e) {
-      log.error("Server - DB error when writing aircraftNew for hex " + aircraftNew.getHex()
-          + ": Exception = " + e);
-    }
+    // Füge Flugzeug zum Live-Zustand hinzu (wird gesammelt in aircraft-Tabelle geschrieben)
+    liveAircraftService.putAircraft(aircraftNew);
+
+    metricsService.incrementCounter(METRIC_UPDATES_APPLIED);
   }
 
-  private void updateExistingAircraft(Aircraft aircraftNew, Feeder feeder) {
-    // Prüfe, ob Flugzeug in Datenbank-Tabelle enthalten ist
-    Aircraft aircraftInDb = aircraftRepository.findByHex(aircraftNew.getHex());
-
-    // Wenn Flugzeug in der letzten Iteration vorhanden war, lösche Feeder-Liste und Source-Liste,
-    // damit nach der Iteration nur die Feeder und die Sources in der Liste stehen,
-    // welche das Flugzeug geupdated haben (nur der erste Feeder pro Iteration soll die Listen löschen)
-    if (previousIterationSet.contains(aircraftNew.getHex())) {
-      previousIterationSet.remove(aircraftNew.getHex());
-      aircraftInDb.clearFeederList();
-      aircraftInDb.clearSourceList();
+  private void updateExistingAircraft(Aircraft aircraftLive, Aircraft aircraftNew, Feeder feeder, boolean hasChanged) {
+    if (!hasChanged) {
+      // Flugzeug ist unverändert: Kein Update der Werte, kein Schreiben in die aircraft-Tabelle
+      // und kein neuer Trail. Feeder-Liste, Source-Liste und Zeitpunkt des letzten Updates werden
+      // nur im Live-Zustand gepflegt, damit das Flugzeug weiterhin dem Feeder zugeordnet ist
+      aircraftService.refreshUnchangedAircraft(aircraftLive, aircraftNew, feeder.getName());
+      liveAircraftService.markChanged(aircraftLive.getHex());
+
+      // Merke Sichtung, damit das Flugzeug beim nächsten Trail nicht als 'reentered' gilt
+      aircraftTrailService.registerSighting(aircraftLive.getHex(), feeder.getName());
+
+      metricsService.incrementCounter(METRIC_UPDATES_SKIPPED);
+      return;
     }
 
     // Update Werte des Flugzeugs mit Werten von aircraftNew
-    aircraftService.updateValuesOfAircraft(aircraftInDb, aircraftNew, feeder.getName(), true);
+    aircraftService.updateValuesOfAircraft(aircraftLive, aircraftNew, feeder.getName(), true);
 
-    try {
-      // Schreibe Flugzeug in aircraft-Tabelle
-      aircraftRepository.save(aircraftInDb);
-    } catch (Exception e) {
-      log.error("Server - DB error when writing aircraftInDb for hex " + aircraftInDb.getHex()
-          + ": Exception = " + e);
-    }
-  }
+    // Markiere Flugzeug zum Schreiben in aircraft-Tabelle
+    liveAircraftService.markDirty(aircraftLive.getHex());
 
-  private boolean isValidAircraft(JSONObject element, Feeder feeder) {
-    // Icao is hex in vrs feeder
-    return element != null && (element.has("hex") || (feeder.getType().equals("vrs") && element.has("Icao")));
+    metricsService.incrementCounter(METRIC_UPDATES_APPLIED);
   }
 
   /**
@@ -164,64 +454,37 @@ public class LocalFeederService {
 
     long startTime = System.currentTimeMillis() - StaticValues.RETENTION_TIME_AIRCRAFT_LOCAL;
 
-    // Hole Flugzeuge der aktuellen Iteration
-    List<Aircraft> listPlanesNotUpdated = aircraftRepository
-        .findAllByLastUpdateLessThanEqual(startTime);
-
-    if (listPlanesNotUpdated != null) {
-      // Lösche Daten der planespotters.net API, damit diese
-      // nicht länger als 24h in der Db gespeichert werden
-      for (Aircraft aircraft : listPlanesNotUpdated) {
-        aircraft.setUrlPhotoDirect(null);
-        aircraft.setUrlPhotoWebsite(null);
-        aircraft.setPhotoPhotographer(null);
-      }
+    // Entferne nicht mehr aktualisierte Flugzeuge aus dem Live-Zustand und archiviere diese,
+    // bevor veränderte Flugzeuge wieder geschrieben werden
+    liveAircraftService.removeAircraftNotUpdatedSince(startTime, this::archiveOldPlanes);
+  }
 
-      // Packe nicht geupdatete Flugzeuge in History-Tabelle
-      boolean successful = historyAircraftService.putListPlanesInHistoryTable(listPlanesNotUpdated);
+  private void archiveOldPlanes(List<Aircraft> listPlanesNotUpdated) {
+    // Vergesse gemerkte Werte der Änderungserkennung
+    for (Aircraft aircraft : listPlanesNotUpdated) {
+      changeDetector.remove(aircraft.getHex());
+    }
 
-      // Wenn Speicherung in History-Tabelle erfolgreich war, lösche alle betroffenen
-      // Flugzeuge aus der Aircraft-Tabelle
-      if (successful) {
-        aircraftRepository.deleteAll(listPlanesNotUpdated);
-      }
+    // Lösche Daten der planespotters.net API, damit diese
+    // nicht länger als 24h in der Db gespeichert werden
+    for (Aircraft aircraft : listPlanesNotUpdated) {
+      aircraft.setUrlPhotoDirect(null);
+      aircraft.setUrlPhotoWebsite(null);
+      aircraft.setPhotoPhotographer(null);
     }
-  }
 
-  /**
-   * Wandelt die Flugzeuge von einer url eines Feeder in ein Aircraft-Objekt um
-   * und fügt dieses der Liste aircraftList hinzu. Dopplungen (selber hex) werden
-   * nicht hinzugefügt.
-   *
-   * @param feeder Feeder
-   */
-  private JSONArray getAircraftJSONFromLocalFeeder(Feeder feeder) {
-    if (feeder.getIpAddress() != null && !feeder.getIpAddress().isEmpty()) {
-      // Anfrage an Feeder mit url
-      String jsonStr = networkHandler.makeServiceCallLocalFeeder(feeder.getIpAddress());
+    // Packe nicht geupdatete Flugzeuge in History-Tabelle
+    boolean successful = historyAircraftService.putListPlanesInHistoryTable(listPlanesNotUpdated);
 
+    // Wenn Speicherung in History-Tabelle erfolgreich war, lösche alle betroffenen
+    // Flugzeuge aus der Aircraft-Tabelle
+    if (successful) {
       try {
-        if (jsonStr != null) {
-          JSONArray jsonArray;
-
-          // Erstelle jsonArray aus jsonStr vom Feeder
-          if (feeder.getType().equals("airsquitter")) {
-            jsonArray = new JSONArray(jsonStr);
-          } else if (feeder.getType().equals("vrs")) {
-            JSONObject jsonObject = new JSONObject(jsonStr);
-            jsonArray = jsonObject.getJSONArray("acList");
-          } else {
-            JSONObject jsonObject = new JSONObject(jsonStr);
-            jsonArray = jsonObject.getJSONArray("aircraft");
-          }
-
-          return jsonArray;
-        }
+        aircraftRepository.deleteAllById(listPlanesNotUpdated.stream().map(Aircraft::getHex).toList());
       } catch (Exception e) {
-        log.error("Server: Temporary aircraft list could not be updated from " + feeder.getIpAddress() + ": Exception = " + e);
+        log.error("Server - DB error when deleting old aircraft : Exception = " + e);
       }
     }
-    return null;
   }
 
   /**
@@ -236,10 +499,12 @@ public class LocalFeederService {
    */
   public Object[] getAllAircraftData(String hex, String registration) {
     if (hex != null && registration != null && !hex.isEmpty() && !registration.isEmpty()) {
-      // Hole Flugzeug aus Datenbank
-      Aircraft aircraft = aircraftRepository.findByHex(hex);
+      // Hole Kopie des Flugzeugs aus dem veröffentlichten Stand (Live-Zustand wird nur von der Ingest-Schleife verändert)
+      final Aircraft publishedAircraft = liveAircraftService.getPublishedAircraft(hex);
+
+      if (publishedAircraft != null) {
+        final Aircraft aircraft = Aircraft.makeCopy(publishedAircraft);
 
-      if (aircraft != null) {
         // Setze Photo-Urls
         aircraftService.setAircraftPhotoUrls(aircraft);
 
@@ -256,12 +521,8 @@ public class LocalFeederService {
           destinationAirportData = airportDataService.getAirportData(aircraft.getDestination());
         }
 
-        // Speichere Flugzeug in Datenbank
-        try {
-          aircraftRepository.save(aircraft);
-        } catch (Exception e) {
-          log.error("Server - DB error when saving aircraft : Exception = " + e);
-        }
+        // Übernimm Informationen in der Ingest-Schleife in den Live-Zustand (wird in aircraft-Tabelle geschrieben)
+        liveAircraftService.submitUpdate(hex, aircraftLive -> copyAdditionalInformation(aircraft, aircraftLive));
 
         // Baue Array als Rückgabewert
         return new Object[]{aircraft, originAirportData, destinationAirportData};
@@ -272,57 +533,168 @@ public class LocalFeederService {
   }
 
   /**
-   * Gibt alle Flugzeuge innerhalb eines Extents zurück. Dabei beachtet wird der
-   * ausgewählte Feeder und der gewünschte Zeitpunkt des letzten Updates der
-   * Flugzeuge
+   * Kopiert Photo-Urls sowie Informationen zu Operator, Regcode und Flugroute
+   * von einem Flugzeug auf ein anderes
+   *
+   * @param source Aircraft
+   * @param target Aircraft
+   */
+  private static void copyAdditionalInformation(Aircraft source, Aircraft target) {
+    target.setUrlPhotoDirect(source.getUrlPhotoDirect());
+    target.setUrlPhotoWebsite(source.getUrlPhotoWebsite());
+    target.setPhotoPhotographer(source.getPhotoPhotographer());
+    target.setOperatorIcao(source.getOperatorIcao());
+    target.setOperatorIata(source.getOperatorIata());
+    target.setOperatorCallsign(source.getOperatorCallsign());
+    target.setOperatorCountry(source.getOperatorCountry());
+    target.setOperatorName(source.getOperatorName());
+    target.setOperatorCountryFlag(source.getOperatorCountryFlag());
+    target.setRegCodeName(source.getRegCodeName());
+    target.setRegCodeNameFlag(source.getRegCodeNameFlag());
+    target.setOrigin(source.getOrigin());
+    target.setDestination(source.getDestination());
+  }
+
+  /**
+   * Gibt die Flugzeuge aller ausgewählten Feeder innerhalb eines Extents aus dem veröffentlichten
+   * Live-Zustand in einem Durchlauf zurück. Flugzeuge, welche von mehreren Feedern empfangen
+   * werden, sind nur einmal enthalten. Der Filter wird bereits beim Durchlauf des Index ausgewertet
    *
    * @param lomin          lower bound for the longitude in decimal degrees
    * @param lamin          lower bound for the latitude in decimal degrees
    * @param lomax          upper bound for the longitude in decimal degrees
    * @param lamax          upper bound for the latitude in decimal degrees
-   * @param selectedFeeder Ausgewählter Feeder (oder keiner)
+   * @param selectedFeeder Collection<String>, Ausgewählte Feeder
    * @param startTime      Zeitpunkt des letzten Updates
+   * @param filter         AircraftFilter
    * @return List<Aircraft>
    */
-  public List<Aircraft> getPlanes(Double lomin, Double lamin, Double lomax, Double lamax,
-                                  String selectedFeeder, long startTime, String markedHex, boolean showOnlyMilitary) {
-    List<Aircraft> listAircraftRaw;
-    listAircraftRaw = getPlanesWithoutExtent(lomin, lamin, lomax, lamax, selectedFeeder, startTime, markedHex, showOnlyMilitary);
-
+  public List<Aircraft> getPlanesOfFeeders(double lomin, double lamin, double lomax, double lamax,
+                                           Collection<String> selectedFeeder, long startTime, AircraftFilter filter) {
     try {
-      if (markedHex != null && !markedHex.isEmpty()) {
-        final Aircraft markedAircraft = aircraftRepository.findByHex(markedHex);
-        if (markedAircraft != null && listAircraftRaw != null) {
-          listAircraftRaw.add(markedAircraft);
-        } else if (markedAircraft != null) {
-          listAircraftRaw = new ArrayList<>();
-          listAircraftRaw.add(markedAircraft);
-        }
-      }
+      if (selectedFeeder == null || selectedFeeder.isEmpty()) return new ArrayList<>();
 
-      if (listAircraftRaw != null && showOnlyMilitary)
-        listAircraftRaw = listAircraftRaw.stream().filter(a -> a.getIsMilitary() != null).collect(Collectors.toList());
+      final Map<String, Long> startTimeByFeeder = new HashMap<>();
+      for (String feeder : selectedFeeder) {
+        startTimeByFeeder.put(feeder, getStartTimeOfFeeder(feeder, startTime));
+      }
 
+      return liveAircraftService.getPublishedAircraftOfFeedersWithinExtent(startTimeByFeeder, lomin, lamin, lomax,
+          lamax, filter);
     } catch (Exception e) {
-      log.error("Server - DB error when fetching planes : Exception = " + e);
+      log.error("Server - Error when fetching planes : Exception = " + e);
+      return new ArrayList<>();
     }
+  }
+
+  /**
+   * Gibt das markierte Flugzeug aus dem veröffentlichten Live-Zustand zurück
+   * (unabhängig von Feeder, Extent und Zeitpunkt des letzten Updates)
+   *
+   * @param markedHex String
+   * @param filter    AircraftFilter
+   * @return Aircraft (oder null)
+   */
+  public Aircraft getMarkedPlane(String markedHex, AircraftFilter filter) {
+    if (markedHex == null || markedHex.isEmpty()) return null;
+
+    final Aircraft markedAircraft = liveAircraftService.getPublishedAircraft(markedHex);
+    if (markedAircraft == null || !filter.matches(markedAircraft)) return null;
+    return markedAircraft;
+  }
 
-    return listAircraftRaw;
+  /**
+   * Gibt den Zeitpunkt des letzten Updates zurück, ab dem Flugzeuge eines Feeders angezeigt werden.
+   * Berücksichtigt das Intervall des Feeders, damit Flugzeuge von Feedern mit einem
+   * längeren Intervall zwischen zwei Abfragen weiterhin angezeigt werden
+   *
+   * @param feeder    String
+   * @param startTime Zeitpunkt des letzten Updates
+   * @return long
+   */
+  private long getStartTimeOfFeeder(String feeder, long startTime) {
+    final FeederPollState pollState = pollStates.get(feeder);
+    return pollState == null ? startTime :
+        startTime - Math.max(0, pollState.getEffectiveInterval() - StaticValues.INTERVAL_UPDATE_LOCAL_FEEDER);
   }
 
-  private List<Aircraft> getPlanesWithoutExtent(double lomin, double lamin, double lomax, double lamax, String selectedFeeder, long startTime, String markedHex, boolean showOnlyMilitary) {
-    List<Aircraft> listAircraftRaw = null;
+  /**
+   * Gibt die Änderungen der Flugzeuge der ausgewählten Feeder innerhalb eines Extents seit
+   * einer früheren Version des veröffentlichten Stands zurück. Ein Flugzeug gilt als sichtbar,
+   * wenn es innerhalb von TIME_WINDOW_AIRCRAFT_LIST vor der Veröffentlichung einer Version
+   * aktualisiert wurde. Ist die frühere Version nicht mehr vorhanden (oder since = 0), werden
+   * alle sichtbaren Flugzeuge zurückgegeben (full). Die Sichtbarkeit zur früheren Version wird
+   * mit dem aktuellen Extent, Feedern und Filter bestimmt, bei einer Änderung muss der Aufrufer
+   * since = 0 übergeben (siehe AircraftDelta.hasExtentChanged)
+   *
+   * @param lomin            lower bound for the longitude in decimal degrees
+   * @param lamin            lower bound for the latitude in decimal degrees
+   * @param lomax            upper bound for the longitude in decimal degrees
+   * @param lamax            upper bound for the latitude in decimal degrees
+   * @param selectedFeeder   List<String>, Ausgewählte Feeder
+   * @param since            Frühere Version (oder 0)
+   * @param filter           AircraftFilter
+   * @return AircraftDelta
+   */
+  public AircraftDelta getPlanesDelta(double lomin, double lamin, double lomax, double lamax,
+                                      List<String> selectedFeeder, long since, AircraftFilter filter) {
+    final LiveAircraftService.SnapshotDelta delta = liveAircraftService.getPublishedDeltaSince(since);
+    final AircraftSnapshot snapshot = delta != null ? delta.snapshot() : liveAircraftService.getPublishedSnapshot();
+    final List<Aircraft> listChanged = new ArrayList<>();
+    final List<String> listRemoved = new ArrayList<>();
+
+    if (selectedFeeder == null || selectedFeeder.isEmpty()) {
+      return new AircraftDelta(snapshot.getVersion(), delta == null, listChanged, listRemoved);
+    }
 
-    try {
-      if (selectedFeeder != null && !selectedFeeder.isEmpty()) {
-        // Gebe Flugzeuge eines bestimmten Feeders zurück
-        listAircraftRaw = aircraftRepository.findAllByLastUpdateAndFeederWithoutExtent(
-            startTime, selectedFeeder);
+    // Kandidaten sind alle Flugzeuge im Extent und alle seit der früheren Version veränderten Flugzeuge
+    final Set<String> candidates = new LinkedHashSet<>();
+    snapshot.getGridIndex().query(lomin, lamin, lomax, lamax, true, candidates::add);
+    if (delta != null) candidates.addAll(delta.previousByHex().keySet());
+
+    final long startTime = snapshot.getPublishTime() - StaticValues.TIME_WINDOW_AIRCRAFT_LIST;
+    final long sinceStartTime = delta != null ? delta.sincePublishTime() - StaticValues.TIME_WINDOW_AIRCRAFT_LIST : 0;
+
+    for (String hex : candidates) {
+      final Aircraft aircraft = snapshot.getAircraft(hex);
+      final boolean visible = isVisible(aircraft, lomin, lamin, lomax, lamax, selectedFeeder, startTime, filter);
+
+      if (delta == null) {
+        if (visible) listChanged.add(aircraft);
+        continue;
+      }
+
+      final Aircraft previousAircraft = delta.previousByHex().containsKey(hex) ? delta.previousByHex().get(hex) : aircraft;
+      final boolean previousVisible = isVisible(previousAircraft, lomin, lamin, lomax, lamax, selectedFeeder,
+          sinceStartTime, filter);
+
+      if (visible && (!previousVisible || previousAircraft != aircraft)) {
+        listChanged.add(aircraft);
+      } else if (!visible && previousVisible) {
+        listRemoved.add(hex);
       }
-    } catch (Exception e) {
-      log.error("Server - DB error when fetching planes : Exception = " + e);
     }
 
-    return listAircraftRaw;
+    return new AircraftDelta(snapshot.getVersion(), delta == null, listChanged, listRemoved);
+  }
+
+  /**
+   * Prüft, ob ein Flugzeug eines ausgewählten Feeders zum Zeitpunkt startTime angezeigt wird
+   */
+  private boolean isVisible(Aircraft aircraft, double lomin, double lamin, double lomax, double lamax,
+                            List<String> selectedFeeder, long startTime, AircraftFilter filter) {
+    if (aircraft == null || aircraft.getLastUpdate() == null || aircraft.getFeederList() == null) return false;
+    if (!filter.matches(aircraft)) return false;
+
+    // Flugzeuge ohne Position werden immer angezeigt
+    if (aircraft.getLatitude() != null && aircraft.getLongitude() != null &&
+        !AircraftGridIndex.isWithinExtent(aircraft.getLatitude(), aircraft.getLongitude(), lomin, lamin, lomax, lamax))
+      return false;
+
+    for (String feeder : selectedFeeder) {
+      if (aircraft.getFeederList().contains(feeder) && aircraft.getLastUpdate() >= getStartTimeOfFeeder(feeder, startTime))
+        return true;
+    }
+    return false;
   }
 }
@@ -9,6 +9,7 @@ import com.amnesica.belugaproject.services.helper.Request;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -18,7 +19,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.stream.Collectors;
 
 @Slf4j
 @EnableScheduling
@@ -113,26 +113,32 @@ public class RemoteService {
 
   /**
    * Methode gibt alle Flugzeuge innerhalb eines Extents aus der Tabelle
-   * remote_aircraft zurück
+   * remote_aircraft zurück. Der Filter wird dabei in der Datenbank ausgewertet
    *
-   * @param lomin lower bound for the longitude in decimal degrees
-   * @param lamin lower bound for the latitude in decimal degrees
-   * @param lomax upper bound for the longitude in decimal degrees
-   * @param lamax upper bound for the latitude in decimal degrees
+   * @param lomin       lower bound for the longitude in decimal degrees
+   * @param lamin       lower bound for the latitude in decimal degrees
+   * @param lomax       upper bound for the longitude in decimal degrees
+   * @param lamax       upper bound for the latitude in decimal degrees
+   * @param filter      AircraftFilter
+   * @param fetchRemote String, Remote-API ("Opensky" oder "Airplanes-Live")
    * @return List<RemoteAircraft>
    */
   public List<RemoteAircraft> getRemotePlanesWithinExtent(double lomin, double lamin, double lomax,
-                                                          double lamax, boolean showOnlyMilitary, String fetchRemote) {
+                                                          double lamax, AircraftFilter filter, String fetchRemote) {
     List<RemoteAircraft> listAircraftRaw = null;
 
     if (!fetchRemote.equals("Opensky") && !fetchRemote.equals("Airplanes-Live")) return listAircraftRaw;
 
     try {
-      listAircraftRaw = remoteAircraftRepository.findAllWithinExtent(lomin, lamin, lomax, lamax, fetchRemote);
-
-      if (listAircraftRaw != null && showOnlyMilitary)
-        listAircraftRaw = listAircraftRaw.stream().filter(a -> a.getIsMilitary() != null).collect(Collectors.toList());
-
+      if (filter.isEmpty()) {
+        listAircraftRaw = remoteAircraftRepository.findAllWithinExtent(lomin, lamin, lomax, lamax, fetchRemote);
+      } else {
+        final Specification<RemoteAircraft> withinExtent = (root, query, criteriaBuilder) -> criteriaBuilder.and(
+            criteriaBuilder.between(root.get("longitude"), lomin, lomax),
+            criteriaBuilder.between(root.get("latitude"), lamin, lamax),
+            criteriaBuilder.equal(root.get("isFromRemote"), fetchRemote));
+        listAircraftRaw = remoteAircraftRepository.findAll(withinExtent.and(filter.toSpecification()));
+      }
     } catch (Exception e) {
       log.error("Server - DB error when fetching remote planes (" + fetchRemote + ") from db : Exception = " + e);
     }
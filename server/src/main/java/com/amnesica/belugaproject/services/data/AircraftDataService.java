@@ -1,14 +1,30 @@
 package com.amnesica.belugaproject.services.data;
 
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.config.StaticValues;
 import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
 import com.amnesica.belugaproject.entities.data.AircraftData;
 import com.amnesica.belugaproject.repositories.data.AircraftDataRepository;
 import com.amnesica.belugaproject.services.aircraft.AircraftService;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @Slf4j
+@EnableScheduling
 @Service
 public class AircraftDataService {
 
@@ -18,6 +34,161 @@ public class AircraftDataService {
   @Autowired
   private AircraftService aircraftService;
 
+  @Autowired
+  private Configuration configuration;
+
+  @Autowired
+  private MetricsService metricsService;
+
+  // Namen der Metriken
+  static final String METRIC_REGISTRY_HITS = "aircraft.registry.hits";
+  static final String METRIC_REGISTRY_MISSES = "aircraft.registry.misses";
+  static final String METRIC_REGISTRY_FALLBACK = "aircraft.registry.fallback";
+  static final String METRIC_REGISTRY_SIZE = "aircraft.registry.size";
+  static final String METRIC_REGISTRY_BUILD = "aircraft.registry.build";
+
+  // Speicherabgebildete Kopie der Tabelle aircraft_data (null, solange diese nicht verfügbar ist)
+  private volatile AircraftRegistry aircraftRegistry;
+
+  // Die Kopie wird gerade geprüft oder erstellt
+  private final AtomicBoolean registryRefreshing = new AtomicBoolean();
+
+  // Thread zum Erstellen der Kopie, damit Scheduler und Start der Anwendung nicht blockiert werden
+  private final ExecutorService registryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "aircraft-registry");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Registriert die Metriken der Kopie der Tabelle aircraft_data
+   */
+  @PostConstruct
+  public void registerMetrics() {
+    metricsService.registerGauge(METRIC_REGISTRY_SIZE, () -> {
+      final AircraftRegistry registry = aircraftRegistry;
+      return registry != null ? registry.size() : 0;
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    registryExecutor.shutdownNow();
+  }
+
+  /**
+   * Prüft alle INTERVAL_CHECK_AIRCRAFT_REGISTRY Millisekunden (und beim Start), ob die Tabelle
+   * aircraft_data seit dem Erstellen der Kopie neu geladen wurde, und erstellt diese ggf. im
+   * Hintergrund neu. Bis dahin werden die Flugzeugdaten aus der vorherigen Kopie bzw. aus der
+   * Datenbank gelesen
+   */
+  @Scheduled(fixedDelay = StaticValues.INTERVAL_CHECK_AIRCRAFT_REGISTRY)
+  public void checkAircraftRegistry() {
+    if (!Boolean.TRUE.equals(configuration.getAircraftRegistryEnabled())) return;
+    if (!registryRefreshing.compareAndSet(false, true)) return;
+
+    try {
+      registryExecutor.execute(() -> {
+        try {
+          refreshAircraftRegistry();
+        } catch (Exception e) {
+          log.error("Server - Error when refreshing aircraft registry : Exception = " + e);
+        } finally {
+          registryRefreshing.set(false);
+        }
+      });
+    } catch (Exception e) {
+      registryRefreshing.set(false);
+      log.error("Server - Error when scheduling refresh of aircraft registry : Exception = " + e);
+    }
+  }
+
+  /**
+   * Verwendet die vorhandene Kopie der Tabelle aircraft_data, wenn diese dem aktuellen Stand der
+   * Tabelle entspricht (bspw. nach einem Neustart), und erstellt die Kopie ansonsten neu
+   */
+  public void refreshAircraftRegistry() throws IOException {
+    final String fingerprint = getAircraftDataFingerprint();
+    final AircraftRegistry currentRegistry = aircraftRegistry;
+    if (currentRegistry != null && currentRegistry.getFingerprint().equals(fingerprint)) return;
+
+    final Path file = getAircraftRegistryFile();
+    if (currentRegistry == null && Files.exists(file)) {
+      try {
+        final AircraftRegistry existingRegistry = AircraftRegistry.open(file);
+        if (existingRegistry.getFingerprint().equals(fingerprint)) {
+          aircraftRegistry = existingRegistry;
+          log.info("Server - Aircraft registry with " + existingRegistry.size() + " aircraft loaded from " + file);
+          return;
+        }
+      } catch (Exception e) {
+        log.error("Server - Error when opening aircraft registry " + file + " : Exception = " + e);
+      }
+    }
+
+    final long start = System.currentTimeMillis();
+    final AircraftRegistry.Builder builder = new AircraftRegistry.Builder();
+    String lastHex = "";
+    List<AircraftData> page;
+    do {
+      page = aircraftDataRepository.findAllAfterHexOrderByHex(lastHex, StaticValues.AIRCRAFT_REGISTRY_PAGE_SIZE);
+      for (AircraftData aircraftData : page) {
+        builder.add(aircraftData);
+      }
+      if (!page.isEmpty()) lastHex = page.get(page.size() - 1).getHex();
+    } while (page.size() == StaticValues.AIRCRAFT_REGISTRY_PAGE_SIZE);
+
+    builder.write(file, fingerprint);
+    aircraftRegistry = AircraftRegistry.open(file);
+
+    final long duration = System.currentTimeMillis() - start;
+    metricsService.recordDuration(METRIC_REGISTRY_BUILD, duration);
+    log.info("Server - Aircraft registry with " + builder.size() + " aircraft created in " + duration + " ms");
+  }
+
+  /**
+   * Gibt den Stand der Tabelle aircraft_data zurück (Version aus version_info und Anzahl der Zeilen)
+   *
+   * @return String
+   */
+  private String getAircraftDataFingerprint() {
+    String versionInfo;
+    try {
+      versionInfo = aircraftDataRepository.findVersionInfo();
+    } catch (Exception e) {
+      // Tabelle version_info ist optional
+      versionInfo = null;
+    }
+    return versionInfo + ";" + aircraftDataRepository.count();
+  }
+
+  private Path getAircraftRegistryFile() {
+    final String file = configuration.getAircraftRegistryFile();
+    if (file != null && !file.isBlank()) return Path.of(file);
+    return Path.of(System.getProperty("java.io.tmpdir"), StaticValues.AIRCRAFT_REGISTRY_FILE_NAME);
+  }
+
+  /**
+   * Gibt die Daten eines Flugzeugs aus der Kopie der Tabelle aircraft_data zurück. Ist die Kopie
+   * nicht verfügbar oder der hex keine ICAO-Adresse, wird die Datenbank abgefragt
+   *
+   * @param hex String
+   * @return AircraftData (oder null)
+   */
+  private AircraftData findAircraftData(String hex) {
+    final AircraftRegistry registry = aircraftRegistry;
+    final int icao = AircraftRegistry.parseIcao(hex);
+
+    if (registry != null && icao >= 0) {
+      final AircraftData aircraftData = registry.find(icao);
+      metricsService.incrementCounter(aircraftData != null ? METRIC_REGISTRY_HITS : METRIC_REGISTRY_MISSES);
+      return aircraftData;
+    }
+
+    metricsService.incrementCounter(METRIC_REGISTRY_FALLBACK);
+    return aircraftDataRepository.findByHex(hex);
+  }
+
   /**
    * Gibt alle Informationen über ein Flugzeug mit Angabe der hex aus der
    * Datenbank zurück
@@ -28,10 +199,10 @@ public class AircraftDataService {
     AircraftData aircraftData = null;
 
     if (aircraft.getHex() != null && !aircraft.getHex().isEmpty() && !aircraft.getHex().equals("null") && !aircraft.getHex().equals("ISS")) {
-      // Hole Daten aus Datenbank mit Angabe der Hex
+      // Hole Daten aus Kopie der Tabelle bzw. aus Datenbank mit Angabe der Hex
 
       try {
-        aircraftData = aircraftDataRepository.findByHex(aircraft.getHex());
+        aircraftData = findAircraftData(aircraft.getHex());
       } catch (Exception e) {
         log.error("Server - DB-Error when reading AircraftData for hex " + aircraft.getHex() + ": Exception = "
             + e);
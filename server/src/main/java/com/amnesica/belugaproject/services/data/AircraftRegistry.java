@@ -0,0 +1,262 @@
+package com.amnesica.belugaproject.services.data;
+
+import com.amnesica.belugaproject.entities.data.AircraftData;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Kompakte, speicherabgebildete (memory-mapped) Kopie der Tabelle aircraft_data mit der 24-Bit
+ * ICAO-Adresse als Key. Die Datei enthält eine Hashtabelle (offene Adressierung) über die Adressen,
+ * pro Flugzeug eine feste Anzahl an Indizes in ein Wörterbuch und das Wörterbuch aller
+ * vorkommenden Strings (jeder String nur einmal). Eine Abfrage benötigt dadurch keine Datenbank
+ * und erwartet konstante Zeit. Enthalten sind nur die Felder, welche an Flugzeugen gesetzt werden.
+ * Aufbau (big-endian): Header, Keys (int pro Flugzeug), Hashtabelle (Index + 1 oder 0 pro Slot),
+ * Flugzeuge (ein Index pro gespeichertem Feld, 0 für null), Offsets des Wörterbuchs, UTF-8 Bytes
+ */
+public final class AircraftRegistry {
+
+  private static final int MAGIC = 0x424C5247; // "BLRG"
+  private static final int FORMAT_VERSION = 1;
+
+  // Gespeicherte Felder (Reihenfolge bestimmt das Format der Datei)
+  private static final List<Function<AircraftData, String>> GETTERS = List.of(
+      AircraftData::getRegistration, AircraftData::getTypecode, AircraftData::getManufacturerName,
+      AircraftData::getModel, AircraftData::getOperatorIcao, AircraftData::getSerialNumber,
+      AircraftData::getLineNumber, AircraftData::getTestReg, AircraftData::getRegistered, AircraftData::getRegUntil,
+      AircraftData::getStatus, AircraftData::getBuilt, AircraftData::getFirstFlightDate,
+      AircraftData::getIcaoAircraftType, AircraftData::getEngines, AircraftData::getIsMilitary);
+
+  private static final List<BiConsumer<AircraftData, String>> SETTERS = List.of(
+      AircraftData::setRegistration, AircraftData::setTypecode, AircraftData::setManufacturerName,
+      AircraftData::setModel, AircraftData::setOperatorIcao, AircraftData::setSerialNumber,
+      AircraftData::setLineNumber, AircraftData::setTestReg, AircraftData::setRegistered, AircraftData::setRegUntil,
+      AircraftData::setStatus, AircraftData::setBuilt, AircraftData::setFirstFlightDate,
+      AircraftData::setIcaoAircraftType, AircraftData::setEngines, AircraftData::setIsMilitary);
+
+  private static final int FIELD_COUNT = GETTERS.size();
+
+  private final MappedByteBuffer buffer;
+  private final String fingerprint;
+  private final int recordCount;
+  private final int tableMask;
+  private final int keysOffset;
+  private final int tableOffset;
+  private final int recordsOffset;
+  private final int dictionaryOffsetsOffset;
+  private final int dictionaryBytesOffset;
+
+  private AircraftRegistry(MappedByteBuffer buffer) throws IOException {
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(8) != FIELD_COUNT)
+      throw new IOException("Unknown format of aircraft registry");
+
+    this.buffer = buffer;
+    this.recordCount = buffer.getInt(12);
+    final int tableSize = buffer.getInt(16);
+    final int dictionaryCount = buffer.getInt(20);
+    final byte[] fingerprintBytes = new byte[buffer.getInt(24)];
+    buffer.get(28, fingerprintBytes);
+    this.fingerprint = new String(fingerprintBytes, StandardCharsets.UTF_8);
+
+    this.tableMask = tableSize - 1;
+    this.keysOffset = 28 + fingerprintBytes.length;
+    this.tableOffset = keysOffset + 4 * recordCount;
+    this.recordsOffset = tableOffset + 4 * tableSize;
+    this.dictionaryOffsetsOffset = recordsOffset + 4 * recordCount * FIELD_COUNT;
+    this.dictionaryBytesOffset = dictionaryOffsetsOffset + 4 * (dictionaryCount + 1);
+  }
+
+  /**
+   * Bildet eine Datei in den Speicher ab
+   *
+   * @param file Path
+   * @return AircraftRegistry
+   */
+  public static AircraftRegistry open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return new AircraftRegistry(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Wandelt einen hex in die 24-Bit ICAO-Adresse um
+   *
+   * @param hex String
+   * @return int, Adresse oder -1, wenn hex keine ICAO-Adresse ist (bspw. "~" für Nicht-ICAO-Adressen)
+   */
+  public static int parseIcao(String hex) {
+    if (hex == null || hex.length() != 6) return -1;
+
+    int icao = 0;
+    for (int i = 0; i < 6; i++) {
+      final int digit = Character.digit(hex.charAt(i), 16);
+      if (digit < 0) return -1;
+      icao = (icao << 4) | digit;
+    }
+    return icao;
+  }
+
+  /**
+   * Gibt die Daten eines Flugzeugs zurück
+   *
+   * @param icao 24-Bit ICAO-Adresse
+   * @return AircraftData (oder null, wenn das Flugzeug nicht enthalten ist)
+   */
+  public AircraftData find(int icao) {
+    int slot = hash(icao) & tableMask;
+    while (true) {
+      final int index = buffer.getInt(tableOffset + 4 * slot) - 1;
+      if (index < 0) return null;
+      if (buffer.getInt(keysOffset + 4 * index) == icao) return readRecord(index, icao);
+      slot = (slot + 1) & tableMask;
+    }
+  }
+
+  private AircraftData readRecord(int index, int icao) {
+    final AircraftData aircraftData = new AircraftData();
+    aircraftData.setHex(String.format("%06x", icao));
+
+    final int recordOffset = recordsOffset + 4 * FIELD_COUNT * index;
+    for (int field = 0; field < FIELD_COUNT; field++) {
+      final int stringId = buffer.getInt(recordOffset + 4 * field);
+      if (stringId != 0) SETTERS.get(field).accept(aircraftData, readString(stringId));
+    }
+    return aircraftData;
+  }
+
+  private String readString(int stringId) {
+    final int start = buffer.getInt(dictionaryOffsetsOffset + 4 * (stringId - 1));
+    final int end = buffer.getInt(dictionaryOffsetsOffset + 4 * stringId);
+    final byte[] bytes = new byte[end - start];
+    buffer.get(dictionaryBytesOffset + start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static int hash(int icao) {
+    // Verteilt aufeinanderfolgende Adressen (gleicher Länderblock) über die Hashtabelle
+    final int hash = icao * 0x9E3779B1;
+    return hash ^ (hash >>> 15);
+  }
+
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  public int size() {
+    return recordCount;
+  }
+
+  /**
+   * Sammelt die Flugzeuge und schreibt diese in eine neue Datei
+   */
+  public static final class Builder {
+    private int[] keys = new int[1024];
+    private int[] records = new int[1024 * FIELD_COUNT];
+    private int recordCount;
+
+    // Wörterbuch mit String als Key und Id (ab 1) als Value
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private int[] dictionaryOffsets = new int[1024];
+    private final ByteArrayOutputStream dictionaryBytes = new ByteArrayOutputStream();
+
+    /**
+     * Fügt ein Flugzeug hinzu. Flugzeuge ohne ICAO-Adresse werden ignoriert, bei doppelten
+     * Adressen wird beim Schreiben das zuerst hinzugefügte Flugzeug verwendet
+     *
+     * @param aircraftData AircraftData
+     * @return boolean, ob das Flugzeug hinzugefügt wurde
+     */
+    public boolean add(AircraftData aircraftData) {
+      final int icao = parseIcao(aircraftData.getHex());
+      if (icao < 0) return false;
+
+      if (recordCount == keys.length) {
+        keys = Arrays.copyOf(keys, keys.length * 2);
+        records = Arrays.copyOf(records, records.length * 2);
+      }
+      keys[recordCount] = icao;
+      for (int field = 0; field < FIELD_COUNT; field++) {
+        records[recordCount * FIELD_COUNT + field] = getStringId(GETTERS.get(field).apply(aircraftData));
+      }
+      recordCount++;
+      return true;
+    }
+
+    private int getStringId(String value) {
+      if (value == null) return 0;
+
+      return dictionary.computeIfAbsent(value, key -> {
+        final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        dictionaryBytes.writeBytes(bytes);
+        final int id = dictionary.size() + 1;
+        if (id == dictionaryOffsets.length) dictionaryOffsets = Arrays.copyOf(dictionaryOffsets, id * 2);
+        dictionaryOffsets[id] = dictionaryBytes.size();
+        return id;
+      });
+    }
+
+    /**
+     * Schreibt die Flugzeuge in eine temporäre Datei und ersetzt anschließend file, damit
+     * bereits abgebildete Dateien gültig bleiben
+     *
+     * @param file        Path
+     * @param fingerprint Stand der Tabelle aircraft_data
+     */
+    public void write(Path file, String fingerprint) throws IOException {
+      final byte[] fingerprintBytes = fingerprint.getBytes(StandardCharsets.UTF_8);
+      final int dictionaryCount = dictionary.size();
+
+      // Hashtabelle ist höchstens zur Hälfte gefüllt
+      final int tableSize = Math.max(2, Integer.highestOneBit(Math.max(1, recordCount * 2 - 1)) << 1);
+      final int[] table = new int[tableSize];
+      for (int index = 0; index < recordCount; index++) {
+        int slot = hash(keys[index]) & (tableSize - 1);
+        while (table[slot] != 0 && keys[table[slot] - 1] != keys[index]) slot = (slot + 1) & (tableSize - 1);
+        if (table[slot] == 0) table[slot] = index + 1;
+      }
+
+      final Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+      try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+        final ByteBuffer header = ByteBuffer.allocate(28 + fingerprintBytes.length);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(FIELD_COUNT).putInt(recordCount).putInt(tableSize)
+            .putInt(dictionaryCount).putInt(fingerprintBytes.length).put(fingerprintBytes);
+        outputStream.write(header.array());
+
+        writeInts(outputStream, keys, recordCount);
+        writeInts(outputStream, table, tableSize);
+        writeInts(outputStream, records, recordCount * FIELD_COUNT);
+        writeInts(outputStream, dictionaryOffsets, dictionaryCount + 1);
+        dictionaryBytes.writeTo(outputStream);
+      }
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeInts(OutputStream outputStream, int[] values, int length) throws IOException {
+      final ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+      for (int i = 0; i < length; i++) {
+        if (!chunk.hasRemaining()) {
+          outputStream.write(chunk.array(), 0, chunk.position());
+          chunk.clear();
+        }
+        chunk.putInt(values[i]);
+      }
+      outputStream.write(chunk.array(), 0, chunk.position());
+    }
+
+    public int size() {
+      return recordCount;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package com.amnesica.belugaproject.services.data;
+
+import com.amnesica.belugaproject.entities.data.AirportData;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Unveränderliche Zuordnung von IATA-Codes (bspw. "HAM") zur ident (ICAO-Code, bspw. "EDDH")
+ * der Flughäfen der Tabelle airport_data und umgekehrt. Haben mehrere Flughäfen denselben
+ * IATA-Code, wird der größte Flughafen verwendet (large_airport vor medium_airport usw.)
+ */
+public final class AirportCodeMap {
+
+  // Leere Zuordnung, solange die Tabelle nicht geladen wurde
+  public static final AirportCodeMap EMPTY = new AirportCodeMap(Map.of(), Map.of());
+
+  // Typen der Flughäfen nach absteigender Größe
+  private static final List<String> TYPES_BY_SIZE = List.of("large_airport", "medium_airport", "small_airport");
+
+  // ident mit IATA-Code als Key
+  private final Map<String, String> icaoByIata;
+
+  // IATA-Code mit ident als Key
+  private final Map<String, String> iataByIcao;
+
+  private AirportCodeMap(Map<String, String> icaoByIata, Map<String, String> iataByIcao) {
+    this.icaoByIata = icaoByIata;
+    this.iataByIcao = iataByIcao;
+  }
+
+  /**
+   * Erstellt die Zuordnung aus den Zeilen der Tabelle airport_data. Flughäfen ohne IATA-Code
+   * werden ignoriert
+   *
+   * @param listAirportData Iterable<AirportData>
+   * @return AirportCodeMap
+   */
+  public static AirportCodeMap of(Iterable<AirportData> listAirportData) {
+    final Map<String, AirportData> airportByIata = new HashMap<>();
+    for (AirportData airportData : listAirportData) {
+      if (airportData.getIdent() == null || airportData.getIata_code() == null ||
+          airportData.getIata_code().isBlank()) continue;
+
+      airportByIata.merge(airportData.getIata_code().trim().toUpperCase(Locale.ROOT), airportData,
+          (current, candidate) -> getSizeRank(candidate) < getSizeRank(current) ? candidate : current);
+    }
+
+    final Map<String, String> icaoByIata = new HashMap<>(airportByIata.size() * 2);
+    final Map<String, String> iataByIcao = new HashMap<>(airportByIata.size() * 2);
+    for (Map.Entry<String, AirportData> entry : airportByIata.entrySet()) {
+      final String icaoCode = entry.getValue().getIdent();
+      icaoByIata.put(entry.getKey(), icaoCode);
+      iataByIcao.put(icaoCode.toUpperCase(Locale.ROOT), entry.getKey());
+    }
+    return new AirportCodeMap(Map.copyOf(icaoByIata), Map.copyOf(iataByIcao));
+  }
+
+  private static int getSizeRank(AirportData airportData) {
+    final int rank = TYPES_BY_SIZE.indexOf(airportData.getType());
+    return rank < 0 ? TYPES_BY_SIZE.size() : rank;
+  }
+
+  /**
+   * Gibt den ICAO-Code für einen IATA-Code zurück
+   *
+   * @param iataCode String, bspw. "HAM"
+   * @return String, bspw. "EDDH" (oder null)
+   */
+  public String getIcaoCode(String iataCode) {
+    return iataCode != null ? icaoByIata.get(iataCode.toUpperCase(Locale.ROOT)) : null;
+  }
+
+  /**
+   * Gibt den IATA-Code für einen ICAO-Code zurück
+   *
+   * @param icaoCode String, bspw. "EDDH"
+   * @return String, bspw. "HAM" (oder null)
+   */
+  public String getIataCode(String icaoCode) {
+    return icaoCode != null ? iataByIcao.get(icaoCode.toUpperCase(Locale.ROOT)) : null;
+  }
+
+  public int size() {
+    return icaoByIata.size();
+  }
+
+  public boolean isEmpty() {
+    return icaoByIata.isEmpty();
+  }
+}
@@ -1,19 +1,109 @@
 package com.amnesica.belugaproject.services.data;
 
+import com.amnesica.belugaproject.config.StaticValues;
 import com.amnesica.belugaproject.entities.data.AirportData;
 import com.amnesica.belugaproject.repositories.data.AirportDataRepository;
+import com.amnesica.belugaproject.services.helper.LookupCache;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 
 @Slf4j
+@EnableScheduling
 @Service
 public class AirportDataService {
 
   @Autowired
   private AirportDataRepository airportDataRepository;
+  @Autowired
+  private MetricsService metricsService;
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  // Räumlicher Index der Tabelle airport_data (null, solange diese nicht geladen wurde)
+  private volatile AirportIndex airportIndex;
+
+  // Zuordnung IATA-Code zu ICAO-Code und umgekehrt (leer, solange die Tabelle nicht geladen wurde)
+  private volatile AirportCodeMap airportCodeMap = AirportCodeMap.EMPTY;
+
+  // Stand der Tabelle airport_data beim Erstellen des Index
+  private volatile String airportIndexFingerprint;
+
+  // Serialisierte Flughäfen einer Zelle des Index (Objekte durch "," getrennt, ohne Klammern)
+  private LookupCache<CellKey, byte[]> airportCellCache;
+
+  /**
+   * Key einer Zelle im Cache. Enthält den Index, damit nach einem Neuladen keine alten Zellen
+   * verwendet werden
+   */
+  private record CellKey(AirportIndex index, AirportIndex.Tier tier, int cell) {
+  }
+
+  /**
+   * Erstellt den Cache der serialisierten Zellen und registriert die Metriken des Index
+   */
+  @PostConstruct
+  public void initCache() {
+    airportCellCache = new LookupCache<>("airport.cells", StaticValues.SIZE_CACHE_AIRPORT_CELLS,
+        Duration.ofMillis(StaticValues.TTL_CACHE_DATA), Duration.ofMillis(StaticValues.TTL_CACHE_DATA), metricsService);
+    metricsService.registerGauge("airport.index.size", () -> {
+      final AirportIndex index = airportIndex;
+      return index != null ? index.size() : 0;
+    });
+    metricsService.registerGauge("airport.codes.size", () -> airportCodeMap.size());
+  }
+
+  /**
+   * Prüft alle INTERVAL_CHECK_AIRPORT_INDEX Millisekunden (und beim Start), ob die Tabelle
+   * airport_data seit dem Erstellen des Index neu geladen wurde, und erstellt diesen sowie die
+   * Zuordnung der IATA- und ICAO-Codes ggf. neu. Bis dahin werden die Flughäfen aus dem
+   * vorherigen Index bzw. aus der Datenbank gelesen
+   */
+  @Scheduled(fixedDelay = StaticValues.INTERVAL_CHECK_AIRPORT_INDEX)
+  public void checkAirportIndex() {
+    try {
+      final String fingerprint = getAirportDataFingerprint();
+      if (airportIndex != null && fingerprint.equals(airportIndexFingerprint)) return;
+
+      final long start = System.currentTimeMillis();
+      final List<AirportData> listAirports = (List<AirportData>) airportDataRepository.findAll();
+      final AirportIndex index = AirportIndex.of(listAirports);
+      if (index.size() == 0) return;
+
+      airportIndex = index;
+      airportCodeMap = AirportCodeMap.of(listAirports);
+      airportIndexFingerprint = fingerprint;
+      airportCellCache.invalidateAll();
+      metricsService.recordDuration("airport.index.build", System.currentTimeMillis() - start);
+      log.info("Server - Airport index with " + index.size() + " airports and " + airportCodeMap.size() +
+          " iata codes created");
+    } catch (Exception e) {
+      log.error("Server - DB error when creating airport index : Exception = " + e);
+    }
+  }
+
+  private String getAirportDataFingerprint() {
+    String versionInfo;
+    try {
+      versionInfo = airportDataRepository.findVersionInfo();
+    } catch (Exception e) {
+      // Tabelle version_info ist optional
+      versionInfo = null;
+    }
+    return versionInfo + ";" + airportDataRepository.count();
+  }
 
   /**
    * Gibt alle Informationen über einen Flughafen mit Angabe der ident aus der
@@ -40,12 +130,16 @@ public class AirportDataService {
   }
 
   /**
-   * Gibt den ICAO-Code (bspw. EDDH) für einen Flughafen bei Aufruf mit dem IATA-Code (HAM) zurück
+   * Gibt den ICAO-Code (bspw. EDDH) für einen Flughafen bei Aufruf mit dem IATA-Code (HAM) zurück.
+   * Nach dem Laden der Tabelle airport_data wird nur die Zuordnung im Speicher verwendet
    *
    * @param iataCode String
    * @return icaoCode String
    */
   public String getAirportIcaoCode(String iataCode) {
+    final AirportCodeMap codeMap = airportCodeMap;
+    if (!codeMap.isEmpty()) return codeMap.getIcaoCode(iataCode);
+
     String icaoCode = null;
 
     if (iataCode != null && !iataCode.isEmpty() && !iataCode.equals("null")) {
@@ -62,6 +156,16 @@ public class AirportDataService {
     return icaoCode;
   }
 
+  /**
+   * Gibt den IATA-Code (bspw. HAM) für einen Flughafen bei Aufruf mit dem ICAO-Code (EDDH) zurück
+   *
+   * @param icaoCode String
+   * @return iataCode String (oder null, solange die Tabelle airport_data nicht geladen wurde)
+   */
+  public String getAirportIataCode(String icaoCode) {
+    return airportCodeMap.getIataCode(icaoCode);
+  }
+
   /**
    * Gibt alle Flughäfen innerhalb eines Extents zurück
    *
@@ -74,6 +178,11 @@ public class AirportDataService {
    */
   public List<AirportData> getAirportsInExtent(double lomin, double lamin, double lomax, double lamax,
                                                double zoomLevel) {
+    final AirportIndex index = airportIndex;
+    if (index != null) {
+      return index.findWithinExtent(AirportIndex.Tier.of(zoomLevel), lomin, lamin, lomax, lamax);
+    }
+
     List<AirportData> listAirports = null;
 
     try {
@@ -97,4 +206,65 @@ public class AirportDataService {
 
     return listAirports;
   }
+
+  /**
+   * Schreibt alle Flughäfen innerhalb eines Extents als JSON-Array in den OutputStream. Für
+   * Zellen des Index vollständig innerhalb des Extents wird die bereits serialisierte Liste
+   * geschrieben, welche von allen Anfragen gemeinsam verwendet wird
+   *
+   * @param lomin        lower bound for the longitude in decimal degrees
+   * @param lamin        lower bound for the latitude in decimal degrees
+   * @param lomax        upper bound for the longitude in decimal degrees
+   * @param lamax        upper bound for the latitude in decimal degrees
+   * @param zoomLevel    Aktuelles Zoomlevel
+   * @param outputStream OutputStream der Antwort
+   */
+  public void writeAirportsInExtent(double lomin, double lamin, double lomax, double lamax, double zoomLevel,
+                                    OutputStream outputStream) throws IOException {
+    final AirportIndex index = airportIndex;
+    if (index == null) {
+      final List<AirportData> listAirports = getAirportsInExtent(lomin, lamin, lomax, lamax, zoomLevel);
+      outputStream.write(objectMapper.writeValueAsBytes(listAirports != null ? listAirports : List.of()));
+      return;
+    }
+
+    outputStream.write('[');
+    index.query(AirportIndex.Tier.of(zoomLevel), lomin, lamin, lomax, lamax, new AirportIndex.Visitor() {
+      private boolean first = true;
+
+      @Override
+      public void visitCell(AirportIndex.Tier tier, int cell) throws IOException {
+        write(airportCellCache.get(new CellKey(index, tier, cell),
+            key -> serializeAirports(index.getAirportsOfCell(key.tier(), key.cell()))));
+      }
+
+      @Override
+      public void visitAirport(AirportData airportData) throws IOException {
+        write(objectMapper.writeValueAsBytes(airportData));
+      }
+
+      private void write(byte[] json) throws IOException {
+        if (!first) outputStream.write(',');
+        first = false;
+        outputStream.write(json);
+      }
+    });
+    outputStream.write(']');
+  }
+
+  /**
+   * Serialisiert Flughäfen als durch "," getrennte JSON-Objekte (ohne Klammern)
+   */
+  private byte[] serializeAirports(List<AirportData> listAirports) {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try {
+      for (AirportData airportData : listAirports) {
+        if (outputStream.size() > 0) outputStream.write(',');
+        outputStream.write(objectMapper.writeValueAsBytes(airportData));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return outputStream.toByteArray();
+  }
 }
@@ -0,0 +1,256 @@
+package com.amnesica.belugaproject.services.data;
+
+import com.amnesica.belugaproject.entities.data.AirportData;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unveränderlicher räumlicher Index über die Tabelle airport_data. Pro Stufe (große Flughäfen,
+ * mittlere und große Flughäfen, alle Flughäfen) werden die Flughäfen nach Zellen eines
+ * gleichmäßigen Gitters sortiert, die Koordinaten liegen in primitiven Arrays. Eine Abfrage
+ * eines Extents besucht nur die Zellen, welche den Extent schneiden. Zellen vollständig innerhalb
+ * des Extents werden als Ganzes übergeben (bspw. zum Wiederverwenden der serialisierten Liste),
+ * nur Flughäfen in Zellen am Rand werden einzeln geprüft. Wie bei der Abfrage in der Datenbank
+ * werden Extents über den 180. Längengrad (lomin > lomax) nicht unterstützt
+ */
+public final class AirportIndex {
+
+  /**
+   * Stufe des Index abhängig vom Zoomlevel der Karte mit Größe einer Zelle in Grad
+   */
+  public enum Tier {
+    LARGE(5.0),
+    MEDIUM_AND_LARGE(1.0),
+    ALL(0.5);
+
+    private final double cellSize;
+
+    Tier(double cellSize) {
+      this.cellSize = cellSize;
+    }
+
+    /**
+     * Gibt die Stufe für ein Zoomlevel zurück: ab Zoomlevel > 8 alle Flughäfen, bei Zoomlevel 8
+     * große und mittlere Flughäfen, ansonsten nur große Flughäfen
+     *
+     * @param zoomLevel Aktuelles Zoomlevel
+     * @return Tier
+     */
+    public static Tier of(double zoomLevel) {
+      if (zoomLevel > 8) return ALL;
+      if (zoomLevel == 8) return MEDIUM_AND_LARGE;
+      return LARGE;
+    }
+
+    private boolean contains(AirportData airportData) {
+      return switch (this) {
+        case LARGE -> "large_airport".equals(airportData.getType());
+        case MEDIUM_AND_LARGE ->
+            "large_airport".equals(airportData.getType()) || "medium_airport".equals(airportData.getType());
+        case ALL -> true;
+      };
+    }
+  }
+
+  /**
+   * Empfänger der Ergebnisse einer Abfrage
+   */
+  public interface Visitor {
+    /**
+     * Zelle liegt vollständig innerhalb des Extents (enthält mindestens einen Flughafen)
+     */
+    void visitCell(Tier tier, int cell) throws IOException;
+
+    /**
+     * Flughafen in einer Zelle am Rand des Extents liegt innerhalb des Extents
+     */
+    void visitAirport(AirportData airportData) throws IOException;
+  }
+
+  /**
+   * Gitter einer Stufe. Die Flughäfen der Zelle c liegen an den Positionen cellStart[c] bis
+   * cellStart[c + 1] - 1
+   */
+  private static final class Grid {
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final AirportData[] airports;
+
+    private Grid(double cellSize, List<AirportData> listAirports) {
+      this.cellSize = cellSize;
+      this.columns = (int) Math.ceil(360 / cellSize);
+      this.rows = (int) Math.ceil(180 / cellSize);
+
+      // Sortiere Flughäfen nach Zellen (Counting Sort)
+      final int[] cells = new int[listAirports.size()];
+      final int[] cellCount = new int[columns * rows + 1];
+      for (int i = 0; i < cells.length; i++) {
+        final AirportData airportData = listAirports.get(i);
+        cells[i] = getRow(airportData.getLatitude_deg()) * columns + getColumn(airportData.getLongitude_deg());
+        cellCount[cells[i] + 1]++;
+      }
+      for (int cell = 0; cell < columns * rows; cell++) {
+        cellCount[cell + 1] += cellCount[cell];
+      }
+      this.cellStart = Arrays.copyOf(cellCount, cellCount.length);
+
+      this.latitudes = new double[cells.length];
+      this.longitudes = new double[cells.length];
+      this.airports = new AirportData[cells.length];
+      for (int i = 0; i < cells.length; i++) {
+        final int position = cellCount[cells[i]]++;
+        final AirportData airportData = listAirports.get(i);
+        latitudes[position] = airportData.getLatitude_deg();
+        longitudes[position] = airportData.getLongitude_deg();
+        airports[position] = airportData;
+      }
+    }
+
+    private int getRow(double latitude) {
+      final int row = (int) Math.floor((latitude + 90) / cellSize);
+      return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    private int getColumn(double longitude) {
+      final int column = (int) Math.floor((longitude + 180) / cellSize);
+      return Math.max(0, Math.min(columns - 1, column));
+    }
+  }
+
+  private final Grid[] grids;
+  private final int size;
+
+  private AirportIndex(Grid[] grids, int size) {
+    this.grids = grids;
+    this.size = size;
+  }
+
+  /**
+   * Erstellt den Index aus den Zeilen der Tabelle airport_data. Flughäfen ohne Koordinaten
+   * werden ignoriert
+   *
+   * @param listAirportData Iterable<AirportData>
+   * @return AirportIndex
+   */
+  public static AirportIndex of(Iterable<AirportData> listAirportData) {
+    final Tier[] tiers = Tier.values();
+    final List<List<AirportData>> listAirportsOfTier = new ArrayList<>(tiers.length);
+    for (int i = 0; i < tiers.length; i++) {
+      listAirportsOfTier.add(new ArrayList<>());
+    }
+
+    for (AirportData airportData : listAirportData) {
+      if (airportData.getLatitude_deg() == null || airportData.getLongitude_deg() == null) continue;
+      for (Tier tier : tiers) {
+        if (tier.contains(airportData)) listAirportsOfTier.get(tier.ordinal()).add(airportData);
+      }
+    }
+
+    final Grid[] grids = new Grid[tiers.length];
+    for (Tier tier : tiers) {
+      grids[tier.ordinal()] = new Grid(tier.cellSize, listAirportsOfTier.get(tier.ordinal()));
+    }
+    return new AirportIndex(grids, listAirportsOfTier.get(Tier.ALL.ordinal()).size());
+  }
+
+  /**
+   * Übergibt alle Flughäfen einer Stufe innerhalb eines Extents an den Visitor
+   *
+   * @param tier    Tier
+   * @param lomin   lower bound for the longitude in decimal degrees
+   * @param lamin   lower bound for the latitude in decimal degrees
+   * @param lomax   upper bound for the longitude in decimal degrees
+   * @param lamax   upper bound for the latitude in decimal degrees
+   * @param visitor Visitor
+   */
+  public void query(Tier tier, double lomin, double lamin, double lomax, double lamax, Visitor visitor)
+      throws IOException {
+    if (lomin > lomax || lamin > lamax) return;
+
+    final Grid grid = grids[tier.ordinal()];
+    final int rowMin = grid.getRow(lamin);
+    final int rowMax = grid.getRow(lamax);
+    final int columnMin = grid.getColumn(lomin);
+    final int columnMax = grid.getColumn(lomax);
+
+    for (int row = rowMin; row <= rowMax; row++) {
+      final double cellLatitudeMin = row * grid.cellSize - 90;
+      final boolean rowWithin = cellLatitudeMin > lamin && cellLatitudeMin + grid.cellSize < lamax;
+
+      for (int column = columnMin; column <= columnMax; column++) {
+        final int cell = row * grid.columns + column;
+        final int start = grid.cellStart[cell];
+        final int end = grid.cellStart[cell + 1];
+        if (start == end) continue;
+
+        final double cellLongitudeMin = column * grid.cellSize - 180;
+        if (rowWithin && cellLongitudeMin > lomin && cellLongitudeMin + grid.cellSize < lomax) {
+          visitor.visitCell(tier, cell);
+          continue;
+        }
+
+        for (int i = start; i < end; i++) {
+          if (grid.latitudes[i] >= lamin && grid.latitudes[i] <= lamax && grid.longitudes[i] >= lomin &&
+              grid.longitudes[i] <= lomax) {
+            visitor.visitAirport(grid.airports[i]);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Gibt alle Flughäfen einer Stufe innerhalb eines Extents zurück
+   *
+   * @param tier  Tier
+   * @param lomin lower bound for the longitude in decimal degrees
+   * @param lamin lower bound for the latitude in decimal degrees
+   * @param lomax upper bound for the longitude in decimal degrees
+   * @param lamax upper bound for the latitude in decimal degrees
+   * @return List<AirportData>
+   */
+  public List<AirportData> findWithinExtent(Tier tier, double lomin, double lamin, double lomax, double lamax) {
+    final List<AirportData> listAirports = new ArrayList<>();
+    try {
+      query(tier, lomin, lamin, lomax, lamax, new Visitor() {
+        @Override
+        public void visitCell(Tier tier, int cell) {
+          listAirports.addAll(getAirportsOfCell(tier, cell));
+        }
+
+        @Override
+        public void visitAirport(AirportData airportData) {
+          listAirports.add(airportData);
+        }
+      });
+    } catch (IOException e) {
+      // Wird vom Visitor nicht geworfen
+      throw new UncheckedIOException(e);
+    }
+    return listAirports;
+  }
+
+  /**
+   * Gibt alle Flughäfen einer Zelle zurück
+   *
+   * @param tier Tier
+   * @param cell Nummer der Zelle
+   * @return List<AirportData>
+   */
+  public List<AirportData> getAirportsOfCell(Tier tier, int cell) {
+    final Grid grid = grids[tier.ordinal()];
+    return Arrays.asList(grid.airports).subList(grid.cellStart[cell], grid.cellStart[cell + 1]);
+  }
+
+  public int size() {
+    return size;
+  }
+}
@@ -1,17 +1,38 @@
 package com.amnesica.belugaproject.services.data;
 
+import com.amnesica.belugaproject.config.StaticValues;
 import com.amnesica.belugaproject.entities.data.CountryData;
 import com.amnesica.belugaproject.repositories.data.CountryDataRepository;
+import com.amnesica.belugaproject.services.helper.LookupCache;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Slf4j
 @Service
 public class CountryDataService {
 
   @Autowired
   private CountryDataRepository countryDataRepository;
+  @Autowired
+  private MetricsService metricsService;
+
+  // Cache mit countryIso2letter als Key
+  private LookupCache<String, CountryData> countryDataCache;
+
+  /**
+   * Erstellt den Cache vor der Abfrage der Datenbank und registriert dessen Metriken
+   */
+  @PostConstruct
+  public void initCache() {
+    countryDataCache = new LookupCache<>("country", StaticValues.SIZE_CACHE_COUNTRY_DATA,
+        Duration.ofMillis(StaticValues.TTL_CACHE_DATA), Duration.ofMillis(StaticValues.TTL_CACHE_DATA_NOT_FOUND),
+        metricsService);
+  }
 
   /**
    * Gibt alle Informationen über ein Land mit Angabe der ident aus der Datenbank
@@ -28,7 +49,7 @@ public class CountryDataService {
       // ident = iso2letter-Code für das Land
 
       try {
-        countryData = countryDataRepository.findByCountryIso2letter(countryIso2letter);
+        countryData = countryDataCache.get(countryIso2letter, countryDataRepository::findByCountryIso2letter);
       } catch (Exception e) {
         log.error("Server - DB error reading CountryData for countryIso2letter " + countryIso2letter
             + ": Exception = " + e);
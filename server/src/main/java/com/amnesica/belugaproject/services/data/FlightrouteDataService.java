@@ -1,18 +1,39 @@
 package com.amnesica.belugaproject.services.data;
 
+import com.amnesica.belugaproject.config.StaticValues;
 import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
 import com.amnesica.belugaproject.entities.data.FlightrouteData;
 import com.amnesica.belugaproject.repositories.data.FlightrouteDataRepository;
+import com.amnesica.belugaproject.services.helper.LookupCache;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Slf4j
 @Service
 public class FlightrouteDataService {
 
   @Autowired
   private FlightrouteDataRepository flightrouteDataRepository;
+  @Autowired
+  private MetricsService metricsService;
+
+  // Cache mit flightId als Key
+  private LookupCache<String, FlightrouteData> flightrouteDataCache;
+
+  /**
+   * Erstellt den Cache vor der Abfrage der Datenbank und registriert dessen Metriken
+   */
+  @PostConstruct
+  public void initCache() {
+    flightrouteDataCache = new LookupCache<>("flightroute", StaticValues.SIZE_CACHE_FLIGHTROUTE_DATA,
+        Duration.ofMillis(StaticValues.TTL_CACHE_DATA), Duration.ofMillis(StaticValues.TTL_CACHE_DATA_NOT_FOUND),
+        metricsService);
+  }
 
   /**
    * Gibt alle Informationen über eine Flightroute mit Angabe des flightID aus der
@@ -29,7 +50,7 @@ public class FlightrouteDataService {
 
       // Hole Daten aus Datenbank mit Angabe der flightId (bspw. "DLH01LP")
       try {
-        flightrouteData = flightrouteDataRepository.findByFlightId(flightId);
+        flightrouteData = flightrouteDataCache.get(flightId, flightrouteDataRepository::findByFlightId);
       } catch (Exception e) {
         log.error("Server - DB error while reading FlightrouteData for FlightId " + flightId + ": Exception = "
             + e);
@@ -1,14 +1,20 @@
 package com.amnesica.belugaproject.services.data;
 
+import com.amnesica.belugaproject.config.StaticValues;
 import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
 import com.amnesica.belugaproject.entities.data.CountryData;
 import com.amnesica.belugaproject.entities.data.OperatorData;
 import com.amnesica.belugaproject.repositories.data.OperatorDataRepository;
 import com.amnesica.belugaproject.services.helper.HelperService;
+import com.amnesica.belugaproject.services.helper.LookupCache;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Slf4j
 @Service
 public class OperatorDataService {
@@ -17,6 +23,21 @@ public class OperatorDataService {
   private OperatorDataRepository operatorDataRepository;
   @Autowired
   private CountryDataService countryDataService;
+  @Autowired
+  private MetricsService metricsService;
+
+  // Cache mit operatorIcao als Key
+  private LookupCache<String, OperatorData> operatorDataCache;
+
+  /**
+   * Erstellt den Cache vor der Abfrage der Datenbank und registriert dessen Metriken
+   */
+  @PostConstruct
+  public void initCache() {
+    operatorDataCache = new LookupCache<>("operator", StaticValues.SIZE_CACHE_OPERATOR_DATA,
+        Duration.ofMillis(StaticValues.TTL_CACHE_DATA), Duration.ofMillis(StaticValues.TTL_CACHE_DATA_NOT_FOUND),
+        metricsService);
+  }
 
   /**
    * Gibt alle Informationen über einen Operator mit Angabe des ICAO-Codes aus der
@@ -32,7 +53,7 @@ public class OperatorDataService {
       // Hole Daten aus Datenbank mit Angabe der operatorIcao (bspw. "DLH")
       // operatorIcao = 3-Letter-Code fuer die Fluggesellschft (OPerator)
       try {
-        operatorData = operatorDataRepository.findByOperatorIcao(operatorIcao);
+        operatorData = operatorDataCache.get(operatorIcao, operatorDataRepository::findByOperatorIcao);
       } catch (Exception e) {
         log.error("Server - DB error on reading Operator_Data for ICAO code " + operatorIcao + ": Exception = "
             + e);
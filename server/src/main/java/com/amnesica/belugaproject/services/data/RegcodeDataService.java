@@ -1,19 +1,64 @@
 package com.amnesica.belugaproject.services.data;
 
+import com.amnesica.belugaproject.config.StaticValues;
 import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
 import com.amnesica.belugaproject.entities.data.RegcodeData;
 import com.amnesica.belugaproject.repositories.data.RegcodeDataRepository;
 import com.amnesica.belugaproject.services.helper.HelperService;
+import com.amnesica.belugaproject.services.helper.LookupCache;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Slf4j
+@EnableScheduling
 @Service
 public class RegcodeDataService {
 
   @Autowired
   private RegcodeDataRepository regcodeDataRepository;
+  @Autowired
+  private MetricsService metricsService;
+
+  // Cache mit regcodePrefix als Key
+  private LookupCache<String, RegcodeData> regcodeDataCache;
+
+  // Präfixbaum aller Registrierungs-Präfixe (leer, solange die Tabelle nicht geladen werden konnte)
+  private volatile RegcodeTrie regcodeTrie = RegcodeTrie.EMPTY;
+
+  /**
+   * Erstellt den Cache vor der Abfrage der Datenbank, registriert dessen Metriken und lädt
+   * den Präfixbaum der Registrierungs-Präfixe
+   */
+  @PostConstruct
+  public void initCache() {
+    regcodeDataCache = new LookupCache<>("regcode", StaticValues.SIZE_CACHE_REGCODE_DATA,
+        Duration.ofMillis(StaticValues.TTL_CACHE_DATA), Duration.ofMillis(StaticValues.TTL_CACHE_DATA_NOT_FOUND),
+        metricsService);
+    metricsService.registerGauge("regcode.trie.size", () -> regcodeTrie.size());
+    loadRegcodeTrie();
+  }
+
+  /**
+   * Lädt alle INTERVAL_RELOAD_REGCODE_DATA Millisekunden alle Registrierungs-Präfixe aus der
+   * Tabelle regcode_data in einen neuen Präfixbaum, damit neu importierte Daten verwendet werden
+   */
+  @Scheduled(fixedDelay = StaticValues.INTERVAL_RELOAD_REGCODE_DATA,
+      initialDelay = StaticValues.INTERVAL_RELOAD_REGCODE_DATA)
+  public void loadRegcodeTrie() {
+    try {
+      final RegcodeTrie trie = RegcodeTrie.of(regcodeDataRepository.findAll());
+      if (!trie.isEmpty()) regcodeTrie = trie;
+    } catch (Exception e) {
+      log.error("Server - DB error on reading all Regcode_Data : Exception = " + e);
+    }
+  }
 
   /**
    * Gibt alle Informationen über einen Registrierungs-Code mit Angabe des
@@ -29,7 +74,7 @@ public class RegcodeDataService {
       // Hole Daten aus Datenbank mit Angabe des Registration-Prefixes (bspw. "D-")
 
       try {
-        regcodeData = regcodeDataRepository.findByRegcodePrefix(regcodePrefix);
+        regcodeData = regcodeDataCache.get(regcodePrefix, regcodeDataRepository::findByRegcodePrefix);
       } catch (Exception e) {
         log.error("Server - DB error on reading Regcode_Data for RegcodePrefix " + regcodePrefix
             + ": Exception = " + e);
@@ -39,7 +84,18 @@ public class RegcodeDataService {
     return regcodeData;
   }
 
+  /**
+   * Gibt den Registrierungs-Präfix einer Registrierung zurück (längster passender Präfix aus
+   * regcode_data). Ist der Präfixbaum nicht geladen, wird der Präfix anhand des Bindestrichs
+   * und bekannter Ausnahmen ermittelt
+   *
+   * @param registration String, bspw. "D-AIMA"
+   * @return String, bspw. "D-" (oder null)
+   */
   public String getRegcodePrefix(String registration) {
+    final RegcodeTrie.Entry entry = regcodeTrie.findLongestPrefix(registration);
+    if (entry != null) return entry.regcodePrefix();
+
     String regcodePrefix = null;
     int pos = -1;
 
@@ -84,8 +140,19 @@ public class RegcodeDataService {
     // Lese Regcode-Data hinzu
     if (aircraft.getRegistration() != null && !aircraft.getRegistration().isEmpty()) {
 
-      // aus der Registrierung (z. B. "D-AIMA") den Prefix ("D-")ermitteln und mit
-      // diesem dann die Dasten lesen
+      // Längsten passenden Prefix (z. B. "D-" für "D-AIMA") mit bereits konvertierter
+      // Flagge aus dem Präfixbaum lesen
+      final RegcodeTrie trie = regcodeTrie;
+      final RegcodeTrie.Entry entry = trie.findLongestPrefix(aircraft.getRegistration());
+      if (entry != null) {
+        aircraft.setRegCodeName(entry.regcodeName());
+        aircraft.setRegCodeNameFlag(entry.regcodeFlagHtml());
+        return;
+      }
+      if (!trie.isEmpty()) return;
+
+      // Präfixbaum nicht geladen: aus der Registrierung (z. B. "D-AIMA") den Prefix ("D-")
+      // ermitteln und mit diesem dann die Daten lesen
       RegcodeData regcodeData = getRegcodeData(getRegcodePrefix(aircraft.getRegistration()));
 
       if (regcodeData != null && regcodeData.getRegcodeName() != null
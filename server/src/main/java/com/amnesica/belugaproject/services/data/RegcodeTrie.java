@@ -0,0 +1,120 @@
+package com.amnesica.belugaproject.services.data;
+
+import com.amnesica.belugaproject.entities.data.RegcodeData;
+import com.amnesica.belugaproject.services.helper.HelperService;
+
+import java.util.*;
+
+/**
+ * Unveränderlicher Präfixbaum (Trie) über alle Registrierungs-Präfixe der Tabelle regcode_data.
+ * Gibt für eine Registrierung in einem Durchlauf den längsten passenden Präfix zurück (bspw.
+ * "VP-B" für "VP-BAB", "N" für "N123AB"), zusammen mit dem Namen und der bereits in HTML
+ * konvertierten Flagge. Groß- und Kleinschreibung wird nicht unterschieden
+ */
+public final class RegcodeTrie {
+
+  // Leerer Präfixbaum, solange die Tabelle nicht geladen wurde
+  public static final RegcodeTrie EMPTY = new RegcodeTrie(new Node(new char[0], new Node[0], null), 0);
+
+  /**
+   * Registrierungs-Präfix mit Land bzw. Ort der Registrierung
+   *
+   * @param regcodePrefix   Präfix, bspw. "D-"
+   * @param regcodeName     Land oder Ort der Registrierung, bspw. "Germany"
+   * @param regcodeFlagHtml In HTML konvertierte Flagge (oder null)
+   */
+  public record Entry(String regcodePrefix, String regcodeName, String regcodeFlagHtml) {
+  }
+
+  /**
+   * Knoten des Präfixbaums mit nach Zeichen sortierten Kindern
+   */
+  private record Node(char[] keys, Node[] children, Entry entry) {
+  }
+
+  /**
+   * Knoten während des Aufbaus
+   */
+  private static class MutableNode {
+    private final TreeMap<Character, MutableNode> children = new TreeMap<>();
+    private Entry entry;
+
+    private Node freeze() {
+      final char[] keys = new char[children.size()];
+      final Node[] frozenChildren = new Node[children.size()];
+      int i = 0;
+      for (Map.Entry<Character, MutableNode> child : children.entrySet()) {
+        keys[i] = child.getKey();
+        frozenChildren[i] = child.getValue().freeze();
+        i++;
+      }
+      return new Node(keys, frozenChildren, entry);
+    }
+  }
+
+  private final Node root;
+  private final int size;
+
+  private RegcodeTrie(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Erstellt den Präfixbaum aus den Zeilen der Tabelle regcode_data
+   *
+   * @param listRegcodeData Iterable<RegcodeData>
+   * @return RegcodeTrie
+   */
+  public static RegcodeTrie of(Iterable<RegcodeData> listRegcodeData) {
+    final MutableNode root = new MutableNode();
+    int size = 0;
+
+    for (RegcodeData regcodeData : listRegcodeData) {
+      final String prefix = regcodeData.getRegcodePrefix();
+      if (prefix == null || prefix.isBlank() || regcodeData.getRegcodeName() == null ||
+          regcodeData.getRegcodeName().isEmpty()) continue;
+
+      MutableNode node = root;
+      for (char character : prefix.trim().toCharArray()) {
+        node = node.children.computeIfAbsent(Character.toUpperCase(character), key -> new MutableNode());
+      }
+      if (node.entry == null) size++;
+
+      final String flag = regcodeData.getRegcodeFlagUtf8code();
+      node.entry = new Entry(prefix.trim(), regcodeData.getRegcodeName(),
+          flag != null && !flag.isEmpty() ? HelperService.convertFlagCodeToHTML(flag) : null);
+    }
+
+    return new RegcodeTrie(root.freeze(), size);
+  }
+
+  /**
+   * Gibt den längsten Präfix zurück, mit welchem die Registrierung beginnt
+   *
+   * @param registration String, bspw. "D-AIMA"
+   * @return Entry (oder null, wenn kein Präfix passt)
+   */
+  public Entry findLongestPrefix(String registration) {
+    if (registration == null) return null;
+
+    Node node = root;
+    Entry longestEntry = null;
+    for (int i = 0; i < registration.length(); i++) {
+      final int index = Arrays.binarySearch(node.keys(), Character.toUpperCase(registration.charAt(i)));
+      if (index < 0) break;
+
+      node = node.children()[index];
+      if (node.entry() != null) longestEntry = node.entry();
+    }
+    return longestEntry;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+}
@@ -0,0 +1,86 @@
+package com.amnesica.belugaproject.services.helper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Größenbeschränkter Cache vor einer Abfrage von Stammdaten (bspw. Operator zu einem ICAO-Code).
+ * Verdrängt wird nach W-TinyLFU (selten genutzte Einträge zuerst). Auch nicht gefundene Keys
+ * werden gespeichert (negatives Caching), jedoch mit kürzerer Gültigkeit, damit neu importierte
+ * Daten zeitnah gefunden werden. Schlägt die Abfrage fehl, wird nichts gespeichert und die
+ * Exception an den Aufrufer weitergegeben. Trefferquote, Größe und Verdrängungen werden als
+ * Metriken unter cache.[name] registriert
+ *
+ * @param <K> Key
+ * @param <V> Wert
+ */
+public final class LookupCache<K, V> {
+
+  private final Cache<K, Optional<V>> cache;
+
+  /**
+   * Erstellt einen Cache und registriert dessen Metriken
+   *
+   * @param name           Name des Caches für die Metriken
+   * @param maximumSize    Maximale Anzahl an Einträgen
+   * @param ttl            Gültigkeit gefundener Werte
+   * @param negativeTtl    Gültigkeit nicht gefundener Keys
+   * @param metricsService MetricsService
+   */
+  public LookupCache(String name, long maximumSize, Duration ttl, Duration negativeTtl, MetricsService metricsService) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfter(new Expiry<K, Optional<V>>() {
+          @Override
+          public long expireAfterCreate(K key, Optional<V> value, long currentTime) {
+            return (value.isPresent() ? ttl : negativeTtl).toNanos();
+          }
+
+          @Override
+          public long expireAfterUpdate(K key, Optional<V> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+          }
+
+          @Override
+          public long expireAfterRead(K key, Optional<V> value, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+
+    metricsService.registerGauge("cache." + name + ".hitrate", () -> cache.stats().hitRate());
+    metricsService.registerGauge("cache." + name + ".hits", () -> cache.stats().hitCount());
+    metricsService.registerGauge("cache." + name + ".misses", () -> cache.stats().missCount());
+    metricsService.registerGauge("cache." + name + ".evictions", () -> cache.stats().evictionCount());
+    metricsService.registerGauge("cache." + name + ".size", cache::estimatedSize);
+  }
+
+  /**
+   * Gibt den Wert für den Key aus dem Cache zurück. Ist der Key nicht im Cache, wird der Wert
+   * über loader abgefragt und gespeichert (auch wenn dieser null ist)
+   *
+   * @param key    K
+   * @param loader Function<K, V> zur Abfrage des Werts (bspw. aus der Datenbank)
+   * @return V (oder null, wenn kein Wert existiert)
+   */
+  public V get(K key, Function<K, V> loader) {
+    return cache.get(key, k -> Optional.ofNullable(loader.apply(k))).orElse(null);
+  }
+
+  /**
+   * Entfernt alle Einträge (bspw. nach einem Neuladen der Daten)
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public double getHitRate() {
+    return cache.stats().hitRate();
+  }
+}
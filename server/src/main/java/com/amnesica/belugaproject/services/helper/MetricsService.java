@@ -0,0 +1,109 @@
+package com.amnesica.belugaproject.services.helper;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Einfache Metriken (Zähler, Messwerte und Dauern) der Services, welche über
+ * den Endpunkt /getMetrics abgefragt werden können
+ */
+@Service
+public class MetricsService {
+
+  // Zähler mit Name als Key
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+  // Messwerte (bspw. Größe einer Queue), welche erst bei der Abfrage ermittelt werden
+  private final Map<String, Supplier<Number>> gauges = new ConcurrentHashMap<>();
+
+  // Gemessene Dauern in Millisekunden mit Name als Key
+  private final Map<String, Duration> durations = new ConcurrentHashMap<>();
+
+  /**
+   * Erhöht einen Zähler um 1
+   *
+   * @param name String
+   */
+  public void incrementCounter(String name) {
+    counters.computeIfAbsent(name, k -> new LongAdder()).increment();
+  }
+
+  /**
+   * Erhöht einen Zähler um value
+   *
+   * @param name  String
+   * @param value long
+   */
+  public void addToCounter(String name, long value) {
+    counters.computeIfAbsent(name, k -> new LongAdder()).add(value);
+  }
+
+  /**
+   * Gibt den aktuellen Wert eines Zählers zurück
+   *
+   * @param name String
+   * @return long (0, wenn Zähler nicht existiert)
+   */
+  public long getCounter(String name) {
+    final LongAdder counter = counters.get(name);
+    return counter != null ? counter.sum() : 0;
+  }
+
+  /**
+   * Registriert einen Messwert, welcher bei jeder Abfrage neu ermittelt wird
+   *
+   * @param name     String
+   * @param supplier Supplier<Number>
+   */
+  public void registerGauge(String name, Supplier<Number> supplier) {
+    gauges.put(name, supplier);
+  }
+
+  /**
+   * Speichert eine gemessene Dauer (Anzahl, Summe und Maximum)
+   *
+   * @param name     String
+   * @param duration Dauer in Millisekunden
+   */
+  public void recordDuration(String name, long duration) {
+    durations.computeIfAbsent(name, k -> new Duration()).record(duration);
+  }
+
+  /**
+   * Gibt alle Metriken nach Name sortiert zurück
+   *
+   * @return Map<String, Object>
+   */
+  public Map<String, Object> getMetrics() {
+    final Map<String, Object> metrics = new TreeMap<>();
+
+    counters.forEach((name, counter) -> metrics.put(name, counter.sum()));
+    gauges.forEach((name, supplier) -> metrics.put(name, supplier.get()));
+    durations.forEach((name, duration) -> {
+      final long count = duration.count.sum();
+      metrics.put(name + ".count", count);
+      metrics.put(name + ".avgMs", count > 0 ? duration.total.sum() / count : 0);
+      metrics.put(name + ".maxMs", duration.max.get());
+    });
+
+    return metrics;
+  }
+
+  private static class Duration {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    private void record(long duration) {
+      count.increment();
+      total.add(duration);
+      max.accumulate(duration);
+    }
+  }
+}
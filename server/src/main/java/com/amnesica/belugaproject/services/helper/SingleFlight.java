@@ -0,0 +1,86 @@
+package com.amnesica.belugaproject.services.helper;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Fasst gleichzeitige Berechnungen mit gleichem Key zusammen (single-flight). Nur der erste
+ * Aufrufer führt die Berechnung aus, alle weiteren Aufrufer warten auf dessen Ergebnis.
+ * Ergebnisse bleiben erhalten, bis sie über evictIf entfernt werden, sodass auch spätere
+ * Aufrufer mit gleichem Key (bspw. im selben Zeitabschnitt) das Ergebnis teilen.
+ * Schlägt eine Berechnung fehl, wird der Key entfernt und die Exception an alle wartenden
+ * Aufrufer weitergegeben
+ *
+ * @param <K> Key
+ * @param <V> Ergebnis
+ */
+public final class SingleFlight<K, V> {
+
+  // Laufende und abgeschlossene Berechnungen mit Key
+  private final Map<K, CompletableFuture<V>> futures = new ConcurrentHashMap<>();
+
+  private final LongAdder computed = new LongAdder();
+  private final LongAdder shared = new LongAdder();
+
+  /**
+   * Gibt das Ergebnis für den Key zurück. Existiert noch keine Berechnung für den Key,
+   * wird diese im aufrufenden Thread ausgeführt
+   *
+   * @param key      K
+   * @param supplier Supplier<V> zur Berechnung des Ergebnisses
+   * @return V
+   */
+  public V execute(K key, Supplier<V> supplier) {
+    final CompletableFuture<V> future = new CompletableFuture<>();
+    final CompletableFuture<V> existingFuture = futures.putIfAbsent(key, future);
+
+    if (existingFuture != null) {
+      shared.increment();
+      try {
+        return existingFuture.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+        if (e.getCause() instanceof Error error) throw error;
+        throw e;
+      }
+    }
+
+    computed.increment();
+    try {
+      final V value = supplier.get();
+      future.complete(value);
+      return value;
+    } catch (Throwable e) {
+      // Auch Errors beenden die Berechnung, damit wartende Aufrufer nicht hängen bleiben
+      futures.remove(key, future);
+      future.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Entfernt alle Ergebnisse, deren Key die Bedingung erfüllt
+   *
+   * @param predicate Predicate<K>
+   */
+  public void evictIf(Predicate<K> predicate) {
+    futures.keySet().removeIf(predicate);
+  }
+
+  public int size() {
+    return futures.size();
+  }
+
+  public long getComputedCount() {
+    return computed.sum();
+  }
+
+  public long getSharedCount() {
+    return shared.sum();
+  }
+}
@@ -4,9 +4,16 @@ import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Helper class for network connections
@@ -18,6 +25,7 @@ public class NetworkHandlerService {
   private static final int DEFAULT_TIMEOUT_MS = 30000;
   private static final String USER_AGENT = "The Beluga Project";
   private static final String NONE_URL = "none";
+  private static final int STREAM_BUFFER_SIZE = 16384;
 
   private final OkHttpClient client = new OkHttpClient.Builder()
       .connectTimeout(DEFAULT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
@@ -25,6 +33,9 @@ public class NetworkHandlerService {
       .writeTimeout(DEFAULT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
       .build();
 
+  // Validators (ETag, Last-Modified) of the last processed response per URL for conditional requests
+  private final Map<String, ResponseValidators> validatorsByUrl = new ConcurrentHashMap<>();
+
   /**
    * Makes a GET request to a URL and returns the response as a string
    *
@@ -92,13 +103,78 @@ public class NetworkHandlerService {
    * @return Response body as string, or null if the request failed
    */
   public String makeServiceCallLocalFeeder(String url) {
+    return makeServiceCallLocalFeeder(url, DEFAULT_TIMEOUT_MS);
+  }
+
+  /**
+   * Makes a GET request to a URL for local aircraft feeders. The whole call
+   * (connect, request and reading the response body) is aborted after timeoutMs
+   *
+   * @param url       URL to make the request to
+   * @param timeoutMs Deadline for the whole call in milliseconds
+   * @return Response body as string, or null if the request failed or timed out
+   */
+  public String makeServiceCallLocalFeeder(String url, long timeoutMs) {
     if (url.equalsIgnoreCase(NONE_URL)) {
       return null;
     }
 
     try {
       Request request = createDefaultGetRequest(url);
-      return executeRequest(request);
+      return executeRequest(request, timeoutMs);
+    } catch (Exception e) {
+      logRequestError(url, e);
+      return null;
+    }
+  }
+
+  /**
+   * Makes a GET request to a URL for local aircraft feeders and hands the response body
+   * as a stream to the handler, so the body is never read into a string. The whole call
+   * (connect, request and processing the response body) is aborted after timeoutMs
+   *
+   * @param url       URL to make the request to
+   * @param timeoutMs Deadline for the whole call in milliseconds
+   * @param handler   Handler processing the response body
+   * @return Result of the handler, or null if the request failed or timed out
+   */
+  public <T> T makeStreamingServiceCallLocalFeeder(String url, long timeoutMs, ResponseStreamHandler<T> handler) {
+    if (url.equalsIgnoreCase(NONE_URL)) {
+      return null;
+    }
+
+    try {
+      Request request = createDefaultGetRequest(url);
+      return executeStreamingRequest(request, timeoutMs, handler, null);
+    } catch (Exception e) {
+      logRequestError(url, e);
+      return null;
+    }
+  }
+
+  /**
+   * Makes a conditional GET request to a URL for local aircraft feeders. The validators
+   * (ETag, Last-Modified) of the last processed response are sent as If-None-Match and
+   * If-Modified-Since. If the feeder answers with 304 Not Modified, the body is not
+   * transferred and the result of notModifiedHandler is returned instead. Otherwise the
+   * response body is handed as a stream to the handler (see makeStreamingServiceCallLocalFeeder)
+   *
+   * @param url                URL to make the request to
+   * @param timeoutMs          Deadline for the whole call in milliseconds
+   * @param handler            Handler processing the response body
+   * @param notModifiedHandler Supplier for the result if the response was not modified
+   * @return Result of the handler or notModifiedHandler, or null if the request failed or timed out
+   */
+  public <T> T makeConditionalStreamingServiceCallLocalFeeder(String url, long timeoutMs,
+                                                              ResponseStreamHandler<T> handler,
+                                                              Supplier<T> notModifiedHandler) {
+    if (url.equalsIgnoreCase(NONE_URL)) {
+      return null;
+    }
+
+    try {
+      Request request = createConditionalGetRequest(url);
+      return executeStreamingRequest(request, timeoutMs, handler, notModifiedHandler);
     } catch (Exception e) {
       logRequestError(url, e);
       return null;
@@ -118,6 +194,31 @@ public class NetworkHandlerService {
         .build();
   }
 
+  /**
+   * Creates a GET request with the User-Agent header and the validators of the last
+   * processed response of the URL (If-None-Match, If-Modified-Since), if any
+   *
+   * @param url URL to make the request to
+   * @return Configured Request object
+   */
+  private Request createConditionalGetRequest(String url) {
+    Request request = createDefaultGetRequest(url);
+
+    ResponseValidators validators = validatorsByUrl.get(request.url().toString());
+    if (validators == null) {
+      return request;
+    }
+
+    Request.Builder builder = request.newBuilder();
+    if (validators.etag() != null) {
+      builder.header("If-None-Match", validators.etag());
+    }
+    if (validators.lastModified() != null) {
+      builder.header("If-Modified-Since", validators.lastModified());
+    }
+    return builder.build();
+  }
+
   /**
    * Creates a GET request with authentication header and User-Agent
    *
@@ -171,8 +272,24 @@ public class NetworkHandlerService {
    * @throws Exception If the request execution fails
    */
   private String executeRequest(Request request) throws Exception {
+    return executeRequest(request, 0);
+  }
+
+  /**
+   * Executes a request with a deadline for the whole call and returns the response body as a string
+   *
+   * @param request   Request to execute
+   * @param timeoutMs Deadline for the whole call in milliseconds (0 = no deadline)
+   * @return Response body as string
+   * @throws Exception If the request execution fails or the deadline is exceeded
+   */
+  private String executeRequest(Request request, long timeoutMs) throws Exception {
     CallbackFuture future = new CallbackFuture();
-    client.newCall(request).enqueue(future);
+    Call call = client.newCall(request);
+    if (timeoutMs > 0) {
+      call.timeout().timeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+    call.enqueue(future);
     Response response = future.get();
 
     try {
@@ -186,6 +303,92 @@ public class NetworkHandlerService {
     }
   }
 
+  /**
+   * Executes a request with a deadline for the whole call and hands the response body as a stream to the handler.
+   * Gzip is negotiated and decoded on the fly by OkHttp (no Accept-Encoding is set manually), bodies which are
+   * gzipped files themselves (e.g. aircraft.json.gz) are decompressed while streaming as well
+   *
+   * @param request            Request to execute
+   * @param timeoutMs          Deadline for the whole call in milliseconds (0 = no deadline)
+   * @param handler            Handler processing the response body
+   * @param notModifiedHandler Supplier for the result of a 304 response (null = request is not conditional)
+   * @return Result of the handler
+   * @throws Exception If the request execution, the processing or the deadline fails
+   */
+  private <T> T executeStreamingRequest(Request request, long timeoutMs, ResponseStreamHandler<T> handler,
+                                        Supplier<T> notModifiedHandler) throws Exception {
+    CallbackFuture future = new CallbackFuture();
+    Call call = client.newCall(request);
+    if (timeoutMs > 0) {
+      call.timeout().timeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+    call.enqueue(future);
+    Response response = future.get();
+
+    try (response) {
+      final boolean conditional = notModifiedHandler != null;
+      if (conditional && response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+        return notModifiedHandler.get();
+      }
+
+      checkResponseWasSuccessful(response);
+      ResponseBody body = response.body();
+      if (body == null) {
+        return null;
+      }
+
+      T result;
+      try (InputStream inputStream = decompressIfGzipped(body.byteStream())) {
+        result = handler.handle(inputStream);
+      }
+
+      if (conditional) {
+        storeValidators(request.url().toString(), response, result != null);
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Wraps the stream into a GZIPInputStream if it starts with the gzip magic bytes
+   *
+   * @param inputStream Stream to check
+   * @return Decompressed stream or buffered original stream
+   * @throws IOException If reading the stream fails
+   */
+  private InputStream decompressIfGzipped(InputStream inputStream) throws IOException {
+    BufferedInputStream bufferedStream = new BufferedInputStream(inputStream, STREAM_BUFFER_SIZE);
+    bufferedStream.mark(2);
+    int firstByte = bufferedStream.read();
+    int secondByte = bufferedStream.read();
+    bufferedStream.reset();
+
+    if (firstByte == (GZIPInputStream.GZIP_MAGIC & 0xff) && secondByte == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+      return new GZIPInputStream(bufferedStream, STREAM_BUFFER_SIZE);
+    }
+    return bufferedStream;
+  }
+
+  /**
+   * Stores the validators (ETag, Last-Modified) of a response for the next conditional request.
+   * Validators are only kept if the body was processed successfully, otherwise the next request
+   * would be answered with 304 although the content was never processed
+   *
+   * @param url        URL of the request
+   * @param response   Response
+   * @param successful True, if the body was processed successfully
+   */
+  private void storeValidators(String url, Response response, boolean successful) {
+    String etag = response.header("ETag");
+    String lastModified = response.header("Last-Modified");
+
+    if (!successful || (etag == null && lastModified == null)) {
+      validatorsByUrl.remove(url);
+    } else {
+      validatorsByUrl.put(url, new ResponseValidators(etag, lastModified));
+    }
+  }
+
   /**
    * Validates parameters for Opensky Network API calls
    *
@@ -232,4 +435,13 @@ public class NetworkHandlerService {
   private void logRequestError(String url, Exception e) {
     log.error("Server - Error when retrieving information from URL {}: Exception = {}", url, e.getMessage(), e);
   }
+
+  /**
+   * Validators of a response for conditional requests
+   *
+   * @param etag         Value of the ETag header (or null)
+   * @param lastModified Value of the Last-Modified header (or null)
+   */
+  private record ResponseValidators(String etag, String lastModified) {
+  }
 }
@@ -0,0 +1,22 @@
+package com.amnesica.belugaproject.services.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Handler for processing a response body as a stream without reading it into memory first
+ *
+ * @param <T> Type of the result
+ */
+@FunctionalInterface
+public interface ResponseStreamHandler<T> {
+
+  /**
+   * Processes the response body
+   *
+   * @param inputStream Response body as stream
+   * @return Result of processing
+   * @throws IOException If reading or processing the stream fails
+   */
+  T handle(InputStream inputStream) throws IOException;
+}
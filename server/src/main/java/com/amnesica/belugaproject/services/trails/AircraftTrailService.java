@@ -8,8 +8,11 @@ import com.amnesica.belugaproject.entities.trails.TrailSuperclass;
 import com.amnesica.belugaproject.repositories.trails.AircraftTrailRepository;
 import com.amnesica.belugaproject.services.helper.HelperService;
 import com.amnesica.belugaproject.services.helper.TrailHelperService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +30,8 @@ public class AircraftTrailService {
   @Autowired
   private AircraftTrailRepository aircraftTrailRepository;
   @Autowired
+  private AircraftTrailWriter aircraftTrailWriter;
+  @Autowired
   private TrailHelperService trailHelperService;
   @Autowired
   private Configuration configuration;
@@ -36,8 +41,14 @@ public class AircraftTrailService {
 
   private final double EFFECTIVE_MAX_RANGE_KM = 666.72;
 
+  // Zeitpunkt des letzten Trails bzw. der letzten Sichtung eines unveränderten Flugzeugs pro hex und Feeder
+  private final LastTrailTimestampMap lastTrailTimestampMap = new LastTrailTimestampMap();
+
+  // Abstand in Millisekunden, ab dem ein Flugzeug als 'reentered' gilt, mit Name des Feeders als Key
+  private final Map<String, Long> reenteredThresholdByFeeder = new ConcurrentHashMap<>();
+
   /**
-   * Speichert einen Trail im AircraftTrailRepository
+   * Speichert einen Trail im AircraftTrailRepository (gepuffert über den AircraftTrailWriter)
    *
    * @param aircraft   AircraftSuperclass
    * @param feederName String
@@ -57,13 +68,55 @@ public class AircraftTrailService {
       addDistanceAndAngleToSite(trail);
       addTrailToOutlineMapIfNecessary(trail, feederName);
 
-      try {
-        // Speichere Trail in Datenbank
-        aircraftTrailRepository.save(trail);
-      } catch (Exception e) {
-        log.error("Server - DB error when saving trail for aircraft with hex " + trail.getHex()
-            + ": Exception = " + e);
+      // Speichere Trail gesammelt in Datenbank (lastTrailTimestampMap wird nach dem Schreiben aktualisiert)
+      aircraftTrailWriter.enqueue(trail);
+    }
+  }
+
+  /**
+   * Übernimmt den Zeitpunkt der in die Tabelle aircraft_trail geschriebenen Trails in die
+   * lastTrailTimestampMap. Verworfene oder nicht geschriebene Trails werden so nicht für die
+   * Erkennung von 'reentered' Flugzeugen verwendet
+   */
+  @PostConstruct
+  public void registerTrailWrittenListener() {
+    aircraftTrailWriter.setWrittenListener(this::onTrailsWritten);
+  }
+
+  private void onTrailsWritten(List<AircraftTrail> trails) {
+    for (AircraftTrail trail : trails) {
+      lastTrailTimestampMap.put(trail.getHex(), trail.getFeeder(), trail.getTimestamp());
+    }
+  }
+
+  /**
+   * Merkt die Sichtung eines Flugzeugs, für das kein neuer Trail gespeichert wird,
+   * weil es sich seit der letzten Abfrage des Feeders nicht verändert hat
+   *
+   * @param hex        String
+   * @param feederName String
+   */
+  public void registerSighting(String hex, String feederName) {
+    if (hex == null || feederName == null) return;
+    lastTrailTimestampMap.put(hex, feederName, System.currentTimeMillis());
+  }
+
+  /**
+   * Baut beim Start die Map mit dem Zeitpunkt des letzten Trails pro hex und Feeder
+   * aus der Tabelle aircraft_trail auf
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void loadLastTrailTimestamps() {
+    final long startTime = System.currentTimeMillis() - StaticValues.RETENTION_TIME_TRAILS_LOCAL;
+
+    try {
+      List<Object[]> lastTrails = aircraftTrailRepository.findLastTimestampPerHexAndFeeder(startTime);
+      for (Object[] lastTrail : lastTrails) {
+        if (lastTrail[0] == null || lastTrail[1] == null || lastTrail[2] == null) continue;
+        lastTrailTimestampMap.put((String) lastTrail[0], (String) lastTrail[1], ((Number) lastTrail[2]).longValue());
       }
+    } catch (Exception e) {
+      log.error("Server - DB error when loading timestamps of last trails : Exception = " + e);
     }
   }
 
@@ -159,6 +212,17 @@ public class AircraftTrailService {
     return trails;
   }
 
+  /**
+   * Setzt den Abstand, ab dem ein Flugzeug eines Feeders als 'reentered' gilt
+   * (Default = THRESHOLD_REENTERED_AIRCRAFT)
+   *
+   * @param feederName String
+   * @param threshold  Abstand in Millisekunden
+   */
+  public void setReenteredThreshold(String feederName, long threshold) {
+    reenteredThresholdByFeeder.put(feederName, threshold);
+  }
+
   /**
    * Bestimmt, ob ein Flugzeug als 'reentered'-Flugzeug bezeichnet werden kann
    *
@@ -168,18 +232,15 @@ public class AircraftTrailService {
    */
   public boolean getIsReenteredAircraft(String hex, String selectedFeeder) {
     if (selectedFeeder != null && !selectedFeeder.isEmpty() && !selectedFeeder.equals("Opensky") && !selectedFeeder.equals("Airplanes-Live")) {
-      try {
-        long time = System.currentTimeMillis();
+      long time = System.currentTimeMillis();
 
-        AircraftTrail trail = aircraftTrailRepository.findFirstByHexAndFeederOrderByTimestampDesc(hex,
-            selectedFeeder);
+      // Zeitpunkt des letzten Trails aus dem Speicher (ohne Datenbankabfrage)
+      long lastTrailTimestamp = lastTrailTimestampMap.get(hex, selectedFeeder);
 
-        return trail != null && (time - trail.getTimestamp() > 3000);
-      } catch (Exception e) {
-        log.error("Server - DB error when retrieving all trails for aircraft with hex " + hex + ": Exception = "
-            + e);
-        return false;
-      }
+      final long threshold = reenteredThresholdByFeeder.getOrDefault(selectedFeeder,
+          (long) StaticValues.THRESHOLD_REENTERED_AIRCRAFT);
+
+      return lastTrailTimestamp != LastTrailTimestampMap.NO_TIMESTAMP && (time - lastTrailTimestamp > threshold);
     }
     return false;
   }
@@ -198,6 +259,7 @@ public class AircraftTrailService {
     long timestampOneDayAgo = System.currentTimeMillis() - retention_time_trails_local;
 
     aircraftTrailRepository.deleteAllByTimestampLessThanEqual(timestampOneDayAgo);
+    lastTrailTimestampMap.removeNotNewerThan(timestampOneDayAgo);
 
     // TODO: Einstiegspunkt zum Speichern der Trail History
   }
@@ -0,0 +1,172 @@
+package com.amnesica.belugaproject.services.trails;
+
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.entities.trails.AircraftTrail;
+import com.amnesica.belugaproject.repositories.trails.AircraftTrailRepository;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Puffert neue Trails in einer begrenzten Queue und schreibt diese von einem eigenen
+ * Thread gesammelt als JDBC-Batch in die Tabelle aircraft_trail. Geschrieben wird, sobald
+ * trail.flush.size Trails gepuffert sind oder spätestens nach trail.flush.latency Millisekunden
+ */
+@Slf4j
+@Service
+public class AircraftTrailWriter {
+  @Autowired
+  private AircraftTrailRepository aircraftTrailRepository;
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+  @Autowired
+  private MetricsService metricsService;
+  @Autowired
+  private Configuration configuration;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  // Namen der Metriken
+  static final String METRIC_QUEUE_DEPTH = "trails.queue.depth";
+  static final String METRIC_FLUSH = "trails.flush";
+  static final String METRIC_WRITTEN = "trails.written";
+  static final String METRIC_DROPPED = "trails.dropped";
+
+  private BlockingQueue<AircraftTrail> queue;
+  private TransactionTemplate transactionTemplate;
+  private Thread writerThread;
+  private volatile boolean running;
+
+  // Wird nach dem erfolgreichen Schreiben eines Batches aufgerufen
+  private volatile Consumer<List<AircraftTrail>> writtenListener = batch -> {
+  };
+
+  /**
+   * Erstellt die Queue und startet den Thread zum Schreiben der Trails
+   */
+  @PostConstruct
+  public void startWriter() {
+    queue = new ArrayBlockingQueue<>(configuration.getTrailQueueCapacity());
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    metricsService.registerGauge(METRIC_QUEUE_DEPTH, () -> queue.size());
+
+    running = true;
+    writerThread = new Thread(this::writeTrailsUntilStopped, "trail-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Setzt den Listener, welcher nach dem erfolgreichen Schreiben eines Batches mit den
+   * geschriebenen Trails aufgerufen wird. Verworfene oder nicht geschriebene Trails werden
+   * nicht übergeben
+   *
+   * @param writtenListener Consumer<List<AircraftTrail>>
+   */
+  public void setWrittenListener(Consumer<List<AircraftTrail>> writtenListener) {
+    this.writtenListener = writtenListener;
+  }
+
+  /**
+   * Fügt einen Trail zur Queue hinzu. Ist die Queue voll, wird der Trail verworfen,
+   * damit die Verarbeitung der Feeder nicht blockiert wird
+   *
+   * @param trail AircraftTrail
+   */
+  public void enqueue(AircraftTrail trail) {
+    if (!queue.offer(trail)) {
+      metricsService.incrementCounter(METRIC_DROPPED);
+      log.warn("Server - Trail queue is full, trail for aircraft with hex " + trail.getHex() + " dropped");
+    }
+  }
+
+  /**
+   * Stoppt den Thread und schreibt die noch gepufferten Trails
+   */
+  @PreDestroy
+  public void stopWriter() {
+    running = false;
+    writerThread.interrupt();
+    try {
+      writerThread.join(configuration.getTrailFlushLatency() * 2L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    List<AircraftTrail> remainingTrails = new ArrayList<>();
+    queue.drainTo(remainingTrails);
+    writeBatch(remainingTrails);
+  }
+
+  private void writeTrailsUntilStopped() {
+    final int flushSize = configuration.getTrailFlushSize();
+    final long flushLatency = configuration.getTrailFlushLatency();
+    final List<AircraftTrail> batch = new ArrayList<>(flushSize);
+
+    while (running) {
+      try {
+        // Warte auf den ersten Trail des Batches
+        AircraftTrail first = queue.poll(flushLatency, TimeUnit.MILLISECONDS);
+        if (first == null) continue;
+        batch.add(first);
+
+        // Sammle weitere Trails, bis der Batch voll oder die Wartezeit abgelaufen ist
+        final long flushAt = System.currentTimeMillis() + flushLatency;
+        while (batch.size() < flushSize) {
+          queue.drainTo(batch, flushSize - batch.size());
+          final long remainingTime = flushAt - System.currentTimeMillis();
+          if (batch.size() >= flushSize || remainingTime <= 0) break;
+
+          AircraftTrail next = queue.poll(remainingTime, TimeUnit.MILLISECONDS);
+          if (next == null) break;
+          batch.add(next);
+        }
+      } catch (InterruptedException e) {
+        // Thread wird gestoppt, bisher gesammelte Trails werden noch geschrieben
+        running = false;
+      }
+
+      writeBatch(batch);
+      batch.clear();
+    }
+  }
+
+  /**
+   * Schreibt Trails in einer Transaktion als JDBC-Batch in die Datenbank
+   *
+   * @param batch List<AircraftTrail>
+   */
+  void writeBatch(List<AircraftTrail> batch) {
+    if (batch.isEmpty()) return;
+
+    final long startTime = System.currentTimeMillis();
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(configuration.getTrailFlushSize());
+        aircraftTrailRepository.saveAll(batch);
+      });
+      metricsService.addToCounter(METRIC_WRITTEN, batch.size());
+      writtenListener.accept(batch);
+    } catch (Exception e) {
+      log.error("Server - DB error when writing batch of " + batch.size() + " trails : Exception = " + e);
+    } finally {
+      metricsService.recordDuration(METRIC_FLUSH, System.currentTimeMillis() - startTime);
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package com.amnesica.belugaproject.services.trails;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kompakte Map mit dem Zeitpunkt des letzten Trails pro Flugzeug (hex) und Feeder.
+ * Der Key besteht aus der 24-Bit-ICAO-Adresse und dem Index des Feeders und wird als
+ * long in einer Hash-Tabelle mit offener Adressierung gespeichert (keine Objekte pro Eintrag).
+ * Hex-Werte, welche keine ICAO-Adresse sind, werden in einer separaten Map gespeichert
+ */
+public final class LastTrailTimestampMap {
+
+  // Rückgabewert, wenn kein Trail vorhanden ist
+  public static final long NO_TIMESTAMP = -1L;
+
+  private static final long EMPTY_KEY = 0L;
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int NON_ICAO_FLAG = 1 << 24;
+
+  // Index der Feeder mit Name als Key (Index beginnt bei 1, damit ein Key nie EMPTY_KEY ist)
+  private final Map<String, Integer> feederIndexMap = new HashMap<>();
+
+  // Hex-Werte, welche sich nicht als ICAO-Adresse darstellen lassen
+  private final Map<String, Long> fallbackMap = new HashMap<>();
+
+  private long[] keys = new long[INITIAL_CAPACITY];
+  private long[] timestamps = new long[INITIAL_CAPACITY];
+  private int size;
+
+  /**
+   * Speichert den Zeitpunkt des letzten Trails, wenn dieser neuer als der gespeicherte ist
+   *
+   * @param hex       String
+   * @param feeder    String
+   * @param timestamp long
+   */
+  public synchronized void put(String hex, String feeder, long timestamp) {
+    final long key = toKey(hex, feeder);
+    if (key == EMPTY_KEY) {
+      fallbackMap.merge(hex + ":" + feeder, timestamp, Math::max);
+      return;
+    }
+
+    int index = indexOf(key);
+    if (keys[index] == key) {
+      timestamps[index] = Math.max(timestamps[index], timestamp);
+      return;
+    }
+
+    keys[index] = key;
+    timestamps[index] = timestamp;
+    if (++size * 2 > keys.length) resize(keys.length * 2);
+  }
+
+  /**
+   * Gibt den Zeitpunkt des letzten Trails zurück
+   *
+   * @param hex    String
+   * @param feeder String
+   * @return long oder NO_TIMESTAMP
+   */
+  public synchronized long get(String hex, String feeder) {
+    final long key = toKey(hex, feeder);
+    if (key == EMPTY_KEY) {
+      return fallbackMap.getOrDefault(hex + ":" + feeder, NO_TIMESTAMP);
+    }
+
+    final int index = indexOf(key);
+    return keys[index] == key ? timestamps[index] : NO_TIMESTAMP;
+  }
+
+  /**
+   * Entfernt alle Einträge, deren letzter Trail nicht neuer als timestamp ist
+   *
+   * @param timestamp long
+   */
+  public synchronized void removeNotNewerThan(long timestamp) {
+    final long[] oldKeys = keys;
+    final long[] oldTimestamps = timestamps;
+
+    keys = new long[oldKeys.length];
+    timestamps = new long[oldKeys.length];
+    size = 0;
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY_KEY && oldTimestamps[i] > timestamp) {
+        insert(oldKeys[i], oldTimestamps[i]);
+      }
+    }
+
+    fallbackMap.values().removeIf(value -> value <= timestamp);
+  }
+
+  /**
+   * Gibt die Anzahl an Einträgen zurück
+   *
+   * @return int
+   */
+  public synchronized int size() {
+    return size + fallbackMap.size();
+  }
+
+  private void resize(int capacity) {
+    final long[] oldKeys = keys;
+    final long[] oldTimestamps = timestamps;
+
+    keys = new long[capacity];
+    timestamps = new long[capacity];
+    size = 0;
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != EMPTY_KEY) insert(oldKeys[i], oldTimestamps[i]);
+    }
+  }
+
+  private void insert(long key, long timestamp) {
+    final int index = indexOf(key);
+    keys[index] = key;
+    timestamps[index] = timestamp;
+    size++;
+  }
+
+  /**
+   * Gibt den Index des Keys oder des ersten freien Platzes zurück (lineares Sondieren)
+   */
+  private int indexOf(long key) {
+    final int mask = keys.length - 1;
+    int index = (int) mix(key) & mask;
+    while (keys[index] != EMPTY_KEY && keys[index] != key) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  private static long mix(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return h ^ (h >>> 32);
+  }
+
+  /**
+   * Bildet hex und Feeder auf einen long-Key ab (obere 32 Bit: Feeder, untere 32 Bit: ICAO-Adresse)
+   *
+   * @return long oder EMPTY_KEY, wenn hex keine ICAO-Adresse ist
+   */
+  private long toKey(String hex, String feeder) {
+    final int icao = parseIcao(hex);
+    if (icao < 0) return EMPTY_KEY;
+
+    final int feederIndex = feederIndexMap.computeIfAbsent(feeder, k -> feederIndexMap.size() + 1);
+    return ((long) feederIndex << 32) | icao;
+  }
+
+  /**
+   * Wandelt hex in eine 24-Bit-ICAO-Adresse um. Nicht-ICAO-Adressen mit vorangestellter
+   * Tilde (bspw. TIS-B) werden mit einem zusätzlichen Bit markiert
+   *
+   * @return int oder -1, wenn hex keine ICAO-Adresse ist
+   */
+  private static int parseIcao(String hex) {
+    if (hex == null) return -1;
+
+    int start = 0;
+    int flag = 0;
+    if (hex.startsWith("~")) {
+      start = 1;
+      flag = NON_ICAO_FLAG;
+    }
+
+    final int length = hex.length() - start;
+    if (length < 1 || length > 6) return -1;
+
+    int icao = 0;
+    for (int i = start; i < hex.length(); i++) {
+      final int digit = Character.digit(hex.charAt(i), 16);
+      if (digit < 0) return -1;
+      icao = (icao << 4) | digit;
+    }
+    return icao | flag;
+  }
+
+  /**
+   * Entfernt alle Einträge
+   */
+  public synchronized void clear() {
+    Arrays.fill(keys, EMPTY_KEY);
+    size = 0;
+    fallbackMap.clear();
+  }
+}
@@ -0,0 +1,174 @@
+package com.amnesica.belugaproject.services.integrationtests;
+
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.config.Feeder;
+import com.amnesica.belugaproject.config.FeederMapping;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.services.aircraft.AircraftService;
+import com.amnesica.belugaproject.services.aircraft.AircraftStreamService;
+import com.amnesica.belugaproject.services.aircraft.FeederSnapshot;
+import com.amnesica.belugaproject.services.data.*;
+import com.amnesica.belugaproject.services.trails.AircraftTrailService;
+import com.amnesica.belugaproject.utils.TestUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(classes = {AircraftTrailService.class, AircraftService.class, Configuration.class})
+@ContextConfiguration(classes = BuildProperties.class)
+@ExtendWith(MockitoExtension.class)
+public class AircraftStreamServiceTests {
+
+  @MockitoBean
+  private AircraftTrailService aircraftTrailService;
+  @MockitoBean
+  private AirportDataService airportDataService;
+  @MockitoBean
+  private RegcodeDataService regcodeDataService;
+  @MockitoBean
+  private OperatorDataService operatorDataService;
+  @MockitoBean
+  private FlightrouteDataService flightrouteDataService;
+
+  @Spy
+  @Autowired
+  private Configuration configuration;
+  @Spy
+  @InjectMocks
+  private AircraftService aircraftService;
+  @InjectMocks
+  private AircraftStreamService aircraftStreamService;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private static Stream<Arguments> getArguments() {
+    // type feeder, filename aircraft json
+    return Stream.of(
+        Arguments.of("adsbx", "adsbx_aircraft.json"),
+        Arguments.of("adsbx", "adsbx_aircraft_reduced.json"),
+        Arguments.of("adsbx", "adsbx_aircraft_mlat.json"),
+        Arguments.of("adsbx", "adsbx_aircraft_without_pos.json"),
+        Arguments.of("adsbx", "adsbx_aircraft_pos_no_pos.json"),
+        Arguments.of("vrs", "vrs_aircraft.json"),
+        Arguments.of("dump1090-fa", "dump1090-fa_aircraft.json"),
+        Arguments.of("airsquitter", "airsquitter_aircraft.json")
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("getArguments")
+  void streamingParserMatchesJsonObjectPathTest(String type, String fileNameJsonTestResource) throws IOException {
+    final Feeder feeder = createFeederWithMapping(type);
+    final String json = TestUtil.getResource(fileNameJsonTestResource);
+
+    final List<Aircraft> expectedAircraft = createAircraftFromJsonObjects(json, feeder);
+    final List<Aircraft> actualAircraft = aircraftStreamService.readAircraftFromLocalFeeder(
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), feeder);
+
+    assertNotNull(actualAircraft);
+    assertFalse(expectedAircraft.isEmpty());
+    assertEquals(expectedAircraft.size(), actualAircraft.size());
+    for (int i = 0; i < expectedAircraft.size(); i++) {
+      assertEquals(objectMapper.valueToTree(expectedAircraft.get(i)), objectMapper.valueToTree(actualAircraft.get(i)),
+          "Aircraft with hex " + expectedAircraft.get(i).getHex() + " differs");
+    }
+  }
+
+  /**
+   * Golden-File-Test: adsbx_aircraft.binCraft wurde aus adsbx_aircraft.json erzeugt,
+   * adsbx_aircraft_binCraft.json enthält die gleichen (gerundeten) Werte im Format von readsb
+   */
+  @Test
+  void binCraftMatchesEquivalentJsonTest() throws IOException {
+    final Feeder binCraftFeeder = createFeederWithMapping("bincraft");
+    final Feeder jsonFeeder = createFeederWithMapping("adsbx");
+    final byte[] binCraft = Files.readAllBytes(Paths.get("./src/test/resources/testData/adsbx_aircraft.binCraft"));
+    final String json = TestUtil.getResource("adsbx_aircraft_binCraft.json");
+
+    final FeederSnapshot expected = aircraftStreamService.readSnapshotFromLocalFeeder(
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), jsonFeeder, null);
+    final FeederSnapshot actual = aircraftStreamService.readSnapshotFromLocalFeeder(
+        new ByteArrayInputStream(binCraft), binCraftFeeder, null);
+
+    assertNotNull(actual);
+    assertFalse(actual.isUnchanged());
+    assertEquals(1730026214001L, actual.getSnapshotTime());
+    assertEquals(expected.getSnapshotTime(), actual.getSnapshotTime());
+    assertEquals(31, actual.getAircraft().size());
+    assertEquals(expected.getAircraft().size(), actual.getAircraft().size());
+    for (int i = 0; i < expected.getAircraft().size(); i++) {
+      assertEquals(objectMapper.valueToTree(expected.getAircraft().get(i)),
+          objectMapper.valueToTree(actual.getAircraft().get(i)),
+          "Aircraft with hex " + expected.getAircraft().get(i).getHex() + " differs");
+    }
+  }
+
+  @Test
+  void skipUnchangedBinCraftSnapshotTest() throws IOException {
+    final Feeder feeder = createFeederWithMapping("bincraft");
+    final byte[] binCraft = Files.readAllBytes(Paths.get("./src/test/resources/testData/adsbx_aircraft.binCraft"));
+
+    final FeederSnapshot snapshot = aircraftStreamService.readSnapshotFromLocalFeeder(
+        new ByteArrayInputStream(binCraft), feeder, 1730026214001L);
+
+    assertTrue(snapshot.isUnchanged());
+    assertTrue(snapshot.getAircraft().isEmpty());
+  }
+
+  private List<Aircraft> createAircraftFromJsonObjects(String json, Feeder feeder) {
+    final JSONArray jsonArray;
+    if (feeder.getType().equals("airsquitter")) {
+      jsonArray = new JSONArray(json);
+    } else if (feeder.getType().equals("vrs")) {
+      jsonArray = new JSONObject(json).getJSONArray("acList");
+    } else {
+      jsonArray = new JSONObject(json).getJSONArray("aircraft");
+    }
+
+    final List<Aircraft> listAircraft = new ArrayList<>();
+    for (int i = 0; i < jsonArray.length(); i++) {
+      final JSONObject element = jsonArray.getJSONObject(i);
+      if (element.has(feeder.getMapping().getHex())) {
+        listAircraft.add(aircraftService.createNewAircraft(element, feeder));
+      }
+    }
+    return listAircraft;
+  }
+
+  private Feeder createFeederWithMapping(String type) {
+    Feeder feeder = new Feeder("test", "127.0.0.1", type, "color");
+    try {
+      FeederMapping mapping = configuration.getMappingsFromConfig(feeder.getType());
+      feeder.setMapping(mapping);
+    } catch (IOException e) {
+      fail(String.format("Failed to get mapping configuration for feeder %s", feeder.getName()), e);
+    }
+    return feeder;
+  }
+}
@@ -5,6 +5,7 @@ import com.amnesica.belugaproject.entities.trails.AircraftTrail;
 import com.amnesica.belugaproject.repositories.trails.AircraftTrailRepository;
 import com.amnesica.belugaproject.services.helper.TrailHelperService;
 import com.amnesica.belugaproject.services.trails.AircraftTrailService;
+import com.amnesica.belugaproject.services.trails.AircraftTrailWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +31,8 @@ public class AircraftTrailServiceTests {
   private Configuration configuration;
   @MockitoBean
   private AircraftTrailRepository aircraftTrailRepository;
+  @MockitoBean
+  private AircraftTrailWriter aircraftTrailWriter;
 
   @InjectMocks
   private AircraftTrailService aircraftTrailService;
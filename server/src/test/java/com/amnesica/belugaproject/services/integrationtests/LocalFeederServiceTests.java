@@ -5,13 +5,22 @@ import com.amnesica.belugaproject.config.Feeder;
 import com.amnesica.belugaproject.config.FeederMapping;
 import com.amnesica.belugaproject.entities.aircraft.Aircraft;
 import com.amnesica.belugaproject.repositories.aircraft.AircraftRepository;
+import com.amnesica.belugaproject.services.aircraft.AircraftDelta;
+import com.amnesica.belugaproject.services.aircraft.AircraftFilter;
 import com.amnesica.belugaproject.services.aircraft.AircraftService;
+import com.amnesica.belugaproject.services.aircraft.AircraftSnapshot;
+import com.amnesica.belugaproject.services.aircraft.AircraftStreamService;
 import com.amnesica.belugaproject.services.aircraft.HistoryAircraftService;
+import com.amnesica.belugaproject.services.aircraft.LiveAircraftService;
 import com.amnesica.belugaproject.services.aircraft.LocalFeederService;
 import com.amnesica.belugaproject.services.data.*;
+import com.amnesica.belugaproject.services.helper.MetricsService;
 import com.amnesica.belugaproject.services.network.NetworkHandlerService;
+import com.amnesica.belugaproject.services.network.ResponseStreamHandler;
 import com.amnesica.belugaproject.services.trails.AircraftTrailService;
 import com.amnesica.belugaproject.utils.TestUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
@@ -30,16 +39,26 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @Slf4j
 @ActiveProfiles("test")
@@ -61,6 +80,8 @@ public class LocalFeederServiceTests {
   @MockitoBean
   private AircraftRepository aircraftRepository;
   @MockitoBean
+  private PlatformTransactionManager transactionManager;
+  @MockitoBean
   private RegcodeDataService regcodeDataService;
   @MockitoBean
   private OperatorDataService operatorDataService;
@@ -71,8 +92,18 @@ public class LocalFeederServiceTests {
   @Autowired
   private Configuration configuration;
   @Spy
+  private MetricsService metricsService = new MetricsService();
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper();
+  @Spy
   @InjectMocks
   private AircraftService aircraftService;
+  @Spy
+  @InjectMocks
+  private AircraftStreamService aircraftStreamService;
+  @Spy
+  @InjectMocks
+  private LiveAircraftService liveAircraftService;
   @InjectMocks
   private LocalFeederService localFeederService;
 
@@ -97,14 +128,14 @@ public class LocalFeederServiceTests {
     final Feeder feeder = createFeederWithMapping(type);
 
     when(configuration.getListFeeder()).thenReturn(List.of(feeder));
-    when(networkHandler.makeServiceCallLocalFeeder(anyString())).thenReturn(getJsonResource(fileNameJsonTestResource));
-    when(aircraftRepository.existsById(anyString())).thenReturn(false);
-    when(aircraftRepository.save(any(Aircraft.class))).thenAnswer(
-        invocation -> addSavedAircraftToList(invocation, savedAircraft));
+    mockStreamingServiceCallLocalFeeder(fileNameJsonTestResource);
+    when(aircraftRepository.saveAll(anyList())).thenAnswer(invocation -> addSavedAircraftToList(invocation, savedAircraft));
 
     localFeederService.getPlanesFromFeeder();
+    liveAircraftService.flushDirtyAircraft();
 
     assertEquals(expectedNumberAircraft, savedAircraft.size());
+    assertEquals(expectedNumberAircraft, liveAircraftService.getPublishedAircraft().size());
     savedAircraft.forEach(aircraft -> {
       assertNotNull(aircraft.getHex());
       assertNotNull(aircraft.getLastUpdate());
@@ -122,11 +153,11 @@ public class LocalFeederServiceTests {
     final Feeder feeder = createFeederWithMapping(type);
 
     when(configuration.getListFeeder()).thenReturn(List.of(feeder));
-    when(networkHandler.makeServiceCallLocalFeeder(anyString())).thenReturn(getJsonResource(fileNameJsonTestResource));
-    when(aircraftRepository.existsById(anyString())).thenReturn(false);
-    when(aircraftRepository.save(any(Aircraft.class))).thenAnswer(invocation -> addSavedAircraftToList(invocation, savedAircraft));
+    mockStreamingServiceCallLocalFeeder(fileNameJsonTestResource);
+    when(aircraftRepository.saveAll(anyList())).thenAnswer(invocation -> addSavedAircraftToList(invocation, savedAircraft));
 
     localFeederService.getPlanesFromFeeder();
+    liveAircraftService.flushDirtyAircraft();
 
     assertEquals(expectedNumberAircraft, savedAircraft.size());
     for (int i = 0; i < savedAircraft.size(); i++) {
@@ -143,6 +174,319 @@ public class LocalFeederServiceTests {
     }
   }
 
+  private static Stream<Arguments> getArgumentsUnchangedAircraft() {
+    // type feeder, filename aircraft json, #aircraft, expected #skipped updates in second iteration
+    return Stream.of(
+        Arguments.of("dump1090-fa", "dump1090-fa_aircraft.json", 32, 32), // all with messages
+        Arguments.of("airsquitter", "airsquitter_aircraft.json", 29, 0) // no messages, always updated
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("getArgumentsUnchangedAircraft")
+  @SneakyThrows
+  void skipUnchangedAircraftTest(String type, String fileNameJsonTestResource, int numberAircraft, int expectedSkipped) {
+    final List<Aircraft> savedAircraft = new ArrayList<>();
+    final Feeder feeder = createFeederWithMapping(type);
+    feeder.setPollInterval(0);
+
+    // Zweiter Datenstand hat einen neuen Zeitpunkt, aber identische Flugzeuge
+    final String json = getJsonResource(fileNameJsonTestResource);
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    mockStreamingServiceCallLocalFeederWithJson(json, withChangedSnapshotTime(json));
+    when(aircraftRepository.saveAll(anyList())).thenAnswer(invocation -> addSavedAircraftToList(invocation, savedAircraft));
+
+    // Erste Iteration: Alle Flugzeuge sind neu
+    localFeederService.getPlanesFromFeeder();
+    liveAircraftService.flushDirtyAircraft();
+    assertEquals(numberAircraft, savedAircraft.size());
+    savedAircraft.clear();
+
+    // Zweite Iteration mit identischen Flugzeugen
+    localFeederService.getPlanesFromFeeder();
+    liveAircraftService.flushDirtyAircraft();
+
+    assertEquals(numberAircraft - expectedSkipped, savedAircraft.size());
+    assertEquals(expectedSkipped, metricsService.getCounter("aircraft.updates.skipped"));
+    assertEquals(2L * numberAircraft - expectedSkipped, metricsService.getCounter("aircraft.updates.applied"));
+    assertEquals(numberAircraft, getPublishedAircraftOfFeeder(feeder.getName()).size());
+  }
+
+  @Test
+  @SneakyThrows
+  void skipUnchangedSnapshotOfFeederTest() {
+    final Feeder feeder = createFeederWithMapping("dump1090-fa");
+    feeder.setPollInterval(0);
+
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    mockStreamingServiceCallLocalFeeder("dump1090-fa_aircraft.json");
+
+    localFeederService.getPlanesFromFeeder();
+    localFeederService.getPlanesFromFeeder();
+
+    // Zweiter Datenstand hat den gleichen Zeitpunkt ("now") und wird nicht verarbeitet
+    assertEquals(1, metricsService.getCounter("feeder.snapshots.unchanged"));
+    assertEquals(32, metricsService.getCounter("aircraft.updates.applied"));
+    assertEquals(0, metricsService.getCounter("aircraft.updates.skipped"));
+  }
+
+  @Test
+  @SneakyThrows
+  void doNotPollFeederBeforeIntervalTest() {
+    final Feeder feeder = createFeederWithMapping("dump1090-fa");
+    feeder.setPollInterval(60000);
+
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    mockStreamingServiceCallLocalFeeder("dump1090-fa_aircraft.json");
+
+    localFeederService.getPlanesFromFeeder();
+    localFeederService.getPlanesFromFeeder();
+
+    verify(networkHandler, times(1)).makeStreamingServiceCallLocalFeeder(anyString(), anyLong(), any());
+  }
+
+  @Test
+  @SneakyThrows
+  void removeFeederFromAircraftNotInSnapshotTest() {
+    final Feeder feeder = createFeederWithMapping("adsbx");
+    feeder.setPollInterval(0);
+
+    // Zweiter Datenstand enthält nur noch 4 der 31 Flugzeuge
+    final String reducedJson = withChangedSnapshotTime(getJsonResource("adsbx_aircraft_reduced.json"));
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    mockStreamingServiceCallLocalFeederWithJson(getJsonResource("adsbx_aircraft.json"), reducedJson);
+
+    localFeederService.getPlanesFromFeeder();
+    assertEquals(31, getPublishedAircraftOfFeeder(feeder.getName()).size());
+
+    localFeederService.getPlanesFromFeeder();
+    assertEquals(4, getPublishedAircraftOfFeeder(feeder.getName()).size());
+    assertEquals(31, liveAircraftService.getPublishedAircraft().size());
+  }
+
+  @Test
+  void publishSnapshotWithSerializedJsonTest() throws JsonProcessingException {
+    final Feeder feeder = createFeederWithMapping("dump1090-fa");
+
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    mockStreamingServiceCallLocalFeeder("dump1090-fa_aircraft.json");
+    localFeederService.getPlanesFromFeeder();
+
+    final AircraftSnapshot snapshot = liveAircraftService.getPublishedSnapshot();
+    assertEquals(32, snapshot.getAircraftMap().size());
+
+    for (Aircraft aircraft : snapshot.getAircraftMap().values()) {
+      assertArrayEquals(objectMapper.writeValueAsBytes(aircraft), snapshot.getJson(aircraft));
+    }
+
+    // Kopie eines Flugzeugs ist nicht Teil des Stands
+    assertNull(snapshot.getJson(Aircraft.makeCopy(snapshot.getAircraftMap().values().iterator().next())));
+
+    // Unveränderte Flugzeuge werden inklusive JSON in die nächste Version übernommen
+    liveAircraftService.publishSnapshot();
+    final AircraftSnapshot nextSnapshot = liveAircraftService.getPublishedSnapshot();
+    assertEquals(snapshot.getVersion() + 1, nextSnapshot.getVersion());
+    for (Aircraft aircraft : snapshot.getAircraftMap().values()) {
+      assertSame(aircraft, nextSnapshot.getAircraft(aircraft.getHex()));
+      assertSame(snapshot.getJson(aircraft), nextSnapshot.getJson(aircraft));
+    }
+
+    // Gemeldete Änderungen werden kopiert und neu serialisiert
+    final String changedHex = snapshot.getAircraftMap().keySet().iterator().next();
+    liveAircraftService.getAircraft(changedHex).setSquawk("7700");
+    liveAircraftService.markDirty(changedHex);
+    liveAircraftService.publishSnapshot();
+    final Aircraft changedAircraft = liveAircraftService.getPublishedSnapshot().getAircraft(changedHex);
+    assertNotSame(nextSnapshot.getAircraft(changedHex), changedAircraft);
+    assertEquals("7700", changedAircraft.getSquawk());
+    assertArrayEquals(objectMapper.writeValueAsBytes(changedAircraft),
+        liveAircraftService.getPublishedSnapshot().getJson(changedAircraft));
+  }
+
+  @Test
+  @SneakyThrows
+  void getPlanesDeltaSinceVersionTest() {
+    final Feeder feeder = createFeederWithMapping("adsbx");
+    feeder.setPollInterval(0);
+    final List<String> selectedFeeder = List.of(feeder.getName());
+
+    // Zweiter Datenstand enthält nur noch 4 der 31 Flugzeuge
+    final String reducedJson = withChangedSnapshotTime(getJsonResource("adsbx_aircraft_reduced.json"));
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    mockStreamingServiceCallLocalFeederWithJson(getJsonResource("adsbx_aircraft.json"), reducedJson);
+
+    localFeederService.getPlanesFromFeeder();
+    final AircraftDelta fullDelta = localFeederService.getPlanesDelta(-180, -90, 180, 90, selectedFeeder, 0, AircraftFilter.NONE);
+    assertTrue(fullDelta.isFull());
+    assertEquals(31, fullDelta.getChanged().size());
+
+    // Client wendet die Änderungen auf seinen Stand an
+    final Set<String> clientHexes = new HashSet<>();
+    fullDelta.getChanged().forEach(aircraft -> clientHexes.add(aircraft.getHex()));
+
+    localFeederService.getPlanesFromFeeder();
+    final AircraftDelta delta = localFeederService.getPlanesDelta(-180, -90, 180, 90, selectedFeeder,
+        fullDelta.getVersion(), AircraftFilter.NONE);
+    assertFalse(delta.isFull());
+    assertEquals(fullDelta.getVersion() + 1, delta.getVersion());
+    assertEquals(27, delta.getRemoved().size());
+
+    delta.getRemoved().forEach(clientHexes::remove);
+    delta.getChanged().forEach(aircraft -> clientHexes.add(aircraft.getHex()));
+    final Set<String> expectedHexes = new HashSet<>();
+    getPublishedAircraftOfFeeder(feeder.getName()).forEach(a -> expectedHexes.add(a.getHex()));
+    assertEquals(expectedHexes, clientHexes);
+
+    // Keine Änderungen seit der aktuellen Version
+    final AircraftDelta emptyDelta = localFeederService.getPlanesDelta(-180, -90, 180, 90, selectedFeeder,
+        delta.getVersion(), AircraftFilter.NONE);
+    assertFalse(emptyDelta.isFull());
+    assertTrue(emptyDelta.getChanged().isEmpty());
+    assertTrue(emptyDelta.getRemoved().isEmpty());
+
+    // Unbekannte Version (bspw. nach Neustart des Servers) liefert den vollständigen Stand
+    final AircraftDelta unknownDelta = localFeederService.getPlanesDelta(-180, -90, 180, 90, selectedFeeder,
+        delta.getVersion() + 100, AircraftFilter.NONE);
+    assertTrue(unknownDelta.isFull());
+    assertEquals(4, unknownDelta.getChanged().size());
+  }
+
+  @Test
+  @SneakyThrows
+  void getPlanesWithinExtentFromGridIndexTest() {
+    final Feeder feeder = createFeederWithMapping("adsbx");
+    feeder.setPollInterval(0);
+
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    mockStreamingServiceCallLocalFeeder("adsbx_aircraft.json");
+    localFeederService.getPlanesFromFeeder();
+
+    final List<Aircraft> listAll = getPublishedAircraftOfFeeder(feeder.getName());
+    final Aircraft aircraft = listAll.stream()
+        .filter(a -> a.getLatitude() != null && a.getLongitude() != null)
+        .findFirst()
+        .orElseThrow();
+
+    // Extent um die Position eines Flugzeugs, Ergebnis entspricht der exakten Prüfung aller Flugzeuge
+    final double lomin = aircraft.getLongitude() - 0.5;
+    final double lamin = aircraft.getLatitude() - 0.5;
+    final double lomax = aircraft.getLongitude() + 0.5;
+    final double lamax = aircraft.getLatitude() + 0.5;
+    final long expected = listAll.stream()
+        .filter(a -> a.getLatitude() == null || a.getLongitude() == null ||
+            (a.getLatitude() >= lamin && a.getLatitude() <= lamax && a.getLongitude() >= lomin && a.getLongitude() <= lomax))
+        .count();
+
+    final List<Aircraft> listWithinExtent = liveAircraftService.getPublishedAircraftOfFeedersWithinExtent(
+        Map.of(feeder.getName(), 0L), lomin, lamin, lomax, lamax, AircraftFilter.NONE);
+    assertEquals(expected, listWithinExtent.size());
+    assertTrue(listWithinExtent.stream().anyMatch(a -> a.getHex().equals(aircraft.getHex())));
+  }
+
+  @Test
+  @SneakyThrows
+  void getPlanesOfMultipleFeedersWithoutDuplicatesTest() {
+    final Feeder feeder = createFeederWithMapping("adsbx");
+    final Feeder secondFeeder = new Feeder("test2", "127.0.0.2", "adsbx", "color");
+    addMappingToFeeder(secondFeeder);
+
+    // Beide Feeder empfangen die gleichen Flugzeuge
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder, secondFeeder));
+    mockStreamingServiceCallLocalFeeder("adsbx_aircraft.json");
+    localFeederService.getPlanesFromFeeder();
+
+    final List<Aircraft> listAircraft = localFeederService.getPlanesOfFeeders(-180, -90, 180, 90,
+        List.of(feeder.getName(), secondFeeder.getName()), 0, AircraftFilter.NONE);
+    assertEquals(31, listAircraft.size());
+    assertEquals(31, listAircraft.stream().map(Aircraft::getHex).distinct().count());
+    assertTrue(listAircraft.stream().allMatch(a -> a.getFeederList().containsAll(List.of("test", "test2"))));
+
+    assertEquals(31, localFeederService.getPlanesOfFeeders(-180, -90, 180, 90, List.of(secondFeeder.getName()), 0,
+        AircraftFilter.NONE).size());
+    assertTrue(localFeederService.getPlanesOfFeeders(-180, -90, 180, 90, List.of("unknown"), 0, AircraftFilter.NONE).isEmpty());
+  }
+
+  @Test
+  @SneakyThrows
+  void getPlanesOfFeedersWithFilterTest() {
+    final Feeder feeder = createFeederWithMapping("adsbx");
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    mockStreamingServiceCallLocalFeeder("adsbx_aircraft.json");
+    localFeederService.getPlanesFromFeeder();
+
+    final List<Aircraft> listAll = localFeederService.getPlanesOfFeeders(-180, -90, 180, 90,
+        List.of(feeder.getName()), 0, AircraftFilter.NONE);
+
+    // Filter wird beim Durchlauf des Index ausgewertet und liefert dieselben Flugzeuge wie ein nachträglicher Filter
+    final AircraftFilter filter = AircraftFilter.of(false, "category:a3;altitude:30000-");
+    final List<Aircraft> listFiltered = localFeederService.getPlanesOfFeeders(-180, -90, 180, 90,
+        List.of(feeder.getName()), 0, filter);
+
+    final Set<String> expectedHexes = new HashSet<>(listAll.stream().filter(filter::matches).map(Aircraft::getHex).toList());
+    assertFalse(expectedHexes.isEmpty());
+    assertTrue(expectedHexes.size() < listAll.size());
+    assertEquals(expectedHexes, new HashSet<>(listFiltered.stream().map(Aircraft::getHex).toList()));
+    assertTrue(listFiltered.stream().allMatch(a -> "A3".equals(a.getCategory()) && a.getAltitude() >= 30000));
+  }
+
+  @Test
+  @SneakyThrows
+  void keepAircraftOfFeederOnFailedPollTest() {
+    final Feeder feeder = createFeederWithMapping("adsbx");
+    feeder.setPollInterval(0);
+
+    // Zweite Abfrage schlägt fehl
+    final String json = getJsonResource("adsbx_aircraft.json");
+    final AtomicInteger call = new AtomicInteger();
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    when(configuration.getFeederConditionalRequests()).thenReturn(false);
+    when(networkHandler.makeStreamingServiceCallLocalFeeder(anyString(), anyLong(), any())).thenAnswer(invocation -> {
+      if (call.getAndIncrement() > 0) return null;
+      ResponseStreamHandler<?> handler = invocation.getArgument(2);
+      return handler.handle(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    });
+
+    localFeederService.getPlanesFromFeeder();
+    final long version = liveAircraftService.getPublishedSnapshot().getVersion();
+    localFeederService.getPlanesFromFeeder();
+
+    assertEquals(1, metricsService.getCounter("feeder.polls.failed"));
+    assertEquals(version, liveAircraftService.getPublishedSnapshot().getVersion());
+    assertEquals(31, getPublishedAircraftOfFeeder(feeder.getName()).size());
+  }
+
+  @Test
+  @SneakyThrows
+  void skipNotModifiedResponseOfFeederTest() {
+    final Feeder feeder = createFeederWithMapping("dump1090-fa");
+    feeder.setPollInterval(0);
+
+    when(configuration.getListFeeder()).thenReturn(List.of(feeder));
+    when(configuration.getFeederConditionalRequests()).thenReturn(true);
+
+    // Erste Abfrage liefert Daten, zweite Abfrage wird vom Feeder mit 304 Not Modified beantwortet
+    final String json = getJsonResource("dump1090-fa_aircraft.json");
+    final AtomicInteger call = new AtomicInteger();
+    when(networkHandler.makeConditionalStreamingServiceCallLocalFeeder(anyString(), anyLong(), any(), any()))
+        .thenAnswer(invocation -> {
+          if (call.getAndIncrement() > 0) {
+            Supplier<?> notModifiedHandler = invocation.getArgument(3);
+            return notModifiedHandler.get();
+          }
+          ResponseStreamHandler<?> handler = invocation.getArgument(2);
+          return handler.handle(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+        });
+
+    localFeederService.getPlanesFromFeeder();
+    localFeederService.getPlanesFromFeeder();
+
+    assertEquals(1, metricsService.getCounter("feeder.responses.notmodified"));
+    assertEquals(1, metricsService.getCounter("feeder.snapshots.unchanged"));
+    assertEquals(32, metricsService.getCounter("aircraft.updates.applied"));
+    assertEquals(32, getPublishedAircraftOfFeeder(feeder.getName()).size());
+    verify(networkHandler, never()).makeStreamingServiceCallLocalFeeder(anyString(), anyLong(), any());
+  }
+
   @NotNull
   private Feeder createFeederWithMapping(String type) {
     Feeder feeder = new Feeder("test", "127.0.0.1", type, "color");
@@ -150,10 +494,40 @@ public class LocalFeederServiceTests {
     return feeder;
   }
 
+  /**
+   * Gibt alle veröffentlichten Flugzeuge eines Feeders zurück (gesamter Extent, ohne Filter)
+   */
+  private List<Aircraft> getPublishedAircraftOfFeeder(String feeder) {
+    return liveAircraftService.getPublishedAircraftOfFeedersWithinExtent(Map.of(feeder, 0L), -180, -90, 180, 90,
+        AircraftFilter.NONE);
+  }
+
   private String getJsonResource(String filename) {
     return TestUtil.getResource(filename);
   }
 
+  private void mockStreamingServiceCallLocalFeeder(String filename) {
+    mockStreamingServiceCallLocalFeederWithJson(getJsonResource(filename));
+  }
+
+  /**
+   * Mockt die Antworten des Feeders (ohne bedingte Abfragen). Jede Abfrage liefert die nächste
+   * Antwort, die letzte Antwort wird wiederholt
+   */
+  private void mockStreamingServiceCallLocalFeederWithJson(String... jsonResponses) {
+    when(configuration.getFeederConditionalRequests()).thenReturn(false);
+    final AtomicInteger call = new AtomicInteger();
+    when(networkHandler.makeStreamingServiceCallLocalFeeder(anyString(), anyLong(), any())).thenAnswer(invocation -> {
+      final String json = jsonResponses[Math.min(call.getAndIncrement(), jsonResponses.length - 1)];
+      ResponseStreamHandler<?> handler = invocation.getArgument(2);
+      return handler.handle(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    });
+  }
+
+  private static String withChangedSnapshotTime(String json) {
+    return json.replaceFirst("\"now\"\\s*:\\s*[0-9.]+", "\"now\": 1");
+  }
+
   private void addMappingToFeeder(Feeder feeder) {
     try {
       FeederMapping mapping = configuration.getMappingsFromConfig(feeder.getType());
@@ -163,9 +537,9 @@ public class LocalFeederServiceTests {
     }
   }
 
-  private static Aircraft addSavedAircraftToList(InvocationOnMock invocation, List<Aircraft> savedAircraft) {
-    Aircraft aircraft = invocation.getArgument(0);
-    savedAircraft.add(aircraft);
-    return aircraft;
+  private static List<Aircraft> addSavedAircraftToList(InvocationOnMock invocation, List<Aircraft> savedAircraft) {
+    List<Aircraft> aircraftBatch = invocation.getArgument(0);
+    savedAircraft.addAll(aircraftBatch);
+    return aircraftBatch;
   }
 }
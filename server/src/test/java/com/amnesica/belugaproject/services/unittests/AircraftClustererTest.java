@@ -0,0 +1,91 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
+import com.amnesica.belugaproject.entities.aircraft.Spacecraft;
+import com.amnesica.belugaproject.services.aircraft.AircraftCluster;
+import com.amnesica.belugaproject.services.aircraft.AircraftClusterer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AircraftClustererTest {
+
+  @Test
+  public void cellSizeDependsOnZoomTest() {
+    // Zoomstufe 0: eine Kachel für die ganze Welt, 4 Zellen pro Kachel
+    assertEquals(90.0, AircraftClusterer.getCellSize(0));
+    assertEquals(45.0, AircraftClusterer.getCellSize(1));
+    assertEquals(360.0 / 64 / 4, AircraftClusterer.getCellSize(6));
+  }
+
+  @Test
+  public void clusterAircraftOfSameCellTest() {
+    final List<AircraftSuperclass> listAircraft = new ArrayList<>();
+    listAircraft.add(createAircraft("3c0001", 53.1, 10.1, "A3"));
+    listAircraft.add(createAircraft("3c0002", 53.3, 10.3, "A3"));
+    listAircraft.add(createAircraft("3c0003", 53.5, 10.5, "A1"));
+    // Allein in einer Zelle
+    listAircraft.add(createAircraft("3c0004", -33.9, 151.2, "A5"));
+
+    final AircraftClusterer.Result result = AircraftClusterer.cluster(listAircraft, 4, null);
+
+    assertEquals(1, result.clusters().size());
+    final AircraftCluster cluster = result.clusters().get(0);
+    assertTrue(cluster.isCluster());
+    assertEquals(3, cluster.getCount());
+    assertEquals(53.3, cluster.getLatitude(), 1e-9);
+    assertEquals(10.3, cluster.getLongitude(), 1e-9);
+    assertEquals("A3", cluster.getCategory());
+
+    assertEquals(Set.of("3c0004"), getHex(result.aircraft()));
+  }
+
+  @Test
+  public void keepMarkedAircraftAndObjectsWithoutPositionTest() {
+    final Aircraft withoutPosition = new Aircraft("3c0005");
+    final Spacecraft iss = new Spacecraft("ISS", 53.2, 10.2);
+
+    final List<AircraftSuperclass> listAircraft = new ArrayList<>();
+    listAircraft.add(createAircraft("3c0001", 53.1, 10.1, "A3"));
+    listAircraft.add(createAircraft("3c0002", 53.3, 10.3, "A3"));
+    listAircraft.add(createAircraft("3c0003", 53.5, 10.5, "A1"));
+    listAircraft.add(withoutPosition);
+    listAircraft.add(iss);
+
+    final AircraftClusterer.Result result = AircraftClusterer.cluster(listAircraft, 4, "3c0003");
+
+    assertEquals(1, result.clusters().size());
+    assertEquals(2, result.clusters().get(0).getCount());
+    assertEquals(Set.of("3c0003", "3c0005", "ISS"), getHex(result.aircraft()));
+  }
+
+  @Test
+  public void addAircraftIncrementallyTest() {
+    final AircraftClusterer clusterer = new AircraftClusterer(4, null);
+    clusterer.add(createAircraft("3c0001", 53.1, 10.1, "A3"));
+    assertEquals(Set.of("3c0001"), getHex(clusterer.getResult().aircraft()));
+
+    // Ergebnis kann nach weiteren Flugzeugen erneut abgefragt werden
+    clusterer.add(createAircraft("3c0002", 53.3, 10.3, "A1"));
+    final AircraftClusterer.Result result = clusterer.getResult();
+    assertTrue(result.aircraft().isEmpty());
+    assertEquals(1, result.clusters().size());
+    assertEquals(2, result.clusters().get(0).getCount());
+  }
+
+  private Aircraft createAircraft(String hex, double latitude, double longitude, String category) {
+    final Aircraft aircraft = new Aircraft(hex, latitude, longitude);
+    aircraft.setCategory(category);
+    return aircraft;
+  }
+
+  private Set<String> getHex(List<AircraftSuperclass> listAircraft) {
+    return listAircraft.stream().map(AircraftSuperclass::getHex).collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,93 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.config.StaticValues;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.entities.data.AircraftData;
+import com.amnesica.belugaproject.repositories.data.AircraftDataRepository;
+import com.amnesica.belugaproject.services.aircraft.AircraftService;
+import com.amnesica.belugaproject.services.data.AircraftDataService;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AircraftDataServiceTest {
+
+  @Mock
+  private AircraftDataRepository aircraftDataRepository;
+  @Mock
+  private AircraftService aircraftService;
+  @Mock
+  private Configuration configuration;
+  @Spy
+  private MetricsService metricsService = new MetricsService();
+  @InjectMocks
+  private AircraftDataService aircraftDataService;
+
+  @TempDir
+  private Path tempDir;
+
+  @Test
+  public void addAircraftDataFromRegistryTest() throws Exception {
+    final AircraftData aircraftData = new AircraftData();
+    aircraftData.setHex("3c6444");
+    aircraftData.setRegistration("D-AIBD");
+    aircraftData.setTypecode("A319");
+    aircraftData.setOperatorIcao("DLH");
+
+    when(configuration.getAircraftRegistryFile()).thenReturn(tempDir.resolve("registry.bin").toString());
+    when(aircraftDataRepository.findVersionInfo()).thenReturn("4.1.0;1");
+    when(aircraftDataRepository.count()).thenReturn(1L);
+    when(aircraftDataRepository.findAllAfterHexOrderByHex("", StaticValues.AIRCRAFT_REGISTRY_PAGE_SIZE))
+        .thenReturn(List.of(aircraftData));
+
+    aircraftDataService.refreshAircraftRegistry();
+    // Unveränderte Tabelle: Kopie wird nicht neu erstellt
+    aircraftDataService.refreshAircraftRegistry();
+    verify(aircraftDataRepository, times(1)).findAllAfterHexOrderByHex(anyString(), anyInt());
+
+    final Aircraft aircraft = new Aircraft("3c6444", 53.5, 10.0);
+    aircraftDataService.addAircraftData(aircraft);
+    assertEquals("D-AIBD", aircraft.getRegistration());
+    assertEquals("A319", aircraft.getType());
+    assertEquals("DLH", aircraft.getOperatorIcao());
+
+    // Unbekanntes Flugzeug ist ohne Abfrage der Datenbank ein Miss, Nicht-ICAO-Adresse wird in der Datenbank gesucht
+    aircraftDataService.addAircraftData(new Aircraft("3c6445", 53.5, 10.0));
+    aircraftDataService.addAircraftData(new Aircraft("~3c644", 53.5, 10.0));
+    verify(aircraftDataRepository, times(1)).findByHex(anyString());
+    verify(aircraftDataRepository).findByHex("~3c644");
+
+    assertEquals(1, metricsService.getCounter("aircraft.registry.hits"));
+    assertEquals(1, metricsService.getCounter("aircraft.registry.misses"));
+    assertEquals(1, metricsService.getCounter("aircraft.registry.fallback"));
+  }
+
+  @Test
+  public void addAircraftDataWithoutRegistryTest() {
+    final AircraftData aircraftData = new AircraftData();
+    aircraftData.setHex("3c6444");
+    aircraftData.setRegistration("D-AIBD");
+    when(aircraftDataRepository.findByHex("3c6444")).thenReturn(aircraftData);
+
+    final Aircraft aircraft = new Aircraft("3c6444", 53.5, 10.0);
+    aircraftDataService.addAircraftData(aircraft);
+
+    assertEquals("D-AIBD", aircraft.getRegistration());
+    assertEquals(1, metricsService.getCounter("aircraft.registry.fallback"));
+  }
+}
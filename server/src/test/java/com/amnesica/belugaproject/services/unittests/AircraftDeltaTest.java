@@ -0,0 +1,30 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.services.aircraft.AircraftDelta;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AircraftDeltaTest {
+
+  @Test
+  public void unchangedExtentTest() {
+    assertFalse(AircraftDelta.hasExtentChanged(9.0, 53.0, 11.0, 54.0, 9.0, 53.0, 11.0, 54.0));
+  }
+
+  @Test
+  public void changedExtentTest() {
+    assertTrue(AircraftDelta.hasExtentChanged(9.0, 53.0, 11.0, 54.0, 9.5, 53.0, 11.0, 54.0));
+    assertTrue(AircraftDelta.hasExtentChanged(9.0, 53.0, 11.0, 54.0, 9.0, 53.0, 11.0, 54.5));
+  }
+
+  @Test
+  public void withoutPreviousExtentTest() {
+    // Ohne Extent der früheren Antwort gilt der Extent als unverändert
+    assertFalse(AircraftDelta.hasExtentChanged(9.0, 53.0, 11.0, 54.0, null, null, null, null));
+
+    // Unvollständiger Extent der früheren Antwort gilt als geändert
+    assertTrue(AircraftDelta.hasExtentChanged(9.0, 53.0, 11.0, 54.0, 9.0, null, 11.0, 54.0));
+  }
+}
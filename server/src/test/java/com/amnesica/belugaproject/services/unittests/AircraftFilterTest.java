@@ -0,0 +1,67 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.services.aircraft.AircraftFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AircraftFilterTest {
+
+  @Test
+  public void parseExpressionTest() {
+    final AircraftFilter filter = AircraftFilter.of(true,
+        "interesting; category:a3,A5 ;altitude:1000-20000;type:A320;operator:dlh;unknown:1");
+
+    assertTrue(filter.military());
+    assertTrue(filter.interesting());
+    assertFalse(filter.special());
+    assertFalse(filter.government());
+    assertEquals(Set.of("A3", "A5"), filter.categories());
+    assertEquals(1000, filter.minAltitude());
+    assertEquals(20000, filter.maxAltitude());
+    assertEquals(Set.of("A320"), filter.types());
+    assertEquals(Set.of("DLH"), filter.operators());
+  }
+
+  @Test
+  public void parseOpenAltitudeBandAndInvalidValuesTest() {
+    final AircraftFilter upperBound = AircraftFilter.of(false, "altitude:-5000");
+    assertNull(upperBound.minAltitude());
+    assertEquals(5000, upperBound.maxAltitude());
+
+    final AircraftFilter lowerBound = AircraftFilter.of(false, "altitude:30000-");
+    assertEquals(30000, lowerBound.minAltitude());
+    assertNull(lowerBound.maxAltitude());
+
+    assertTrue(AircraftFilter.of(false, "altitude:high").isEmpty());
+    assertSame(AircraftFilter.NONE, AircraftFilter.of(false, null));
+    assertSame(AircraftFilter.NONE, AircraftFilter.of(false, " "));
+  }
+
+  @Test
+  public void matchesTest() {
+    final Aircraft aircraft = new Aircraft("3c6444", 53.5, 10.0);
+    aircraft.setCategory("A3");
+    aircraft.setAltitude(35000);
+    aircraft.setType("A320");
+    aircraft.setOperatorIcao("DLH");
+
+    assertTrue(AircraftFilter.NONE.matches(aircraft));
+    assertTrue(AircraftFilter.of(false, "category:A3,A5;altitude:30000-36000;type:A320;operator:DLH").matches(aircraft));
+    assertFalse(AircraftFilter.of(true, null).matches(aircraft));
+    assertFalse(AircraftFilter.of(false, "special").matches(aircraft));
+    assertFalse(AircraftFilter.of(false, "category:A5").matches(aircraft));
+    assertFalse(AircraftFilter.of(false, "altitude:-30000").matches(aircraft));
+    assertFalse(AircraftFilter.of(false, "operator:BAW").matches(aircraft));
+
+    aircraft.setIsMilitary("true");
+    assertTrue(AircraftFilter.of(true, null).matches(aircraft));
+
+    // Flugzeuge ohne Höhe liegen außerhalb jedes Höhenbands
+    aircraft.setAltitude(null);
+    assertFalse(AircraftFilter.of(false, "altitude:0-").matches(aircraft));
+  }
+}
@@ -0,0 +1,116 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.services.aircraft.AircraftGridIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AircraftGridIndexTest {
+
+  private final AircraftGridIndex index = new AircraftGridIndex(1.0);
+
+  @Test
+  public void queryExtentTest() {
+    index.update("3c6444", 53.5, 10.0);
+    index.update("3c6445", 48.1, 11.5);
+    index.update("3c6446", 40.6, -73.8);
+
+    assertEquals(Set.of("3c6444"), query(9, 53, 11, 54));
+    assertEquals(Set.of("3c6444", "3c6445"), query(5, 47, 15, 55));
+    assertEquals(Set.of("3c6444", "3c6445", "3c6446"), query(-180, -90, 180, 90));
+    assertTrue(query(100, 0, 110, 10).isEmpty());
+  }
+
+  @Test
+  public void moveAircraftOnPositionChangeTest() {
+    index.update("3c6444", 53.5, 10.0);
+    index.update("3c6444", 53.6, 10.1);
+    assertEquals(Set.of("3c6444"), query(9, 53, 11, 54));
+
+    index.update("3c6444", 48.1, 11.5);
+    assertTrue(query(9, 53, 11, 54).isEmpty());
+    assertEquals(Set.of("3c6444"), query(11, 48, 12, 49));
+    assertEquals(1, index.size());
+
+    index.remove("3c6444");
+    assertTrue(query(-180, -90, 180, 90).isEmpty());
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  public void queryExtentOverAntimeridianTest() {
+    index.update("west", 52.0, 179.5);
+    index.update("east", 52.0, -179.5);
+    index.update("europe", 52.0, 10.0);
+
+    assertEquals(Set.of("west", "east"), query(170, 45, -170, 60));
+    assertEquals(Set.of("west", "east"), query(170, 45, 190, 60));
+    assertEquals(Set.of("west"), query(170, 45, 180, 60));
+
+    assertTrue(AircraftGridIndex.isWithinExtent(52.0, -179.5, 170, 45, -170, 60));
+    assertTrue(AircraftGridIndex.isWithinExtent(52.0, 179.5, 170, 45, -170, 60));
+    assertFalse(AircraftGridIndex.isWithinExtent(52.0, 10.0, 170, 45, -170, 60));
+  }
+
+  @Test
+  public void aircraftWithoutPositionTest() {
+    index.update("3c6444", null, null);
+
+    assertTrue(query(9, 53, 11, 54).isEmpty());
+
+    Set<String> result = new HashSet<>();
+    index.query(9, 53, 11, 54, true, result::add);
+    assertEquals(Set.of("3c6444"), result);
+
+    // Flugzeug erhält eine Position
+    index.update("3c6444", 53.5, 10.0);
+    assertEquals(Set.of("3c6444"), query(9, 53, 11, 54));
+  }
+
+  @Test
+  public void queryLargeExtentVisitsOnlyOccupiedCellsTest() {
+    for (int i = 0; i < 1000; i++) {
+      index.update(Integer.toHexString(i), -60.0 + (i % 120), -170.0 + (i % 340));
+    }
+
+    assertEquals(1000, query(-180, -90, 180, 90).size());
+    assertEquals(1000, query(-540, -90, 540, 90).size());
+  }
+
+  @Test
+  public void snapshotIsNotChangedByLaterUpdatesTest() {
+    index.update("3c6444", 53.5, 10.0);
+    index.update("3c6445", 48.1, 11.5);
+    final AircraftGridIndex snapshot = index.snapshot();
+
+    // Flugzeug wechselt die Zelle, neues Flugzeug wird hinzugefügt
+    index.update("3c6444", 40.6, -73.8);
+    index.update("3c6446", 53.6, 10.1);
+    index.remove("3c6445");
+
+    assertEquals(Set.of("3c6444"), query(snapshot, 9, 53, 11, 54));
+    assertEquals(Set.of("3c6445"), query(snapshot, 11, 48, 12, 49));
+    assertEquals(2, snapshot.size());
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.update("3c6447", 0.0, 0.0));
+
+    // Neuer Stand enthält die Änderungen, unveränderter Index liefert denselben Stand
+    final AircraftGridIndex nextSnapshot = index.snapshot();
+    assertEquals(Set.of("3c6446"), query(nextSnapshot, 9, 53, 11, 54));
+    assertTrue(query(nextSnapshot, 11, 48, 12, 49).isEmpty());
+    assertEquals(Set.of("3c6444"), query(nextSnapshot, -74, 40, -73, 41));
+    assertSame(nextSnapshot, index.snapshot());
+  }
+
+  private Set<String> query(double lomin, double lamin, double lomax, double lamax) {
+    return query(index, lomin, lamin, lomax, lamax);
+  }
+
+  private static Set<String> query(AircraftGridIndex index, double lomin, double lamin, double lomax, double lamax) {
+    Set<String> result = new HashSet<>();
+    index.query(lomin, lamin, lomax, lamax, false, result::add);
+    return result;
+  }
+}
@@ -0,0 +1,129 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.services.aircraft.AircraftFilter;
+import com.amnesica.belugaproject.services.aircraft.AircraftPushService;
+import com.amnesica.belugaproject.services.aircraft.FeederService;
+import com.amnesica.belugaproject.services.aircraft.LiveAircraftService;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AircraftPushServiceTest {
+
+  @Mock
+  private FeederService feederService;
+  @Mock
+  private LiveAircraftService liveAircraftService;
+  @Mock
+  private Configuration configuration;
+  @Spy
+  private MetricsService metricsService = new MetricsService();
+
+  @InjectMocks
+  private AircraftPushService aircraftPushService;
+
+  private final MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+
+  @BeforeEach
+  public void setup() {
+    aircraftPushService.init();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    aircraftPushService.shutdown();
+  }
+
+  @Test
+  public void rejectConnectionsBeyondMaximumTest() throws Exception {
+    when(configuration.getPushMaxConnections()).thenReturn(1);
+    final CountDownLatch sent = new CountDownLatch(1);
+    mockWritePlanesDelta(() -> sent.countDown());
+
+    assertNotNull(subscribe());
+    assertNull(subscribe());
+
+    assertTrue(sent.await(5, TimeUnit.SECONDS));
+    assertEquals(1, aircraftPushService.getNumberConnections());
+    assertEquals(1, metricsService.getCounter("push.connections.rejected"));
+  }
+
+  @Test
+  public void dropToLatestStateForSlowClientTest() throws Exception {
+    when(configuration.getPushMaxConnections()).thenReturn(10);
+
+    // Erstes Event blockiert, bis alle weiteren Stände vermerkt wurden
+    final CountDownLatch firstStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFirst = new CountDownLatch(1);
+    final CountDownLatch secondSent = new CountDownLatch(1);
+    final AtomicInteger calls = new AtomicInteger();
+    mockWritePlanesDelta(() -> {
+      if (calls.incrementAndGet() == 1) {
+        firstStarted.countDown();
+        try {
+          releaseFirst.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      } else {
+        secondSent.countDown();
+      }
+    });
+
+    assertNotNull(subscribe());
+    assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+    for (int i = 0; i < 5; i++) {
+      aircraftPushService.pushToAll();
+    }
+    releaseFirst.countDown();
+
+    // Fünf Stände während des Sendens werden zu einem Event zusammengefasst
+    assertTrue(secondSent.await(5, TimeUnit.SECONDS));
+    Thread.sleep(200);
+    assertEquals(2, calls.get());
+    assertEquals(4, metricsService.getCounter("push.events.coalesced"));
+
+    // Zweites Event fragt die Änderungen seit der Version des ersten Events ab
+    verify(feederService).writePlanesDelta(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyList(), isNull(),
+        anyBoolean(), isNull(), eq(AircraftFilter.NONE), eq(0L), anyString(), any(OutputStream.class));
+    verify(feederService).writePlanesDelta(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyList(), isNull(),
+        anyBoolean(), isNull(), eq(AircraftFilter.NONE), eq(1L), anyString(), any(OutputStream.class));
+  }
+
+  private Object subscribe() {
+    return aircraftPushService.subscribe(9.0, 53.0, 11.0, 54.0, List.of("feeder"), null, false, null,
+        AircraftFilter.NONE, httpRequest);
+  }
+
+  private void mockWritePlanesDelta(Runnable onWrite) throws Exception {
+    final AtomicInteger version = new AtomicInteger();
+    when(feederService.writePlanesDelta(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyList(), any(),
+        anyBoolean(), any(), any(), anyLong(), anyString(), any(OutputStream.class))).thenAnswer(invocation -> {
+      onWrite.run();
+      final OutputStream outputStream = invocation.getArgument(11);
+      outputStream.write("{}".getBytes(StandardCharsets.UTF_8));
+      return (long) version.incrementAndGet();
+    });
+  }
+}
@@ -0,0 +1,79 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.entities.data.AircraftData;
+import com.amnesica.belugaproject.services.data.AircraftRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AircraftRegistryTest {
+
+  @TempDir
+  private Path tempDir;
+
+  @Test
+  public void parseIcaoTest() {
+    assertEquals(0x3c6444, AircraftRegistry.parseIcao("3c6444"));
+    assertEquals(0x3c6444, AircraftRegistry.parseIcao("3C6444"));
+    assertEquals(-1, AircraftRegistry.parseIcao("~3c644"));
+    assertEquals(-1, AircraftRegistry.parseIcao("3c64440"));
+    assertEquals(-1, AircraftRegistry.parseIcao(null));
+  }
+
+  @Test
+  public void writeAndFindTest() throws Exception {
+    final AircraftRegistry.Builder builder = new AircraftRegistry.Builder();
+    assertTrue(builder.add(createAircraftData("3c6444", "D-AIBD", "A319")));
+    assertTrue(builder.add(createAircraftData("3c6445", "D-AIBE", "A319")));
+    assertFalse(builder.add(createAircraftData("~123456", "N/A", null)));
+    // Doppelte Adresse: das zuerst hinzugefügte Flugzeug wird verwendet
+    assertTrue(builder.add(createAircraftData("3C6444", "D-XXXX", null)));
+
+    // Viele Flugzeuge mit aufeinanderfolgenden Adressen (Kollisionen in der Hashtabelle)
+    for (int icao = 0x400000; icao < 0x402000; icao++) {
+      builder.add(createAircraftData(String.format("%06x", icao), "G-" + icao, "B738"));
+    }
+
+    final Path file = tempDir.resolve("registry.bin");
+    builder.write(file, "4.1.0;8195");
+    final AircraftRegistry registry = AircraftRegistry.open(file);
+
+    assertEquals("4.1.0;8195", registry.getFingerprint());
+    assertEquals(8195, registry.size());
+
+    final AircraftData aircraftData = registry.find(0x3c6444);
+    assertNotNull(aircraftData);
+    assertEquals("3c6444", aircraftData.getHex());
+    assertEquals("D-AIBD", aircraftData.getRegistration());
+    assertEquals("A319", aircraftData.getTypecode());
+    assertEquals("AIRBUS", aircraftData.getManufacturerName());
+    assertEquals("Y", aircraftData.getIsMilitary());
+    assertNull(aircraftData.getOperatorIcao());
+
+    assertEquals("G-" + 0x401234, registry.find(0x401234).getRegistration());
+    assertNull(registry.find(0x3c6446));
+  }
+
+  @Test
+  public void writeEmptyRegistryTest() throws Exception {
+    final Path file = tempDir.resolve("empty.bin");
+    new AircraftRegistry.Builder().write(file, "null;0");
+
+    final AircraftRegistry registry = AircraftRegistry.open(file);
+    assertEquals(0, registry.size());
+    assertNull(registry.find(0x3c6444));
+  }
+
+  private AircraftData createAircraftData(String hex, String registration, String typecode) {
+    final AircraftData aircraftData = new AircraftData();
+    aircraftData.setHex(hex);
+    aircraftData.setRegistration(registration);
+    aircraftData.setTypecode(typecode);
+    aircraftData.setManufacturerName("AIRBUS");
+    aircraftData.setIsMilitary("Y");
+    return aircraftData;
+  }
+}
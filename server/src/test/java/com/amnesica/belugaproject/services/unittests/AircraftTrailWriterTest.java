@@ -0,0 +1,109 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.entities.trails.AircraftTrail;
+import com.amnesica.belugaproject.repositories.trails.AircraftTrailRepository;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import com.amnesica.belugaproject.services.trails.AircraftTrailWriter;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AircraftTrailWriterTest {
+
+  @Mock
+  private AircraftTrailRepository aircraftTrailRepository;
+  @Mock
+  private PlatformTransactionManager transactionManager;
+  @Mock
+  private Configuration configuration;
+  @Mock
+  private EntityManager entityManager;
+  @Mock
+  private Session session;
+  @Spy
+  private MetricsService metricsService = new MetricsService();
+
+  @InjectMocks
+  private AircraftTrailWriter aircraftTrailWriter;
+
+  private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+  @Test
+  public void writeTrailsInBatchesOfFlushSizeTest() {
+    setUpWriter(3, 200);
+
+    for (int i = 0; i < 7; i++) {
+      aircraftTrailWriter.enqueue(createTrail("hex" + i));
+    }
+
+    verify(aircraftTrailRepository, timeout(2000).atLeast(3)).saveAll(anyList());
+    aircraftTrailWriter.stopWriter();
+
+    assertEquals(7, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    batchSizes.forEach(size -> assertTrue(size <= 3));
+    assertEquals(7, metricsService.getCounter("trails.written"));
+    assertEquals(0, metricsService.getMetrics().get("trails.queue.depth"));
+  }
+
+  @Test
+  public void stopWriterWritesBufferedTrailsTest() {
+    setUpWriter(100, 10000);
+
+    aircraftTrailWriter.enqueue(createTrail("hex1"));
+    aircraftTrailWriter.enqueue(createTrail("hex2"));
+    aircraftTrailWriter.stopWriter();
+
+    assertEquals(2, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    assertEquals(2, metricsService.getCounter("trails.written"));
+  }
+
+  @Test
+  public void notifyListenerOnlyForWrittenTrailsTest() {
+    setUpWriter(1, 10000);
+    final List<String> writtenHexes = new CopyOnWriteArrayList<>();
+    aircraftTrailWriter.setWrittenListener(batch -> batch.forEach(trail -> writtenHexes.add(trail.getHex())));
+
+    aircraftTrailWriter.enqueue(createTrail("hex1"));
+    verify(aircraftTrailRepository, timeout(2000)).saveAll(anyList());
+
+    // Fehlgeschlagener Batch wird nicht gemeldet
+    doThrow(new IllegalStateException("failed")).when(aircraftTrailRepository).saveAll(anyList());
+    aircraftTrailWriter.enqueue(createTrail("hex2"));
+    aircraftTrailWriter.stopWriter();
+
+    assertEquals(List.of("hex1"), writtenHexes);
+  }
+
+  private void setUpWriter(int flushSize, int flushLatency) {
+    when(configuration.getTrailQueueCapacity()).thenReturn(100);
+    when(configuration.getTrailFlushSize()).thenReturn(flushSize);
+    when(configuration.getTrailFlushLatency()).thenReturn(flushLatency);
+    when(entityManager.unwrap(Session.class)).thenReturn(session);
+    when(aircraftTrailRepository.saveAll(anyList())).thenAnswer(invocation -> {
+      List<AircraftTrail> batch = invocation.getArgument(0);
+      batchSizes.add(batch.size());
+      return batch;
+    });
+
+    aircraftTrailWriter.startWriter();
+  }
+
+  private AircraftTrail createTrail(String hex) {
+    return new AircraftTrail(hex, 8.0, 53.0, 1000, false, System.currentTimeMillis(), "feeder", "A", 90, 0.0);
+  }
+}
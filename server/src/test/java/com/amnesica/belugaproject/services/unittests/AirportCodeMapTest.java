@@ -0,0 +1,85 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.entities.data.AirportData;
+import com.amnesica.belugaproject.repositories.data.AirportDataRepository;
+import com.amnesica.belugaproject.services.data.AirportCodeMap;
+import com.amnesica.belugaproject.services.data.AirportDataService;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AirportCodeMapTest {
+
+  @Mock
+  private AirportDataRepository airportDataRepository;
+  @Spy
+  private MetricsService metricsService = new MetricsService();
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper();
+  @InjectMocks
+  private AirportDataService airportDataService;
+
+  private final List<AirportData> listAirports = List.of(
+      createAirport("EDDH", "large_airport", "HAM"),
+      createAirport("EDHI", "medium_airport", "XFW"),
+      createAirport("EDHL", "small_airport", null),
+      // Geschlossener Flughafen mit demselben IATA-Code
+      createAirport("DE-0001", "closed", "HAM"));
+
+  @Test
+  public void mapIataAndIcaoCodesTest() {
+    final AirportCodeMap airportCodeMap = AirportCodeMap.of(listAirports);
+
+    assertEquals(2, airportCodeMap.size());
+    assertEquals("EDDH", airportCodeMap.getIcaoCode("HAM"));
+    assertEquals("EDDH", airportCodeMap.getIcaoCode("ham"));
+    assertEquals("HAM", airportCodeMap.getIataCode("EDDH"));
+    assertEquals("XFW", airportCodeMap.getIataCode("EDHI"));
+    assertNull(airportCodeMap.getIataCode("EDHL"));
+    assertNull(airportCodeMap.getIcaoCode("LHR"));
+    assertNull(airportCodeMap.getIcaoCode(null));
+    assertTrue(AirportCodeMap.EMPTY.isEmpty());
+  }
+
+  @Test
+  public void getAirportIcaoCodeWithoutDatabaseTest() {
+    when(airportDataRepository.findVersionInfo()).thenReturn("1;4");
+    when(airportDataRepository.count()).thenReturn(4L);
+    when(airportDataRepository.findAll()).thenReturn(listAirports);
+
+    // Vor dem Laden der Tabelle wird die Datenbank abgefragt
+    when(airportDataRepository.findByIataCode("HAM")).thenReturn("EDDH");
+    assertEquals("EDDH", airportDataService.getAirportIcaoCode("HAM"));
+
+    airportDataService.initCache();
+    airportDataService.checkAirportIndex();
+
+    assertEquals("EDDH", airportDataService.getAirportIcaoCode("HAM"));
+    assertEquals("EDHI", airportDataService.getAirportIcaoCode("XFW"));
+    assertNull(airportDataService.getAirportIcaoCode("LHR"));
+    assertEquals("HAM", airportDataService.getAirportIataCode("EDDH"));
+    verify(airportDataRepository, times(1)).findByIataCode(anyString());
+  }
+
+  private AirportData createAirport(String ident, String type, String iataCode) {
+    final AirportData airportData = new AirportData();
+    airportData.setIdent(ident);
+    airportData.setType(type);
+    airportData.setIata_code(iataCode);
+    airportData.setLatitude_deg(53.63);
+    airportData.setLongitude_deg(9.99);
+    return airportData;
+  }
+}
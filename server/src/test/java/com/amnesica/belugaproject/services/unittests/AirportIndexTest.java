@@ -0,0 +1,128 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.entities.data.AirportData;
+import com.amnesica.belugaproject.repositories.data.AirportDataRepository;
+import com.amnesica.belugaproject.services.data.AirportDataService;
+import com.amnesica.belugaproject.services.data.AirportIndex;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AirportIndexTest {
+
+  @Mock
+  private AirportDataRepository airportDataRepository;
+  @Spy
+  private MetricsService metricsService = new MetricsService();
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper();
+  @InjectMocks
+  private AirportDataService airportDataService;
+
+  private final List<AirportData> listAirports = List.of(
+      createAirport("EDDH", "large_airport", 53.63, 9.99),
+      createAirport("EDHI", "medium_airport", 53.54, 9.84),
+      createAirport("EDHS", "small_airport", 53.60, 9.97),
+      createAirport("KJFK", "large_airport", 40.64, -73.78),
+      createAirport("EDDL", "large_airport", 51.28, 6.77));
+
+  @Test
+  public void tierOfZoomLevelTest() {
+    assertEquals(AirportIndex.Tier.LARGE, AirportIndex.Tier.of(7));
+    assertEquals(AirportIndex.Tier.MEDIUM_AND_LARGE, AirportIndex.Tier.of(8));
+    assertEquals(AirportIndex.Tier.ALL, AirportIndex.Tier.of(8.5));
+  }
+
+  @Test
+  public void findWithinExtentTest() {
+    final AirportIndex airportIndex = AirportIndex.of(listAirports);
+    assertEquals(5, airportIndex.size());
+
+    // Kleiner Extent um Hamburg (Zellen am Rand werden exakt geprüft)
+    assertEquals(Set.of("EDDH", "EDHI", "EDHS"),
+        getIdents(airportIndex.findWithinExtent(AirportIndex.Tier.ALL, 9.5, 53.5, 10.5, 53.7)));
+    assertEquals(Set.of("EDDH", "EDHS"),
+        getIdents(airportIndex.findWithinExtent(AirportIndex.Tier.ALL, 9.9, 53.55, 10.5, 53.7)));
+
+    // Mittlere und große Flughäfen nur innerhalb des Extents (nicht alle großen Flughäfen weltweit)
+    assertEquals(Set.of("EDDH", "EDHI"),
+        getIdents(airportIndex.findWithinExtent(AirportIndex.Tier.MEDIUM_AND_LARGE, 9.5, 53.5, 10.5, 53.7)));
+
+    // Großer Extent (Zellen vollständig innerhalb des Extents)
+    assertEquals(Set.of("EDDH", "EDDL"),
+        getIdents(airportIndex.findWithinExtent(AirportIndex.Tier.LARGE, -20, 30, 40, 70)));
+    assertEquals(Set.of("EDDH", "EDDL", "KJFK"),
+        getIdents(airportIndex.findWithinExtent(AirportIndex.Tier.LARGE, -180, -90, 180, 90)));
+
+    // Extents über den 180. Längengrad werden nicht unterstützt
+    assertTrue(airportIndex.findWithinExtent(AirportIndex.Tier.ALL, 170, -90, -170, 90).isEmpty());
+  }
+
+  @Test
+  public void writeAirportsInExtentFromIndexTest() throws Exception {
+    when(airportDataRepository.findVersionInfo()).thenReturn("1;5");
+    when(airportDataRepository.count()).thenReturn(5L);
+    when(airportDataRepository.findAll()).thenReturn(listAirports);
+
+    airportDataService.initCache();
+    airportDataService.checkAirportIndex();
+    // Unveränderte Tabelle: Index wird nicht neu erstellt
+    airportDataService.checkAirportIndex();
+    verify(airportDataRepository, times(1)).findAll();
+
+    // Zweimal schreiben, damit die Zellen aus dem Cache verwendet werden
+    for (int i = 0; i < 2; i++) {
+      final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      airportDataService.writeAirportsInExtent(-20, 30, 40, 70, 7, outputStream);
+
+      final JsonNode json = new ObjectMapper().readTree(outputStream.toByteArray());
+      final Set<String> idents = new HashSet<>();
+      json.forEach(airport -> idents.add(airport.get("ident").asText()));
+      assertEquals(Set.of("EDDH", "EDDL"), idents);
+    }
+
+    verify(airportDataRepository, never()).findAllLargeAirportsWithinExtent(anyDouble(), anyDouble(), anyDouble(),
+        anyDouble());
+  }
+
+  @Test
+  public void createAirportIndexWithoutVersionInfoTest() {
+    // Tabelle version_info ist optional
+    when(airportDataRepository.findVersionInfo()).thenThrow(new IllegalStateException("relation does not exist"));
+    when(airportDataRepository.count()).thenReturn(5L);
+    when(airportDataRepository.findAll()).thenReturn(listAirports);
+
+    airportDataService.initCache();
+    airportDataService.checkAirportIndex();
+    airportDataService.checkAirportIndex();
+    verify(airportDataRepository, times(1)).findAll();
+    assertEquals(5, ((Number) metricsService.getMetrics().get("airport.index.size")).intValue());
+  }
+
+  private AirportData createAirport(String ident, String type, double latitude, double longitude) {
+    final AirportData airportData = new AirportData();
+    airportData.setIdent(ident);
+    airportData.setType(type);
+    airportData.setLatitude_deg(latitude);
+    airportData.setLongitude_deg(longitude);
+    return airportData;
+  }
+
+  private Set<String> getIdents(List<AirportData> listAirports) {
+    return listAirports.stream().map(AirportData::getIdent).collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,105 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.config.Feeder;
+import com.amnesica.belugaproject.config.FeederMapping;
+import com.amnesica.belugaproject.config.FeederType;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.services.aircraft.FeederDecoder;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeederDecoderTest {
+
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
+  @Test
+  public void compileFeederTypeTest() {
+    FeederDecoder dump1090 = FeederDecoder.compile(createFeeder("dump1090-fa", createMapping()));
+    assertEquals(FeederType.DUMP1090_FA, dump1090.getFeederType());
+    assertEquals("aircraft", dump1090.getAircraftArrayKey());
+    assertEquals("now", dump1090.getSnapshotTimeKey());
+    assertEquals(1700000000500L, dump1090.toSnapshotTimeMillis(1700000000.5));
+    assertTrue(dump1090.isValid());
+
+    FeederDecoder vrs = FeederDecoder.compile(createFeeder("vrs", createMapping()));
+    assertEquals("acList", vrs.getAircraftArrayKey());
+    assertEquals("stm", vrs.getSnapshotTimeKey());
+    assertEquals(1700000000500L, vrs.toSnapshotTimeMillis(1700000000500.0));
+
+    FeederDecoder airsquitter = FeederDecoder.compile(createFeeder("airsquitter", createMapping()));
+    assertNull(airsquitter.getAircraftArrayKey());
+    assertNull(airsquitter.getSnapshotTimeKey());
+  }
+
+  @Test
+  public void compileIncompleteMappingTest() {
+    assertNull(FeederDecoder.compile(createFeeder("dump1090-fa", null)));
+
+    FeederMapping mapping = createMapping();
+    mapping.setLatitude(null);
+    assertFalse(FeederDecoder.compile(createFeeder("dump1090-fa", mapping)).isValid());
+  }
+
+  @Test
+  public void decodeMappedKeysTest() throws IOException {
+    FeederDecoder decoder = FeederDecoder.compile(createFeeder("dump1090-fa", createMapping()));
+
+    Aircraft aircraft = decode(decoder, "{\"hex\":\"3C6444 \",\"lat\":53.5,\"lon\":10.0,\"alt_baro\":35000," +
+        "\"flight\":\"DLH123  \",\"gs\":450,\"squawk\":\"1000\",\"unknown\":{\"x\":[1,2]}}");
+
+    assertEquals("3c6444", aircraft.getHex());
+    assertEquals(53.5, aircraft.getLatitude());
+    assertEquals(10.0, aircraft.getLongitude());
+    assertTrue(aircraft.getSendWithPos());
+    assertEquals(35000, aircraft.getAltitude());
+    assertFalse(aircraft.getOnGround());
+    assertEquals("DLH123", aircraft.getFlightId());
+    assertEquals(450, aircraft.getSpeed());
+    assertEquals("1000", aircraft.getSquawk());
+    assertTrue(aircraft.getFeederList().contains("test"));
+  }
+
+  @Test
+  public void decodeAircraftOnGroundWithoutPositionTest() throws IOException {
+    FeederDecoder decoder = FeederDecoder.compile(createFeeder("dump1090-fa", createMapping()));
+
+    Aircraft aircraft = decode(decoder, "{\"hex\":\"3c6444\",\"alt_baro\":\"ground\"}");
+    assertEquals(0, aircraft.getAltitude());
+    assertTrue(aircraft.getOnGround());
+    assertFalse(aircraft.getSendWithPos());
+    assertNull(aircraft.getLatitude());
+
+    assertNull(decode(decoder, "{\"lat\":53.5,\"lon\":10.0}"));
+  }
+
+  private static Aircraft decode(FeederDecoder decoder, String json) throws IOException {
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+      return decoder.decode(parser, decoder.createRecordState(null));
+    }
+  }
+
+  private static Feeder createFeeder(String type, FeederMapping mapping) {
+    Feeder feeder = new Feeder("test", "127.0.0.1", type, "color");
+    feeder.setMapping(mapping);
+    return feeder;
+  }
+
+  private static FeederMapping createMapping() {
+    FeederMapping mapping = new FeederMapping();
+    mapping.setHex("hex");
+    mapping.setLatitude("lat");
+    mapping.setLongitude("lon");
+    mapping.setAltitude("alt_baro");
+    mapping.setFlightId("flight");
+    mapping.setSpeed("gs");
+    mapping.setSquawk("squawk");
+    return mapping;
+  }
+}
@@ -0,0 +1,97 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.config.StaticValues;
+import com.amnesica.belugaproject.services.aircraft.FeederPollState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeederPollStateTest {
+
+  @Test
+  public void pollAfterTargetIntervalTest() {
+    FeederPollState pollState = new FeederPollState(1000);
+    assertTrue(pollState.isDue(0));
+
+    pollState.onSnapshot(10000, 5000L);
+
+    assertFalse(pollState.isDue(10999));
+    assertTrue(pollState.isDue(11000));
+  }
+
+  @Test
+  public void alignToSlowerPublishIntervalOfFeederTest() {
+    FeederPollState pollState = new FeederPollState(1000);
+
+    // Feeder veröffentlicht alle 5 Sekunden, dazwischen ist der Datenstand unverändert
+    pollState.onSnapshot(10000, 10000L);
+    pollState.onUnchanged(11000);
+    assertEquals(11000 + StaticValues.INTERVAL_MIN_POLL_LOCAL_FEEDER, pollState.getNextPollTime());
+    pollState.onSnapshot(15000, 15000L);
+
+    assertEquals(5000, pollState.getEffectiveInterval());
+    assertEquals(20000, pollState.getNextPollTime());
+
+    // Unveränderter Datenstand wird nach einem Viertel des Intervalls erneut abgefragt
+    pollState.onUnchanged(20000);
+    assertEquals(21250, pollState.getNextPollTime());
+  }
+
+  @Test
+  public void shrinkPublishIntervalWhenFeederGetsFasterTest() {
+    FeederPollState pollState = new FeederPollState(1000);
+    pollState.onSnapshot(10000, 10000L);
+    pollState.onUnchanged(11000);
+    pollState.onSnapshot(15000, 15000L);
+    assertEquals(5000, pollState.getEffectiveInterval());
+
+    // Feeder veröffentlicht jetzt jede Sekunde, jede Abfrage liefert einen neuen Datenstand
+    long time = 20000;
+    for (int i = 0; i < 20; i++) {
+      pollState.onSnapshot(time, time);
+      time = pollState.getNextPollTime();
+    }
+
+    assertEquals(1000, pollState.getEffectiveInterval());
+  }
+
+  @Test
+  public void exponentialBackoffOnFailureTest() {
+    FeederPollState pollState = new FeederPollState(1000);
+
+    pollState.onFailure(0);
+    assertEquals(2000, pollState.getNextPollTime());
+    pollState.onFailure(0);
+    assertEquals(4000, pollState.getNextPollTime());
+    pollState.onFailure(0);
+    assertEquals(8000, pollState.getNextPollTime());
+
+    for (int i = 0; i < 20; i++) {
+      pollState.onFailure(0);
+    }
+    assertEquals(StaticValues.INTERVAL_MAX_BACKOFF_LOCAL_FEEDER, pollState.getNextPollTime());
+
+    // Erfolgreiche Abfrage setzt Backoff zurück
+    pollState.onSnapshot(100000, null);
+    assertEquals(0, pollState.getConsecutiveFailures());
+    assertEquals(101000, pollState.getNextPollTime());
+  }
+
+  @Test
+  public void reenteredThresholdFollowsSnapshotGapTest() {
+    FeederPollState pollState = new FeederPollState(5000);
+    assertEquals(StaticValues.THRESHOLD_REENTERED_AIRCRAFT, pollState.getReenteredThreshold());
+
+    pollState.onSnapshot(10000, 10000L);
+    assertEquals(StaticValues.THRESHOLD_REENTERED_AIRCRAFT, pollState.getReenteredThreshold());
+
+    // Konfiguriertes Intervall von 5 Sekunden
+    pollState.onSnapshot(15000, 15000L);
+    assertEquals(7500, pollState.getReenteredThreshold());
+
+    // Nach Backoff ist der Abstand zum vorherigen Datenstand größer
+    pollState.onFailure(15000);
+    pollState.onSnapshot(pollState.getNextPollTime(), 25000L);
+    assertEquals(15000, pollState.getReenteredThreshold());
+  }
+}
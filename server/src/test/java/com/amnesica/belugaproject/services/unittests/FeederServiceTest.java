@@ -0,0 +1,268 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.config.CborConfig;
+import com.amnesica.belugaproject.config.Configuration;
+import com.amnesica.belugaproject.entities.aircraft.Aircraft;
+import com.amnesica.belugaproject.entities.aircraft.AircraftSuperclass;
+import com.amnesica.belugaproject.entities.aircraft.RemoteAircraft;
+import com.amnesica.belugaproject.services.aircraft.*;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FeederServiceTest {
+
+  @Mock
+  private LocalFeederService localFeederService;
+  @Mock
+  private RemoteService remoteService;
+  @Mock
+  private SpacecraftService spacecraftService;
+  @Mock
+  private AircraftService aircraftService;
+  @Mock
+  private LiveAircraftService liveAircraftService;
+  @Mock
+  private Configuration configuration;
+  @Mock
+  private CborConfig cborConfig;
+  @Spy
+  private MetricsService metricsService = new MetricsService();
+  @Spy
+  private ObjectMapper objectMapper = new ObjectMapper();
+
+  @InjectMocks
+  private FeederService feederService;
+
+  private final MockHttpServletRequest httpRequest = new MockHttpServletRequest();
+
+  private final Aircraft hamburg = new Aircraft("3c6444", 53.5, 10.0);
+  private final Aircraft munich = new Aircraft("3c6445", 48.1, 11.5);
+  private final Aircraft withoutPosition = new Aircraft("3c6446");
+
+  @BeforeEach
+  public void setup() {
+    feederService.registerMetrics();
+
+    when(localFeederService.getPlanesOfFeeders(anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+        eq(List.of("feeder")), anyLong(), eq(AircraftFilter.NONE)))
+        .thenAnswer(invocation -> new ArrayList<>(List.of(hamburg, munich, withoutPosition)));
+  }
+
+  @Test
+  public void filterSharedSnapshotPerRequestTest() {
+    final Set<String> resultHamburg = getHexOfPlanes(9, 53, 11, 54, null);
+    final Set<String> resultMunich = getHexOfPlanes(11, 48, 12, 49, null);
+    final Set<String> resultAll = getHexOfPlanes(-180, -90, 180, 90, null);
+
+    assertEquals(Set.of("3c6444", "3c6446"), resultHamburg);
+    assertEquals(Set.of("3c6445", "3c6446"), resultMunich);
+    assertEquals(Set.of("3c6444", "3c6445", "3c6446"), resultAll);
+
+    // Jede Anfrage wurde entweder berechnet oder hat einen gemeinsamen Stand genutzt
+    final Map<String, Object> metrics = metricsService.getMetrics();
+    assertEquals(3L, (long) metrics.get("aircraft.requests.computed") + (long) metrics.get("aircraft.requests.coalesced"));
+  }
+
+  @Test
+  public void querySharedSnapshotWithinQuantizedExtentTest() {
+    assertEquals(Set.of("3c6444", "3c6446"), getHexOfPlanes(9.2, 53.1, 10.9, 53.9, null));
+
+    // Gemeinsamer Stand wird nur für den gerundeten Extent über den räumlichen Index abgefragt
+    verify(localFeederService).getPlanesOfFeeders(eq(9.0), eq(53.0), eq(11.0), eq(54.0), eq(List.of("feeder")),
+        anyLong(), eq(AircraftFilter.NONE));
+  }
+
+  @Test
+  public void queryRemotePlanesWithinQuantizedExtentTest() {
+    feederService.getPlanes(9.2, 53.1, 10.9, 53.9, List.of("feeder"), "Opensky", false, null, AircraftFilter.NONE,
+        httpRequest);
+    verify(remoteService).getRemotePlanesWithinExtent(9.0, 53.0, 11.0, 54.0, AircraftFilter.NONE, "Opensky");
+
+    // Über den 180. Längengrad werden alle Längengrade abgefragt
+    feederService.getPlanes(170.0, 50.0, -170.0, 60.0, List.of("feeder"), "Opensky", false, null,
+        AircraftFilter.NONE, httpRequest);
+    verify(remoteService).getRemotePlanesWithinExtent(-180.0, 48.0, 180.0, 64.0, AircraftFilter.NONE, "Opensky");
+  }
+
+  @Test
+  public void addMarkedPlaneOutsideOfExtentTest() {
+    when(localFeederService.getMarkedPlane("3c6445", AircraftFilter.NONE)).thenReturn(munich);
+
+    assertEquals(Set.of("3c6444", "3c6445", "3c6446"), getHexOfPlanes(9, 53, 11, 54, "3c6445"));
+  }
+
+  @Test
+  public void returnEmptySetInsteadOfNullOnErrorTest() {
+    reset(localFeederService);
+    when(localFeederService.getPlanesOfFeeders(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), anyLong(),
+        any())).thenThrow(new IllegalStateException("failed"));
+
+    final HashSet<AircraftSuperclass> result = feederService.getPlanes(9.0, 53.0, 11.0, 54.0, List.of("feeder"),
+        null, false, null, AircraftFilter.NONE, httpRequest);
+
+    assertNotNull(result);
+    assertTrue(result.isEmpty());
+  }
+
+  @Test
+  public void writePreSerializedJsonOfPublishedAircraftTest() throws Exception {
+    // JSON-Fragment von hamburg ist im veröffentlichten Stand vorhanden, withoutPosition wird serialisiert
+    final byte[] jsonHamburg = "{\"hex\":\"3c6444\",\"preSerialized\":true}".getBytes(StandardCharsets.UTF_8);
+    when(liveAircraftService.getPublishedSnapshot()).thenReturn(new AircraftSnapshot(1, 0,
+        Map.of(hamburg.getHex(), hamburg), Map.of(hamburg.getHex(), jsonHamburg)));
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    feederService.writePlanes(9.0, 53.0, 11.0, 54.0, List.of("feeder"), null, false, null, AircraftFilter.NONE, null, null,
+        false, httpRequest, outputStream);
+
+    final JsonNode json = new ObjectMapper().readTree(outputStream.toByteArray());
+    assertEquals(2, json.size());
+    assertEquals("3c6444", json.get(0).get("hex").asText());
+    assertTrue(json.get(0).get("preSerialized").asBoolean());
+    assertEquals("3c6446", json.get(1).get("hex").asText());
+    assertNull(json.get(1).get("preSerialized"));
+  }
+
+  @Test
+  public void writeMapProjectionOfPlanesTest() throws Exception {
+    hamburg.setOperatorName("Lufthansa");
+    hamburg.setCategory("A3");
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    feederService.writePlanes(9.0, 53.0, 11.0, 54.0, List.of("feeder"), null, false, null, AircraftFilter.NONE, List.of("map"),
+        null, false, httpRequest, outputStream);
+
+    final JsonNode json = new ObjectMapper().readTree(outputStream.toByteArray());
+    assertEquals(2, json.size());
+    assertEquals("3c6444", json.get(0).get("hex").asText());
+    assertEquals(53.5, json.get(0).get("latitude").asDouble());
+    assertEquals("A3", json.get(0).get("category").asText());
+    assertNull(json.get(0).get("operatorName"));
+    assertNull(json.get(0).get("reenteredAircraft"));
+
+    // Felder ohne Wert werden ausgelassen
+    assertEquals(1, json.get(1).size());
+    verify(liveAircraftService, never()).getPublishedSnapshot();
+  }
+
+  @Test
+  public void writeSelectedFieldsOfPlanesTest() throws Exception {
+    hamburg.setSquawk("1000");
+    hamburg.setOperatorName("Lufthansa");
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    feederService.writePlanes(9.0, 53.0, 11.0, 54.0, List.of("feeder"), null, false, null, AircraftFilter.NONE,
+        List.of("squawk", "operatorName", "unknown"), null, false, httpRequest, outputStream);
+
+    // hex ist immer enthalten, nicht auswählbare oder unbekannte Felder werden ignoriert
+    final JsonNode json = new ObjectMapper().readTree(outputStream.toByteArray());
+    assertEquals(2, json.get(0).size());
+    assertEquals("3c6444", json.get(0).get("hex").asText());
+    assertEquals("1000", json.get(0).get("squawk").asText());
+  }
+
+  @Test
+  public void writeCborWithFixedPointCoordinatesAndStringReferencesTest() throws Exception {
+    when(cborConfig.getCborMapper()).thenReturn(CborConfig.createCborMapper(new Jackson2ObjectMapperBuilder()));
+    when(liveAircraftService.getPublishedSnapshot()).thenReturn(AircraftSnapshot.EMPTY);
+    hamburg.setType("A320");
+    munich.setType("A320");
+
+    final ByteArrayOutputStream jsonStream = new ByteArrayOutputStream();
+    feederService.writePlanes(-180.0, -90.0, 180.0, 90.0, List.of("feeder"), null, false, null, AircraftFilter.NONE, null, null,
+        false, httpRequest, jsonStream);
+    final ByteArrayOutputStream cborStream = new ByteArrayOutputStream();
+    feederService.writePlanes(-180.0, -90.0, 180.0, 90.0, List.of("feeder"), null, false, null, AircraftFilter.NONE, null, null,
+        true, httpRequest, cborStream);
+
+    final JsonNode cbor = new CBORMapper().readTree(cborStream.toByteArray());
+    assertEquals(3, cbor.size());
+    assertTrue(cborStream.size() < jsonStream.size());
+
+    // Koordinaten als Dezimalbruch [-6, Wert * 10^6] (je nach Parser als Array oder BigDecimal gelesen),
+    // wiederholte Strings werden über String-Referenzen aufgelöst
+    final JsonNode latitude = findByHex(cbor, "3c6444").get("latitude");
+    assertFalse(latitude.isDouble());
+    final BigDecimal value = latitude.isArray() ?
+        BigDecimal.valueOf(latitude.get(1).asLong(), -latitude.get(0).asInt()) : latitude.decimalValue();
+    assertEquals(0, new BigDecimal("53.5").compareTo(value));
+    assertEquals("A320", findByHex(cbor, "3c6444").get("type").asText());
+    assertEquals("A320", findByHex(cbor, "3c6445").get("type").asText());
+  }
+
+  @Test
+  public void writeDeltaOfPlanesTest() throws Exception {
+    when(liveAircraftService.getPublishedSnapshot()).thenReturn(AircraftSnapshot.EMPTY);
+    when(localFeederService.getPlanesDelta(9.0, 53.0, 11.0, 54.0, List.of("feeder"), 41, AircraftFilter.NONE))
+        .thenReturn(new AircraftDelta(42, false, List.of(hamburg), List.of("3c6445")));
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    feederService.writePlanesDelta(9.0, 53.0, 11.0, 54.0, List.of("feeder"), null, false, null, AircraftFilter.NONE, 41,
+        httpRequest, outputStream);
+
+    final JsonNode json = new ObjectMapper().readTree(outputStream.toByteArray());
+    assertEquals(42, json.get("version").asLong());
+    assertFalse(json.get("full").asBoolean());
+    assertEquals(1, json.get("aircraft").size());
+    assertEquals("3c6444", json.get("aircraft").get(0).get("hex").asText());
+    assertEquals("3c6445", json.get("removed").get(0).asText());
+    assertEquals(0, json.get("others").size());
+  }
+
+  @Test
+  public void writeClusteredLocalAndRemotePlanesTest() throws Exception {
+    when(configuration.getClusterMaxZoom()).thenReturn(7);
+    // Remote-Flugzeug in der Zelle von hamburg und Duplikat eines lokalen Flugzeugs
+    when(remoteService.getRemotePlanesWithinExtent(anyDouble(), anyDouble(), anyDouble(), anyDouble(),
+        eq(AircraftFilter.NONE), eq("Opensky")))
+        .thenReturn(List.of(new RemoteAircraft("3c6447", 53.6, 10.1), new RemoteAircraft("3c6444", 53.5, 10.0)));
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    feederService.writePlanes(-180.0, -90.0, 180.0, 90.0, List.of("feeder"), "Opensky", false, "3c6445",
+        AircraftFilter.NONE, List.of("map"), 4.0, false, httpRequest, outputStream);
+
+    // Markiertes Flugzeug und Flugzeug ohne Position werden einzeln geschrieben, Duplikate nicht gezählt
+    final JsonNode json = new ObjectMapper().readTree(outputStream.toByteArray());
+    assertEquals(3, json.size());
+    assertEquals(Set.of("3c6445", "3c6446"), Set.of(json.get(0).get("hex").asText(), json.get(1).get("hex").asText()));
+    assertTrue(json.get(2).get("cluster").asBoolean());
+    assertEquals(2, json.get(2).get("count").asInt());
+    assertEquals(1L, metricsService.getMetrics().get("aircraft.clusters"));
+  }
+
+  private JsonNode findByHex(JsonNode array, String hex) {
+    for (JsonNode node : array) {
+      if (hex.equals(node.get("hex").asText())) return node;
+    }
+    return fail("Aircraft " + hex + " not found");
+  }
+
+  private Set<String> getHexOfPlanes(double lomin, double lamin, double lomax, double lamax, String markedHex) {
+    final HashSet<AircraftSuperclass> result = feederService.getPlanes(lomin, lamin, lomax, lamax, List.of("feeder"),
+        null, false, markedHex, AircraftFilter.NONE, httpRequest);
+    assertNotNull(result);
+    return result.stream().map(AircraftSuperclass::getHex).collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,58 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.services.trails.LastTrailTimestampMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class LastTrailTimestampMapTest {
+
+  private final LastTrailTimestampMap map = new LastTrailTimestampMap();
+
+  @Test
+  public void putAndGetPerHexAndFeederTest() {
+    map.put("3c6444", "feeder1", 1000L);
+    map.put("3c6444", "feeder2", 2000L);
+
+    assertEquals(1000L, map.get("3c6444", "feeder1"));
+    assertEquals(2000L, map.get("3c6444", "feeder2"));
+    assertEquals(LastTrailTimestampMap.NO_TIMESTAMP, map.get("3c6445", "feeder1"));
+    assertEquals(LastTrailTimestampMap.NO_TIMESTAMP, map.get("3c6444", "feeder3"));
+  }
+
+  @Test
+  public void keepNewestTimestampTest() {
+    map.put("3c6444", "feeder1", 2000L);
+    map.put("3c6444", "feeder1", 1000L);
+
+    assertEquals(2000L, map.get("3c6444", "feeder1"));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  public void nonIcaoHexTest() {
+    map.put("~3c6444", "feeder1", 1000L);
+    map.put("3c6444", "feeder1", 2000L);
+    map.put("not-a-hex", "feeder1", 3000L);
+
+    assertEquals(1000L, map.get("~3c6444", "feeder1"));
+    assertEquals(2000L, map.get("3c6444", "feeder1"));
+    assertEquals(3000L, map.get("not-a-hex", "feeder1"));
+    assertEquals(3, map.size());
+  }
+
+  @Test
+  public void removeNotNewerThanTest() {
+    for (int i = 0; i < 5000; i++) {
+      map.put(Integer.toHexString(i), "feeder1", i);
+    }
+    map.put("not-a-hex", "feeder1", 10L);
+
+    map.removeNotNewerThan(2499L);
+
+    assertEquals(2500, map.size());
+    assertEquals(LastTrailTimestampMap.NO_TIMESTAMP, map.get(Integer.toHexString(100), "feeder1"));
+    assertEquals(LastTrailTimestampMap.NO_TIMESTAMP, map.get("not-a-hex", "feeder1"));
+    assertEquals(4999L, map.get(Integer.toHexString(4999), "feeder1"));
+  }
+}
@@ -0,0 +1,57 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.services.helper.LookupCache;
+import com.amnesica.belugaproject.services.helper.MetricsService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LookupCacheTest {
+
+  private final MetricsService metricsService = new MetricsService();
+  private final LookupCache<String, String> cache = new LookupCache<>("operator", 100, Duration.ofHours(1),
+      Duration.ofMinutes(10), metricsService);
+
+  @Test
+  public void cacheFoundAndNotFoundValuesTest() {
+    final Map<String, String> database = Map.of("DLH", "Lufthansa");
+    final AtomicInteger queries = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals("Lufthansa", cache.get("DLH", key -> {
+        queries.incrementAndGet();
+        return database.get(key);
+      }));
+      // Nicht gefundener Key wird ebenfalls gespeichert
+      assertNull(cache.get("XXX", key -> {
+        queries.incrementAndGet();
+        return database.get(key);
+      }));
+    }
+
+    assertEquals(2, queries.get());
+    assertEquals(4.0 / 6, cache.getHitRate(), 1e-9);
+    assertEquals(4.0 / 6, metricsService.getMetrics().get("cache.operator.hitrate"));
+  }
+
+  @Test
+  public void doNotCacheFailedQueryTest() {
+    assertThrows(IllegalStateException.class, () -> cache.get("DLH", key -> {
+      throw new IllegalStateException("DB error");
+    }));
+
+    assertEquals("Lufthansa", cache.get("DLH", key -> "Lufthansa"));
+  }
+
+  @Test
+  public void invalidateAllTest() {
+    cache.get("DLH", key -> "Lufthansa");
+    cache.invalidateAll();
+
+    assertEquals("Deutsche Lufthansa", cache.get("DLH", key -> "Deutsche Lufthansa"));
+  }
+}
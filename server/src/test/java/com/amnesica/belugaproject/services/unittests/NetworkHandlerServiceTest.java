@@ -1,6 +1,7 @@
 package com.amnesica.belugaproject.services.unittests;
 
 import com.amnesica.belugaproject.services.network.NetworkHandlerService;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,7 +15,12 @@ import software.xdev.mockserver.model.MediaType;
 import software.xdev.mockserver.netty.MockServer;
 import software.xdev.mockserver.verify.VerificationTimes;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static software.xdev.mockserver.model.HttpRequest.request;
@@ -145,6 +151,59 @@ public class NetworkHandlerServiceTest {
     assertNull(result);
   }
 
+  @Test
+  public void makeConditionalStreamingServiceCallLocalFeederNotModifiedTest() {
+    // Setup: Feeder antwortet mit 304, wenn das ETag der letzten Antwort mitgeschickt wird
+    String jsonResponse = "{\"now\": 1730026214.001, \"aircraft\": []}";
+    mockServerClient.when(request().withMethod("GET").withPath("/api/conditional").withHeader("If-None-Match", "\"abc\"")).respond(response().withStatusCode(304));
+    mockServerClient.when(request().withMethod("GET").withPath("/api/conditional")).respond(response().withStatusCode(200).withHeader("ETag", "\"abc\"").withContentType(MediaType.APPLICATION_JSON).withBody(jsonResponse));
+
+    // Execute
+    String first = networkHandlerService.makeConditionalStreamingServiceCallLocalFeeder(BASE_URL + "/api/conditional", 5000, this::readString, () -> "not modified");
+    String second = networkHandlerService.makeConditionalStreamingServiceCallLocalFeeder(BASE_URL + "/api/conditional", 5000, this::readString, () -> "not modified");
+
+    // Verify
+    assertEquals(jsonResponse, first);
+    assertEquals("not modified", second);
+    mockServerClient.verify(request().withMethod("GET").withPath("/api/conditional"), VerificationTimes.exactly(2));
+    mockServerClient.verify(request().withMethod("GET").withPath("/api/conditional").withHeader("If-None-Match", "\"abc\""), VerificationTimes.exactly(1));
+  }
+
+  @Test
+  public void makeConditionalStreamingServiceCallLocalFeederWithoutValidatorsTest() {
+    // Setup: Feeder liefert weder ETag noch Last-Modified
+    String jsonResponse = "{\"now\": 1730026214.001, \"aircraft\": []}";
+    mockServerClient.when(request().withMethod("GET").withPath("/api/unconditional")).respond(response().withStatusCode(200).withContentType(MediaType.APPLICATION_JSON).withBody(jsonResponse));
+
+    // Execute
+    networkHandlerService.makeConditionalStreamingServiceCallLocalFeeder(BASE_URL + "/api/unconditional", 5000, this::readString, () -> "not modified");
+    String second = networkHandlerService.makeConditionalStreamingServiceCallLocalFeeder(BASE_URL + "/api/unconditional", 5000, this::readString, () -> "not modified");
+
+    // Verify
+    assertEquals(jsonResponse, second);
+    mockServerClient.verify(request().withMethod("GET").withPath("/api/unconditional").withHeader("If-None-Match"), VerificationTimes.exactly(0));
+    mockServerClient.verify(request().withMethod("GET").withPath("/api/unconditional").withHeader("If-Modified-Since"), VerificationTimes.exactly(0));
+  }
+
+  @Test
+  @SneakyThrows
+  public void makeStreamingServiceCallLocalFeederGzipFileTest() {
+    // Setup: Feeder liefert eine gepackte Datei (bspw. aircraft.json.gz) ohne Content-Encoding
+    String jsonResponse = "{\"now\": 1730026214.001, \"aircraft\": []}";
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+      gzipStream.write(jsonResponse.getBytes(StandardCharsets.UTF_8));
+    }
+    mockServerClient.when(request().withMethod("GET").withPath("/api/aircraft.json.gz")).respond(response().withStatusCode(200).withBody(compressed.toByteArray()));
+
+    // Execute
+    String result = networkHandlerService.makeStreamingServiceCallLocalFeeder(BASE_URL + "/api/aircraft.json.gz", 5000, this::readString);
+
+    // Verify: Body wird entpackt, gzip wird beim Feeder angefragt
+    assertEquals(jsonResponse, result);
+    mockServerClient.verify(request().withMethod("GET").withPath("/api/aircraft.json.gz").withHeader("Accept-Encoding", "gzip"));
+  }
+
   @Test
   public void makeServiceCallWithComplexJsonResponseTest() {
     // Setup mock response with a more complex JSON
@@ -213,6 +272,8 @@ public class NetworkHandlerServiceTest {
     // Verify
     mockServerClient.verify(request().withMethod("POST").withPath("/auth/realms/opensky-network/protocol/openid-connect/token"), VerificationTimes.exactly(1));
   }
-}
-
 
+  private String readString(InputStream inputStream) throws IOException {
+    return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+  }
+}
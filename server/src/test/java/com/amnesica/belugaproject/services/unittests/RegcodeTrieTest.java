@@ -0,0 +1,54 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.entities.data.RegcodeData;
+import com.amnesica.belugaproject.services.data.RegcodeTrie;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RegcodeTrieTest {
+
+  private final RegcodeTrie regcodeTrie = RegcodeTrie.of(List.of(
+      createRegcodeData("VP-", "British Overseas Territories", null),
+      createRegcodeData("VP-B", "Bermuda", "U+1F1E7 U+1F1F2"),
+      createRegcodeData("N", "United States", "U+1F1FA U+1F1F8"),
+      createRegcodeData("D-", "Germany", "U+1F1E9 U+1F1EA"),
+      createRegcodeData("", "Ignored", null)));
+
+  @Test
+  public void findLongestPrefixTest() {
+    assertEquals(4, regcodeTrie.size());
+
+    assertEquals("VP-B", regcodeTrie.findLongestPrefix("VP-BAB").regcodePrefix());
+    assertEquals("Bermuda", regcodeTrie.findLongestPrefix("VP-BAB").regcodeName());
+    assertEquals("VP-", regcodeTrie.findLongestPrefix("VP-CAB").regcodePrefix());
+    assertEquals("N", regcodeTrie.findLongestPrefix("N123AB").regcodePrefix());
+    assertEquals("D-", regcodeTrie.findLongestPrefix("d-aima").regcodePrefix());
+  }
+
+  @Test
+  public void noMatchingPrefixTest() {
+    assertNull(regcodeTrie.findLongestPrefix("G-EUUA"));
+    assertNull(regcodeTrie.findLongestPrefix("V"));
+    assertNull(regcodeTrie.findLongestPrefix(""));
+    assertNull(regcodeTrie.findLongestPrefix(null));
+    assertNull(RegcodeTrie.EMPTY.findLongestPrefix("D-AIMA"));
+    assertTrue(RegcodeTrie.EMPTY.isEmpty());
+  }
+
+  @Test
+  public void flagIsConvertedToHtmlTest() {
+    assertEquals("&#x1F1E9;&#x1F1EA", regcodeTrie.findLongestPrefix("D-AIMA").regcodeFlagHtml());
+    assertNull(regcodeTrie.findLongestPrefix("VP-CAB").regcodeFlagHtml());
+  }
+
+  private RegcodeData createRegcodeData(String prefix, String name, String flag) {
+    final RegcodeData regcodeData = new RegcodeData();
+    regcodeData.setRegcodePrefix(prefix);
+    regcodeData.setRegcodeName(name);
+    regcodeData.setRegcodeFlagUtf8code(flag);
+    return regcodeData;
+  }
+}
@@ -0,0 +1,122 @@
+package com.amnesica.belugaproject.services.unittests;
+
+import com.amnesica.belugaproject.services.helper.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+  private final SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+  @Test
+  public void concurrentCallersShareOneComputationTest() throws Exception {
+    final int numberCallers = 8;
+    final AtomicInteger computations = new AtomicInteger();
+    final CountDownLatch computationStarted = new CountDownLatch(1);
+    final CountDownLatch releaseComputation = new CountDownLatch(1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(numberCallers);
+    try {
+      final List<Future<String>> results = new ArrayList<>();
+      results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+        computations.incrementAndGet();
+        computationStarted.countDown();
+        await(releaseComputation);
+        return "snapshot";
+      })));
+
+      // Weitere Aufrufer kommen während der laufenden Berechnung an
+      assertTrue(computationStarted.await(5, TimeUnit.SECONDS));
+      for (int i = 1; i < numberCallers; i++) {
+        results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+          computations.incrementAndGet();
+          return "other";
+        })));
+      }
+      while (singleFlight.getSharedCount() < numberCallers - 1) Thread.onSpinWait();
+      releaseComputation.countDown();
+
+      for (Future<String> result : results) {
+        assertEquals("snapshot", result.get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(1, computations.get());
+    assertEquals(1, singleFlight.getComputedCount());
+    assertEquals(numberCallers - 1, singleFlight.getSharedCount());
+  }
+
+  @Test
+  public void keepResultUntilEvictedTest() {
+    assertEquals("tick1", singleFlight.execute(1L, () -> "tick1"));
+    assertEquals("tick1", singleFlight.execute(1L, () -> "other"));
+    assertEquals("tick2", singleFlight.execute(2L, () -> "tick2"));
+    assertEquals(2, singleFlight.size());
+
+    singleFlight.evictIf(tick -> tick < 2);
+
+    assertEquals(1, singleFlight.size());
+    assertEquals("tick1 again", singleFlight.execute(1L, () -> "tick1 again"));
+    assertEquals(3, singleFlight.getComputedCount());
+    assertEquals(1, singleFlight.getSharedCount());
+  }
+
+  @Test
+  public void removeKeyOfFailedComputationTest() {
+    assertThrows(IllegalStateException.class, () -> singleFlight.execute(1L, () -> {
+      throw new IllegalStateException("failed");
+    }));
+
+    // Nächster Aufrufer berechnet das Ergebnis erneut
+    assertEquals("snapshot", singleFlight.execute(1L, () -> "snapshot"));
+    assertEquals(2, singleFlight.getComputedCount());
+  }
+
+  @Test
+  public void releaseWaitingCallersOnErrorTest() throws Exception {
+    final CountDownLatch computationStarted = new CountDownLatch(1);
+    final CountDownLatch releaseComputation = new CountDownLatch(1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<String> computing = executor.submit(() -> singleFlight.execute(1L, () -> {
+        computationStarted.countDown();
+        await(releaseComputation);
+        throw new StackOverflowError();
+      }));
+      assertTrue(computationStarted.await(5, TimeUnit.SECONDS));
+
+      final Future<String> waiting = executor.submit(() -> singleFlight.execute(1L, () -> "other"));
+      while (singleFlight.getSharedCount() < 1) Thread.onSpinWait();
+      releaseComputation.countDown();
+
+      // Wartender Aufrufer erhält den Error, statt zu hängen
+      final ExecutionException computingException = assertThrows(ExecutionException.class,
+          () -> computing.get(5, TimeUnit.SECONDS));
+      assertInstanceOf(StackOverflowError.class, computingException.getCause());
+      final ExecutionException waitingException = assertThrows(ExecutionException.class,
+          () -> waiting.get(5, TimeUnit.SECONDS));
+      assertInstanceOf(StackOverflowError.class, waitingException.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(0, singleFlight.size());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}